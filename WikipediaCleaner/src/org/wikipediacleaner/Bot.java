@@ -476,6 +476,8 @@ public class Bot implements BasicWorkerListener {
     int currentArg = 0;
     boolean check = true;
     boolean onlyRecheck = false;
+    File checkpointFile = null;
+    File revisionsFile = null;
     boolean optionsFinished = false;
     while (!optionsFinished && (actionArgs.length > currentArg)) {
       if ("-nocheck".equalsIgnoreCase(actionArgs[currentArg])) {
@@ -484,6 +486,14 @@ public class Bot implements BasicWorkerListener {
       } else if ("-onlyRecheck".equalsIgnoreCase(actionArgs[currentArg])) {
         onlyRecheck = true;
         currentArg++;
+      } else if ("-checkpoint".equalsIgnoreCase(actionArgs[currentArg]) &&
+                 (actionArgs.length > currentArg + 1)) {
+        checkpointFile = new File(actionArgs[currentArg + 1]);
+        currentArg += 2;
+      } else if ("-revisions".equalsIgnoreCase(actionArgs[currentArg]) &&
+                 (actionArgs.length > currentArg + 1)) {
+        revisionsFile = new File(actionArgs[currentArg + 1]);
+        currentArg += 2;
       } else {
         optionsFinished = true;
       }
@@ -496,14 +506,22 @@ public class Bot implements BasicWorkerListener {
       extractAlgorithms(algorithms, null, actionArgs, currentArg + 2);
       if (actionArgs[currentArg + 1].startsWith("wiki:")) {
         String pageName = actionArgs[currentArg + 1].substring(5);
-        return new ListCWWorker(
+        ListCWWorker worker = new ListCWWorker(
             wiki, null, dumpFile, pageName,
             algorithms, namespaces, check, onlyRecheck);
+        worker.setRange(rangeBegin, rangeEnd);
+        worker.setCheckpointFile(checkpointFile);
+        worker.setRevisionsFile(revisionsFile);
+        return worker;
       }
       File output = new File(actionArgs[currentArg + 1]);
-      return new ListCWWorker(
+      ListCWWorker worker = new ListCWWorker(
           wiki, null, dumpFile, output,
           algorithms, namespaces, check);
+      worker.setRange(rangeBegin, rangeEnd);
+      worker.setCheckpointFile(checkpointFile);
+      worker.setRevisionsFile(revisionsFile);
+      return worker;
     }
 
     return null;
@@ -520,6 +538,12 @@ public class Bot implements BasicWorkerListener {
     // Check for global parameters
     String[] actionArgs = actionConfig.actionArgs;
     int currentArg = 0;
+    File checkpointFile = null;
+    if ((actionArgs.length > currentArg + 1) &&
+        "-checkpoint".equalsIgnoreCase(actionArgs[currentArg])) {
+      checkpointFile = new File(actionArgs[currentArg + 1]);
+      currentArg += 2;
+    }
 
     // Check for parameters
     if (actionArgs.length > currentArg + 1) {
@@ -527,10 +551,13 @@ public class Bot implements BasicWorkerListener {
       List<CheckErrorAlgorithm> algorithms = new ArrayList<CheckErrorAlgorithm>();
       List<CheckErrorAlgorithm> allAlgorithms = new ArrayList<CheckErrorAlgorithm>();
       extractAlgorithms(algorithms, allAlgorithms, actionArgs, currentArg + 1);
-      return new FixDumpWorker(
+      FixDumpWorker worker = new FixDumpWorker(
           wiki, null, dumpFile,
           algorithms, allAlgorithms,
           namespaces);
+      worker.setRange(rangeBegin, rangeEnd);
+      worker.setCheckpointFile(checkpointFile);
+      return worker;
     }
 
     return null;
@@ -28,6 +28,7 @@ import org.apache.commons.net.ftp.FTPReply;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wikipediacleaner.api.constants.EnumLanguage;
+import org.wikipediacleaner.api.dump.MultistreamDumpReader;
 import org.wikipediacleaner.i18n.GT;
 import org.wikipediacleaner.utils.Configuration;
 
@@ -182,49 +183,22 @@ public class DumpDownloader {
         });
         if (files.length > 0) {
           FTPFile ftpFile = files[0];
-          ftp.setFileType(FTP.BINARY_FILE_TYPE);
-          OutputStream output = null;
-
-          // Check if exists
           String fileName = ftpFile.getName();
-          File tmpFile = new File(localDir, fileName + "tmp");
-          File destFile = new File(localDir, fileName);
-          if (destFile.exists()) {
-            log.info("Dump file already exists: " + destFile.getAbsolutePath());
-            return CODE_NOTHING_TO_DO;
-          }
+          result = downloadFile(ftp, dump, fileName, localDir);
 
-          try {
-            // Download
-            log.info("Downloading : " + dump + "/" + fileName);
-            output = new BufferedOutputStream(new FileOutputStream(tmpFile));
-            if (ftp.retrieveFile(dump + "/" + fileName, output)) {
-              output.close();
-              log.info("Retrieved dump file " + fileName);
-              if (destFile.exists()) {
-                destFile.delete();
-              }
-              if (tmpFile.renameTo(destFile)) {
-                return CODE_OK;
-              }
-              log.warn("Unable to rename file from " + tmpFile.getAbsolutePath() + " to " + destFile.getAbsolutePath());
-            } else {
-              reply = ftp.getReplyCode();
-              log.warn("Unable to retrieve file " + fileName + ": " + reply);
-            }
-            result = CODE_ERROR;
-          } catch (IOException e) {
-            log.error("Error downloading dump file", e);
-          } finally {
-            if (output != null) {
-              try {
-                output.close();
-              } catch (IOException e) {
-                // Nothing to do
-              }
-              output = null;
+          // Multistream dumps are useful only with their index
+          String indexName = MultistreamDumpReader.getIndexFileName(fileName);
+          if ((indexName != null) && (result != CODE_ERROR)) {
+            int indexResult = downloadFile(ftp, dump, indexName, localDir);
+            if (indexResult == CODE_ERROR) {
+              result = CODE_ERROR;
+            } else if (indexResult == CODE_OK) {
+              result = CODE_OK;
             }
           }
+          if (result != CODE_ERROR) {
+            return result;
+          }
         }
       }
 
@@ -245,4 +219,63 @@ public class DumpDownloader {
 
     return result;
   }
+
+  /**
+   * Download a file from the FTP server.
+   * 
+   * @param ftp FTP client.
+   * @param dump Directory of the dump in the FTP server.
+   * @param fileName File name.
+   * @param localDir Local directory for download.
+   * @return 0=OK, 1=Nothing to do, 2=Error.
+   * @throws IOException Error with the FTP server.
+   */
+  private static int downloadFile(
+      final FTPClient ftp,
+      final String dump,
+      final String fileName,
+      final String localDir) throws IOException {
+    ftp.setFileType(FTP.BINARY_FILE_TYPE);
+    OutputStream output = null;
+
+    // Check if exists
+    File tmpFile = new File(localDir, fileName + "tmp");
+    File destFile = new File(localDir, fileName);
+    if (destFile.exists()) {
+      log.info("Dump file already exists: " + destFile.getAbsolutePath());
+      return CODE_NOTHING_TO_DO;
+    }
+
+    try {
+      // Download
+      log.info("Downloading : " + dump + "/" + fileName);
+      output = new BufferedOutputStream(new FileOutputStream(tmpFile));
+      if (ftp.retrieveFile(dump + "/" + fileName, output)) {
+        output.close();
+        log.info("Retrieved dump file " + fileName);
+        if (destFile.exists()) {
+          destFile.delete();
+        }
+        if (tmpFile.renameTo(destFile)) {
+          return CODE_OK;
+        }
+        log.warn("Unable to rename file from " + tmpFile.getAbsolutePath() + " to " + destFile.getAbsolutePath());
+      } else {
+        int reply = ftp.getReplyCode();
+        log.warn("Unable to retrieve file " + fileName + ": " + reply);
+      }
+    } catch (IOException e) {
+      log.error("Error downloading dump file", e);
+    } finally {
+      if (output != null) {
+        try {
+          output.close();
+        } catch (IOException e) {
+          // Nothing to do
+        }
+        output = null;
+      }
+    }
+    return CODE_ERROR;
+  }
 }
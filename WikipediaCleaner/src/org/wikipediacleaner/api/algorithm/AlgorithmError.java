@@ -14,7 +14,12 @@ import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.regex.Pattern;
 
 import org.wikipediacleaner.api.check.CheckErrorResult;
@@ -25,6 +30,7 @@ import org.wikipediacleaner.api.configuration.CWConfigurationError;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 import org.wikipediacleaner.i18n.GT;
 import org.wikipediacleaner.utils.Performance;
@@ -38,6 +44,9 @@ public class AlgorithmError {
   /** Flag to trace time spent in each analysis */
   private static boolean traceTime = false;
 
+  /** Minimum length of a page for running algorithms in parallel in interactive use */
+  public final static int PARALLEL_ALGORITHMS_MIN_LENGTH = 20000;
+
   /**
    * @param trace True to force tracing time spent in analysis.
    */
@@ -57,6 +66,27 @@ public class AlgorithmError {
       Collection<CheckErrorAlgorithm> algorithms,
       PageAnalysis pageAnalysis,
       boolean onlyAutomatic) {
+    return analyzeErrors(algorithms, pageAnalysis, onlyAutomatic, false);
+  }
+
+  /**
+   * Analyze a page to find error types.
+   * 
+   * In parallel mode, the page analysis is frozen and the algorithms are run
+   * concurrently in the common fork-join pool: results are still in algorithm order,
+   * and so are the traces of the time spent by each algorithm.
+   * 
+   * @param algorithms Possible algorithms.
+   * @param pageAnalysis Page analysis.
+   * @param onlyAutomatic True if analysis could be restricted to errors automatically fixed.
+   * @param parallel True if algorithms should be run in parallel.
+   * @return Errors found in the page.
+   */
+  public static List<CheckErrorPage> analyzeErrors(
+      Collection<CheckErrorAlgorithm> algorithms,
+      final PageAnalysis pageAnalysis,
+      final boolean onlyAutomatic,
+      boolean parallel) {
     Performance perf = null;
     if (traceTime) {
       perf = Performance.getInstance("CheckError.analyzeErrors");
@@ -66,31 +96,50 @@ public class AlgorithmError {
     if ((algorithms != null) &&
         (pageAnalysis != null) &&
         (pageAnalysis.getContents() != null)) {
-      for (CheckErrorAlgorithm algorithm : algorithms) {
-        if ((algorithm != null) &&
-            (algorithm.isAvailable()) &&
-            (CWConfigurationError.isPriorityActive(algorithm.getPriority()))) {
-          List<CheckErrorResult> results = new ArrayList<CheckErrorResult>();
-          boolean errorFound = false;
-          int errorNumber = algorithm.getErrorNumber();
-          PageAnalysis.Result result = pageAnalysis.getCheckWikiErrors(errorNumber);
-          if (result != null) {
-            errorFound = result.getErrors(results);
-          } else {
-            errorFound = algorithm.analyze(pageAnalysis, results, onlyAutomatic);
-            pageAnalysis.setCheckWikiErrors(errorNumber, errorFound, results);
+      if (parallel) {
+
+        // Run algorithms concurrently on the frozen analysis
+        pageAnalysis.freeze();
+        List<CheckErrorAlgorithm> activeAlgorithms = new ArrayList<>();
+        for (CheckErrorAlgorithm algorithm : algorithms) {
+          if (isActive(algorithm)) {
+            activeAlgorithms.add(algorithm);
           }
-          if (errorFound) {
-            CheckErrorPage errorPage = new CheckErrorPage(pageAnalysis.getPage(), algorithm);
-            errorPage.setResults(true, results);
+        }
+        final long[] durations = new long[activeAlgorithms.size()];
+        List<ForkJoinTask<CheckErrorPage>> tasks = new ArrayList<>();
+        for (int index = 0; index < activeAlgorithms.size(); index++) {
+          final CheckErrorAlgorithm algorithm = activeAlgorithms.get(index);
+          final int taskIndex = index;
+          tasks.add(ForkJoinPool.commonPool().submit(new Callable<CheckErrorPage>() {
+
+            @Override
+            public CheckErrorPage call() {
+              long beginTime = System.nanoTime();
+              CheckErrorPage errorPage = analyzeErrors(algorithm, pageAnalysis, onlyAutomatic, null);
+              durations[taskIndex] = System.nanoTime() - beginTime;
+              return errorPage;
+            }
+          }));
+        }
+
+        // Gather results in algorithm order
+        for (int index = 0; index < tasks.size(); index++) {
+          CheckErrorPage errorPage = tasks.get(index).join();
+          if (perf != null) {
+            perf.printStep(getTraceMessage(activeAlgorithms.get(index), errorPage), durations[index]);
+          }
+          if (errorPage != null) {
             errorsFound.add(errorPage);
           }
-          if (perf != null) {
-            String message =
-                "Error n°" + algorithm.getErrorNumber() +
-                ", " + errorFound +
-                ", " + results.size() + " occurrences";
-            perf.printStep(message);
+        }
+      } else {
+        for (CheckErrorAlgorithm algorithm : algorithms) {
+          if (isActive(algorithm)) {
+            CheckErrorPage errorPage = analyzeErrors(algorithm, pageAnalysis, onlyAutomatic, perf);
+            if (errorPage != null) {
+              errorsFound.add(errorPage);
+            }
           }
         }
       }
@@ -102,6 +151,103 @@ public class AlgorithmError {
     return errorsFound;
   }
 
+  /**
+   * Compute the families of elements of the page analysis needed by algorithms,
+   * ignoring the algorithms that can't detect an error in the raw text.
+   * 
+   * @param algorithms Algorithms.
+   * @param contents Page contents.
+   * @return Families of elements needed (empty if no algorithm can detect an error).
+   */
+  public static Set<AnalysisElement> getRequiredElements(
+      Collection<CheckErrorAlgorithm> algorithms, String contents) {
+    Set<AnalysisElement> elements = EnumSet.noneOf(AnalysisElement.class);
+    if (algorithms != null) {
+      for (CheckErrorAlgorithm algorithm : algorithms) {
+        if ((algorithm != null) && algorithm.isPossibleError(contents)) {
+          elements.addAll(algorithm.getRequiredElements());
+        }
+      }
+    }
+    return elements;
+  }
+
+  /**
+   * Analyze a page with an algorithm, unless the raw text shows that it can't contain the error.
+   * 
+   * @param algorithm Algorithm.
+   * @param analysis Page analysis.
+   * @param errors Errors found in the page.
+   * @param onlyAutomatic True if analysis could be restricted to errors automatically fixed.
+   * @return Flag indicating if the error was found.
+   */
+  public static boolean analyzeIfPossible(
+      CheckErrorAlgorithm algorithm, PageAnalysis analysis,
+      Collection<CheckErrorResult> errors, boolean onlyAutomatic) {
+    if (!algorithm.isPossibleError(analysis.getContents())) {
+      return false;
+    }
+    return algorithm.analyze(analysis, errors, onlyAutomatic);
+  }
+
+  /**
+   * @param algorithm Algorithm.
+   * @return True if the algorithm is active.
+   */
+  private static boolean isActive(CheckErrorAlgorithm algorithm) {
+    return
+        (algorithm != null) &&
+        (algorithm.isAvailable()) &&
+        (CWConfigurationError.isPriorityActive(algorithm.getPriority()));
+  }
+
+  /**
+   * Analyze a page with an algorithm, using the errors memorized in the page analysis if any.
+   * 
+   * @param algorithm Algorithm.
+   * @param pageAnalysis Page analysis.
+   * @param onlyAutomatic True if analysis could be restricted to errors automatically fixed.
+   * @param perf Performance for tracing time (may be null).
+   * @return Error page if errors have been found, null otherwise.
+   */
+  private static CheckErrorPage analyzeErrors(
+      CheckErrorAlgorithm algorithm,
+      PageAnalysis pageAnalysis,
+      boolean onlyAutomatic,
+      Performance perf) {
+    List<CheckErrorResult> results = new ArrayList<CheckErrorResult>();
+    boolean errorFound = false;
+    int errorNumber = algorithm.getErrorNumber();
+    PageAnalysis.Result result = pageAnalysis.getCheckWikiErrors(errorNumber);
+    if ((result != null) && result.isComplete()) {
+      errorFound = result.getErrors(results);
+    } else {
+      errorFound = analyzeIfPossible(algorithm, pageAnalysis, results, onlyAutomatic);
+      pageAnalysis.setCheckWikiErrors(errorNumber, errorFound, results);
+    }
+    CheckErrorPage errorPage = null;
+    if (errorFound) {
+      errorPage = new CheckErrorPage(pageAnalysis.getPage(), algorithm);
+      errorPage.setResults(true, results);
+    }
+    if (perf != null) {
+      perf.printStep(getTraceMessage(algorithm, errorPage));
+    }
+    return errorPage;
+  }
+
+  /**
+   * @param algorithm Algorithm.
+   * @param errorPage Error page if errors have been found, null otherwise.
+   * @return Message for tracing the analysis of a page with an algorithm.
+   */
+  private static String getTraceMessage(CheckErrorAlgorithm algorithm, CheckErrorPage errorPage) {
+    return
+        "Error n°" + algorithm.getErrorNumber() +
+        ", " + (errorPage != null) +
+        ", " + ((errorPage != null) ? errorPage.getResultsCount() : 0) + " occurrences";
+  }
+
   /**
    * Analyze a page to find errors of a given type.
    * 
@@ -123,10 +269,10 @@ public class AlgorithmError {
     List<CheckErrorResult> errorsFound = new ArrayList<CheckErrorResult>();
     int errorNumber = algorithm.getErrorNumber();
     PageAnalysis.Result result = pageAnalysis.getCheckWikiErrors(errorNumber);
-    if (result != null) {
+    if ((result != null) && result.isComplete()) {
       errorFound = result.getErrors(errorsFound);
     } else {
-      errorFound = algorithm.analyze(pageAnalysis, errorsFound, false);
+      errorFound = analyzeIfPossible(algorithm, pageAnalysis, errorsFound, false);
       pageAnalysis.setCheckWikiErrors(errorNumber, errorFound, errorsFound);
     }
     errorPage.setResults(errorFound, errorsFound);
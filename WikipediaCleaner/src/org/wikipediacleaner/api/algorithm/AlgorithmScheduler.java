@@ -0,0 +1,310 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
+import org.wikipediacleaner.api.configuration.CWConfigurationError;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.analysis.PageAnalysis;
+import org.wikipediacleaner.utils.Configuration;
+
+
+/**
+ * Scheduler for running algorithms when only the detection of errors matters.
+ *
+ * <p>The average cost and the hit rate of each algorithm are learned during
+ * detection-only runs, and persisted in the configuration between runs.
+ * Algorithms are run by increasing expected cost for a detection
+ * (average cost divided by hit rate), so that the question being asked
+ * is usually answered after running only a few cheap and selective algorithms.</p>
+ */
+public class AlgorithmScheduler {
+
+  /** Property name for persisting the statistics */
+  public final static String PROPERTIES_ALGORITHM_COSTS = "AlgorithmCosts";
+
+  /** Number of runs of an algorithm above which statistics are halved to follow changes */
+  final static long MAX_COUNT = 100000;
+
+  /** Schedulers for each wiki */
+  private final static Map<EnumWikipedia, AlgorithmScheduler> schedulers = new HashMap<>();
+
+  /**
+   * @param wiki Wiki.
+   * @return Scheduler for the wiki, initialized with the persisted statistics.
+   */
+  public static AlgorithmScheduler getScheduler(EnumWikipedia wiki) {
+    synchronized (schedulers) {
+      AlgorithmScheduler scheduler = schedulers.get(wiki);
+      if (scheduler == null) {
+        scheduler = new AlgorithmScheduler();
+        Configuration config = Configuration.getConfiguration();
+        scheduler.setProperties(config.getProperties(wiki, PROPERTIES_ALGORITHM_COSTS));
+        schedulers.put(wiki, scheduler);
+      }
+      return scheduler;
+    }
+  }
+
+  /**
+   * Persist the statistics of a wiki in the configuration.
+   *
+   * @param wiki Wiki.
+   */
+  public static void save(EnumWikipedia wiki) {
+    AlgorithmScheduler scheduler = null;
+    synchronized (schedulers) {
+      scheduler = schedulers.get(wiki);
+    }
+    if (scheduler != null) {
+      Configuration config = Configuration.getConfiguration();
+      config.setProperties(wiki, PROPERTIES_ALGORITHM_COSTS, scheduler.getProperties());
+      config.save();
+    }
+  }
+
+  /** Statistics for each algorithm, by error number */
+  private final Map<Integer, Statistics> statistics;
+
+  /**
+   * Constructor.
+   */
+  AlgorithmScheduler() {
+    statistics = new HashMap<>();
+  }
+
+  /**
+   * Run algorithms until an error is detected.
+   *
+   * @param algorithms Algorithms.
+   * @param analysis Page analysis.
+   * @param onlyAutomatic True if analysis could be restricted to errors automatically fixed.
+   * @return First algorithm detecting an error (null if no error is detected).
+   */
+  public CheckErrorAlgorithm findFirstDetected(
+      Collection<CheckErrorAlgorithm> algorithms,
+      PageAnalysis analysis,
+      boolean onlyAutomatic) {
+    for (CheckErrorAlgorithm algorithm : order(algorithms)) {
+      if ((algorithm != null) &&
+          (algorithm.isAvailable()) &&
+          (CWConfigurationError.isPriorityActive(algorithm.getPriority())) &&
+          isDetected(algorithm, analysis, onlyAutomatic)) {
+        return algorithm;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Run an algorithm to check if an error is detected, and learn its cost.
+   *
+   * <p>The detection is memorized in the page analysis without the list of errors:
+   * a later analysis needing the list of errors runs the algorithm again
+   * if an error has been detected.</p>
+   *
+   * @param algorithm Algorithm.
+   * @param analysis Page analysis.
+   * @param onlyAutomatic True if analysis could be restricted to errors automatically fixed.
+   * @return True if an error is detected.
+   */
+  public boolean isDetected(
+      CheckErrorAlgorithm algorithm,
+      PageAnalysis analysis,
+      boolean onlyAutomatic) {
+    PageAnalysis.Result result = analysis.getCheckWikiErrors(algorithm.getErrorNumber());
+    if (result != null) {
+      return result.getErrors(null);
+    }
+    long beginTime = System.nanoTime();
+    boolean detected = AlgorithmError.analyzeIfPossible(algorithm, analysis, null, onlyAutomatic);
+    record(algorithm.getErrorNumber(), System.nanoTime() - beginTime, detected);
+    analysis.setCheckWikiErrors(algorithm.getErrorNumber(), detected, null);
+    return detected;
+  }
+
+  /**
+   * Order algorithms by increasing expected cost for a detection.
+   * Algorithms without statistics are run first to learn their cost.
+   *
+   * @param algorithms Algorithms.
+   * @return Ordered algorithms.
+   */
+  public List<CheckErrorAlgorithm> order(Collection<CheckErrorAlgorithm> algorithms) {
+    List<CheckErrorAlgorithm> result = new ArrayList<>();
+    if (algorithms == null) {
+      return result;
+    }
+    result.addAll(algorithms);
+    final Map<CheckErrorAlgorithm, Double> costs = new HashMap<>();
+    for (CheckErrorAlgorithm algorithm : result) {
+      if (algorithm != null) {
+        costs.put(algorithm, Double.valueOf(getExpectedCost(algorithm.getErrorNumber())));
+      }
+    }
+    Collections.sort(result, new Comparator<CheckErrorAlgorithm>() {
+
+      @Override
+      public int compare(CheckErrorAlgorithm o1, CheckErrorAlgorithm o2) {
+        double cost1 = (o1 != null) ? costs.get(o1).doubleValue() : Double.MAX_VALUE;
+        double cost2 = (o2 != null) ? costs.get(o2).doubleValue() : Double.MAX_VALUE;
+        return Double.compare(cost1, cost2);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Record a run of an algorithm.
+   *
+   * @param errorNumber Error number.
+   * @param time Time spent (in ns).
+   * @param detected True if an error has been detected.
+   */
+  void record(int errorNumber, long time, boolean detected) {
+    Statistics algorithmStatistics = null;
+    synchronized (statistics) {
+      Integer key = Integer.valueOf(errorNumber);
+      algorithmStatistics = statistics.get(key);
+      if (algorithmStatistics == null) {
+        algorithmStatistics = new Statistics();
+        statistics.put(key, algorithmStatistics);
+      }
+    }
+    algorithmStatistics.record(time, detected);
+  }
+
+  /**
+   * @param errorNumber Error number.
+   * @return Expected cost (in ns) for a detection, 0 if the algorithm has never been run.
+   */
+  double getExpectedCost(int errorNumber) {
+    Statistics algorithmStatistics = null;
+    synchronized (statistics) {
+      algorithmStatistics = statistics.get(Integer.valueOf(errorNumber));
+    }
+    return (algorithmStatistics != null) ? algorithmStatistics.getExpectedCost() : 0;
+  }
+
+  /**
+   * @return Statistics as properties (error number, then count, time and hits).
+   */
+  Properties getProperties() {
+    Properties properties = new Properties();
+    synchronized (statistics) {
+      for (Entry<Integer, Statistics> entry : statistics.entrySet()) {
+        properties.setProperty(entry.getKey().toString(), entry.getValue().toString());
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * @param properties Statistics as properties (error number, then count, time and hits).
+   */
+  void setProperties(Properties properties) {
+    if (properties == null) {
+      return;
+    }
+    synchronized (statistics) {
+      for (Entry<Object, Object> entry : properties.entrySet()) {
+        try {
+          Integer errorNumber = Integer.valueOf(entry.getKey().toString());
+          Statistics algorithmStatistics = Statistics.fromString(entry.getValue().toString());
+          if (algorithmStatistics != null) {
+            statistics.put(errorNumber, algorithmStatistics);
+          }
+        } catch (NumberFormatException e) {
+          // Ignore incorrect statistics
+        }
+      }
+    }
+  }
+
+  /**
+   * Statistics of an algorithm.
+   */
+  private static class Statistics {
+
+    /** Number of runs */
+    private long count;
+
+    /** Cumulative time (in ns) */
+    private long time;
+
+    /** Number of runs with an error detected */
+    private long hits;
+
+    /**
+     * @param value Statistics as a string.
+     * @return Statistics (null if the string is incorrect).
+     */
+    static Statistics fromString(String value) {
+      String[] values = value.split(",");
+      if (values.length != 3) {
+        return null;
+      }
+      Statistics result = new Statistics();
+      result.count = Long.parseLong(values[0]);
+      result.time = Long.parseLong(values[1]);
+      result.hits = Long.parseLong(values[2]);
+      if ((result.count < 0) || (result.time < 0) || (result.hits < 0) || (result.hits > result.count)) {
+        return null;
+      }
+      return result;
+    }
+
+    /**
+     * @param runTime Time spent (in ns).
+     * @param detected True if an error has been detected.
+     */
+    synchronized void record(long runTime, boolean detected) {
+      count++;
+      time += runTime;
+      if (detected) {
+        hits++;
+      }
+      if (count > MAX_COUNT) {
+        count /= 2;
+        time /= 2;
+        hits /= 2;
+      }
+    }
+
+    /**
+     * @return Expected cost (in ns) for a detection.
+     */
+    synchronized double getExpectedCost() {
+      if (count == 0) {
+        return 0;
+      }
+      double averageCost = (double) time / count;
+      double hitRate = (hits + 1.0) / (count + 2.0);
+      return averageCost / hitRate;
+    }
+
+    /**
+     * @return Statistics as a string.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public synchronized String toString() {
+      return count + "," + time + "," + hits;
+    }
+  }
+}
@@ -9,11 +9,13 @@ package org.wikipediacleaner.api.check.algorithm;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.wikipediacleaner.api.algorithm.Algorithm;
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 import org.wikipediacleaner.gui.swing.component.MWPane;
 
@@ -107,6 +109,19 @@ public interface CheckErrorAlgorithm extends Algorithm {
    */
   public boolean analyze(PageAnalysis analysis, Collection<CheckErrorResult> errors, boolean onlyAutomatic);
 
+  /**
+   * @return Families of elements of the page analysis used for analyzing a page.
+   */
+  public Set<AnalysisElement> getRequiredElements();
+
+  /**
+   * Quick check on the raw text to skip pages that can't contain the error.
+   * 
+   * @param contents Page contents.
+   * @return False if the page can't contain the error, true if it may contain it.
+   */
+  public boolean isPossibleError(String contents);
+
   /**
    * Automatic fixing of all the errors in the page.
    * 
@@ -10,10 +10,12 @@ package org.wikipediacleaner.api.check.algorithm;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.check.HtmlCharacters;
 import org.wikipediacleaner.api.data.PageElementTag;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 
 
@@ -240,6 +242,19 @@ public class CheckErrorAlgorithm011 extends CheckErrorAlgorithmHtmlNamedEntities
     return htmlCharacters;
   }
 
+  /** Families of elements used for analyzing a page */
+  private final static Set<AnalysisElement> REQUIRED_ELEMENTS = AnalysisElement.of(
+      AnalysisElement.COMMENTS, AnalysisElement.TAGS,
+      AnalysisElement.TEMPLATES, AnalysisElement.EXTERNAL_LINKS);
+
+  /**
+   * @return Families of elements of the page analysis used for analyzing a page.
+   */
+  @Override
+  public Set<AnalysisElement> getRequiredElements() {
+    return REQUIRED_ELEMENTS;
+  }
+
   /**
    * Analyze a page to check if errors are present.
    * 
@@ -18,6 +18,8 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.regex.Matcher;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wikipediacleaner.api.check.Actionnable;
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.check.CompositeAction;
@@ -29,12 +31,15 @@ import org.wikipediacleaner.api.data.PageElementTag;
 import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.Suggestion;
 import org.wikipediacleaner.api.data.Suggestion.ElementarySuggestion;
+import org.wikipediacleaner.api.data.SuggestionFilter;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 import org.wikipediacleaner.api.data.analysis.Areas;
 import org.wikipediacleaner.gui.swing.component.MWPaneReplaceAllAction;
 import org.wikipediacleaner.i18n.GT;
 import org.wikipediacleaner.utils.Configuration;
 import org.wikipediacleaner.utils.ConfigurationValueInteger;
+import org.wikipediacleaner.utils.InterruptibleCharSequence;
+import org.wikipediacleaner.utils.InterruptibleCharSequence.BudgetExceededException;
 import org.wikipediacleaner.utils.Performance;
 
 
@@ -44,6 +49,9 @@ import org.wikipediacleaner.utils.Performance;
  */
 public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
 
+  /** Logger */
+  private final static Logger log = LoggerFactory.getLogger(CheckErrorAlgorithm501.class);
+
   public CheckErrorAlgorithm501() {
     super("Spelling and typography");
   }
@@ -71,7 +79,17 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     if (tmpSuggestions.isEmpty()) {
       return false;
     }
-    List<Suggestion> activeSuggestions = new ArrayList<>(tmpSuggestions);
+    List<Suggestion> activeSuggestions = null;
+    if (suggestionFilter != null) {
+      activeSuggestions = suggestionFilter.filter(tmpSuggestions, analysis.getContents());
+      if (log.isDebugEnabled()) {
+        log.debug(
+            "Suggestions skipped for " + analysis.getPage().getTitle() + ": " +
+            (tmpSuggestions.size() - activeSuggestions.size()) + " / " + tmpSuggestions.size());
+      }
+    } else {
+      activeSuggestions = new ArrayList<>(tmpSuggestions);
+    }
 
     // Check spelling in templates
     List<Replacement> replacements = new ArrayList<Replacement>();
@@ -200,6 +218,11 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     // Check every suggestion
     List<ContentsChunk> chunks = computeContentsChunks(analysis, true);
     String contents = analysis.getContents();
+    InterruptibleCharSequence text = new InterruptibleCharSequence(contents);
+    long scannedLength = 0;
+    for (ContentsChunk chunk : chunks) {
+      scannedLength += chunk.getEnd() - chunk.getBegin();
+    }
     Iterator<Suggestion> itSuggestion = suggestions.iterator();
     List<Replacement> tmpReplacements = new ArrayList<CheckErrorAlgorithm501.Replacement>();
     while (itSuggestion.hasNext()) {
@@ -208,46 +231,58 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
         Performance perf = Performance.getInstance("Slow regular expression");
         perf.setThreshold(slowRegexp);
         itSuggestion.remove();
-        Matcher matcher = suggestion.initMatcher(contents);
-        for (ContentsChunk chunk : chunks) {
-          matcher.region(chunk.getBegin(), chunk.getEnd());
-          int authorizedBegin = chunk.getBegin();
-          while (matcher.find()) {
-            int begin = matcher.start();
-            int end = matcher.end();
-            boolean shouldKeep = true;
-            if (shouldKeep && (begin > 0) &&
-                (Character.isLetterOrDigit(contents.charAt(begin))) &&
-                (Character.isLetterOrDigit(contents.charAt(begin - 1)))) {
-              shouldKeep = false;
-            }
-            if (shouldKeep && (end < contents.length()) &&
-                (Character.isLetterOrDigit(contents.charAt(end))) &&
-                (Character.isLetterOrDigit(contents.charAt(end - 1)))) {
-              shouldKeep = false;
-            }
-            if (shouldKeep) {
-              tmpReplacements.clear();
-              shouldKeep = addReplacements(
-                  begin, end, contents, authorizedBegin, chunk.getEnd(),
-                  suggestion, tmpReplacements);
-            }
-            if (shouldKeep && (analysis.getAreas().getEndArea(begin) > begin)) {
-              shouldKeep = false;
-            }
-            if (shouldKeep && (analysis.isInTemplate(begin) != null)) {
-              shouldKeep = false;
-            }
-            if (shouldKeep) {
-              shouldKeep = shouldKeep(contents, begin, end);
-            }
-            if (shouldKeep) {
-              result = true;
-              replacements.addAll(tmpReplacements);
+        text.start(regexpBudget);
+        long beginTime = System.nanoTime();
+        boolean interrupted = false;
+        Matcher matcher = suggestion.initMatcher(text);
+        try {
+          for (ContentsChunk chunk : chunks) {
+            matcher.region(chunk.getBegin(), chunk.getEnd());
+            int authorizedBegin = chunk.getBegin();
+            while (matcher.find()) {
+              int begin = matcher.start();
+              int end = matcher.end();
+              boolean shouldKeep = true;
+              if (shouldKeep && (begin > 0) &&
+                  (Character.isLetterOrDigit(contents.charAt(begin))) &&
+                  (Character.isLetterOrDigit(contents.charAt(begin - 1)))) {
+                shouldKeep = false;
+              }
+              if (shouldKeep && (end < contents.length()) &&
+                  (Character.isLetterOrDigit(contents.charAt(end))) &&
+                  (Character.isLetterOrDigit(contents.charAt(end - 1)))) {
+                shouldKeep = false;
+              }
+              if (shouldKeep) {
+                tmpReplacements.clear();
+                shouldKeep = addReplacements(
+                    begin, end, contents, authorizedBegin, chunk.getEnd(),
+                    suggestion, tmpReplacements);
+              }
+              if (shouldKeep && (analysis.getAreas().getEndArea(begin) > begin)) {
+                shouldKeep = false;
+              }
+              if (shouldKeep && (analysis.isInTemplate(begin) != null)) {
+                shouldKeep = false;
+              }
+              if (shouldKeep) {
+                shouldKeep = shouldKeep(contents, begin, end);
+              }
+              if (shouldKeep) {
+                result = true;
+                replacements.addAll(tmpReplacements);
+              }
+              authorizedBegin = end;
             }
-            authorizedBegin = end;
           }
+        } catch (BudgetExceededException e) {
+          interrupted = true;
+          log.warn(
+              "Time budget exceeded for regular expression " + suggestion.getPatternText() +
+              " in " + analysis.getPage().getTitle());
         }
+        suggestion.getProfile().addInvocation(
+            System.nanoTime() - beginTime, text.getAccessCount(), scannedLength, interrupted);
         perf.printEnd(suggestion.getPatternText());
         perf.release();
       }
@@ -272,6 +307,11 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     // Check every suggestion
     List<ContentsChunk> chunks = computeContentsChunks(analysis, false);
     String contents = analysis.getContents();
+    InterruptibleCharSequence text = new InterruptibleCharSequence(contents);
+    long scannedLength = 0;
+    for (ContentsChunk chunk : chunks) {
+      scannedLength += chunk.getEnd() - chunk.getBegin();
+    }
     Iterator<Suggestion> itSuggestion = suggestions.iterator();
     List<Replacement> tmpReplacements = new ArrayList<CheckErrorAlgorithm501.Replacement>();
     while (itSuggestion.hasNext()) {
@@ -280,27 +320,39 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
         Performance perf = Performance.getInstance("Slow regular expression");
         perf.setThreshold(slowRegexp);
         itSuggestion.remove();
-        Matcher matcher = suggestion.initMatcher(contents);
-        for (ContentsChunk chunk : chunks) {
-          matcher.region(chunk.getBegin(), chunk.getEnd());
-          int authorizedBegin = chunk.getBegin();
-          while (matcher.find()) {
-            int begin = matcher.start();
-            int end = matcher.end();
-            tmpReplacements.clear();
-            boolean shouldKeep = addReplacements(
-                begin, end, contents, authorizedBegin, chunk.getEnd(),
-                suggestion, tmpReplacements);
-            if (shouldKeep) {
-              shouldKeep = shouldKeep(contents, begin, end);
-            }
-            if (shouldKeep) {
-              result = true;
-              replacements.addAll(tmpReplacements);
+        text.start(regexpBudget);
+        long beginTime = System.nanoTime();
+        boolean interrupted = false;
+        Matcher matcher = suggestion.initMatcher(text);
+        try {
+          for (ContentsChunk chunk : chunks) {
+            matcher.region(chunk.getBegin(), chunk.getEnd());
+            int authorizedBegin = chunk.getBegin();
+            while (matcher.find()) {
+              int begin = matcher.start();
+              int end = matcher.end();
+              tmpReplacements.clear();
+              boolean shouldKeep = addReplacements(
+                  begin, end, contents, authorizedBegin, chunk.getEnd(),
+                  suggestion, tmpReplacements);
+              if (shouldKeep) {
+                shouldKeep = shouldKeep(contents, begin, end);
+              }
+              if (shouldKeep) {
+                result = true;
+                replacements.addAll(tmpReplacements);
+              }
+              authorizedBegin = end;
             }
-            authorizedBegin = end;
           }
+        } catch (BudgetExceededException e) {
+          interrupted = true;
+          log.warn(
+              "Time budget exceeded for regular expression " + suggestion.getPatternText() +
+              " in " + analysis.getPage().getTitle());
         }
+        suggestion.getProfile().addInvocation(
+            System.nanoTime() - beginTime, text.getAccessCount(), scannedLength, interrupted);
         perf.printEnd(suggestion.getComment(), suggestion.getPatternText());
         perf.release();
       }
@@ -377,42 +429,55 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     List<PageElementFunction> functions = analysis.getFunctions();
     String contents = analysis.getContents();
     int contentsLength = contents.length();
+    InterruptibleCharSequence text = new InterruptibleCharSequence(contents);
     Iterator<Suggestion> itSuggestion = suggestions.iterator();
     while (itSuggestion.hasNext()) {
       Suggestion suggestion = itSuggestion.next();
       if (suggestion.getPatternText().startsWith("\\{\\{")) {
         itSuggestion.remove();
-        Matcher matcher = suggestion.initMatcher(contents);
-
-        // Check suggestion on each template
-        for (PageElementTemplate template : templates) {
-          int begin = template.getBeginIndex();
-          if (matcher.region(begin, contentsLength).lookingAt()) {
-            int end = matcher.end();
-            if ((end >= contentsLength) ||
-                (!Character.isLetterOrDigit(contents.charAt(end))) ||
-                (!Character.isLetterOrDigit(contents.charAt(end - 1)))) {
-              result |= addReplacements(
-                  begin, end, contents, begin, contentsLength,
-                  suggestion, replacements);
+        text.start(regexpBudget);
+        long beginTime = System.nanoTime();
+        boolean interrupted = false;
+        Matcher matcher = suggestion.initMatcher(text);
+        try {
+
+          // Check suggestion on each template
+          for (PageElementTemplate template : templates) {
+            int begin = template.getBeginIndex();
+            if (matcher.region(begin, contentsLength).lookingAt()) {
+              int end = matcher.end();
+              if ((end >= contentsLength) ||
+                  (!Character.isLetterOrDigit(contents.charAt(end))) ||
+                  (!Character.isLetterOrDigit(contents.charAt(end - 1)))) {
+                result |= addReplacements(
+                    begin, end, contents, begin, contentsLength,
+                    suggestion, replacements);
+              }
             }
           }
-        }
 
-        // Check suggestion on each function
-        for (PageElementFunction function : functions) {
-          int begin = function.getBeginIndex();
-          if (matcher.region(begin, contentsLength).lookingAt()) {
-            int end = matcher.end();
-            if ((end >= contentsLength) ||
-                (!Character.isLetterOrDigit(contents.charAt(end))) ||
-                (!Character.isLetterOrDigit(contents.charAt(end - 1)))) {
-              result |= addReplacements(
-                  begin, end, contents, begin, contentsLength,
-                  suggestion, replacements);
+          // Check suggestion on each function
+          for (PageElementFunction function : functions) {
+            int begin = function.getBeginIndex();
+            if (matcher.region(begin, contentsLength).lookingAt()) {
+              int end = matcher.end();
+              if ((end >= contentsLength) ||
+                  (!Character.isLetterOrDigit(contents.charAt(end))) ||
+                  (!Character.isLetterOrDigit(contents.charAt(end - 1)))) {
+                result |= addReplacements(
+                    begin, end, contents, begin, contentsLength,
+                    suggestion, replacements);
+              }
             }
           }
+        } catch (BudgetExceededException e) {
+          interrupted = true;
+          log.warn(
+              "Time budget exceeded for regular expression " + suggestion.getPatternText() +
+              " in " + analysis.getPage().getTitle());
         }
+        suggestion.getProfile().addInvocation(
+            System.nanoTime() - beginTime, text.getAccessCount(), contentsLength, interrupted);
       }
     }
 
@@ -436,27 +501,40 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     List<PageElementInternalLink> links = analysis.getInternalLinks();
     String contents = analysis.getContents();
     int contentsLength = contents.length();
+    InterruptibleCharSequence text = new InterruptibleCharSequence(contents);
     Iterator<Suggestion> itSuggestion = suggestions.iterator();
     while (itSuggestion.hasNext()) {
       Suggestion suggestion = itSuggestion.next();
       if (suggestion.getPatternText().startsWith("\\[\\[")) {
         itSuggestion.remove();
-        Matcher matcher = suggestion.initMatcher(contents);
-
-        // Check suggestion on each internal link
-        for (PageElementInternalLink link : links) {
-          int begin = link.getBeginIndex();
-          if (matcher.region(begin, contentsLength).lookingAt()) {
-            int end = matcher.end();
-            if ((end >= contentsLength) ||
-                (!Character.isLetterOrDigit(contents.charAt(end))) ||
-                (!Character.isLetterOrDigit(contents.charAt(end - 1)))) {
-              result |= addReplacements(
-                  begin, end, contents, begin, contentsLength,
-                  suggestion, replacements);
+        text.start(regexpBudget);
+        long beginTime = System.nanoTime();
+        boolean interrupted = false;
+        Matcher matcher = suggestion.initMatcher(text);
+        try {
+
+          // Check suggestion on each internal link
+          for (PageElementInternalLink link : links) {
+            int begin = link.getBeginIndex();
+            if (matcher.region(begin, contentsLength).lookingAt()) {
+              int end = matcher.end();
+              if ((end >= contentsLength) ||
+                  (!Character.isLetterOrDigit(contents.charAt(end))) ||
+                  (!Character.isLetterOrDigit(contents.charAt(end - 1)))) {
+                result |= addReplacements(
+                    begin, end, contents, begin, contentsLength,
+                    suggestion, replacements);
+              }
             }
           }
+        } catch (BudgetExceededException e) {
+          interrupted = true;
+          log.warn(
+              "Time budget exceeded for regular expression " + suggestion.getPatternText() +
+              " in " + analysis.getPage().getTitle());
         }
+        suggestion.getProfile().addInvocation(
+            System.nanoTime() - beginTime, text.getAccessCount(), contentsLength, interrupted);
       }
     }
 
@@ -480,27 +558,40 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     List<PageElementTag> tags = analysis.getTags();
     String contents = analysis.getContents();
     int contentsLength = contents.length();
+    InterruptibleCharSequence text = new InterruptibleCharSequence(contents);
     Iterator<Suggestion> itSuggestion = suggestions.iterator();
     while (itSuggestion.hasNext()) {
       Suggestion suggestion = itSuggestion.next();
       if (suggestion.getPatternText().startsWith("<")) {
         itSuggestion.remove();
-        Matcher matcher = suggestion.initMatcher(contents);
-
-        // Check suggestion on each tag
-        for (PageElementTag tag : tags) {
-          int begin = tag.getBeginIndex();
-          if (matcher.region(begin, contentsLength).lookingAt()) {
-            int end = matcher.end();
-            if ((end >= contentsLength) ||
-                (!Character.isLetterOrDigit(contents.charAt(end))) ||
-                (!Character.isLetterOrDigit(contents.charAt(end - 1)))) {
-              result |= addReplacements(
-                  begin, end, contents, begin, contentsLength,
-                  suggestion, replacements);
+        text.start(regexpBudget);
+        long beginTime = System.nanoTime();
+        boolean interrupted = false;
+        Matcher matcher = suggestion.initMatcher(text);
+        try {
+
+          // Check suggestion on each tag
+          for (PageElementTag tag : tags) {
+            int begin = tag.getBeginIndex();
+            if (matcher.region(begin, contentsLength).lookingAt()) {
+              int end = matcher.end();
+              if ((end >= contentsLength) ||
+                  (!Character.isLetterOrDigit(contents.charAt(end))) ||
+                  (!Character.isLetterOrDigit(contents.charAt(end - 1)))) {
+                result |= addReplacements(
+                    begin, end, contents, begin, contentsLength,
+                    suggestion, replacements);
+              }
             }
           }
+        } catch (BudgetExceededException e) {
+          interrupted = true;
+          log.warn(
+              "Time budget exceeded for regular expression " + suggestion.getPatternText() +
+              " in " + analysis.getPage().getTitle());
         }
+        suggestion.getProfile().addInvocation(
+            System.nanoTime() - beginTime, text.getAccessCount(), contentsLength, interrupted);
       }
     }
 
@@ -602,8 +693,8 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     // Remove areas
     if (!nativeRegexp) {
       Areas areas = analysis.getAreas();
-      for (Areas.Area area : areas.getAreas()) {
-        removeArea(chunks, area.getBeginIndex(), area.getEndIndex());
+      for (int area = 0; area < areas.getAreaCount(); area++) {
+        removeArea(chunks, areas.getAreaBeginIndex(area), areas.getAreaEndIndex(area));
       }
     }
 
@@ -988,6 +1079,7 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     allActiveSuggestions.clear();
     automaticActiveSuggestions.clear();
     Map<String, Suggestion> suggestions = getWPCConfiguration().getSuggestions();
+    suggestionFilter = getWPCConfiguration().getSuggestionFilter();
     if (suggestions != null) {
       for (Suggestion suggestion : suggestions.values()) {
         if (suggestion.isActive()) {
@@ -1002,6 +1094,7 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     // Initialize limit for slow regular expressions
     Configuration config = Configuration.getConfiguration();
     slowRegexp = config.getInt(null, ConfigurationValueInteger.SLOW_REGEXP);
+    regexpBudget = config.getInt(null, ConfigurationValueInteger.REGEXP_BUDGET);
   }
 
   /** Active suggestions */
@@ -1010,6 +1103,12 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
   /** Active suggestions with automatic replacements */
   private final List<Suggestion> automaticActiveSuggestions = new LinkedList<>();
 
+  /** Prefilter for finding the suggestions that may match a page */
+  private SuggestionFilter suggestionFilter = null;
+
   /** Limit for reporting a regular expression as being slow */
   private int slowRegexp = 1000;
+
+  /** Time budget for a regular expression on a page (0 for no limit) */
+  private int regexpBudget = 0;
 }
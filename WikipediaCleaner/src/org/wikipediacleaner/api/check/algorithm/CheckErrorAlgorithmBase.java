@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.JTextPane;
 import javax.swing.text.BadLocationException;
@@ -32,7 +33,9 @@ import org.wikipediacleaner.api.configuration.WikiConfiguration;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.MagicWord;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
+import org.wikipediacleaner.api.data.contents.ContentsUtil;
 import org.wikipediacleaner.gui.swing.component.MWPane;
 import org.wikipediacleaner.i18n.GT;
 
@@ -375,6 +378,25 @@ public abstract class CheckErrorAlgorithmBase extends AlgorithmBase implements C
     return internalAutomaticFix(analysis);
   }
 
+  /**
+   * @return Families of elements of the page analysis used for analyzing a page.
+   */
+  @Override
+  public Set<AnalysisElement> getRequiredElements() {
+    return AnalysisElement.ALL;
+  }
+
+  /**
+   * Quick check on the raw text to skip pages that can't contain the error.
+   * 
+   * @param contents Page contents.
+   * @return False if the page can't contain the error, true if it may contain it.
+   */
+  @Override
+  public boolean isPossibleError(String contents) {
+    return true;
+  }
+
   /**
    * @return List of possible global fixes.
    */
@@ -519,6 +541,31 @@ public abstract class CheckErrorAlgorithmBase extends AlgorithmBase implements C
     return startIndex;
   }
 
+  /**
+   * Quick check on the raw text for a possible tag, opening or closing.
+   * 
+   * @param contents Contents.
+   * @param tagName Tag name.
+   * @return True if the contents may contain the tag.
+   */
+  protected static boolean containsTag(String contents, String tagName) {
+    if ((contents == null) || (tagName == null)) {
+      return false;
+    }
+    int index = contents.indexOf('<');
+    while (index >= 0) {
+      int tmpIndex = index + 1;
+      if ((tmpIndex < contents.length()) && (contents.charAt(tmpIndex) == '/')) {
+        tmpIndex = ContentsUtil.moveIndexAfterWhitespace(contents, tmpIndex + 1);
+      }
+      if (contents.regionMatches(true, tmpIndex, tagName, 0, tagName.length())) {
+        return true;
+      }
+      index = contents.indexOf('<', index + 1);
+    }
+    return false;
+  }
+
   /**
    * Search for simple text in page.
    * 
@@ -9,12 +9,14 @@ package org.wikipediacleaner.api.check.algorithm;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.check.HtmlCharacters;
 import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
 import org.wikipediacleaner.api.data.PageElementExternalLink;
 import org.wikipediacleaner.api.data.PageElementTag;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 import org.wikipediacleaner.gui.swing.component.MWPane;
 import org.wikipediacleaner.i18n.GT;
@@ -44,6 +46,29 @@ public abstract class CheckErrorAlgorithmHtmlNamedEntities extends CheckErrorAlg
    */
   protected abstract List<HtmlCharacters> getHtmlCharacters();
 
+  /** Families of elements used for analyzing a page */
+  private final static Set<AnalysisElement> REQUIRED_ELEMENTS = AnalysisElement.of(
+      AnalysisElement.COMMENTS, AnalysisElement.TAGS, AnalysisElement.EXTERNAL_LINKS);
+
+  /**
+   * @return Families of elements of the page analysis used for analyzing a page.
+   */
+  @Override
+  public Set<AnalysisElement> getRequiredElements() {
+    return REQUIRED_ELEMENTS;
+  }
+
+  /**
+   * Quick check on the raw text to skip pages that can't contain the error.
+   * 
+   * @param contents Page contents.
+   * @return False if the page can't contain the error, true if it may contain it.
+   */
+  @Override
+  public boolean isPossibleError(String contents) {
+    return (contents != null) && (contents.indexOf('&') >= 0);
+  }
+
   /**
    * Analyze a page to check if errors are present.
    * 
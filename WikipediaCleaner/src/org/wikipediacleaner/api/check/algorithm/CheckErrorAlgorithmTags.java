@@ -9,9 +9,11 @@
 package org.wikipediacleaner.api.check.algorithm;
 
 import java.util.Collection;
+import java.util.Set;
 
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.data.PageElementTag;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 
 
@@ -55,6 +57,37 @@ public abstract class CheckErrorAlgorithmTags extends CheckErrorAlgorithmBase {
     return result;
   }
 
+  /** Families of elements used for analyzing a page */
+  private final static Set<AnalysisElement> REQUIRED_ELEMENTS = AnalysisElement.of(
+      AnalysisElement.COMMENTS, AnalysisElement.TAGS);
+
+  /**
+   * @return Families of elements of the page analysis used for analyzing a page.
+   */
+  @Override
+  public Set<AnalysisElement> getRequiredElements() {
+    return REQUIRED_ELEMENTS;
+  }
+
+  /**
+   * Quick check on the raw text to skip pages that can't contain the error.
+   * 
+   * @param contents Page contents.
+   * @return False if the page can't contain the error, true if it may contain it.
+   */
+  @Override
+  public boolean isPossibleError(String contents) {
+    String[] tags = getTags();
+    if (tags != null) {
+      for (String tag : tags) {
+        if (containsTag(contents, tag)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * @return Tags to look for.
    */
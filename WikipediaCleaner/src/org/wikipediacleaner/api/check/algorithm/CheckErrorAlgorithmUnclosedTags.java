@@ -9,10 +9,12 @@ package org.wikipediacleaner.api.check.algorithm;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
 import org.wikipediacleaner.api.data.PageElementTag;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 import org.wikipediacleaner.api.data.contents.tag.TagBuilder;
 import org.wikipediacleaner.api.data.contents.tag.TagFormat;
@@ -35,6 +37,34 @@ public abstract class CheckErrorAlgorithmUnclosedTags extends CheckErrorAlgorith
    */
   protected abstract List<String> getTags();
 
+  /** Families of elements used for analyzing a page */
+  private final static Set<AnalysisElement> REQUIRED_ELEMENTS = AnalysisElement.of(
+      AnalysisElement.COMMENTS, AnalysisElement.TAGS);
+
+  /**
+   * @return Families of elements of the page analysis used for analyzing a page.
+   */
+  @Override
+  public Set<AnalysisElement> getRequiredElements() {
+    return REQUIRED_ELEMENTS;
+  }
+
+  /**
+   * Quick check on the raw text to skip pages that can't contain the error.
+   * 
+   * @param contents Page contents.
+   * @return False if the page can't contain the error, true if it may contain it.
+   */
+  @Override
+  public boolean isPossibleError(String contents) {
+    for (String tag : getTags()) {
+      if (containsTag(contents, tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Analyze a page to check if errors are present.
    * 
@@ -164,6 +164,18 @@ public class CWConfigurationError {
     return result;
   }
 
+  /**
+   * Compute a hash of the specific properties, stable between executions.
+   * 
+   * @return Hash of the specific properties.
+   */
+  public int getConfigurationHash() {
+    int hash = generalConfiguration.hashCode();
+    hash = 31 * hash + wikiConfiguration.hashCode();
+    hash = 31 * hash + userConfiguration.hashCode();
+    return hash;
+  }
+
   // =================================================================================
   // Priority
   // =================================================================================
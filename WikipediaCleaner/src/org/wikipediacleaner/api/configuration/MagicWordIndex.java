@@ -0,0 +1,229 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.wikipediacleaner.api.data.MagicWord;
+import org.wikipediacleaner.api.data.MagicWord.ParameterizedAlias;
+
+
+/**
+ * Index for finding magic words by their aliases.
+ *
+ * <p>Aliases without parameter are found with hash maps (exact and case folded).
+ * Aliases with a parameter ($1) are found by the text before or after the parameter,
+ * only the magic words with such an alias being checked.</p>
+ */
+class MagicWordIndex {
+
+  /** Magic words by exact alias */
+  private final Map<String, MagicWord> byAlias;
+
+  /** Case insensitive magic words by case folded alias */
+  private final Map<String, MagicWord> byFoldedAlias;
+
+  /** Magic words by text before the parameter */
+  private final Map<String, List<MagicWord>> byPrefix;
+
+  /** Lengths of the texts before the parameter */
+  private final int[] prefixLengths;
+
+  /** Magic words by text after the parameter */
+  private final Map<String, List<MagicWord>> bySuffix;
+
+  /** Lengths of the texts after the parameter */
+  private final int[] suffixLengths;
+
+  /** Magic words with aliases that can't be indexed */
+  private final List<MagicWord> others;
+
+  /**
+   * @param magicWords Magic words to be indexed.
+   */
+  MagicWordIndex(Collection<MagicWord> magicWords) {
+    byAlias = new HashMap<>();
+    byFoldedAlias = new HashMap<>();
+    byPrefix = new HashMap<>();
+    bySuffix = new HashMap<>();
+    others = new ArrayList<>();
+    TreeSet<Integer> tmpPrefixLengths = new TreeSet<>();
+    TreeSet<Integer> tmpSuffixLengths = new TreeSet<>();
+    if (magicWords != null) {
+      for (MagicWord magicWord : magicWords) {
+        if ((magicWord == null) || (magicWord.getAliases() == null)) {
+          continue;
+        }
+        String sharp = magicWord.isSharpMagicWord() ? "#" : null;
+        for (String alias : magicWord.getAliases()) {
+          if (!alias.contains("$1")) {
+            addAlias(byAlias, alias, sharp, magicWord);
+            if (!magicWord.isCaseSensitive()) {
+              addAlias(byFoldedAlias, foldCase(alias), sharp, magicWord);
+            }
+          }
+        }
+        boolean other = false;
+        for (ParameterizedAlias alias : magicWord.getParameterizedAliases()) {
+          if (!alias.isLiteral()) {
+            other = true;
+          } else if (alias.getPrefix().length() > 0) {
+            addParameterizedAlias(byPrefix, tmpPrefixLengths, alias.getPrefix(), magicWord);
+            if (sharp != null) {
+              addParameterizedAlias(byPrefix, tmpPrefixLengths, sharp + alias.getPrefix(), magicWord);
+            }
+          } else if (alias.getSuffix().length() > 0) {
+            addParameterizedAlias(bySuffix, tmpSuffixLengths, alias.getSuffix(), magicWord);
+          } else {
+            other = true;
+          }
+        }
+        if (other) {
+          others.add(magicWord);
+        }
+      }
+    }
+    prefixLengths = toArray(tmpPrefixLengths);
+    suffixLengths = toArray(tmpSuffixLengths);
+  }
+
+  /**
+   * @param text Text.
+   * @return Magic word having the text as an alias.
+   */
+  MagicWord find(String text) {
+    if (text == null) {
+      return null;
+    }
+
+    // Aliases without parameter
+    MagicWord result = byAlias.get(text);
+    if (result != null) {
+      return result;
+    }
+    if (!byFoldedAlias.isEmpty()) {
+      result = byFoldedAlias.get(foldCase(text));
+      if (result != null) {
+        return result;
+      }
+    }
+
+    // Aliases with a parameter
+    for (int length : prefixLengths) {
+      if (length > text.length()) {
+        break;
+      }
+      result = findPossibleAlias(byPrefix.get(text.substring(0, length)), text);
+      if (result != null) {
+        return result;
+      }
+    }
+    for (int length : suffixLengths) {
+      if (length > text.length()) {
+        break;
+      }
+      result = findPossibleAlias(bySuffix.get(text.substring(text.length() - length)), text);
+      if (result != null) {
+        return result;
+      }
+    }
+    return findPossibleAlias(others, text);
+  }
+
+  /**
+   * @param magicWords Candidate magic words.
+   * @param text Text.
+   * @return First candidate magic word having the text as an alias.
+   */
+  private static MagicWord findPossibleAlias(List<MagicWord> magicWords, String text) {
+    if (magicWords != null) {
+      for (MagicWord magicWord : magicWords) {
+        if (magicWord.isPossibleAlias(text)) {
+          return magicWord;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param map Map of magic words by alias.
+   * @param alias Alias.
+   * @param sharp Prefix that can be added before the alias.
+   * @param magicWord Magic word.
+   */
+  private static void addAlias(
+      Map<String, MagicWord> map, String alias,
+      String sharp, MagicWord magicWord) {
+    map.putIfAbsent(alias, magicWord);
+    if (sharp != null) {
+      map.putIfAbsent(sharp + alias, magicWord);
+    }
+  }
+
+  /**
+   * @param map Map of magic words by text before or after the parameter.
+   * @param lengths Lengths of the texts.
+   * @param text Text before or after the parameter.
+   * @param magicWord Magic word.
+   */
+  private static void addParameterizedAlias(
+      Map<String, List<MagicWord>> map, TreeSet<Integer> lengths,
+      String text, MagicWord magicWord) {
+    List<MagicWord> list = map.get(text);
+    if (list == null) {
+      list = new ArrayList<>();
+      map.put(text, list);
+    }
+    if (!list.contains(magicWord)) {
+      list.add(magicWord);
+    }
+    lengths.add(Integer.valueOf(text.length()));
+  }
+
+  /**
+   * @param values Values.
+   * @return Array of values in ascending order.
+   */
+  private static int[] toArray(TreeSet<Integer> values) {
+    int[] result = new int[values.size()];
+    int index = 0;
+    for (Integer value : values) {
+      result[index] = value.intValue();
+      index++;
+    }
+    return result;
+  }
+
+  /**
+   * Fold the case of a text, so that texts equal ignoring case have the same folded text.
+   *
+   * @param text Text.
+   * @return Case folded text.
+   */
+  private static String foldCase(String text) {
+    char[] result = null;
+    for (int index = 0; index < text.length(); index++) {
+      char currentChar = text.charAt(index);
+      char foldedChar = Character.toLowerCase(Character.toUpperCase(currentChar));
+      if (foldedChar != currentChar) {
+        if (result == null) {
+          result = text.toCharArray();
+        }
+        result[index] = foldedChar;
+      }
+    }
+    return (result != null) ? new String(result) : text;
+  }
+}
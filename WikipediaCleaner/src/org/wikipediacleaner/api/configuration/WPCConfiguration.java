@@ -32,6 +32,7 @@ import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 import org.wikipediacleaner.api.data.PageAnalysisUtils;
 import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.Suggestion;
+import org.wikipediacleaner.api.data.SuggestionFilter;
 import org.wikipediacleaner.api.data.TemplateMatch;
 import org.wikipediacleaner.api.data.TemplateMatcher;
 import org.wikipediacleaner.api.data.TemplateMatcher1L;
@@ -241,6 +242,39 @@ public class WPCConfiguration {
    */
   private final Map<WPCConfigurationLong, Long> userLongValues;
 
+  /**
+   * Compute a hash of the configuration values, stable between executions.
+   * 
+   * @return Hash of the configuration values.
+   */
+  public int getConfigurationHash() {
+    int hash = getConfigurationHash(generalBooleanValues);
+    hash = 31 * hash + getConfigurationHash(userBooleanValues);
+    hash = 31 * hash + getConfigurationHash(generalStringValues);
+    hash = 31 * hash + getConfigurationHash(userStringValues);
+    hash = 31 * hash + getConfigurationHash(generalStringListValues);
+    hash = 31 * hash + getConfigurationHash(userStringListValues);
+    hash = 31 * hash + getConfigurationHash(generalLongValues);
+    hash = 31 * hash + getConfigurationHash(userLongValues);
+    return hash;
+  }
+
+  /**
+   * Compute a hash of configuration values, using attribute names instead of enumerations
+   * which hash codes change between executions.
+   * 
+   * @param values Configuration values.
+   * @return Hash of the configuration values.
+   */
+  private static int getConfigurationHash(Map<? extends Enum<?>, ?> values) {
+    int hash = 0;
+    for (Map.Entry<? extends Enum<?>, ?> entry : values.entrySet()) {
+      Object value = entry.getValue();
+      hash += entry.getKey().name().hashCode() ^ ((value != null) ? value.hashCode() : 0);
+    }
+    return hash;
+  }
+
   /**
    * Retrieve the value of a Boolean attribute.
    * 
@@ -609,6 +643,11 @@ public class WPCConfiguration {
    */
   private Map<String, Suggestion> suggestions;
 
+  /**
+   * Prefilter for spelling suggestions.
+   */
+  private SuggestionFilter suggestionFilter;
+
   /**
    * Initialize suggestions for text replacements.
    * 
@@ -742,6 +781,7 @@ public class WPCConfiguration {
           }
         }
 
+        suggestionFilter = new SuggestionFilter(tmpMap.values());
         suggestions = tmpMap;
       }
     }
@@ -754,6 +794,13 @@ public class WPCConfiguration {
     return suggestions;
   }
 
+  /**
+   * @return Prefilter for spelling suggestions.
+   */
+  public SuggestionFilter getSuggestionFilter() {
+    return suggestionFilter;
+  }
+
   /* ================================================================================= */
   /* Template matches                                                                  */
   /* ================================================================================= */
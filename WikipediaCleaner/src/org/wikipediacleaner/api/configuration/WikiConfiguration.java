@@ -8,6 +8,7 @@
 package org.wikipediacleaner.api.configuration;
 
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -266,6 +267,21 @@ public class WikiConfiguration {
    */
   private Map<String, MagicWord> magicWords = new HashMap<>();
 
+  /**
+   * Index of magic words by alias.
+   */
+  private MagicWordIndex magicWordsIndex = new MagicWordIndex(null);
+
+  /**
+   * Index of function magic words by alias.
+   */
+  private MagicWordIndex functionMagicWordsIndex = new MagicWordIndex(null);
+
+  /**
+   * Index of image magic words by alias.
+   */
+  private MagicWordIndex imgMagicWordsIndex = new MagicWordIndex(null);
+
   /**
    * @param name Magic word name.
    * @return Magic word.
@@ -282,15 +298,7 @@ public class WikiConfiguration {
    * @return Magic word.
    */
   public MagicWord getMagicWordByAlias(String value) {
-    if ((value == null) || (magicWords == null)) {
-      return null;
-    }
-    for (MagicWord magicWord : magicWords.values()) {
-      if (magicWord.isPossibleAlias(value)) {
-        return magicWord;
-      }
-    }
-    return null; 
+    return magicWordsIndex.find(value);
   }
 
   /**
@@ -299,18 +307,11 @@ public class WikiConfiguration {
    * @return Matching Magic Word if the text is an alias for a Function Magic Word.
    */
   public MagicWord getFunctionMagicWord(String text, boolean colon) {
-    String colonText = text + ":";
-    for (MagicWord magicWord : magicWords.values()) {
-      if ((magicWord != null) && (magicWord.isFunctionMagicWord())) {
-        if (magicWord.isPossibleAlias(text)) {
-          return magicWord;
-        }
-        if (colon && magicWord.isPossibleAlias(colonText)) {
-          return magicWord;
-        }
-      }
+    MagicWord magicWord = functionMagicWordsIndex.find(text);
+    if ((magicWord == null) && colon) {
+      magicWord = functionMagicWordsIndex.find(text + ":");
     }
-    return null;
+    return magicWord;
   }
 
   /**
@@ -318,14 +319,7 @@ public class WikiConfiguration {
    * @return Matching Magic Word if the text is an alias for a Image Magic Word.
    */
   public MagicWord getImgMagicWord(String text) {
-    for (MagicWord magicWord : magicWords.values()) {
-      if ((magicWord != null) && (magicWord.isImageMagicWord())) {
-        if (magicWord.isPossibleAlias(text)) {
-          return magicWord;
-        }
-      }
-    }
-    return null;
+    return imgMagicWordsIndex.find(text);
   }
 
   /**
@@ -333,6 +327,21 @@ public class WikiConfiguration {
    */
   public void setMagicWords(Map<String, MagicWord> magicWords) {
     this.magicWords = magicWords;
+    List<MagicWord> functionMagicWords = new ArrayList<>();
+    List<MagicWord> imgMagicWords = new ArrayList<>();
+    if (magicWords != null) {
+      for (MagicWord magicWord : magicWords.values()) {
+        if ((magicWord != null) && magicWord.isFunctionMagicWord()) {
+          functionMagicWords.add(magicWord);
+        }
+        if ((magicWord != null) && magicWord.isImageMagicWord()) {
+          imgMagicWords.add(magicWord);
+        }
+      }
+    }
+    this.magicWordsIndex = new MagicWordIndex((magicWords != null) ? magicWords.values() : null);
+    this.functionMagicWordsIndex = new MagicWordIndex(functionMagicWords);
+    this.imgMagicWordsIndex = new MagicWordIndex(imgMagicWords);
   }
 
   // ==========================================================================
@@ -36,20 +36,30 @@ public class CharacterUtils {
       return text;
     }
     char firstChar = text.charAt(0);
-    if (Character.isUpperCase(firstChar) || !Character.isLowerCase(firstChar)) {
+    char upperChar = ucFirst(firstChar);
+    if (upperChar == firstChar) {
       return text;
     }
+    return "" + upperChar + text.substring(1);
+  }
+
+  /**
+   * Put a first letter to upper case following MediaWiki rules.
+   * 
+   * @param firstChar Original first letter.
+   * @return First letter in upper case.
+   */
+  public static char ucFirst(char firstChar) {
+    if (Character.isUpperCase(firstChar) || !Character.isLowerCase(firstChar)) {
+      return firstChar;
+    }
     if ((firstChar >= LOWER_BOUNDARY) && (firstChar <= UPPER_BOUNDARY)) {
       Character uppercase = UPPERCASE_CONVERSION.get(firstChar);
       if (uppercase != null) {
-        firstChar = uppercase.charValue();
-      } else {
-        firstChar = Character.toUpperCase(firstChar);
+        return uppercase.charValue();
       }
-    } else {
-      firstChar = Character.toUpperCase(firstChar);
     }
-    return "" + firstChar + text.substring(1);
+    return Character.toUpperCase(firstChar);
   }
 
   /** Whitespace characters */
@@ -7,10 +7,15 @@
 
 package org.wikipediacleaner.api.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 
 /**
@@ -36,6 +41,12 @@ public class MagicWord implements Comparable<MagicWord> {
   /** Flag indicating if the magic word if for an image. */
   private final boolean isImage;
 
+  /** Flag indicating if the magic word can be prefixed with a #. */
+  private final boolean isSharp;
+
+  /** List of magic word aliases with a parameter ($1). */
+  private final List<ParameterizedAlias> parameterizedAliases;
+
   // List of known magic words
   public final static String ABBREVIATE                  = "abbreviate";
   public final static String ARTICLE_PATH                = "articlepath";
@@ -451,6 +462,16 @@ public class MagicWord implements Comparable<MagicWord> {
     this.isFunction = functionMagicWords.contains(name);
     this.isFunctionNotPST = functionNotPSTMagicWords.contains(name) && functionMagicWords.contains(name);
     this.isImage = imgMagicWords.contains(name);
+    this.isSharp = Arrays.asList(sharpMagicWords).contains(name);
+    List<ParameterizedAlias> tmpAliases = new ArrayList<>();
+    if (aliases != null) {
+      for (String alias : aliases) {
+        if (alias.contains("$1")) {
+          tmpAliases.add(new ParameterizedAlias(alias));
+        }
+      }
+    }
+    this.parameterizedAliases = Collections.unmodifiableList(tmpAliases);
   }
 
   /**
@@ -484,31 +505,47 @@ public class MagicWord implements Comparable<MagicWord> {
     if (text == null) {
       return false;
     }
-    if ((text.length() > 0) && (text.charAt(0) == '#')) {
-      boolean sharp = false;
-      for (String magicWord : sharpMagicWords) {
-        if (magicWord.equals(name)) {
-          sharp = true;
-        }
-      }
-      if (sharp) {
-        text = text.substring(1);
-      }
+    if (isSharp && (text.length() > 0) && (text.charAt(0) == '#')) {
+      text = text.substring(1);
     }
     for (String alias : aliases) {
       if (alias.contains("$1")) {
-        if (text.matches(alias.replaceAll("\\$1", pattern))) {
-          return true;
-        }
+        // Checked with the parameterized aliases
       } else if (alias.equals(text)) {
         return true;
       } else if (!caseSensitive && alias.equalsIgnoreCase(text)) {
         return true;
       }
     }
+    for (ParameterizedAlias alias : parameterizedAliases) {
+      if (alias.matches(text, pattern)) {
+        return true;
+      }
+    }
     return false;
   }
 
+  /**
+   * @return True if the name is case sensitive.
+   */
+  public boolean isCaseSensitive() {
+    return caseSensitive;
+  }
+
+  /**
+   * @return True if the magic word can be prefixed with a #.
+   */
+  public boolean isSharpMagicWord() {
+    return isSharp;
+  }
+
+  /**
+   * @return Magic word aliases with a parameter ($1).
+   */
+  public List<ParameterizedAlias> getParameterizedAliases() {
+    return parameterizedAliases;
+  }
+
   /**
    * @return True if the magic word is for a function.
    */
@@ -570,4 +607,108 @@ public class MagicWord implements Comparable<MagicWord> {
   public int hashCode() {
     return name.hashCode();
   }
+
+  /**
+   * Magic word alias with a parameter ($1).
+   */
+  public static class ParameterizedAlias {
+
+    /** Characters with a special meaning in regular expressions */
+    private final static String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    /** Alias */
+    private final String alias;
+
+    /** Text before the parameter */
+    private final String prefix;
+
+    /** Text after the parameter */
+    private final String suffix;
+
+    /** True if the alias is a literal text apart from a single parameter */
+    private final boolean literal;
+
+    /** Regular expressions for the alias, by pattern acceptable for replacing $1 */
+    private final Map<String, Pattern> patterns;
+
+    /**
+     * @param alias Alias.
+     */
+    ParameterizedAlias(String alias) {
+      this.alias = alias;
+      int paramIndex = alias.indexOf("$1");
+      this.prefix = alias.substring(0, paramIndex);
+      this.suffix = alias.substring(paramIndex + 2);
+      boolean tmpLiteral = true;
+      for (int index = 0; index < alias.length(); index++) {
+        if ((index != paramIndex) &&
+            (REGEX_CHARACTERS.indexOf(alias.charAt(index)) >= 0)) {
+          tmpLiteral = false;
+        }
+      }
+      this.literal = tmpLiteral;
+      this.patterns = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return Text before the parameter.
+     */
+    public String getPrefix() {
+      return prefix;
+    }
+
+    /**
+     * @return Text after the parameter.
+     */
+    public String getSuffix() {
+      return suffix;
+    }
+
+    /**
+     * @return True if the alias is a literal text apart from a single parameter.
+     */
+    public boolean isLiteral() {
+      return literal;
+    }
+
+    /**
+     * @param text Text to check.
+     * @param pattern Pattern acceptable for replacing $1
+     * @return True if the text matches the alias.
+     */
+    public boolean matches(String text, String pattern) {
+      if (literal) {
+        boolean any = ".*".equals(pattern);
+        if (any || ".+".equals(pattern)) {
+          int paramEnd = text.length() - suffix.length();
+          if ((paramEnd < prefix.length()) ||
+              (!any && (paramEnd == prefix.length())) ||
+              !text.startsWith(prefix) || !text.endsWith(suffix)) {
+            return false;
+          }
+          for (int index = prefix.length(); index < paramEnd; index++) {
+            if (isLineTerminator(text.charAt(index))) {
+              return false;
+            }
+          }
+          return true;
+        }
+      }
+      Pattern regex = patterns.get(pattern);
+      if (regex == null) {
+        regex = Pattern.compile(alias.replace("$1", pattern));
+        patterns.put(pattern, regex);
+      }
+      return regex.matcher(text).matches();
+    }
+
+    /**
+     * @param character Character.
+     * @return True if the character is not matched by . in regular expressions.
+     */
+    private static boolean isLineTerminator(char character) {
+      return (character == '\n') || (character == '\r') ||
+             (character == '\u0085') || (character == '\u2028') || (character == '\u2029');
+    }
+  }
 }
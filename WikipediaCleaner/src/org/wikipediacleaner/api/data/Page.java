@@ -14,11 +14,13 @@ import java.util.Date;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.wikipediacleaner.api.configuration.WPCConfiguration;
 import org.wikipediacleaner.api.configuration.WikiConfiguration;
+import org.wikipediacleaner.api.constants.EnumCaseSensitiveness;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 
@@ -113,7 +115,6 @@ public class Page implements Comparable<Page> {
   public static boolean areSameTitle(
       String title1, boolean normalized1,
       String title2, boolean normalized2) {
-    // TODO: should be by Wiki (capitalization of first letter)
     if ((title1 == null) || (title2 == null)) {
       return false;
     }
@@ -126,25 +127,188 @@ public class Page implements Comparable<Page> {
     return title1.equals(title2);
   }
 
+  /**
+   * @param wiki Wiki.
+   * @param title1 Title 1.
+   * @param title2 Title 2.
+   * @return Indicates if <code>title1</code> and <code>title2</code> are the same title in the wiki.
+   */
+  public static boolean areSameTitle(EnumWikipedia wiki, String title1, String title2) {
+    if ((title1 == null) || (title2 == null)) {
+      return false;
+    }
+    return normalizeTitle(wiki, title1).equals(normalizeTitle(wiki, title2));
+  }
+
   /**
    * @param pageTitle Title.
-   * @return Normalized title.
+   * @return Normalized title, with the first letter in upper case.
    */
   public static String normalizeTitle(String pageTitle) {
-    // TODO: should be by Wiki (capitalization of first letter)
+    return normalizeTitle(pageTitle, EnumCaseSensitiveness.FIRST_LETTER);
+  }
+
+  /**
+   * Normalize a title using the case sensitiveness of its namespace in a wiki.
+   * 
+   * Titles with a namespace prefix start with the namespace name, always in upper case.
+   * 
+   * @param wiki Wiki.
+   * @param pageTitle Title.
+   * @return Normalized title.
+   */
+  public static String normalizeTitle(EnumWikipedia wiki, String pageTitle) {
+    return normalizeTitle(pageTitle, getCaseSensitiveness(wiki, pageTitle));
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param pageTitle Title.
+   * @return Case sensitiveness for the first letter of the title.
+   */
+  private static EnumCaseSensitiveness getCaseSensitiveness(EnumWikipedia wiki, String pageTitle) {
+    if ((wiki == null) || (pageTitle == null)) {
+      return EnumCaseSensitiveness.FIRST_LETTER;
+    }
+    WikiConfiguration config = wiki.getWikiConfiguration();
+    int colonIndex = pageTitle.indexOf(':');
+    if ((colonIndex > 0) &&
+        (Namespace.getNamespace(config.getNamespaces(), pageTitle.substring(0, colonIndex)) != Namespace.MAIN)) {
+      return EnumCaseSensitiveness.FIRST_LETTER;
+    }
+    Namespace namespace = config.getNamespace(Namespace.MAIN);
+    if (namespace == null) {
+      return EnumCaseSensitiveness.FIRST_LETTER;
+    }
+    return namespace.getCaseSensitiveness();
+  }
+
+  /**
+   * Normalize a title in a single pass.
+   * 
+   * <ul>
+   * <li>Leading and trailing white spaces, underscores and left-to-right marks are removed.</li>
+   * <li>Each group of white spaces, non-breaking spaces and underscores is replaced by a single space.</li>
+   * <li>First letter is put in upper case, unless the title is case sensitive.</li>
+   * </ul>
+   * The title itself is returned when nothing needs to be normalized.
+   * 
+   * @param pageTitle Title.
+   * @param caseSensitiveness Case sensitiveness of the namespace.
+   * @return Normalized title.
+   */
+  public static String normalizeTitle(
+      String pageTitle, EnumCaseSensitiveness caseSensitiveness) {
     if (pageTitle == null) {
       return null;
     }
-    String result = pageTitle.trim();
-    result = result.replaceAll("[\u00A0_ ]+", " ");
-    // result = result.replaceAll(" ", " ");
-    while ((result.length() > 0) && (result.charAt(result.length() - 1) == 0x200E)) {
-      result = result.substring(0, result.length() - 1);
+
+    // Find the significant part of the title
+    int beginIndex = 0;
+    int endIndex = pageTitle.length();
+    while ((beginIndex < endIndex) && (pageTitle.charAt(beginIndex) <= ' ')) {
+      beginIndex++;
+    }
+    while ((endIndex > beginIndex) && (pageTitle.charAt(endIndex - 1) <= ' ')) {
+      endIndex--;
+    }
+    while ((endIndex > beginIndex) && (pageTitle.charAt(endIndex - 1) == 0x200E)) {
+      endIndex--;
+    }
+    while ((endIndex > beginIndex) && isTrimmedInTitle(pageTitle.charAt(endIndex - 1))) {
+      endIndex--;
+    }
+    while ((beginIndex < endIndex) && isTrimmedInTitle(pageTitle.charAt(beginIndex))) {
+      beginIndex++;
+    }
+    if (beginIndex >= endIndex) {
+      return "";
+    }
+
+    // Check if the title needs to be modified
+    char firstChar = pageTitle.charAt(beginIndex);
+    if (caseSensitiveness != EnumCaseSensitiveness.CASE_SENSITIVE) {
+      firstChar = CharacterUtils.ucFirst(firstChar);
+    }
+    boolean modified =
+        (beginIndex > 0) || (endIndex < pageTitle.length()) ||
+        (firstChar != pageTitle.charAt(beginIndex));
+    for (int index = beginIndex + 1; (index < endIndex) && !modified; index++) {
+      char currentChar = pageTitle.charAt(index);
+      if ((currentChar == '_') || (currentChar == '\u00A0') ||
+          ((currentChar == ' ') && (pageTitle.charAt(index - 1) == ' '))) {
+        modified = true;
+      }
+    }
+    if (!modified) {
+      return pageTitle;
+    }
+
+    // Build the normalized title
+    StringBuilder result = new StringBuilder(endIndex - beginIndex);
+    result.append(firstChar);
+    boolean space = false;
+    for (int index = beginIndex + 1; index < endIndex; index++) {
+      char currentChar = pageTitle.charAt(index);
+      if (isSpaceInTitle(currentChar)) {
+        if (!space) {
+          result.append(' ');
+          space = true;
+        }
+      } else {
+        result.append(currentChar);
+        space = false;
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * @param character Character.
+   * @return True if the character is considered as a space in titles.
+   */
+  private static boolean isSpaceInTitle(char character) {
+    return (character == ' ') || (character == '_') || (character == '\u00A0');
+  }
+
+  /**
+   * @param character Character.
+   * @return True if the character is removed at the beginning or end of titles.
+   */
+  private static boolean isTrimmedInTitle(char character) {
+    return (character <= ' ') || isSpaceInTitle(character);
+  }
+
+  /** Maximum number of titles kept in the cache of normalized titles */
+  private final static int NORMALIZED_TITLES_MAX_SIZE = 10000;
+
+  /** Cache of normalized titles */
+  private final static Map<String, String> normalizedTitles = new ConcurrentHashMap<>();
+
+  /**
+   * Normalize a title, sharing the result for titles used frequently (template names, ...).
+   * 
+   * @param pageTitle Title.
+   * @return Normalized title.
+   */
+  public static String normalizeAndInternTitle(String pageTitle) {
+    if (pageTitle == null) {
+      return null;
+    }
+    String result = normalizedTitles.get(pageTitle);
+    if (result != null) {
+      return result;
+    }
+    result = normalizeTitle(pageTitle);
+    String interned = normalizedTitles.get(result);
+    if (interned != null) {
+      result = interned;
+    }
+    if (normalizedTitles.size() >= NORMALIZED_TITLES_MAX_SIZE) {
+      normalizedTitles.clear();
     }
-    // result = result.replaceAll("_", " ");
-    // result = result.replaceAll(" +", " ");
-    result = result.trim();
-    result = CharacterUtils.ucFirst(result);
+    normalizedTitles.put(pageTitle, result);
+    normalizedTitles.putIfAbsent(result, result);
     return result;
   }
 
@@ -845,7 +1009,7 @@ public class Page implements Comparable<Page> {
     }
     PageAnalysis result = null;
     if ((analysis == null) || (!currentContents.equals(analysis.getContents()))) {
-      result = new PageAnalysis(this, currentContents);
+      result = new PageAnalysis(this, currentContents, analysis);
       if ((update) || (analysis == null)) {
         analysis = result;
       }
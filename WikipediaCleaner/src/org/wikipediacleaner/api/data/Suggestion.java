@@ -58,6 +58,11 @@ public class Suggestion implements Comparable<Suggestion> {
    */
   private String comment;
 
+  /**
+   * Profile of the regular expression.
+   */
+  private final SuggestionProfile profile;
+
   /**
    * Clean a non WPCleaner pattern.
    * 
@@ -150,6 +155,7 @@ public class Suggestion implements Comparable<Suggestion> {
     this.other = other;
     this.suggestions = new ArrayList<ElementarySuggestion>();
     this.comment = null;
+    this.profile = new SuggestionProfile();
   }
 
   /**
@@ -216,11 +222,18 @@ public class Suggestion implements Comparable<Suggestion> {
     return comment;
   }
 
+  /**
+   * @return Profile of the regular expression.
+   */
+  public SuggestionProfile getProfile() {
+    return profile;
+  }
+
   /**
    * @param text Text to look at.
    * @return A matcher for the pattern
    */
-  public Matcher initMatcher(String text) {
+  public Matcher initMatcher(CharSequence text) {
     Matcher matcher = pattern.matcher(text);
     matcher.useAnchoringBounds(false);
     matcher.useTransparentBounds(true);
@@ -0,0 +1,563 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Prefilter for finding the suggestions that may match a text.
+ *
+ * <p>Literal texts required by each suggestion pattern are extracted,
+ * and all of them are searched at once in the text with an Aho-Corasick automaton:
+ * only suggestions for which a required literal text has been found need to be checked.
+ * Suggestions without any extractable literal text are always checked.</p>
+ */
+public class SuggestionFilter {
+
+  /** Minimum length of a literal text to be used for filtering */
+  private final static int MIN_LITERAL_LENGTH = 2;
+
+  /** Literal texts required by each suggestion (one of them for patterns with alternatives) */
+  private final Map<Suggestion, int[]> literalsBySuggestion;
+
+  /** Automaton for finding all the literal texts */
+  private final Automaton automaton;
+
+  /**
+   * @param suggestions Suggestions.
+   */
+  public SuggestionFilter(Collection<Suggestion> suggestions) {
+    literalsBySuggestion = new IdentityHashMap<>();
+    Map<String, Integer> literalIds = new HashMap<>();
+    List<String> literals = new ArrayList<>();
+    if (suggestions != null) {
+      for (Suggestion suggestion : suggestions) {
+        List<String> required = getRequiredLiterals(suggestion.getPatternText());
+        if (required != null) {
+          int[] ids = new int[required.size()];
+          for (int index = 0; index < ids.length; index++) {
+            String literal = required.get(index);
+            Integer id = literalIds.get(literal);
+            if (id == null) {
+              id = Integer.valueOf(literals.size());
+              literalIds.put(literal, id);
+              literals.add(literal);
+            }
+            ids[index] = id.intValue();
+          }
+          literalsBySuggestion.put(suggestion, ids);
+        }
+      }
+    }
+    automaton = new Automaton(literals);
+  }
+
+  /**
+   * @return Number of suggestions that can be filtered.
+   */
+  public int getFilteredCount() {
+    return literalsBySuggestion.size();
+  }
+
+  /**
+   * Filter suggestions for a text.
+   *
+   * @param suggestions Suggestions.
+   * @param text Text.
+   * @return Suggestions that may match the text, in the same order.
+   */
+  public List<Suggestion> filter(Collection<Suggestion> suggestions, String text) {
+    boolean[] found = automaton.findLiterals(text);
+    List<Suggestion> result = new ArrayList<>(suggestions.size());
+    for (Suggestion suggestion : suggestions) {
+      int[] ids = literalsBySuggestion.get(suggestion);
+      boolean possible = (ids == null);
+      if (ids != null) {
+        for (int id : ids) {
+          possible |= found[id];
+        }
+      }
+      if (possible) {
+        result.add(suggestion);
+      }
+    }
+    return result;
+  }
+
+  // ==========================================================================
+  // Extraction of literal texts
+  // ==========================================================================
+
+  /**
+   * Extract literal texts required by a pattern.
+   *
+   * @param patternText Pattern.
+   * @return Literal texts, one of them being in every match (null if none can be extracted).
+   */
+  static List<String> getRequiredLiterals(String patternText) {
+    if ((patternText == null) || hasInlineFlags(patternText)) {
+      return null;
+    }
+    List<String> result = new ArrayList<>();
+    int index = 0;
+    while (index <= patternText.length()) {
+      LiteralScanner scanner = new LiteralScanner(patternText, index);
+      String literal = scanner.scanBranch();
+      if ((literal == null) || (literal.length() < MIN_LITERAL_LENGTH)) {
+        return null;
+      }
+      if (!result.contains(literal)) {
+        result.add(literal);
+      }
+      index = scanner.index + 1;
+    }
+    return result;
+  }
+
+  /**
+   * @param patternText Pattern.
+   * @return True if the pattern contains inline flags (which may change how literals match).
+   */
+  private static boolean hasInlineFlags(String patternText) {
+    int index = patternText.indexOf("(?");
+    while (index >= 0) {
+      if ((index == 0) || (patternText.charAt(index - 1) != '\\')) {
+        int flagIndex = index + 2;
+        while ((flagIndex < patternText.length()) &&
+               ("idmsuxU-".indexOf(patternText.charAt(flagIndex)) >= 0)) {
+          flagIndex++;
+        }
+        if ((flagIndex > index + 2) && (flagIndex < patternText.length()) &&
+            ((patternText.charAt(flagIndex) == ')') || (patternText.charAt(flagIndex) == ':'))) {
+          return true;
+        }
+      }
+      index = patternText.indexOf("(?", index + 2);
+    }
+    return false;
+  }
+
+  /**
+   * Scanner for the longest literal text in a branch of a pattern.
+   */
+  private static class LiteralScanner {
+
+    /** Pattern */
+    private final String pattern;
+
+    /** Current index in the pattern */
+    int index;
+
+    /** Current literal text */
+    private final StringBuilder current;
+
+    /** Longest literal text */
+    private String longest;
+
+    /**
+     * @param pattern Pattern.
+     * @param index Beginning of the branch.
+     */
+    LiteralScanner(String pattern, int index) {
+      this.pattern = pattern;
+      this.index = index;
+      this.current = new StringBuilder();
+      this.longest = "";
+    }
+
+    /**
+     * Scan a branch, until the end of the pattern or a top level alternative.
+     *
+     * @return Longest literal text in the branch (null if the pattern is not understood).
+     */
+    String scanBranch() {
+      int length = pattern.length();
+      while ((index < length) && (pattern.charAt(index) != '|')) {
+        char currentChar = pattern.charAt(index);
+        int literal = -1;
+        switch (currentChar) {
+        case '\\':
+          if (index + 1 >= length) {
+            return null;
+          }
+          char escaped = pattern.charAt(index + 1);
+          index += 2;
+          if (!Character.isLetterOrDigit(escaped)) {
+            literal = escaped;
+          } else {
+            skipEscapeParameter(escaped);
+          }
+          break;
+        case '[':
+          index = skipClass(pattern, index);
+          break;
+        case '(':
+          index = skipGroup(pattern, index);
+          break;
+        case ')':
+        case '*':
+        case '+':
+        case '?':
+        case '{':
+          return null;
+        case '.':
+        case '^':
+        case '$':
+          index++;
+          break;
+        default:
+          literal = currentChar;
+          index++;
+          break;
+        }
+        if (index < 0) {
+          return null;
+        }
+
+        // Manage quantifiers
+        int min = skipQuantifier();
+        if (min < -1) {
+          return null;
+        }
+        if (literal < 0) {
+          endLiteral();
+        } else if (min == -1) {
+          current.append((char) literal);
+        } else if (min == 0) {
+          endLiteral();
+        } else {
+          endLiteral();
+          current.append((char) literal);
+        }
+      }
+      endLiteral();
+      return longest;
+    }
+
+    /**
+     * End the current literal text.
+     */
+    private void endLiteral() {
+      if (current.length() > longest.length()) {
+        longest = current.toString();
+      }
+      current.setLength(0);
+    }
+
+    /**
+     * Skip the parameter of an escaped letter or digit (hexadecimal value, property, ...).
+     *
+     * @param escaped Escaped character.
+     */
+    private void skipEscapeParameter(char escaped) {
+      int length = pattern.length();
+      switch (escaped) {
+      case 'p':
+      case 'P':
+      case 'x':
+      case 'N':
+        if ((index < length) && (pattern.charAt(index) == '{')) {
+          int endIndex = pattern.indexOf('}', index);
+          index = (endIndex < 0) ? length : endIndex + 1;
+        } else {
+          index = Math.min(length, index + ((escaped == 'x') ? 2 : 1));
+        }
+        break;
+      case 'u':
+        index = Math.min(length, index + 4);
+        break;
+      case 'c':
+        index = Math.min(length, index + 1);
+        break;
+      case 'k':
+        if ((index < length) && (pattern.charAt(index) == '<')) {
+          int endIndex = pattern.indexOf('>', index);
+          index = (endIndex < 0) ? length : endIndex + 1;
+        }
+        break;
+      case 'Q':
+        int endIndex = pattern.indexOf("\\E", index);
+        index = (endIndex < 0) ? length : endIndex + 2;
+        break;
+      default:
+        if (Character.isDigit(escaped)) {
+          while ((index < length) && Character.isDigit(pattern.charAt(index))) {
+            index++;
+          }
+        }
+        break;
+      }
+    }
+
+    /**
+     * Skip a quantifier.
+     *
+     * @return Minimum number of repetitions (-1 if no quantifier, -2 if not understood).
+     */
+    private int skipQuantifier() {
+      int length = pattern.length();
+      if (index >= length) {
+        return -1;
+      }
+      int min = -1;
+      char currentChar = pattern.charAt(index);
+      if ((currentChar == '*') || (currentChar == '?')) {
+        min = 0;
+        index++;
+      } else if (currentChar == '+') {
+        min = 1;
+        index++;
+      } else if (currentChar == '{') {
+        int endIndex = pattern.indexOf('}', index);
+        if (endIndex < 0) {
+          return -2;
+        }
+        String bounds = pattern.substring(index + 1, endIndex);
+        int comma = bounds.indexOf(',');
+        try {
+          min = Integer.parseInt((comma < 0) ? bounds : bounds.substring(0, comma));
+        } catch (NumberFormatException e) {
+          return -2;
+        }
+        index = endIndex + 1;
+      }
+      if ((min >= 0) && (index < length) &&
+          ((pattern.charAt(index) == '?') || (pattern.charAt(index) == '+'))) {
+        index++;
+      }
+      return min;
+    }
+  }
+
+  /**
+   * @param pattern Pattern.
+   * @param index Index of the opening bracket of a character class.
+   * @return Index after the character class (-1 if not closed).
+   */
+  private static int skipClass(String pattern, int index) {
+    int length = pattern.length();
+    index++;
+    if ((index < length) && (pattern.charAt(index) == '^')) {
+      index++;
+    }
+    if ((index < length) && (pattern.charAt(index) == ']')) {
+      index++;
+    }
+    while (index < length) {
+      char currentChar = pattern.charAt(index);
+      if (currentChar == '\\') {
+        index += 2;
+      } else if (currentChar == '[') {
+        index = skipClass(pattern, index);
+        if (index < 0) {
+          return -1;
+        }
+      } else if (currentChar == ']') {
+        return index + 1;
+      } else {
+        index++;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param pattern Pattern.
+   * @param index Index of the opening parenthesis of a group.
+   * @return Index after the group (-1 if not closed).
+   */
+  private static int skipGroup(String pattern, int index) {
+    int length = pattern.length();
+    int depth = 0;
+    while (index < length) {
+      char currentChar = pattern.charAt(index);
+      if (currentChar == '\\') {
+        index += 2;
+      } else if (currentChar == '[') {
+        index = skipClass(pattern, index);
+        if (index < 0) {
+          return -1;
+        }
+      } else {
+        if (currentChar == '(') {
+          depth++;
+        } else if (currentChar == ')') {
+          depth--;
+          if (depth == 0) {
+            return index + 1;
+          }
+        }
+        index++;
+      }
+    }
+    return -1;
+  }
+
+  // ==========================================================================
+  // Aho-Corasick automaton
+  // ==========================================================================
+
+  /**
+   * Aho-Corasick automaton for finding several literal texts in a single pass.
+   */
+  private static class Automaton {
+
+    /** Number of literal texts */
+    private final int literalCount;
+
+    /** Transitions from the root state, by character */
+    private final int[] rootTransitions;
+
+    /** Characters of the transitions of each state, sorted */
+    private final char[][] transitionChars;
+
+    /** Target states of the transitions of each state */
+    private final int[][] transitionStates;
+
+    /** Failure link of each state */
+    private final int[] failures;
+
+    /** Literal texts ending at each state */
+    private final int[][] outputs;
+
+    /** Next state with literal texts in the chain of failure links */
+    private final int[] outputLinks;
+
+    /**
+     * @param literals Literal texts.
+     */
+    Automaton(List<String> literals) {
+      literalCount = literals.size();
+
+      // Build the trie
+      List<Map<Character, Integer>> trie = new ArrayList<>();
+      List<List<Integer>> tmpOutputs = new ArrayList<>();
+      trie.add(new HashMap<Character, Integer>());
+      tmpOutputs.add(new ArrayList<Integer>());
+      for (int id = 0; id < literals.size(); id++) {
+        String literal = literals.get(id);
+        int state = 0;
+        for (int index = 0; index < literal.length(); index++) {
+          Character currentChar = Character.valueOf(literal.charAt(index));
+          Integer next = trie.get(state).get(currentChar);
+          if (next == null) {
+            next = Integer.valueOf(trie.size());
+            trie.add(new HashMap<Character, Integer>());
+            tmpOutputs.add(new ArrayList<Integer>());
+            trie.get(state).put(currentChar, next);
+          }
+          state = next.intValue();
+        }
+        tmpOutputs.get(state).add(Integer.valueOf(id));
+      }
+
+      // Compact transitions
+      int stateCount = trie.size();
+      transitionChars = new char[stateCount][];
+      transitionStates = new int[stateCount][];
+      outputs = new int[stateCount][];
+      for (int state = 0; state < stateCount; state++) {
+        Map<Character, Integer> transitions = trie.get(state);
+        char[] chars = new char[transitions.size()];
+        int index = 0;
+        for (Character currentChar : transitions.keySet()) {
+          chars[index] = currentChar.charValue();
+          index++;
+        }
+        Arrays.sort(chars);
+        int[] states = new int[chars.length];
+        for (index = 0; index < chars.length; index++) {
+          states[index] = transitions.get(Character.valueOf(chars[index])).intValue();
+        }
+        transitionChars[state] = chars;
+        transitionStates[state] = states;
+        List<Integer> stateOutputs = tmpOutputs.get(state);
+        outputs[state] = new int[stateOutputs.size()];
+        for (index = 0; index < stateOutputs.size(); index++) {
+          outputs[state][index] = stateOutputs.get(index).intValue();
+        }
+      }
+      rootTransitions = new int[Character.MAX_VALUE + 1];
+      for (int index = 0; index < transitionChars[0].length; index++) {
+        rootTransitions[transitionChars[0][index]] = transitionStates[0][index];
+      }
+
+      // Compute failure and output links, in breadth first order
+      failures = new int[stateCount];
+      outputLinks = new int[stateCount];
+      Arrays.fill(outputLinks, -1);
+      int[] queue = new int[stateCount];
+      int queueEnd = 0;
+      for (int child : transitionStates[0]) {
+        queue[queueEnd] = child;
+        queueEnd++;
+      }
+      for (int queueBegin = 0; queueBegin < queueEnd; queueBegin++) {
+        int state = queue[queueBegin];
+        char[] chars = transitionChars[state];
+        int[] states = transitionStates[state];
+        for (int index = 0; index < chars.length; index++) {
+          int child = states[index];
+          int failure = next(failures[state], chars[index]);
+          failures[child] = failure;
+          outputLinks[child] = (outputs[failure].length > 0) ? failure : outputLinks[failure];
+          queue[queueEnd] = child;
+          queueEnd++;
+        }
+      }
+    }
+
+    /**
+     * @param state Current state.
+     * @param currentChar Current character.
+     * @return Next state.
+     */
+    private int next(int state, char currentChar) {
+      while (state != 0) {
+        int index = Arrays.binarySearch(transitionChars[state], currentChar);
+        if (index >= 0) {
+          return transitionStates[state][index];
+        }
+        state = failures[state];
+      }
+      return rootTransitions[currentChar];
+    }
+
+    /**
+     * @param text Text.
+     * @return Flag for each literal text, true if it has been found in the text.
+     */
+    boolean[] findLiterals(String text) {
+      boolean[] found = new boolean[literalCount];
+      if (literalCount == 0) {
+        return found;
+      }
+      int state = 0;
+      int length = text.length();
+      for (int index = 0; index < length; index++) {
+        state = next(state, text.charAt(index));
+        int outputState = (outputs[state].length > 0) ? state : outputLinks[state];
+        while (outputState > 0) {
+          for (int id : outputs[outputState]) {
+            found[id] = true;
+          }
+          outputState = outputLinks[outputState];
+        }
+      }
+      return found;
+    }
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueString;
+
+
+/**
+ * Profile of the regular expression of a suggestion, cumulated over a run.
+ */
+public class SuggestionProfile {
+
+  /**
+   * Number of characters accessed for each character scanned
+   * above which catastrophic backtracking is suspected.
+   */
+  public final static long BACKTRACKING_FACTOR = 100;
+
+  /** Default number of suggestions in a report */
+  public final static int REPORT_LINES = 100;
+
+  /** Number of invocations */
+  private long count;
+
+  /** Cumulative time (in ns) */
+  private long totalTime;
+
+  /** Maximum time of an invocation (in ns) */
+  private long maxTime;
+
+  /** Number of invocations with suspected catastrophic backtracking */
+  private long backtrackingCount;
+
+  /** Number of invocations interrupted because the time budget was exceeded */
+  private long interruptedCount;
+
+  /**
+   * Record an invocation of the regular expression.
+   *
+   * @param time Time spent (in ns).
+   * @param accessCount Number of characters accessed.
+   * @param scannedLength Number of characters scanned.
+   * @param interrupted True if the invocation has been interrupted.
+   */
+  public synchronized void addInvocation(
+      long time, long accessCount, long scannedLength, boolean interrupted) {
+    count++;
+    totalTime += time;
+    maxTime = Math.max(maxTime, time);
+    if (accessCount > BACKTRACKING_FACTOR * Math.max(1, scannedLength)) {
+      backtrackingCount++;
+    }
+    if (interrupted) {
+      interruptedCount++;
+    }
+  }
+
+  /**
+   * Reset the profile.
+   */
+  public synchronized void reset() {
+    count = 0;
+    totalTime = 0;
+    maxTime = 0;
+    backtrackingCount = 0;
+    interruptedCount = 0;
+  }
+
+  /**
+   * @return Number of invocations.
+   */
+  public synchronized long getCount() {
+    return count;
+  }
+
+  /**
+   * @return Cumulative time (in ns).
+   */
+  public synchronized long getTotalTime() {
+    return totalTime;
+  }
+
+  /**
+   * @return Maximum time of an invocation (in ns).
+   */
+  public synchronized long getMaxTime() {
+    return maxTime;
+  }
+
+  /**
+   * @return Number of invocations with suspected catastrophic backtracking.
+   */
+  public synchronized long getBacktrackingCount() {
+    return backtrackingCount;
+  }
+
+  /**
+   * @return Number of invocations interrupted because the time budget was exceeded.
+   */
+  public synchronized long getInterruptedCount() {
+    return interruptedCount;
+  }
+
+  // ==========================================================================
+  // Report
+  // ==========================================================================
+
+  /**
+   * Order of the report.
+   */
+  public static enum Order {
+    TOTAL_TIME,
+    MAX_TIME,
+    COUNT,
+    BACKTRACKING;
+
+    /**
+     * @return Order of the report selected in the configuration.
+     */
+    public static Order getConfiguredOrder() {
+      Configuration config = Configuration.getConfiguration();
+      String name = config.getString(null, ConfigurationValueString.REGEXP_REPORT_ORDER);
+      for (Order order : values()) {
+        if (order.name().equals(name)) {
+          return order;
+        }
+      }
+      return TOTAL_TIME;
+    }
+  }
+
+  /**
+   * Build a report of the suggestions profiles.
+   *
+   * @param suggestions Suggestions.
+   * @param order Order of the report.
+   * @param maxLines Maximum number of suggestions in the report (0 for no limit).
+   * @return Report (null if no suggestion has been used).
+   */
+  public static String getReport(
+      Collection<Suggestion> suggestions, final Order order, int maxLines) {
+    if (suggestions == null) {
+      return null;
+    }
+
+    // Select and sort suggestions
+    List<Suggestion> used = new ArrayList<>();
+    long totalCount = 0;
+    long totalTime = 0;
+    for (Suggestion suggestion : suggestions) {
+      SuggestionProfile profile = suggestion.getProfile();
+      if (profile.getCount() > 0) {
+        used.add(suggestion);
+        totalCount += profile.getCount();
+        totalTime += profile.getTotalTime();
+      }
+    }
+    if (used.isEmpty()) {
+      return null;
+    }
+    Collections.sort(used, new Comparator<Suggestion>() {
+
+      @Override
+      public int compare(Suggestion o1, Suggestion o2) {
+        SuggestionProfile p1 = o1.getProfile();
+        SuggestionProfile p2 = o2.getProfile();
+        int compare = 0;
+        switch (order) {
+        case MAX_TIME:
+          compare = Long.compare(p2.getMaxTime(), p1.getMaxTime());
+          break;
+        case COUNT:
+          compare = Long.compare(p2.getCount(), p1.getCount());
+          break;
+        case BACKTRACKING:
+          compare = Long.compare(
+              p2.getBacktrackingCount() + p2.getInterruptedCount(),
+              p1.getBacktrackingCount() + p1.getInterruptedCount());
+          break;
+        default:
+          break;
+        }
+        if (compare == 0) {
+          compare = Long.compare(p2.getTotalTime(), p1.getTotalTime());
+        }
+        return compare;
+      }
+    });
+
+    // Build report
+    StringBuilder report = new StringBuilder();
+    report.append("Regular expressions of suggestions: ");
+    report.append(used.size() + " used, " + totalCount + " invocations, ");
+    report.append((totalTime / 1000000) + " ms");
+    report.append("\n  total ms / invocations / max ms / backtracking / interrupted : pattern");
+    int lines = 0;
+    for (Suggestion suggestion : used) {
+      if ((maxLines > 0) && (lines >= maxLines)) {
+        break;
+      }
+      SuggestionProfile profile = suggestion.getProfile();
+      report.append("\n  ");
+      report.append(profile.getTotalTime() / 1000000);
+      report.append(" / ");
+      report.append(profile.getCount());
+      report.append(" / ");
+      report.append(profile.getMaxTime() / 1000000);
+      report.append(" / ");
+      report.append(profile.getBacktrackingCount());
+      report.append(" / ");
+      report.append(profile.getInterruptedCount());
+      report.append(" : ");
+      report.append(suggestion.getPatternText());
+      lines++;
+    }
+    return report.toString();
+  }
+
+  /**
+   * Reset the profiles of suggestions.
+   *
+   * @param suggestions Suggestions.
+   */
+  public static void resetProfiles(Collection<Suggestion> suggestions) {
+    if (suggestions != null) {
+      for (Suggestion suggestion : suggestions) {
+        suggestion.getProfile().reset();
+      }
+    }
+  }
+}
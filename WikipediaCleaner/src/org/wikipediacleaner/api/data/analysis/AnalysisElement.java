@@ -0,0 +1,137 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data.analysis;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+
+/**
+ * Families of elements found by the page analysis.
+ *
+ * <p>Each family is found by a level of the analysis: requesting a family
+ * performs the analysis up to this level, and the independent passes
+ * of levels 5 and 6 only for the families requested.</p>
+ */
+public enum AnalysisElement {
+
+  /** Comments */
+  COMMENTS(1),
+
+  /** Tags */
+  TAGS(2),
+
+  /** Internal links */
+  INTERNAL_LINKS(3),
+
+  /** Images */
+  IMAGES(3),
+
+  /** Categories */
+  CATEGORIES(3),
+
+  /** Interwiki links */
+  INTERWIKI_LINKS(3),
+
+  /** Language links */
+  LANGUAGE_LINKS(3),
+
+  /** Functions */
+  FUNCTIONS(3),
+
+  /** Magic words */
+  MAGIC_WORDS(3),
+
+  /** Templates */
+  TEMPLATES(3),
+
+  /** Parameters */
+  PARAMETERS(3),
+
+  /** Titles */
+  TITLES(3),
+
+  /** External links */
+  EXTERNAL_LINKS(4),
+
+  /** ISBN */
+  ISBN(5),
+
+  /** ISSN */
+  ISSN(5),
+
+  /** PMID */
+  PMID(5),
+
+  /** RFC */
+  RFC(5),
+
+  /** Tables */
+  TABLES(6),
+
+  /** List items */
+  LIST_ITEMS(6),
+
+  /** Paragraphs */
+  PARAGRAPHS(6),
+
+  /** Areas of non wiki text, built from all the other families */
+  AREAS(6);
+
+  /** All families */
+  public final static Set<AnalysisElement> ALL =
+      Collections.unmodifiableSet(EnumSet.allOf(AnalysisElement.class));
+
+  /** No family: only the raw text is used */
+  public final static Set<AnalysisElement> NONE =
+      Collections.unmodifiableSet(EnumSet.noneOf(AnalysisElement.class));
+
+  /** Analysis level finding the family */
+  private final int level;
+
+  /**
+   * @param level Analysis level finding the family.
+   */
+  private AnalysisElement(int level) {
+    this.level = level;
+  }
+
+  /**
+   * @return Analysis level finding the family.
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * @param elements Families.
+   * @return Maximum analysis level for the families (0 if none).
+   */
+  public static int getMaxLevel(Set<AnalysisElement> elements) {
+    int result = 0;
+    if (elements != null) {
+      for (AnalysisElement element : elements) {
+        result = Math.max(result, element.level);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param elements Families.
+   * @return Set of families containing the families.
+   */
+  public static Set<AnalysisElement> of(AnalysisElement... elements) {
+    Set<AnalysisElement> result = EnumSet.noneOf(AnalysisElement.class);
+    if (elements != null) {
+      Collections.addAll(result, elements);
+    }
+    return Collections.unmodifiableSet(result);
+  }
+}
@@ -8,6 +8,9 @@
 
 package org.wikipediacleaner.api.data.analysis;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 /**
  * Bean for holding information about analysis performance.
  */
@@ -22,6 +25,8 @@ public class AnalysisPerformance {
   long level5_PMID;
   long level5_RFC;
   long level6;
+  long wallClock;
+  long cpu;
 
   public AnalysisPerformance() {
     level1 = 0;
@@ -34,6 +39,20 @@ public class AnalysisPerformance {
     level5_PMID = 0;
     level5_RFC = 0;
     level6 = 0;
+    wallClock = 0;
+    cpu = 0;
+  }
+
+  /**
+   * @return CPU time of the current thread in nanoseconds (0 if not available).
+   */
+  static long getCurrentThreadCpuTime() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!bean.isCurrentThreadCpuTimeSupported()) {
+      return 0;
+    }
+    long result = bean.getCurrentThreadCpuTime();
+    return (result > 0) ? result : 0;
   }
 
   /**
@@ -102,7 +121,17 @@ public class AnalysisPerformance {
     result.append(" + ");
     result.append(time6);
     result.append(")");
+    if (wallClock > 0) {
+      result.append(", wall-clock ");
+      result.append(wallClock / divider);
+      result.append(" ");
+      result.append(timeUnit);
+      result.append(", CPU ");
+      result.append(cpu / divider);
+      result.append(" ");
+      result.append(timeUnit);
+    }
     return result.toString();
   }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -7,9 +7,7 @@
 
 package org.wikipediacleaner.api.data.analysis;
 
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.wikipediacleaner.api.data.MagicWord;
@@ -41,21 +39,48 @@ public class Areas {
   /** Flag to activate areas checking */
   private static boolean CHECK_AREAS = false;
 
-  /** List of non wiki text areas */
-  private final List<Area> areas;
+  /**
+   * Begin and end indexes of the non wiki text areas, sorted and without overlap.
+   * Never modified once built, so it can be read without synchronization.
+   */
+  private volatile int[] bounds;
+
+  /** Areas added to the current batch, each one encoded as begin and end indexes */
+  private long[] pending;
+
+  /** Number of areas added to the current batch */
+  private int pendingCount;
 
   /**
    * Initialize areas.
    */
   public Areas() {
-    areas = new LinkedList<Areas.Area>();
+    bounds = new int[0];
+    pending = new long[16];
+    pendingCount = 0;
   }
 
   /**
-   * @return List of areas.
+   * @return Number of non wiki text areas.
    */
-  public List<Area> getAreas() {
-    return Collections.unmodifiableList(areas);
+  public int getAreaCount() {
+    return bounds.length / 2;
+  }
+
+  /**
+   * @param area Area number.
+   * @return Begin index of the area.
+   */
+  public int getAreaBeginIndex(int area) {
+    return bounds[2 * area];
+  }
+
+  /**
+   * @param area Area number.
+   * @return End index of the area.
+   */
+  public int getAreaEndIndex(int area) {
+    return bounds[2 * area + 1];
   }
 
   /**
@@ -63,14 +88,20 @@ public class Areas {
    * @return First index after area.
    */
   public int getEndArea(int index) {
-    for (Area area : areas) {
-      if (area.beginIndex > index) {
-        return index;
-      }
-      if (area.endIndex > index) {
-        return area.endIndex;
+    int[] tmpBounds = bounds;
+    int low = 0;
+    int high = tmpBounds.length / 2;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (tmpBounds[2 * middle] <= index) {
+        low = middle + 1;
+      } else {
+        high = middle;
       }
     }
+    if ((low > 0) && (tmpBounds[2 * low - 1] > index)) {
+      return tmpBounds[2 * low - 1];
+    }
     return index;
   }
 
@@ -79,15 +110,16 @@ public class Areas {
    * 
    * @param comments List of comments.
    */
-  public void addComments(List<ContentsComment> comments) {
+  public synchronized void addComments(List<ContentsComment> comments) {
     addContentsElements(comments);
+    merge();
   }
 
   /**
    * Add tags to non wiki text areas.
    * @param tags List of tags.
    */
-  public void addTags(List<PageElementTag> tags) {
+  public synchronized void addTags(List<PageElementTag> tags) {
     if (tags != null) {
       for (PageElementTag tag : tags) {
         if (!tag.isFullTag() &&
@@ -106,6 +138,7 @@ public class Areas {
         }
       }
     }
+    merge();
   }
 
   /**
@@ -113,7 +146,7 @@ public class Areas {
    * 
    * @param links List of internal links.
    */
-  public void addInternalLinks(List<PageElementInternalLink> links) {
+  public synchronized void addInternalLinks(List<PageElementInternalLink> links) {
     if (links != null) {
       for (PageElementInternalLink link : links) {
         int beginIndex = link.getBeginIndex();
@@ -126,6 +159,7 @@ public class Areas {
         }
       }
     }
+    merge();
   }
 
   /**
@@ -133,7 +167,7 @@ public class Areas {
    * 
    * @param images List of images.
    */
-  public void addImages(List<PageElementImage> images) {
+  public synchronized void addImages(List<PageElementImage> images) {
     if (images != null) {
       for (PageElementImage image : images) {
         int beginIndex = image.getBeginIndex();
@@ -168,6 +202,7 @@ public class Areas {
         }
       }
     }
+    merge();
   }
 
   /**
@@ -175,8 +210,9 @@ public class Areas {
    * 
    * @param categories List of categories.
    */
-  public void addCategories(List<PageElementCategory> categories) {
+  public synchronized void addCategories(List<PageElementCategory> categories) {
     addContentsElements(categories);
+    merge();
   }
 
   /**
@@ -184,7 +220,7 @@ public class Areas {
    * 
    * @param links List of interwiki links.
    */
-  public void addInterwikiLinks(List<PageElementInterwikiLink> links) {
+  public synchronized void addInterwikiLinks(List<PageElementInterwikiLink> links) {
     if (links != null) {
       for (PageElementInterwikiLink link : links) {
         int beginIndex = link.getBeginIndex();
@@ -197,6 +233,7 @@ public class Areas {
         }
       }
     }
+    merge();
   }
 
   /**
@@ -204,8 +241,9 @@ public class Areas {
    * 
    * @param links List of language links.
    */
-  public void addLanguageLinks(List<PageElementLanguageLink> links) {
+  public synchronized void addLanguageLinks(List<PageElementLanguageLink> links) {
     addContentsElements(links);
+    merge();
   }
 
   /**
@@ -213,8 +251,9 @@ public class Areas {
    * 
    * @param isbns List of ISBNs.
    */
-  public void addISBN(List<PageElementISBN> isbns) {
+  public synchronized void addISBN(List<PageElementISBN> isbns) {
     addContentsElements(isbns);
+    merge();
   }
 
   /**
@@ -222,8 +261,9 @@ public class Areas {
    * 
    * @param issns List of ISSNs.
    */
-  public void addISSN(List<PageElementISSN> issns) {
+  public synchronized void addISSN(List<PageElementISSN> issns) {
     addContentsElements(issns);
+    merge();
   }
 
   /**
@@ -231,8 +271,9 @@ public class Areas {
    * 
    * @param pmids List of PMIDs.
    */
-  public void addPMID(List<PageElementPMID> pmids) {
+  public synchronized void addPMID(List<PageElementPMID> pmids) {
     addContentsElements(pmids);
+    merge();
   }
 
   /**
@@ -240,8 +281,9 @@ public class Areas {
    * 
    * @param rfcs List of RFCs.
    */
-  public void addRFC(List<PageElementRFC> rfcs) {
+  public synchronized void addRFC(List<PageElementRFC> rfcs) {
     addContentsElements(rfcs);
+    merge();
   }
 
   /**
@@ -249,7 +291,7 @@ public class Areas {
    * 
    * @param templates List of templates.
    */
-  public void addTemplates(List<PageElementTemplate> templates) {
+  public synchronized void addTemplates(List<PageElementTemplate> templates) {
     if (templates != null) {
       for (PageElementTemplate template : templates) {
         int beginIndex = template.getBeginIndex();
@@ -278,6 +320,7 @@ public class Areas {
         }
       }
     }
+    merge();
   }
 
   /**
@@ -285,7 +328,7 @@ public class Areas {
    * 
    * @param functions List of functions.
    */
-  public void addFunctions(List<PageElementFunction> functions) {
+  public synchronized void addFunctions(List<PageElementFunction> functions) {
     if (functions != null) {
       for (PageElementFunction function : functions) {
         int beginIndex = function.getBeginIndex();
@@ -302,6 +345,7 @@ public class Areas {
         }
       }
     }
+    merge();
   }
 
   /**
@@ -309,8 +353,9 @@ public class Areas {
    * 
    * @param magicWords List of magic words.
    */
-  public void addMagicWords(List<PageElementMagicWord> magicWords) {
+  public synchronized void addMagicWords(List<PageElementMagicWord> magicWords) {
     addContentsElements(magicWords);
+    merge();
   }
 
   /**
@@ -318,8 +363,9 @@ public class Areas {
    * 
    * @param parameters List of parameters.
    */
-  public void addParameters(List<PageElementParameter> parameters) {
+  public synchronized void addParameters(List<PageElementParameter> parameters) {
     addContentsElements(parameters);
+    merge();
   }
 
   /**
@@ -327,7 +373,7 @@ public class Areas {
    * 
    * @param titles Titles.
    */
-  public void addTitles(List<PageElementTitle> titles) {
+  public synchronized void addTitles(List<PageElementTitle> titles) {
     if (titles != null) {
       for (PageElementTitle title : titles) {
         int beginIndex = title.getBeginIndex();
@@ -337,6 +383,7 @@ public class Areas {
         addArea(endIndex - after - title.getSecondLevel(), endIndex - after);
       }
     }
+    merge();
   }
 
   /**
@@ -344,7 +391,7 @@ public class Areas {
    * 
    * @param links Links.
    */
-  public void addExternalLinks(List<PageElementExternalLink> links) {
+  public synchronized void addExternalLinks(List<PageElementExternalLink> links) {
     if (links != null) {
       for (PageElementExternalLink link : links) {
         int beginIndex = link.getBeginIndex();
@@ -359,6 +406,7 @@ public class Areas {
         }
       }
     }
+    merge();
   }
 
   /**
@@ -375,47 +423,64 @@ public class Areas {
   }
 
   /**
-   * Add an area to the list of non wiki text areas.
+   * Add an area to the current batch of non wiki text areas.
+   * 
    * @param beginIndex Begin index.
    * @param endIndex End index.
    */
   private void addArea(int beginIndex, int endIndex) {
-    Iterator<Areas.Area> itArea = areas.iterator();
-    int currentIndex = 0;
-    while (itArea.hasNext()) {
-      Area area = itArea.next();
-      if (beginIndex <= area.endIndex) {
-        if (endIndex < area.beginIndex) {
-          areas.add(currentIndex, new Area(beginIndex, endIndex));
-          if (CHECK_AREAS) {
-            checkAreas();
-          }
-          return;
-        }
-        area.beginIndex = Math.min(area.beginIndex, beginIndex);
-        if (endIndex <= area.endIndex) {
-          return;
-        }
-        area.endIndex = endIndex;
-        while (itArea.hasNext()) {
-          Area tmpArea = itArea.next();
-          if (tmpArea.beginIndex > endIndex) {
-            if (CHECK_AREAS) {
-              checkAreas();
-            }
-            return;
-          }
-          area.endIndex = Math.max(area.endIndex, tmpArea.endIndex);
-          itArea.remove();
-        }
-        if (CHECK_AREAS) {
-          checkAreas();
-        }
-        return;
+    if (endIndex <= beginIndex) {
+      return;
+    }
+    if (pendingCount >= pending.length) {
+      pending = Arrays.copyOf(pending, 2 * pending.length);
+    }
+    pending[pendingCount] = ((long) beginIndex << 32) | (endIndex & 0xFFFFFFFFL);
+    pendingCount++;
+  }
+
+  /**
+   * Sort the areas of the current batch and merge them with the existing areas.
+   */
+  private void merge() {
+    if (pendingCount == 0) {
+      return;
+    }
+
+    // Sort new areas by begin index
+    Arrays.sort(pending, 0, pendingCount);
+
+    // Merge new areas with existing areas
+    int[] oldBounds = bounds;
+    int oldCount = oldBounds.length / 2;
+    int[] newBounds = new int[2 * (oldCount + pendingCount)];
+    int newCount = 0;
+    int oldIndex = 0;
+    int pendingIndex = 0;
+    while ((oldIndex < oldCount) || (pendingIndex < pendingCount)) {
+      int beginIndex;
+      int endIndex;
+      if ((pendingIndex >= pendingCount) ||
+          ((oldIndex < oldCount) &&
+           (oldBounds[2 * oldIndex] <= (int) (pending[pendingIndex] >> 32)))) {
+        beginIndex = oldBounds[2 * oldIndex];
+        endIndex = oldBounds[2 * oldIndex + 1];
+        oldIndex++;
+      } else {
+        beginIndex = (int) (pending[pendingIndex] >> 32);
+        endIndex = (int) pending[pendingIndex];
+        pendingIndex++;
+      }
+      if ((newCount > 0) && (beginIndex <= newBounds[2 * newCount - 1])) {
+        newBounds[2 * newCount - 1] = Math.max(newBounds[2 * newCount - 1], endIndex);
+      } else {
+        newBounds[2 * newCount] = beginIndex;
+        newBounds[2 * newCount + 1] = endIndex;
+        newCount++;
       }
-      currentIndex++;
     }
-    areas.add(new Area(beginIndex, endIndex));
+    bounds = Arrays.copyOf(newBounds, 2 * newCount);
+    pendingCount = 0;
     if (CHECK_AREAS) {
       checkAreas();
     }
@@ -426,69 +491,23 @@ public class Areas {
    */
   public void checkAreas() {
     int previousEnd = -1;
-    for (Areas.Area area : areas) {
-      if (area.beginIndex >= area.endIndex) {
-        System.err.println("Error " + area);
+    for (int area = 0; area < getAreaCount(); area++) {
+      int beginIndex = getAreaBeginIndex(area);
+      int endIndex = getAreaEndIndex(area);
+      if (beginIndex >= endIndex) {
+        System.err.println("Error " + beginIndex + "->" + endIndex);
       }
-      if (previousEnd >= area.beginIndex) {
-        System.err.println("Error " + area + "/" + previousEnd);
+      if (previousEnd >= beginIndex) {
+        System.err.println("Error " + beginIndex + "->" + endIndex + "/" + previousEnd);
       }
-      previousEnd = area.endIndex;
+      previousEnd = endIndex;
     }
   }
 
   public void printAreas(String text) {
     System.err.println("Areas " + text + " :");
-    for (Area area : areas) {
-      System.err.println(" " + area.getBeginIndex() + "->" + area.getEndIndex());
-    }
-  }
-
-  /**
-   * Utility class for memorizing an area.
-   */
-  public static class Area {
-
-    /**
-     * Begin index of the area.
-     */
-    int beginIndex;
-
-    /**
-     * End index of the area.
-     */
-    int endIndex;
-
-    /**
-     * @param beginIndex Begin index.
-     * @param endIndex End index.
-     */
-    Area(int beginIndex, int endIndex) {
-      this.beginIndex = beginIndex;
-      this.endIndex = endIndex;
-    }
-
-    /**
-     * @return Begin index.
-     */
-    public int getBeginIndex() {
-      return beginIndex;
-    }
-
-    /**
-     * @return End index.
-     */
-    public int getEndIndex() {
-      return endIndex;
-    }
-
-    /**
-     * @return Textual description.
-     * @see java.lang.Object#toString()
-     */
-    @Override
-    public String toString() {
-      return "Area: " + beginIndex + "->" + endIndex;
+    for (int area = 0; area < getAreaCount(); area++) {
+      System.err.println(" " + getAreaBeginIndex(area) + "->" + getAreaEndIndex(area));
     }
   }
 }
@@ -90,4 +90,17 @@ public class Contents {
     }
     return comments;
   }
+
+  /** Delimiters of wiki syntax */
+  private ContentsTokens tokens = null;
+
+  /**
+   * @return Delimiters of wiki syntax.
+   */
+  synchronized ContentsTokens tokens() {
+    if (tokens == null) {
+      tokens = ContentsTokens.tokenize(text);
+    }
+    return tokens;
+  }
 }
@@ -0,0 +1,187 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.data.analysis;
+
+import org.wikipediacleaner.api.data.contents.Interval;
+
+
+/**
+ * Localized edit of the contents between two analyses of a page.
+ *
+ * <p>An edit is local when it only replaces words (letters, digits and spaces)
+ * surrounded by white spaces by other words: such an edit can't create or remove wiki syntax,
+ * so elements of the previous analysis can be reused or analyzed again at their new position.</p>
+ */
+class ContentsEdit {
+
+  /** Index of the beginning of the edit */
+  private final int offset;
+
+  /** Length of the text removed by the edit */
+  private final int removedLength;
+
+  /** Difference of length between the new and the old contents */
+  private final int delta;
+
+  /** True if the edit is local */
+  private final boolean local;
+
+  /** Elements ending before this index in the old contents can be reused */
+  private final int reuseLimit;
+
+  /**
+   * @param oldText Old contents.
+   * @param offset Index of the beginning of the edit.
+   * @param removedLength Length of the text removed by the edit.
+   * @param insertedText Text inserted by the edit.
+   */
+  ContentsEdit(String oldText, int offset, int removedLength, String insertedText) {
+    this.offset = offset;
+    this.removedLength = removedLength;
+    this.delta = insertedText.length() - removedLength;
+
+    // Check that the edit modifies only words
+    boolean tmpLocal =
+        isWordText(oldText, offset, offset + removedLength) &&
+        isWordText(insertedText, 0, insertedText.length());
+
+    // Check that the modified words are surrounded by white spaces
+    int beginWindow = offset;
+    while ((beginWindow > 0) && Character.isLetterOrDigit(oldText.charAt(beginWindow - 1))) {
+      beginWindow--;
+    }
+    int endWindow = offset + removedLength;
+    while ((endWindow < oldText.length()) && Character.isLetterOrDigit(oldText.charAt(endWindow))) {
+      endWindow++;
+    }
+    if ((beginWindow > 0) && !isSeparator(oldText.charAt(beginWindow - 1))) {
+      tmpLocal = false;
+    }
+    if ((endWindow < oldText.length()) && !isSeparator(oldText.charAt(endWindow))) {
+      tmpLocal = false;
+    }
+
+    // Check that words are replaced by words (an empty text may become a valid name)
+    if (!hasLetterOrDigit(oldText, beginWindow, endWindow) ||
+        (!hasLetterOrDigit(oldText, beginWindow, offset) &&
+         !hasLetterOrDigit(insertedText, 0, insertedText.length()) &&
+         !hasLetterOrDigit(oldText, offset + removedLength, endWindow))) {
+      tmpLocal = false;
+    }
+    this.local = tmpLocal;
+    this.reuseLimit = (beginWindow > 0) ? oldText.lastIndexOf('\n', beginWindow - 1) + 1 : 0;
+  }
+
+  /**
+   * Compute the edit between two versions of the contents.
+   *
+   * @param oldText Old contents.
+   * @param newText New contents.
+   * @return Edit transforming the old contents into the new contents.
+   */
+  static ContentsEdit compute(String oldText, String newText) {
+    int maxLength = Math.min(oldText.length(), newText.length());
+    int prefixLength = 0;
+    while ((prefixLength < maxLength) &&
+           (oldText.charAt(prefixLength) == newText.charAt(prefixLength))) {
+      prefixLength++;
+    }
+    int suffixLength = 0;
+    while ((suffixLength < maxLength - prefixLength) &&
+           (oldText.charAt(oldText.length() - suffixLength - 1) ==
+            newText.charAt(newText.length() - suffixLength - 1))) {
+      suffixLength++;
+    }
+    return new ContentsEdit(
+        oldText, prefixLength,
+        oldText.length() - prefixLength - suffixLength,
+        newText.substring(prefixLength, newText.length() - suffixLength));
+  }
+
+  /**
+   * @return True if the edit is local.
+   */
+  boolean isLocal() {
+    return local;
+  }
+
+  /**
+   * @param element Element of the old contents.
+   * @return True if the element can be reused without being analyzed again.
+   */
+  boolean canReuse(Interval element) {
+    return element.getEndIndex() <= reuseLimit;
+  }
+
+  /**
+   * @param index Index in the old contents.
+   * @return Index in the new contents (-1 if the index is inside the removed text).
+   */
+  int shiftIndex(int index) {
+    if (index <= offset) {
+      return index;
+    }
+    if (index >= offset + removedLength) {
+      return index + delta;
+    }
+    return -1;
+  }
+
+  /**
+   * @param element Element of the old contents.
+   * @param newElement Element of the new contents.
+   * @return True if the new element is at the new position of the old element.
+   */
+  boolean isShifted(Interval element, Interval newElement) {
+    int beginIndex = shiftIndex(element.getBeginIndex());
+    int endIndex = shiftIndex(element.getEndIndex());
+    return (beginIndex >= 0) && (endIndex >= 0) &&
+        (newElement.getBeginIndex() == beginIndex) &&
+        (newElement.getEndIndex() == endIndex);
+  }
+
+  /**
+   * @param text Text.
+   * @param beginIndex Begin index.
+   * @param endIndex End index.
+   * @return True if the text contains only letters, digits and spaces.
+   */
+  private static boolean isWordText(String text, int beginIndex, int endIndex) {
+    for (int index = beginIndex; index < endIndex; index++) {
+      char currentChar = text.charAt(index);
+      if (!Character.isLetterOrDigit(currentChar) && (currentChar != ' ')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param text Text.
+   * @param beginIndex Begin index.
+   * @param endIndex End index.
+   * @return True if the text contains a letter or a digit.
+   */
+  private static boolean hasLetterOrDigit(String text, int beginIndex, int endIndex) {
+    for (int index = beginIndex; index < endIndex; index++) {
+      if (Character.isLetterOrDigit(text.charAt(index))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param character Character.
+   * @return True if the character is a separator around modified words.
+   */
+  private static boolean isSeparator(char character) {
+    return (character == ' ') || (character == '\n');
+  }
+}
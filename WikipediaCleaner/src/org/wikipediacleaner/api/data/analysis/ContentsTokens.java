@@ -0,0 +1,134 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.data.analysis;
+
+import java.util.Arrays;
+
+
+/**
+ * Positions of the delimiters of wiki syntax in the page contents.
+ *
+ * <p>The delimiters are found in a single pass over the text, and kept as a compact
+ * stream of tokens (position and type) sorted by position, so that the analysis
+ * only needs to check the positions where an element may begin.</p>
+ */
+class ContentsTokens {
+
+  /** Token for "&lt;" (tags) */
+  static final byte TAG = 0;
+
+  /** Token for "[[" (internal links, images, categories, ...) */
+  static final byte DOUBLE_SQUARE_BRACKETS = 1;
+
+  /** Token for "{{" (templates, functions, parameters) */
+  static final byte DOUBLE_CURLY_BRACKETS = 2;
+
+  /** Token for "=" at the beginning of a line or after a comment (titles) */
+  static final byte EQUAL = 3;
+
+  /** Token for "__" (magic words) */
+  static final byte DOUBLE_UNDERSCORE = 4;
+
+  /** Positions of the tokens */
+  private final int[] positions;
+
+  /** Types of the tokens */
+  private final byte[] types;
+
+  /** Number of tokens */
+  private final int size;
+
+  /**
+   * @param text Text of the page.
+   * @return Tokens for the text.
+   */
+  static ContentsTokens tokenize(String text) {
+    char[] chars = text.toCharArray();
+    int[] positions = new int[Math.max(16, chars.length >> 5)];
+    byte[] types = new byte[positions.length];
+    int size = 0;
+    char previousChar = '\n';
+    for (int index = 0; index < chars.length; index++) {
+      char currentChar = chars[index];
+      byte type = -1;
+      switch (currentChar) {
+      case '<':
+        type = TAG;
+        break;
+      case '[':
+        if ((index + 1 < chars.length) && (chars[index + 1] == '[')) {
+          type = DOUBLE_SQUARE_BRACKETS;
+        }
+        break;
+      case '{':
+        if ((index + 1 < chars.length) && (chars[index + 1] == '{')) {
+          type = DOUBLE_CURLY_BRACKETS;
+        }
+        break;
+      case '=':
+        if ((previousChar == '\n') || (previousChar == '>')) {
+          type = EQUAL;
+        }
+        break;
+      case '_':
+        if ((index + 1 < chars.length) && (chars[index + 1] == '_')) {
+          type = DOUBLE_UNDERSCORE;
+        }
+        break;
+      default:
+        break;
+      }
+      if (type >= 0) {
+        if (size == positions.length) {
+          positions = Arrays.copyOf(positions, 2 * size);
+          types = Arrays.copyOf(types, 2 * size);
+        }
+        positions[size] = index;
+        types[size] = type;
+        size++;
+      }
+      previousChar = currentChar;
+    }
+    return new ContentsTokens(positions, types, size);
+  }
+
+  /**
+   * @param positions Positions of the tokens.
+   * @param types Types of the tokens.
+   * @param size Number of tokens.
+   */
+  private ContentsTokens(int[] positions, byte[] types, int size) {
+    this.positions = positions;
+    this.types = types;
+    this.size = size;
+  }
+
+  /**
+   * @return Number of tokens.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @param token Token number.
+   * @return Position of the token in the text.
+   */
+  int getPosition(int token) {
+    return positions[token];
+  }
+
+  /**
+   * @param token Token number.
+   * @return Type of the token.
+   */
+  byte getType(int token) {
+    return types[token];
+  }
+}
@@ -8,10 +8,15 @@
 package org.wikipediacleaner.api.data.analysis;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.configuration.WPCConfiguration;
@@ -21,6 +26,7 @@ import org.wikipediacleaner.api.constants.wiki.AbstractWikiSettings;
 import org.wikipediacleaner.api.data.MagicWord;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysisUtils;
+import org.wikipediacleaner.api.data.PageElement;
 import org.wikipediacleaner.api.data.PageElementCategory;
 import org.wikipediacleaner.api.data.PageElementExternalLink;
 import org.wikipediacleaner.api.data.PageElementFunction;
@@ -42,6 +48,9 @@ import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.PageElementTitle;
 import org.wikipediacleaner.api.data.contents.ContentsElement;
 import org.wikipediacleaner.api.data.contents.ContentsElementComparator;
+import org.wikipediacleaner.api.data.contents.ContentsIndex;
+import org.wikipediacleaner.api.data.contents.ContentsInterval;
+import org.wikipediacleaner.api.data.contents.Interval;
 import org.wikipediacleaner.api.data.contents.comment.ContainerComment;
 import org.wikipediacleaner.api.data.contents.comment.ContentsComment;
 import org.wikipediacleaner.utils.Configuration;
@@ -69,11 +78,65 @@ public class PageAnalysis {
   /** True if spelling should be checked */
   private boolean checkSpelling;
 
+  /** Previous analysis of the page, used for an incremental analysis */
+  private PageAnalysis previous;
+
+  /** Edit between the previous contents and the current contents */
+  private ContentsEdit edit;
+
   /**
    * @param page Page.
    * @param contents Page contents (may differ from page.getContents()).
    */
   public PageAnalysis(Page page, String contents) {
+    this(page, contents, null, null);
+  }
+
+  /**
+   * Create an analysis that can reuse the results of a previous analysis.
+   * 
+   * <p>When the contents differ from the previous contents only by a local edit,
+   * elements located before the edit are reused and other elements are only analyzed
+   * again at their new position, instead of analyzing the full text.
+   * Any difference in the structure of the page falls back to a full analysis.</p>
+   * 
+   * @param page Page.
+   * @param contents Page contents (may differ from page.getContents()).
+   * @param previous Previous analysis of the page (may be null).
+   */
+  public PageAnalysis(Page page, String contents, PageAnalysis previous) {
+    this(page, contents, previous, null);
+  }
+
+  /**
+   * Create an analysis for an edit of the contents of a previous analysis.
+   * 
+   * @param previous Previous analysis of the page.
+   * @param offset Index of the beginning of the edit in the previous contents.
+   * @param removedLength Length of the text removed by the edit.
+   * @param insertedText Text inserted by the edit.
+   * @see #PageAnalysis(Page, String, PageAnalysis)
+   */
+  public PageAnalysis(
+      PageAnalysis previous,
+      int offset, int removedLength, String insertedText) {
+    this(
+        previous.getPage(),
+        previous.getContents().substring(0, offset) + insertedText +
+        previous.getContents().substring(offset + removedLength),
+        previous,
+        new ContentsEdit(previous.getContents(), offset, removedLength, insertedText));
+  }
+
+  /**
+   * @param page Page.
+   * @param contents Page contents (may differ from page.getContents()).
+   * @param previous Previous analysis of the page (may be null).
+   * @param edit Edit between the previous contents and the contents (may be null).
+   */
+  private PageAnalysis(
+      Page page, String contents,
+      PageAnalysis previous, ContentsEdit edit) {
     this.page = page;
     this.contents = Contents.createContents((contents != null) ? contents : page.getContents());
     this.areas = new Areas();
@@ -82,6 +145,17 @@ public class PageAnalysis {
     Configuration config = Configuration.getConfiguration();
     checkSpelling = config.getBoolean(
         null, ConfigurationValueBoolean.SPELLING);
+
+    // Incremental analysis, only if the previous analysis is complete up to level 4
+    if ((previous != null) && (previous.page == page) && previous.isLevel4Done()) {
+      if (edit == null) {
+        edit = ContentsEdit.compute(previous.getContents(), this.contents.getText());
+      }
+      if (edit.isLocal()) {
+        this.previous = previous;
+        this.edit = edit;
+      }
+    }
   }
 
   /**
@@ -174,45 +248,289 @@ public class PageAnalysis {
     return checkSpelling;
   }
 
+  /** Minimum length of the contents for which a parallel analysis is useful. */
+  public final static int PARALLEL_ANALYSIS_MIN_LENGTH = 500000;
+
   /**
    * Perform page analysis.
    * 
    * @param perf Performance analysis.
    */
   public void performFullPageAnalysis(AnalysisPerformance perf) {
+    performFullPageAnalysis(perf, false);
+  }
+
+  /**
+   * Perform page analysis.
+   * 
+   * In parallel mode, the analysis of levels 5 and 6 is split in independent passes
+   * performed concurrently on the common fork-join pool.
+   * 
+   * @param perf Performance analysis.
+   * @param parallel True to perform independent passes in parallel.
+   */
+  public void performFullPageAnalysis(AnalysisPerformance perf, boolean parallel) {
+    performPageAnalysis(AnalysisElement.ALL, perf, parallel);
+  }
+
+  /**
+   * Perform page analysis only for some families of elements.
+   * 
+   * Other families are still analyzed lazily when they are requested.
+   * 
+   * @param elements Families of elements to analyze.
+   * @param perf Performance analysis.
+   */
+  public void performPageAnalysis(Set<AnalysisElement> elements, AnalysisPerformance perf) {
+    performPageAnalysis(elements, perf, false);
+  }
+
+  /**
+   * Perform page analysis only for some families of elements.
+   * 
+   * Other families are still analyzed lazily when they are requested.
+   * In parallel mode, the analysis of levels 5 and 6 is split in independent passes
+   * performed concurrently on the common fork-join pool.
+   * 
+   * @param elements Families of elements to analyze.
+   * @param perf Performance analysis.
+   * @param parallel True to perform independent passes in parallel.
+   */
+  public void performPageAnalysis(
+      Set<AnalysisElement> elements,
+      AnalysisPerformance perf, boolean parallel) {
+    if (elements == null) {
+      elements = AnalysisElement.ALL;
+    }
+    int maxLevel = AnalysisElement.getMaxLevel(elements);
+    boolean areas = elements.contains(AnalysisElement.AREAS);
+    long cpu0 = AnalysisPerformance.getCurrentThreadCpuTime();
     long time0 = System.nanoTime();
-    level1Analysis();
+    if (maxLevel >= 1) {
+      level1Analysis();
+    }
     long time1 = System.nanoTime();
-    level2Analysis();
+    if (maxLevel >= 2) {
+      level2Analysis();
+    }
     long time2 = System.nanoTime();
-    level3Analysis();
+    if (maxLevel >= 3) {
+      level3Analysis();
+    }
     long time3 = System.nanoTime();
-    level4Analysis();
+    if (maxLevel >= 4) {
+      level4Analysis();
+    }
     long time4 = System.nanoTime();
-    level5AnalysisISBN();
-    long time4a = System.nanoTime();
-    level5AnalysisISSN();
-    long time4b = System.nanoTime();
-    level5AnalysisPMID();
-    long time4c = System.nanoTime();
-    level5AnalysisRFC();
-    long time5 = System.nanoTime();
-    level6Analysis();
+
+    // Independent passes of levels 5 and 6
+    AnalysisPass passISBN = new AnalysisPass() {
+      @Override
+      protected void analyze() {
+        level5AnalysisISBN();
+      }
+    };
+    AnalysisPass passISSN = new AnalysisPass() {
+      @Override
+      protected void analyze() {
+        level5AnalysisISSN();
+      }
+    };
+    AnalysisPass passPMID = new AnalysisPass() {
+      @Override
+      protected void analyze() {
+        level5AnalysisPMID();
+      }
+    };
+    AnalysisPass passRFC = new AnalysisPass() {
+      @Override
+      protected void analyze() {
+        level5AnalysisRFC();
+      }
+    };
+    AnalysisPass passTables = new AnalysisPass() {
+      @Override
+      protected void analyze() {
+        level6AnalysisTables();
+      }
+    };
+    AnalysisPass passListItems = new AnalysisPass() {
+      @Override
+      protected void analyze() {
+        level6AnalysisListItems();
+      }
+    };
+    AnalysisPass passParagraphs = new AnalysisPass() {
+      @Override
+      protected void analyze() {
+        level6AnalysisParagraphs();
+      }
+    };
+    List<AnalysisPass> passes = new ArrayList<>();
+    addPass(passes, passISBN, areas || elements.contains(AnalysisElement.ISBN));
+    addPass(passes, passISSN, areas || elements.contains(AnalysisElement.ISSN));
+    addPass(passes, passPMID, areas || elements.contains(AnalysisElement.PMID));
+    addPass(passes, passRFC, areas || elements.contains(AnalysisElement.RFC));
+    addPass(passes, passTables, areas || elements.contains(AnalysisElement.TABLES));
+    addPass(passes, passListItems, areas || elements.contains(AnalysisElement.LIST_ITEMS));
+    addPass(passes, passParagraphs, areas || elements.contains(AnalysisElement.PARAGRAPHS));
+    if (parallel && (passes.size() > 1)) {
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (int passNum = 1; passNum < passes.size(); passNum++) {
+        tasks.add(ForkJoinPool.commonPool().submit(passes.get(passNum)));
+      }
+      passes.get(0).run();
+      for (ForkJoinTask<?> task : tasks) {
+        task.join();
+      }
+    } else {
+      for (AnalysisPass pass : passes) {
+        pass.run();
+      }
+    }
     long time6 = System.nanoTime();
+    long cpu6 = AnalysisPerformance.getCurrentThreadCpuTime();
+
     if (perf != null) {
       perf.level1 += (time1 - time0);
       perf.level2 += (time2 - time1);
       perf.level3 += (time3 - time2);
       perf.level4 += (time4 - time3);
-      perf.level5 += (time5 - time4);
-      perf.level5_ISBN += (time4a - time4);
-      perf.level5_ISSN += (time4b - time4a);
-      perf.level5_PMID += (time4c - time4b);
-      perf.level5_RFC += (time5 - time4c);
-      perf.level6 += (time6 - time5);
+      perf.level5_ISBN += passISBN.time;
+      perf.level5_ISSN += passISSN.time;
+      perf.level5_PMID += passPMID.time;
+      perf.level5_RFC += passRFC.time;
+      perf.level5 += passISBN.time + passISSN.time + passPMID.time + passRFC.time;
+      perf.level6 += passTables.time + passListItems.time + passParagraphs.time;
+      perf.wallClock += (time6 - time0);
+      long cpu = cpu6 - cpu0;
+      if (parallel && (passes.size() > 1)) {
+        for (AnalysisPass pass : passes) {
+          cpu += pass.cpuTime;
+        }
+        cpu -= passes.get(0).cpuTime;
+      }
+      perf.cpu += cpu;
     }
   }
 
+  /**
+   * @param passes List of passes.
+   * @param pass Pass to add to the list.
+   * @param needed True if the pass is needed.
+   */
+  private static void addPass(List<AnalysisPass> passes, AnalysisPass pass, boolean needed) {
+    if (needed) {
+      passes.add(pass);
+    }
+  }
+
+  /** Lock for freezing the analysis */
+  private final Object lockFreeze = new Object();
+
+  /** True when the analysis is complete and can't be modified anymore */
+  private volatile boolean frozen = false;
+
+  /**
+   * Perform the full page analysis and freeze it.
+   * 
+   * Once frozen, the lists of elements are unmodifiable and all the lookups are
+   * done without any lock, so that several algorithms can use the analysis concurrently.
+   */
+  public void freeze() {
+    if (frozen) {
+      return;
+    }
+    synchronized (lockFreeze) {
+      if (frozen) {
+        return;
+      }
+
+      // Perform all the lazy parts of the analysis
+      performFullPageAnalysis(null);
+      getElementsIndex();
+      getTemplatesByName("");
+      getCompleteTags("");
+      for (PageElementTag tag : tags) {
+        getCompleteTags(tag.getNormalizedName());
+      }
+
+      // Make elements unmodifiable
+      tags = Collections.unmodifiableList(tags);
+      internalLinks = Collections.unmodifiableList(internalLinks);
+      images = Collections.unmodifiableList(images);
+      categories = Collections.unmodifiableList(categories);
+      interwikiLinks = Collections.unmodifiableList(interwikiLinks);
+      languageLinks = Collections.unmodifiableList(languageLinks);
+      functions = Collections.unmodifiableList(functions);
+      magicWords = Collections.unmodifiableList(magicWords);
+      templates = Collections.unmodifiableList(templates);
+      parameters = Collections.unmodifiableList(parameters);
+      titles = Collections.unmodifiableList(titles);
+      externalLinks = Collections.unmodifiableList(externalLinks);
+      isbns = Collections.unmodifiableList(isbns);
+      issns = Collections.unmodifiableList(issns);
+      pmids = Collections.unmodifiableList(pmids);
+      rfcs = Collections.unmodifiableList(rfcs);
+      tables = Collections.unmodifiableList(tables);
+      listItems = Collections.unmodifiableList(listItems);
+      paragraphs = Collections.unmodifiableList(paragraphs);
+      freezeValues(tagsByName);
+      freezeValues(completeTagsByName);
+      freezeValues(templatesByName);
+
+      // Publish the frozen analysis
+      frozen = true;
+    }
+  }
+
+  /**
+   * @param map Map of elements.
+   */
+  private static <T> void freezeValues(Map<String, List<T>> map) {
+    for (Map.Entry<String, List<T>> entry : map.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+  }
+
+  /**
+   * @return True if the analysis is frozen.
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Independent pass of the analysis, keeping track of its duration.
+   */
+  private abstract static class AnalysisPass implements Runnable {
+
+    /** Elapsed time of the pass */
+    long time;
+
+    /** CPU time of the pass */
+    long cpuTime;
+
+    /**
+     * Perform the pass.
+     * 
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+      long cpu0 = AnalysisPerformance.getCurrentThreadCpuTime();
+      long time0 = System.nanoTime();
+      analyze();
+      time = System.nanoTime() - time0;
+      cpuTime = AnalysisPerformance.getCurrentThreadCpuTime() - cpu0;
+    }
+
+    /**
+     * Analyze the page.
+     */
+    protected abstract void analyze();
+  }
+
   // ==========================================================================
   // Elements management
   // ==========================================================================
@@ -307,100 +625,109 @@ public class PageAnalysis {
     return elements;
   }
 
-  /**
-   * @param currentIndex Index.
-   * @return Element at the specified index.
-   */
-  public ContentsElement isInElement(int currentIndex) {
-
-    // Check if in comment
-    ContentsElement element = comments().getSmallestAt(currentIndex);
-    if (element != null) {
-      return element;
-    }
-
-    // Check if in internal link
-    PageElementInternalLink internalLink = isInInternalLink(currentIndex);
-    element = internalLink;
+  /** Lock for building the index of all elements */
+  private final Object lockElementsIndex = new Object();
 
-    // Check if in template
-    PageElementTemplate template = isInTemplate(currentIndex);
-    if ((template != null) &&
-        ((element == null) || (element.getBeginIndex() < template.getBeginIndex()))) {
-      element = template;
-    }
+  /** Index of all elements in the page, whatever their type */
+  private ContentsIndex<ContentsElement> elementsIndex;
 
-    // Check if in image
-    PageElementImage image = isInImage(currentIndex);
-    if ((image != null) &&
-        ((element == null) || (element.getBeginIndex() < image.getBeginIndex()))) {
-      element = image;
-    }
+  /** Index of the areas between complete opening and closing tags */
+  private ContentsIndex<ContentsInterval> completeTagsIndex;
 
-    // Check if in category
-    PageElementCategory category = isInCategory(currentIndex);
-    if ((category != null) &&
-        ((element == null) || (element.getBeginIndex() < category.getBeginIndex()))) {
-      element = category;
-    }
-
-    // Check if in interwiki
-    PageElementInterwikiLink interwiki = isInInterwikiLink(currentIndex);
-    if ((interwiki != null) &&
-        ((element == null) || (element.getBeginIndex() < interwiki.getBeginIndex()))) {
-      element = interwiki;
-    }
-
-    // Check if in language link
-    PageElementLanguageLink language = isInLanguageLink(currentIndex);
-    if ((language != null) &&
-        ((element == null) || (element.getBeginIndex() < language.getBeginIndex()))) {
-      element = language;
+  /**
+   * Build the index of all elements in the page, whatever their type.
+   * 
+   * @return Index of all elements.
+   */
+  private ContentsIndex<ContentsElement> getElementsIndex() {
+    if (frozen) {
+      return elementsIndex;
     }
-
-    // Check if in external link
-    PageElementExternalLink externalLink = isInExternalLink(currentIndex);
-    if ((externalLink != null) &&
-        ((element == null) || (element.getBeginIndex() < externalLink.getBeginIndex()))) {
-      element = externalLink;
+    level6Analysis();
+    synchronized (lockElementsIndex) {
+      if (elementsIndex == null) {
+        List<ContentsElement> elements = new ArrayList<>();
+        elements.addAll(internalLinks);
+        elements.addAll(templates);
+        elements.addAll(images);
+        elements.addAll(categories);
+        elements.addAll(interwikiLinks);
+        elements.addAll(languageLinks);
+        elements.addAll(externalLinks);
+        elements.addAll(tags);
+        elements.addAll(parameters);
+        elements.addAll(functions);
+        elements.addAll(magicWords);
+        elements.addAll(isbns);
+        elements.addAll(tables);
+        elements.addAll(listItems);
+        List<ContentsInterval> completeTags = new ArrayList<>();
+        for (PageElementTag tag : tags) {
+          if (!tag.isFullTag() && tag.isComplete() && !tag.isEndTag()) {
+            completeTags.add(new ContentsInterval(
+                tag.getCompleteBeginIndex(), tag.getCompleteEndIndex()));
+          }
+        }
+        completeTagsIndex = new ContentsIndex<>(completeTags);
+        elementsIndex = new ContentsIndex<>(elements);
+      }
+      return elementsIndex;
     }
+  }
 
-    // Check if in tag
-    PageElementTag tag = isInTag(currentIndex);
-    if ((tag != null) &&
-        ((element == null) || (element.getBeginIndex() < tag.getBeginIndex()))) {
-      element = tag;
+  /**
+   * @param elements Elements containing an index, largest elements first.
+   * @param type Type of element.
+   * @return Smallest element of the given type.
+   */
+  private static <T extends ContentsElement> T getSmallest(
+      List<ContentsElement> elements, Class<T> type) {
+    for (int index = elements.size(); index > 0; index--) {
+      ContentsElement element = elements.get(index - 1);
+      if (type.isInstance(element)) {
+        return type.cast(element);
+      }
     }
+    return null;
+  }
 
-    // Check if in parameter
-    PageElementParameter parameter = isInParameter(currentIndex);
-    if ((parameter != null) &&
-        ((element == null) || (element.getBeginIndex() < parameter.getBeginIndex()))) {
-      element = parameter;
+  /**
+   * @param elements Elements containing an index, largest elements first.
+   * @param type Type of element.
+   * @return Largest element of the given type.
+   */
+  private static <T extends ContentsElement> T getLargest(
+      List<ContentsElement> elements, Class<T> type) {
+    for (ContentsElement element : elements) {
+      if (type.isInstance(element)) {
+        return type.cast(element);
+      }
     }
+    return null;
+  }
 
-    // Check if in function
-    PageElementFunction function = isInFunction(currentIndex);
-    if ((function != null) &&
-        ((element == null) || (element.getBeginIndex() < function.getBeginIndex()))) {
-      element = function;
-    }
+  /**
+   * @param currentIndex Index.
+   * @return Element at the specified index.
+   */
+  public ContentsElement isInElement(int currentIndex) {
 
-    // Check if in ISBN
-    PageElementISBN isbn = isInISBN(currentIndex);
-    if ((isbn != null) &&
-        ((element == null) || (element.getBeginIndex() < isbn.getBeginIndex()))) {
-      element = isbn;
+    // Check if in comment
+    ContentsElement element = comments().getSmallestAt(currentIndex);
+    if (element != null) {
+      return element;
     }
 
-    // Check if in table
-    PageElementTable table = isInTable(currentIndex);
-    if ((table != null) &&
-        ((element == null) || (element.getBeginIndex() < table.getBeginIndex()))) {
-      element = table;
+    // Check if in other elements, except magic words and list items
+    List<ContentsElement> elements = getElementsIndex().findAllAt(currentIndex);
+    for (int index = elements.size(); index > 0; index--) {
+      element = elements.get(index - 1);
+      if (!(element instanceof PageElementMagicWord) &&
+          !(element instanceof PageElementListItem)) {
+        return element;
+      }
     }
-
-    return element;
+    return null;
   }
 
   /**
@@ -411,33 +738,36 @@ public class PageAnalysis {
    * @return True if begin and end indexes are in the same area.
    */
   public boolean areInSameArea(int beginIndex, int endIndex) {
+    ContentsIndex<ContentsElement> index = getElementsIndex();
+    List<ContentsElement> beginElements = index.findAllAt(beginIndex);
+    List<ContentsElement> endElements = index.findAllAt(endIndex);
 
     // Check for internal links
-    PageElementInternalLink iLink = isInInternalLink(beginIndex);
+    PageElementInternalLink iLink = getLargest(beginElements, PageElementInternalLink.class);
     if ((iLink != null) && (iLink.getBeginIndex() < beginIndex)) {
       if (iLink.getEndIndex() < endIndex) {
         return false;
       }
     } else {
-      if (isInInternalLink(endIndex) != null) {
+      if (getLargest(endElements, PageElementInternalLink.class) != null) {
         return false;
       }
     }
 
     // Check for external links
-    PageElementExternalLink eLink = isInExternalLink(beginIndex);
+    PageElementExternalLink eLink = getLargest(beginElements, PageElementExternalLink.class);
     if ((eLink != null) && (eLink.getBeginIndex() < beginIndex)) {
       if (eLink.getEndIndex() < endIndex) {
         return false;
       }
     } else {
-      if (isInExternalLink(endIndex) != null) {
+      if (getLargest(endElements, PageElementExternalLink.class) != null) {
         return false;
       }
     }
 
     // Check for templates
-    PageElementTemplate template = isInTemplate(beginIndex);
+    PageElementTemplate template = getSmallest(beginElements, PageElementTemplate.class);
     if ((template != null) && (template.getBeginIndex() < beginIndex)) {
       if (template.getEndIndex() < endIndex) {
         return false;
@@ -447,81 +777,74 @@ public class PageAnalysis {
         return false;
       }
     } else {
-      if (isInTemplate(endIndex) != null) {
+      if (getSmallest(endElements, PageElementTemplate.class) != null) {
         return false;
       }
     }
 
     // Check for images
-    PageElementImage image = isInImage(beginIndex);
+    PageElementImage image = getSmallest(beginElements, PageElementImage.class);
     if ((image != null) && (image.getBeginIndex() < beginIndex)) {
       if (image.getEndIndex() < endIndex) {
         return false;
       }
     } else {
-      if (isInImage(endIndex) != null) {
+      if (getSmallest(endElements, PageElementImage.class) != null) {
         return false;
       }
     }
 
     // Check for parameters
-    PageElementParameter parameter = isInParameter(beginIndex);
+    PageElementParameter parameter = getSmallest(beginElements, PageElementParameter.class);
     if ((parameter != null) && (parameter.getBeginIndex() < beginIndex)) {
       if (parameter.getEndIndex() < endIndex) {
         return false;
       }
     } else {
-      if (isInParameter(endIndex) != null) {
+      if (getSmallest(endElements, PageElementParameter.class) != null) {
         return false;
       }
     }
 
     // Check for functions
-    PageElementFunction function = isInFunction(beginIndex);
+    PageElementFunction function = getSmallest(beginElements, PageElementFunction.class);
     if ((function != null) && (function.getBeginIndex() < beginIndex)) {
       if (function.getEndIndex() < endIndex) {
         return false;
       }
     } else {
-      if (isInFunction(endIndex) != null) {
+      if (getSmallest(endElements, PageElementFunction.class) != null) {
         return false;
       }
     }
 
     // Check for magic words
-    PageElementMagicWord magicWord = isInMagicWord(beginIndex);
+    PageElementMagicWord magicWord = getSmallest(beginElements, PageElementMagicWord.class);
     if ((magicWord != null) && (magicWord.getBeginIndex() < beginIndex)) {
       if (magicWord.getEndIndex() < endIndex) {
         return false;
       }
     } else {
-      if (isInMagicWord(endIndex) != null) {
+      if (getSmallest(endElements, PageElementMagicWord.class) != null) {
         return false;
       }
     }
 
     // Check for tags
-    List<PageElementTag> allTags = getTags();
-    for (PageElementTag tag : allTags) {
-      if (!tag.isFullTag()) {
-        if (tag.isComplete()) {
-          int tagBeginIndex = tag.getCompleteBeginIndex();
-          int tagEndIndex = tag.getCompleteEndIndex();
-          if ((beginIndex > tagBeginIndex) && (beginIndex < tagEndIndex)) {
-            if (endIndex >= tagEndIndex) {
-              return false;
-            }
-          } else if ((endIndex > tagBeginIndex) && (endIndex < tagEndIndex)) {
-            return false;
-          }
-        } else {
-          // NOTE: should we check for other unclosed tags?
-        }
+    for (ContentsInterval tag : completeTagsIndex.findAllAt(beginIndex)) {
+      if ((tag.getBeginIndex() < beginIndex) && (endIndex >= tag.getEndIndex())) {
+        return false;
+      }
+    }
+    for (ContentsInterval tag : completeTagsIndex.findAllAt(endIndex)) {
+      if ((tag.getBeginIndex() < endIndex) &&
+          ((beginIndex <= tag.getBeginIndex()) || (beginIndex >= tag.getEndIndex()))) {
+        return false;
       }
     }
 
     // Check for tables
-    PageElementTable table = isInTable(beginIndex);
+    PageElementTable table = getSmallest(beginElements, PageElementTable.class);
     if (table != null) {
       if (table.getEndIndex() < endIndex) {
         return false;
@@ -531,19 +854,19 @@ public class PageAnalysis {
         return false;
       }
     } else {
-      if (isInTable(endIndex) != null) {
+      if (getSmallest(endElements, PageElementTable.class) != null) {
         return false;
       }
     }
 
     // Check for lists
-    PageElementListItem listItem = isInListItem(beginIndex);
+    PageElementListItem listItem = getLargest(beginElements, PageElementListItem.class);
     if (listItem != null) {
       if (listItem.getEndIndex() < endIndex) {
         return false;
       }
     } else {
-      if (isInListItem(endIndex) != null) {
+      if (getLargest(endElements, PageElementListItem.class) != null) {
         return false;
       }
     }
@@ -567,16 +890,34 @@ public class PageAnalysis {
   /** Internal lock for level 4 analysis. */
   private final Object level4Lock = new Object();
 
-  /** Internal lock for level 5 analysis. */
-  private final Object level5Lock = new Object();
+  /** Internal lock for level 5 analysis of ISBN. */
+  private final Object level5ISBNLock = new Object();
+
+  /** Internal lock for level 5 analysis of ISSN. */
+  private final Object level5ISSNLock = new Object();
+
+  /** Internal lock for level 5 analysis of PMID. */
+  private final Object level5PMIDLock = new Object();
 
-  /** Internal lock for level 6 analysis. */
-  private final Object level6Lock = new Object();
+  /** Internal lock for level 5 analysis of RFC. */
+  private final Object level5RFCLock = new Object();
+
+  /** Internal lock for level 6 analysis of tables. */
+  private final Object level6TablesLock = new Object();
+
+  /** Internal lock for level 6 analysis of list items. */
+  private final Object level6ListItemsLock = new Object();
+
+  /** Internal lock for level 6 analysis of paragraphs. */
+  private final Object level6ParagraphsLock = new Object();
 
   /**
    * Perform a level 1 analysis of the page (comments).
    */
   private void level1Analysis() {
+    if (frozen) {
+      return;
+    }
     synchronized (level1Lock) {
       if (level1Done) {
         return;
@@ -603,6 +944,9 @@ public class PageAnalysis {
    * Perform a level analysis 2 of the page (tags).
    */
   private void level2Analysis() {
+    if (frozen) {
+      return;
+    }
     synchronized (level2Lock) {
       if (tags != null) {
         return;
@@ -619,15 +963,15 @@ public class PageAnalysis {
       // Initialize
       tags = new ArrayList<PageElementTag>();
 
-      // Go through all the text of the page
-      int maxIndex = contents.length();
+      // Go through all the "<" in the text of the page
       String text = contents.getText();
+      ContentsTokens tokens = contents.tokens();
+      int tokenCount = tokens.size();
       int currentIndex = 0;
-      while (currentIndex < maxIndex) {
-        currentIndex = text.indexOf('<', currentIndex);
-        if (currentIndex < 0) {
-          currentIndex = maxIndex;
-        } else {
+      for (int token = 0; token < tokenCount; token++) {
+        if ((tokens.getType(token) == ContentsTokens.TAG) &&
+            (tokens.getPosition(token) >= currentIndex)) {
+          currentIndex = tokens.getPosition(token);
           int nextIndex = areas.getEndArea(currentIndex);
           if (nextIndex > currentIndex) {
             currentIndex = nextIndex;
@@ -668,6 +1012,7 @@ public class PageAnalysis {
 
       // Update areas of non wiki text
       areas.addTags(tags);
+      tagsIndex = new ContentsIndex<>(tags);
 
       if (perf != null) {
         perf.printEndAlways();
@@ -680,6 +1025,9 @@ public class PageAnalysis {
    * Perform a level 3 analysis of the page (links, templates, ...).
    */
   private void level3Analysis() {
+    if (frozen) {
+      return;
+    }
     synchronized (level3Lock) {
       if (internalLinks != null) {
         return;
@@ -694,79 +1042,15 @@ public class PageAnalysis {
         perf.startPart();
       }
 
-      internalLinks = new ArrayList<PageElementInternalLink>();
-      images = new ArrayList<PageElementImage>();
-      categories = new ArrayList<PageElementCategory>();
-      interwikiLinks = new ArrayList<PageElementInterwikiLink>();
-      languageLinks = new ArrayList<PageElementLanguageLink>();
-      functions = new ArrayList<PageElementFunction>();
-      magicWords = new ArrayList<PageElementMagicWord>();
-      templates = new ArrayList<PageElementTemplate>();
-      parameters = new ArrayList<PageElementParameter>();
-      titles = new ArrayList<PageElementTitle>();
-      if (perf != null) {
-        perf.stopPart("new");
-      }
-
-      // Go through all the text of the page
-      int maxIndex = contents.length();
-      String text = contents.getText();
-      int currentIndex = 0;
-      int areaIndex = 0;
-      List<Areas.Area> tmpAreas = new ArrayList<>();
-      tmpAreas.addAll(areas.getAreas());
-      while (currentIndex < maxIndex) {
-
-        // Checking if the current index is in wiki text area.
-        boolean areaFound = false;
-        int nextIndex = currentIndex;
-        while ((areaIndex < tmpAreas.size()) && !areaFound) {
-          Areas.Area area = tmpAreas.get(areaIndex);
-          if (area.beginIndex > currentIndex) {
-            areaFound = true;
-          } else if (area.endIndex > currentIndex) {
-            areaFound = true;
-            nextIndex = area.endIndex;
-          } else {
-            areaIndex++;
-          }
-        }
+      // Reuse the previous analysis if possible
+      if ((previous != null) && level3IncrementalAnalysis()) {
         if (perf != null) {
-          perf.stopPart("nextIndex");
-        }
-
-        if (nextIndex > currentIndex) {
-          currentIndex = nextIndex;
-        } else {
-          if (text.startsWith("[[", currentIndex)) {
-            currentIndex = analyze2SquareBrackets(currentIndex);
-            if (perf != null) {
-              perf.stopPart("analyze2SquareBrackets");
-            }
-          } else if (text.startsWith("{{{", currentIndex)) {
-            currentIndex = analyze3CurlyBrackets(currentIndex);
-            if (perf != null) {
-              perf.stopPart("analyze3CurlyBrackets");
-            }
-          } else if (text.startsWith("{{", currentIndex)) {
-            currentIndex = analyze2CurlyBrackets(currentIndex);
-            if (perf != null) {
-              perf.stopPart("analyze2CurlyBrackets");
-            }
-          } else if (text.startsWith("=", currentIndex)) {
-            currentIndex = analyze1Equal(currentIndex);
-            if (perf != null) {
-              perf.stopPart("analyze1Equal");
-            }
-          } else if (text.startsWith("__", currentIndex)) {
-            currentIndex = analyze2Undescore(currentIndex);
-            if (perf != null) {
-              perf.stopPart("analyze2UnderscoreBrackets");
-            }
-          } else {
-            currentIndex++;
-          }
+          perf.stopPart("incremental");
         }
+      } else {
+        previous = null;
+        edit = null;
+        level3FullAnalysis(perf);
       }
 
       // Update areas of non wiki text
@@ -780,19 +1064,294 @@ public class PageAnalysis {
       areas.addMagicWords(magicWords);
       areas.addParameters(parameters);
       areas.addTitles(titles);
-
       if (perf != null) {
         perf.stopPart("addAreas");
+      }
+
+      // Index elements
+      internalLinksIndex = new ContentsIndex<>(internalLinks);
+      imagesIndex = new ContentsIndex<>(images);
+      categoriesIndex = new ContentsIndex<>(categories);
+      interwikiLinksIndex = new ContentsIndex<>(interwikiLinks);
+      languageLinksIndex = new ContentsIndex<>(languageLinks);
+      templatesIndex = new ContentsIndex<>(templates);
+      functionsIndex = new ContentsIndex<>(functions);
+      magicWordsIndex = new ContentsIndex<>(magicWords);
+      parametersIndex = new ContentsIndex<>(parameters);
+      titlesIndex = new ContentsIndex<>(titles);
+
+      if (perf != null) {
+        perf.stopPart("index");
         perf.printEndAlways();
         perf.release();
       }
     }
   }
 
+  /**
+   * Perform a level 3 analysis of the full text of the page.
+   * 
+   * @param perf Performance (may be null).
+   */
+  private void level3FullAnalysis(Performance perf) {
+    initializeLevel3Elements();
+    if (perf != null) {
+      perf.stopPart("new");
+    }
+
+    // Go through all the delimiters in the text of the page
+    String text = contents.getText();
+    ContentsTokens tokens = contents.tokens();
+    int tokenCount = tokens.size();
+    int currentIndex = 0;
+    int areaIndex = 0;
+    int areaCount = areas.getAreaCount();
+    for (int token = 0; token < tokenCount; token++) {
+      if ((tokens.getType(token) == ContentsTokens.TAG) ||
+          (tokens.getPosition(token) < currentIndex)) {
+        continue;
+      }
+      currentIndex = tokens.getPosition(token);
+
+      // Checking if the current index is in wiki text area.
+      while ((areaIndex < areaCount) &&
+             (areas.getAreaEndIndex(areaIndex) <= currentIndex)) {
+        areaIndex++;
+      }
+      int nextIndex = currentIndex;
+      if ((areaIndex < areaCount) &&
+          (areas.getAreaBeginIndex(areaIndex) <= currentIndex)) {
+        nextIndex = areas.getAreaEndIndex(areaIndex);
+      }
+      if (perf != null) {
+        perf.stopPart("nextIndex");
+      }
+
+      if (nextIndex > currentIndex) {
+        currentIndex = nextIndex;
+      } else {
+        currentIndex = analyzeLevel3(text, currentIndex, perf);
+      }
+    }
+  }
+
+  /**
+   * Initialize the lists of elements found by a level 3 analysis.
+   */
+  private void initializeLevel3Elements() {
+    internalLinks = new ArrayList<PageElementInternalLink>();
+    images = new ArrayList<PageElementImage>();
+    categories = new ArrayList<PageElementCategory>();
+    interwikiLinks = new ArrayList<PageElementInterwikiLink>();
+    languageLinks = new ArrayList<PageElementLanguageLink>();
+    functions = new ArrayList<PageElementFunction>();
+    magicWords = new ArrayList<PageElementMagicWord>();
+    templates = new ArrayList<PageElementTemplate>();
+    parameters = new ArrayList<PageElementParameter>();
+    titles = new ArrayList<PageElementTitle>();
+  }
+
+  /**
+   * Part of the level 3 analysis at a given index.
+   * 
+   * @param text Text of the page.
+   * @param currentIndex Current index in the text.
+   * @param perf Performance (may be null).
+   * @return Next index.
+   */
+  private int analyzeLevel3(String text, int currentIndex, Performance perf) {
+    int nextIndex = currentIndex + 1;
+    if (text.startsWith("[[", currentIndex)) {
+      nextIndex = analyze2SquareBrackets(currentIndex);
+      if (perf != null) {
+        perf.stopPart("analyze2SquareBrackets");
+      }
+    } else if (text.startsWith("{{{", currentIndex)) {
+      nextIndex = analyze3CurlyBrackets(currentIndex);
+      if (perf != null) {
+        perf.stopPart("analyze3CurlyBrackets");
+      }
+    } else if (text.startsWith("{{", currentIndex)) {
+      nextIndex = analyze2CurlyBrackets(currentIndex);
+      if (perf != null) {
+        perf.stopPart("analyze2CurlyBrackets");
+      }
+    } else if (text.startsWith("=", currentIndex)) {
+      nextIndex = analyze1Equal(currentIndex);
+      if (perf != null) {
+        perf.stopPart("analyze1Equal");
+      }
+    } else if (text.startsWith("__", currentIndex)) {
+      nextIndex = analyze2Undescore(currentIndex);
+      if (perf != null) {
+        perf.stopPart("analyze2UnderscoreBrackets");
+      }
+    }
+    return nextIndex;
+  }
+
+  /**
+   * Perform a level 3 analysis of the page by reusing the previous analysis.
+   * 
+   * <p>Elements ending before the line of the edit are reused,
+   * other elements are analyzed again at their new position.
+   * The analysis fails if comments, tags or elements are different.</p>
+   * 
+   * @return True if the incremental analysis has been done.
+   */
+  private boolean level3IncrementalAnalysis() {
+
+    // Check that comments and tags are at the same places
+    if (!isShifted(previous.comments().getAll(), comments().getAll()) ||
+        !isShifted(previous.tags, tags)) {
+      return false;
+    }
+    for (int index = 0; index < tags.size(); index++) {
+      if (!tags.get(index).getNormalizedName().equals(
+          previous.tags.get(index).getNormalizedName())) {
+        return false;
+      }
+    }
+
+    // Analyze elements again, titles at last because they depend on templates
+    String text = contents.getText();
+    initializeLevel3Elements();
+    List<List<? extends PageElement>> analyzed = Arrays.asList(
+        internalLinks, images, categories, interwikiLinks, languageLinks,
+        functions, magicWords, templates, parameters, titles);
+    List<PageElementInternalLink> newInternalLinks = new ArrayList<>();
+    List<PageElementImage> newImages = new ArrayList<>();
+    List<PageElementCategory> newCategories = new ArrayList<>();
+    List<PageElementInterwikiLink> newInterwikiLinks = new ArrayList<>();
+    List<PageElementLanguageLink> newLanguageLinks = new ArrayList<>();
+    List<PageElementFunction> newFunctions = new ArrayList<>();
+    List<PageElementMagicWord> newMagicWords = new ArrayList<>();
+    List<PageElementTemplate> newTemplates = new ArrayList<>();
+    List<PageElementParameter> newParameters = new ArrayList<>();
+    List<PageElementTitle> newTitles = new ArrayList<>();
+    if (!reanalyzeElements(text, previous.internalLinks, newInternalLinks, analyzed) ||
+        !reanalyzeElements(text, previous.images, newImages, analyzed) ||
+        !reanalyzeElements(text, previous.categories, newCategories, analyzed) ||
+        !reanalyzeElements(text, previous.interwikiLinks, newInterwikiLinks, analyzed) ||
+        !reanalyzeElements(text, previous.languageLinks, newLanguageLinks, analyzed) ||
+        !reanalyzeElements(text, previous.functions, newFunctions, analyzed) ||
+        !reanalyzeElements(text, previous.magicWords, newMagicWords, analyzed) ||
+        !reanalyzeElements(text, previous.templates, newTemplates, analyzed) ||
+        !reanalyzeElements(text, previous.parameters, newParameters, analyzed)) {
+      return false;
+    }
+    templates = newTemplates;
+    if (!reanalyzeElements(
+        text, previous.titles, newTitles,
+        Collections.<List<? extends PageElement>>singletonList(titles))) {
+      return false;
+    }
+
+    internalLinks = newInternalLinks;
+    images = newImages;
+    categories = newCategories;
+    interwikiLinks = newInterwikiLinks;
+    languageLinks = newLanguageLinks;
+    functions = newFunctions;
+    magicWords = newMagicWords;
+    templates = newTemplates;
+    parameters = newParameters;
+    titles = newTitles;
+    return true;
+  }
+
+  /**
+   * @param oldElements Elements of the previous analysis.
+   * @param newElements Elements of the current analysis.
+   * @return True if the elements are the same, at their new position.
+   */
+  private boolean isShifted(
+      List<? extends Interval> oldElements,
+      List<? extends Interval> newElements) {
+    if (oldElements.size() != newElements.size()) {
+      return false;
+    }
+    for (int index = 0; index < oldElements.size(); index++) {
+      if (!edit.isShifted(oldElements.get(index), newElements.get(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reuse or analyze again the elements of the previous analysis.
+   * 
+   * @param text Text of the page.
+   * @param oldElements Elements of the previous analysis.
+   * @param newElements Elements of the current analysis.
+   * @param analyzed Lists filled by the analysis of a single index.
+   * @return True if each element has been found again at its new position.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends PageElement> boolean reanalyzeElements(
+      String text, List<T> oldElements, List<T> newElements,
+      List<List<? extends PageElement>> analyzed) {
+    for (T oldElement : oldElements) {
+      if (edit.canReuse(oldElement)) {
+        newElements.add(oldElement);
+      } else {
+        int beginIndex = edit.shiftIndex(oldElement.getBeginIndex());
+        if (beginIndex < 0) {
+          return false;
+        }
+        if (oldElement instanceof PageElementExternalLink) {
+          analyzeLevel4(text, beginIndex, null);
+        } else {
+          analyzeLevel3(text, beginIndex, null);
+        }
+        PageElement newElement = takeAnalyzedElement(analyzed);
+        if ((newElement == null) ||
+            (newElement.getClass() != oldElement.getClass()) ||
+            !edit.isShifted(oldElement, newElement)) {
+          return false;
+        }
+        newElements.add((T) newElement);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Retrieve the element found by analyzing a single index, and clear the lists of elements.
+   * 
+   * @param analyzed Lists filled by the analysis of a single index.
+   * @return Element found (null if no element or several elements have been found).
+   */
+  private PageElement takeAnalyzedElement(List<List<? extends PageElement>> analyzed) {
+    PageElement result = null;
+    int count = 0;
+    for (List<? extends PageElement> list : analyzed) {
+      count += list.size();
+      if (!list.isEmpty()) {
+        result = list.get(0);
+        list.clear();
+      }
+    }
+    return (count == 1) ? result : null;
+  }
+
+  /**
+   * @return True if the level 4 analysis has been done.
+   */
+  private boolean isLevel4Done() {
+    synchronized (level4Lock) {
+      return externalLinks != null;
+    }
+  }
+
   /**
    * Perform a level 4 analysis of the page (external links).
    */
   private void level4Analysis() {
+    if (frozen) {
+      return;
+    }
     synchronized (level4Lock) {
       if (externalLinks != null) {
         return;
@@ -806,48 +1365,15 @@ public class PageAnalysis {
         perf.printStart();
       }
 
-      // Go through all the text of the page
-      externalLinks = new ArrayList<PageElementExternalLink>();
-      int maxIndex = contents.length();
-      String text = contents.getText();
-      int currentIndex = 0;
-      int areaIndex = 0;
-      List<Areas.Area> tmpAreas = new ArrayList<>();
-      tmpAreas.addAll(areas.getAreas());
-      while (currentIndex < maxIndex) {
-
-        // Checking if the current index is in wiki text area.
-        boolean areaFound = false;
-        int nextIndex = currentIndex;
-        while ((areaIndex < tmpAreas.size()) && !areaFound) {
-          Areas.Area area = tmpAreas.get(areaIndex);
-          if (area.beginIndex > currentIndex) {
-            areaFound = true;
-          } else if (area.endIndex > currentIndex) {
-            areaFound = true;
-            nextIndex = area.endIndex;
-          } else {
-            areaIndex++;
-          }
-        }
-
-        if (nextIndex > currentIndex) {
-          currentIndex = nextIndex;
-        } else {
-          if (text.startsWith("[", currentIndex)) {
-            currentIndex = analyze1SquareBracket(currentIndex);
-            if (perf != null) {
-              perf.stopPart("analyze1SquareBracket");
-            }
-          } else {
-            currentIndex = analyzeText(currentIndex);
-            if (perf != null) {
-              perf.stopPart("analyzeText");
-            }
-          }
-        }
+      // Reuse the previous analysis if possible
+      boolean incremental = (previous != null) && level4IncrementalAnalysis();
+      previous = null;
+      edit = null;
+      if (!incremental) {
+        level4FullAnalysis(perf);
       }
       areas.addExternalLinks(externalLinks);
+      externalLinksIndex = new ContentsIndex<>(externalLinks);
 
       if (perf != null) {
         perf.printEndAlways();
@@ -857,43 +1383,97 @@ public class PageAnalysis {
   }
 
   /**
-   * Perform a level 5 analysis of the page (identifiers).
+   * Perform a level 4 analysis of the full text of the page.
+   * 
+   * @param perf Performance (may be null).
    */
-  private void level5Analysis() {
-    synchronized (level5Lock) {
-      if ((isbns != null) || (issns != null) || (pmids != null)) {
-        return;
+  private void level4FullAnalysis(Performance perf) {
+    // Go through all the text of the page
+    externalLinks = new ArrayList<PageElementExternalLink>();
+    int maxIndex = contents.length();
+    String text = contents.getText();
+    int currentIndex = 0;
+    int areaIndex = 0;
+    int areaCount = areas.getAreaCount();
+    while (currentIndex < maxIndex) {
+
+      // Checking if the current index is in wiki text area.
+      while ((areaIndex < areaCount) &&
+             (areas.getAreaEndIndex(areaIndex) <= currentIndex)) {
+        areaIndex++;
+      }
+      int nextIndex = currentIndex;
+      if ((areaIndex < areaCount) &&
+          (areas.getAreaBeginIndex(areaIndex) <= currentIndex)) {
+        nextIndex = areas.getAreaEndIndex(areaIndex);
       }
-      level4Analysis();
 
-      Performance perf = null;
-      if (traceTime) {
-        perf = Performance.getInstance(
-            "PageAnalysis.level5Analysis", TRACE_THRESHOLD);
-        perf.printStart();
+      if (nextIndex > currentIndex) {
+        currentIndex = nextIndex;
+      } else {
+        currentIndex = analyzeLevel4(text, currentIndex, perf);
       }
+    }
+  }
 
-      isbns = PageElementISBN.analyzePage(this);
-      areas.addISBN(isbns);
-      issns = PageElementISSN.analyzePage(this);
-      areas.addISSN(issns);
-      pmids = PageElementPMID.analyzePage(this);
-      areas.addPMID(pmids);
-      rfcs = PageElementRFC.analyzePage(this);
-      areas.addRFC(rfcs);
+  /**
+   * Perform a level 4 analysis of the page by reusing the previous analysis.
+   * 
+   * @return True if the incremental analysis has been done.
+   */
+  private boolean level4IncrementalAnalysis() {
+    List<PageElementExternalLink> newExternalLinks = new ArrayList<>();
+    externalLinks = new ArrayList<PageElementExternalLink>();
+    if (!reanalyzeElements(
+        contents.getText(), previous.externalLinks, newExternalLinks,
+        Collections.<List<? extends PageElement>>singletonList(externalLinks))) {
+      return false;
+    }
+    externalLinks = newExternalLinks;
+    return true;
+  }
 
+  /**
+   * Part of the level 4 analysis at a given index.
+   * 
+   * @param text Text of the page.
+   * @param currentIndex Current index in the text.
+   * @param perf Performance (may be null).
+   * @return Next index.
+   */
+  private int analyzeLevel4(String text, int currentIndex, Performance perf) {
+    if (text.startsWith("[", currentIndex)) {
+      int nextIndex = analyze1SquareBracket(currentIndex);
       if (perf != null) {
-        perf.printEndAlways();
-        perf.release();
+        perf.stopPart("analyze1SquareBracket");
       }
+      return nextIndex;
     }
+    int nextIndex = analyzeText(currentIndex);
+    if (perf != null) {
+      perf.stopPart("analyzeText");
+    }
+    return nextIndex;
+  }
+
+  /**
+   * Perform a level 5 analysis of the page (identifiers).
+   */
+  private void level5Analysis() {
+    level5AnalysisISBN();
+    level5AnalysisISSN();
+    level5AnalysisPMID();
+    level5AnalysisRFC();
   }
 
   /**
    * Perform a level 5 analysis of the page for ISBN.
    */
   private void level5AnalysisISBN() {
-    synchronized (level5Lock) {
+    if (frozen) {
+      return;
+    }
+    synchronized (level5ISBNLock) {
       if (isbns != null) {
         return;
       }
@@ -907,6 +1487,7 @@ public class PageAnalysis {
       }
 
       isbns = PageElementISBN.analyzePage(this);
+      isbnsIndex = new ContentsIndex<>(isbns);
       areas.addISBN(isbns);
 
       if (perf != null) {
@@ -920,7 +1501,10 @@ public class PageAnalysis {
    * Perform a level 5 analysis of the page for ISSN.
    */
   private void level5AnalysisISSN() {
-    synchronized (level5Lock) {
+    if (frozen) {
+      return;
+    }
+    synchronized (level5ISSNLock) {
       if (issns != null) {
         return;
       }
@@ -934,6 +1518,7 @@ public class PageAnalysis {
       }
 
       issns = PageElementISSN.analyzePage(this);
+      issnsIndex = new ContentsIndex<>(issns);
       areas.addISSN(issns);
 
       if (perf != null) {
@@ -947,7 +1532,10 @@ public class PageAnalysis {
    * Perform a level 5 analysis of the page for PMID.
    */
   private void level5AnalysisPMID() {
-    synchronized (level5Lock) {
+    if (frozen) {
+      return;
+    }
+    synchronized (level5PMIDLock) {
       if (pmids != null) {
         return;
       }
@@ -961,6 +1549,7 @@ public class PageAnalysis {
       }
 
       pmids = PageElementPMID.analyzePage(this);
+      pmidsIndex = new ContentsIndex<>(pmids);
       areas.addPMID(pmids);
 
       if (perf != null) {
@@ -974,7 +1563,10 @@ public class PageAnalysis {
    * Perform a level 5 analysis of the page for RFC.
    */
   private void level5AnalysisRFC() {
-    synchronized (level5Lock) {
+    if (frozen) {
+      return;
+    }
+    synchronized (level5RFCLock) {
       if (rfcs != null) {
         return;
       }
@@ -988,6 +1580,7 @@ public class PageAnalysis {
       }
 
       rfcs = PageElementRFC.analyzePage(this);
+      rfcsIndex = new ContentsIndex<>(rfcs);
       areas.addRFC(rfcs);
 
       if (perf != null) {
@@ -998,27 +1591,100 @@ public class PageAnalysis {
   }
 
   /**
-   * Perform a level 6 analysis of the page (tables).
+   * Perform a level 6 analysis of the page (tables, lists, paragraphs).
    */
   private void level6Analysis() {
-    synchronized (level6Lock) {
-      if ((tables != null) || (listItems != null)) {
+    level5Analysis();
+    level6AnalysisTables();
+    level6AnalysisListItems();
+    level6AnalysisParagraphs();
+  }
+
+  /**
+   * Perform a level 6 analysis of the page for tables.
+   */
+  private void level6AnalysisTables() {
+    if (frozen) {
+      return;
+    }
+    synchronized (level6TablesLock) {
+      if (tables != null) {
         return;
       }
-      level5Analysis();
+      level4Analysis();
 
       Performance perf = null;
       if (traceTime) {
         perf = Performance.getInstance(
-            "PageAnalysis.level6Analysis", TRACE_THRESHOLD);
+            "PageAnalysis.level6AnalysisTables", TRACE_THRESHOLD);
         perf.printStart();
       }
 
       tables = PageElementTable.analyzePage(this);
+      tablesIndex = new ContentsIndex<>(tables);
       // TODO: areas.addTables(tables);
+
+      if (perf != null) {
+        perf.printEndAlways();
+        perf.release();
+      }
+    }
+  }
+
+  /**
+   * Perform a level 6 analysis of the page for list items.
+   */
+  private void level6AnalysisListItems() {
+    if (frozen) {
+      return;
+    }
+    synchronized (level6ListItemsLock) {
+      if (listItems != null) {
+        return;
+      }
+      level4Analysis();
+
+      Performance perf = null;
+      if (traceTime) {
+        perf = Performance.getInstance(
+            "PageAnalysis.level6AnalysisListItems", TRACE_THRESHOLD);
+        perf.printStart();
+      }
+
       listItems = PageElementListItem.analyzePage(this);
+      listItemsIndex = new ContentsIndex<>(listItems);
       // TODO: areas.addListItems(listItems);
+
+      if (perf != null) {
+        perf.printEndAlways();
+        perf.release();
+      }
+    }
+  }
+
+  /**
+   * Perform a level 6 analysis of the page for paragraphs.
+   */
+  private void level6AnalysisParagraphs() {
+    if (frozen) {
+      return;
+    }
+    synchronized (level6ParagraphsLock) {
+      if (paragraphs != null) {
+        return;
+      }
+      level4Analysis();
+      level6AnalysisListItems();
+
+      Performance perf = null;
+      if (traceTime) {
+        perf = Performance.getInstance(
+            "PageAnalysis.level6AnalysisParagraphs", TRACE_THRESHOLD);
+        perf.printStart();
+      }
+
       paragraphs = PageElementParagraph.analyzePage(this);
+      paragraphsIndex = new ContentsIndex<>(paragraphs);
       // TODO: areas.addParagraph(paragraphs);
 
       if (perf != null) {
@@ -1288,6 +1954,9 @@ public class PageAnalysis {
    */
   private List<PageElementTitle> titles;
 
+  /** Index of all titles in the page */
+  private ContentsIndex<PageElementTitle> titlesIndex = ContentsIndex.empty();
+
   /**
    * @return All titles in the page.
    */
@@ -1301,13 +1970,8 @@ public class PageAnalysis {
    * @return Next title.
    */
   public PageElementTitle getNextTitle(int currentIndex) {
-    List<PageElementTitle> tmpTitles = getTitles();
-    for (PageElementTitle title : tmpTitles) {
-      if (title.getBeginIndex() >= currentIndex) {
-        return title;
-      }
-    }
-    return null;
+    level3Analysis();
+    return titlesIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -1315,14 +1979,8 @@ public class PageAnalysis {
    * @return Title if the current index is inside a title.
    */
   public PageElementTitle isInTitle(int currentIndex) {
-    List<PageElementTitle> tmpTitles = getTitles();
-    for (PageElementTitle title : tmpTitles) {
-      if ((title.getBeginIndex() <= currentIndex) &&
-          (title.getEndIndex() > currentIndex)) {
-        return title;
-      }
-    }
-    return null;
+    level3Analysis();
+    return titlesIndex.findLargestAt(currentIndex);
   }
 
   /**
@@ -1350,6 +2008,9 @@ public class PageAnalysis {
    */
   private List<PageElementInternalLink> internalLinks;
 
+  /** Index of all internal links in the page */
+  private ContentsIndex<PageElementInternalLink> internalLinksIndex = ContentsIndex.empty();
+
   /**
    * @return All internal links in the page.
    */
@@ -1363,13 +2024,8 @@ public class PageAnalysis {
    * @return Next internal link.
    */
   public PageElementInternalLink getNextInternalLink(int currentIndex) {
-    List<PageElementInternalLink> tmpInternalLinks = getInternalLinks();
-    for (PageElementInternalLink link : tmpInternalLinks) {
-      if (link.getBeginIndex() >= currentIndex) {
-        return link;
-      }
-    }
-    return null;
+    level3Analysis();
+    return internalLinksIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -1377,34 +2033,30 @@ public class PageAnalysis {
    * @return Internal link if the current index is inside an internal link.
    */
   public PageElementInternalLink isInInternalLink(int currentIndex) {
-    List<PageElementInternalLink> tmpLinks = getInternalLinks();
-    for (PageElementInternalLink link : tmpLinks) {
-      if ((link.getBeginIndex() <= currentIndex) &&
-          (link.getEndIndex() > currentIndex)) {
-        return link;
-      }
-    }
-    return null;
+    level3Analysis();
+    return internalLinksIndex.findLargestAt(currentIndex);
   }
 
   /**
    * Links count.
    */
-  private Map<String, InternalLinkCount> linksCount = new HashMap<String, InternalLinkCount>();
+  private final Map<String, InternalLinkCount> linksCount = new HashMap<String, InternalLinkCount>();
 
   /**
    * @param link Link.
    * @return Number of links to the page.
    */
   public InternalLinkCount getLinkCount(Page link) {
-    InternalLinkCount result = linksCount.get(link.getTitle());
-    if (result != null) {
-      return result;
+    synchronized (linksCount) {
+      InternalLinkCount result = linksCount.get(link.getTitle());
+      if (result != null) {
+        return result;
+      }
+      List<Page> links = Collections.singletonList(link);
+      InternalLinkCounter counter = new InternalLinkCounter(linksCount, links);
+      PageAnalysisUtils.findInternalLinks(this, links, counter);
+      return linksCount.get(link.getTitle());
     }
-    List<Page> links = Collections.singletonList(link);
-    InternalLinkCounter counter = new InternalLinkCounter(linksCount, links);
-    PageAnalysisUtils.findInternalLinks(this, links, counter);
-    return linksCount.get(link.getTitle());
   }
 
   /**
@@ -1416,15 +2068,17 @@ public class PageAnalysis {
     if ((links == null) || (links.size() == 0)) {
       return;
     }
-    List<Page> interestingLinks = new ArrayList<Page>();
-    for (Page link : links) {
-      if (!linksCount.containsKey(link.getTitle())) {
-        interestingLinks.add(link);
+    synchronized (linksCount) {
+      List<Page> interestingLinks = new ArrayList<Page>();
+      for (Page link : links) {
+        if (!linksCount.containsKey(link.getTitle())) {
+          interestingLinks.add(link);
+        }
+      }
+      if (interestingLinks.size() > 0) {
+        InternalLinkCounter counter = new InternalLinkCounter(linksCount, interestingLinks);
+        PageAnalysisUtils.findInternalLinks(this, interestingLinks, counter);
       }
-    }
-    if (interestingLinks.size() > 0) {
-      InternalLinkCounter counter = new InternalLinkCounter(linksCount, interestingLinks);
-      PageAnalysisUtils.findInternalLinks(this, interestingLinks, counter);
     }
   }
 
@@ -1437,6 +2091,9 @@ public class PageAnalysis {
    */
   private List<PageElementImage> images;
 
+  /** Index of all images in the page */
+  private ContentsIndex<PageElementImage> imagesIndex = ContentsIndex.empty();
+
   /**
    * @return All images in the page.
    */
@@ -1450,13 +2107,8 @@ public class PageAnalysis {
    * @return Next image.
    */
   public PageElementImage getNextImage(int currentIndex) {
-    List<PageElementImage> tmpImages = getImages();
-    for (PageElementImage image : tmpImages) {
-      if (image.getBeginIndex() >= currentIndex) {
-        return image;
-      }
-    }
-    return null;
+    level3Analysis();
+    return imagesIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -1464,18 +2116,8 @@ public class PageAnalysis {
    * @return Image if the current index is inside an image.
    */
   public PageElementImage isInImage(int currentIndex) {
-    List<PageElementImage> tmpImages = getImages();
-    PageElementImage result = null;
-    for (PageElementImage image : tmpImages) {
-      if ((image.getBeginIndex() <= currentIndex) &&
-          (image.getEndIndex() > currentIndex)) {
-        if ((result == null) ||
-            (image.getBeginIndex() > result.getBeginIndex())) {
-          result = image;
-        }
-      }
-    }
-    return result;
+    level3Analysis();
+    return imagesIndex.findSmallestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -1487,6 +2129,9 @@ public class PageAnalysis {
    */
   private List<PageElementExternalLink> externalLinks;
 
+  /** Index of all external links in the page */
+  private ContentsIndex<PageElementExternalLink> externalLinksIndex = ContentsIndex.empty();
+
   /**
    * @return All external links in the page.
    */
@@ -1500,13 +2145,8 @@ public class PageAnalysis {
    * @return Next external link.
    */
   public PageElementExternalLink getNextExternalLink(int currentIndex) {
-    List<PageElementExternalLink> tmpExternalLinks = getExternalLinks();
-    for (PageElementExternalLink link : tmpExternalLinks) {
-      if (link.getBeginIndex() >= currentIndex) {
-        return link;
-      }
-    }
-    return null;
+    level4Analysis();
+    return externalLinksIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -1514,14 +2154,8 @@ public class PageAnalysis {
    * @return External link if the current index is inside an external link.
    */
   public PageElementExternalLink isInExternalLink(int currentIndex) {
-    List<PageElementExternalLink> tmpLinks = getExternalLinks();
-    for (PageElementExternalLink link : tmpLinks) {
-      if ((link.getBeginIndex() <= currentIndex) &&
-          (link.getEndIndex() > currentIndex)) {
-        return link;
-      }
-    }
-    return null;
+    level4Analysis();
+    return externalLinksIndex.findLargestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -1533,6 +2167,9 @@ public class PageAnalysis {
    */
   private List<PageElementTemplate> templates;
 
+  /** Index of all templates in the page */
+  private ContentsIndex<PageElementTemplate> templatesIndex = ContentsIndex.empty();
+
   /**
    * @return All templates in the page.
    */
@@ -1541,6 +2178,44 @@ public class PageAnalysis {
     return templates;
   }
 
+  /**
+   * Lock for updating the templates categorized by name.
+   */
+  private final Object lockTemplatesByName = new Object();
+
+  /**
+   * All templates in the page categorized by normalized name, in text order.
+   */
+  private Map<String, List<PageElementTemplate>> templatesByName;
+
+  /**
+   * @param name Template name.
+   * @return All templates with this name in the page, in text order (null if no such template).
+   */
+  private List<PageElementTemplate> getTemplatesByName(String name) {
+    if (frozen) {
+      return templatesByName.get(Page.normalizeAndInternTitle(name));
+    }
+    List<PageElementTemplate> tmpTemplates = getTemplates();
+    synchronized (lockTemplatesByName) {
+      if (templatesByName == null) {
+        templatesByName = new HashMap<>();
+        for (PageElementTemplate template : tmpTemplates) {
+          String templateName = Page.normalizeAndInternTitle(template.getTemplateName());
+          if (templateName != null) {
+            List<PageElementTemplate> list = templatesByName.get(templateName);
+            if (list == null) {
+              list = new ArrayList<>(1);
+              templatesByName.put(templateName, list);
+            }
+            list.add(template);
+          }
+        }
+      }
+      return templatesByName.get(Page.normalizeAndInternTitle(name));
+    }
+  }
+
   /**
    * @param name Template name.
    * @return All templates with this name in the page analysis.
@@ -1549,16 +2224,11 @@ public class PageAnalysis {
     if (name == null) {
       return null;
     }
-    List<PageElementTemplate> tmpTemplates = getTemplates();
-    List<PageElementTemplate> result = new ArrayList<PageElementTemplate>();
-    if (tmpTemplates != null) {
-      for (PageElementTemplate template : tmpTemplates) {
-        if (Page.areSameTitle(name, template.getTemplateName())) {
-          result.add(template);
-        }
-      }
+    List<PageElementTemplate> result = getTemplatesByName(name);
+    if (result == null) {
+      return new ArrayList<PageElementTemplate>();
     }
-    return result;
+    return new ArrayList<PageElementTemplate>(result);
   }
 
   /**
@@ -1569,15 +2239,11 @@ public class PageAnalysis {
     if (name == null) {
       return null;
     }
-    List<PageElementTemplate> tmpTemplates = getTemplates();
-    if (tmpTemplates != null) {
-      for (PageElementTemplate template : tmpTemplates) {
-        if (Page.areSameTitle(name, template.getTemplateName())) {
-          return template;
-        }
-      }
+    List<PageElementTemplate> result = getTemplatesByName(name);
+    if ((result == null) || result.isEmpty()) {
+      return null;
     }
-    return null;
+    return result.get(0);
   }
 
   /**
@@ -1585,13 +2251,8 @@ public class PageAnalysis {
    * @return Next template.
    */
   public PageElementTemplate getNextTemplate(int currentIndex) {
-    List<PageElementTemplate> tmpTemplates = getTemplates();
-    for (PageElementTemplate template : tmpTemplates) {
-      if (template.getBeginIndex() >= currentIndex) {
-        return template;
-      }
-    }
-    return null;
+    level3Analysis();
+    return templatesIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -1599,15 +2260,8 @@ public class PageAnalysis {
    * @return Template if the current index is inside a template.
    */
   public PageElementTemplate isInTemplate(int currentIndex) {
-    List<PageElementTemplate> tmpTemplates = getTemplates();
-    PageElementTemplate result = null;
-    for (PageElementTemplate template : tmpTemplates) {
-      if ((template.getBeginIndex() <= currentIndex) &&
-          (template.getEndIndex() > currentIndex)) {
-        result = template;
-      }
-    }
-    return result;
+    level3Analysis();
+    return templatesIndex.findSmallestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -1619,6 +2273,9 @@ public class PageAnalysis {
    */
   private List<PageElementParameter> parameters;
 
+  /** Index of all parameters in the page */
+  private ContentsIndex<PageElementParameter> parametersIndex = ContentsIndex.empty();
+
   /**
    * @return All parameters in the page.
    */
@@ -1632,15 +2289,8 @@ public class PageAnalysis {
    * @return Parameter if the current index is inside a parameter.
    */
   public PageElementParameter isInParameter(int currentIndex) {
-    List<PageElementParameter> tmpParameters = getParameters();
-    PageElementParameter result = null;
-    for (PageElementParameter parameter : tmpParameters) {
-      if ((parameter.getBeginIndex() <= currentIndex) &&
-          (parameter.getEndIndex() > currentIndex)) {
-        result = parameter;
-      }
-    }
-    return result;
+    level3Analysis();
+    return parametersIndex.findSmallestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -1652,6 +2302,9 @@ public class PageAnalysis {
    */
   private List<PageElementFunction> functions;
 
+  /** Index of all functions in the page */
+  private ContentsIndex<PageElementFunction> functionsIndex = ContentsIndex.empty();
+
   /**
    * @return All functions in the page.
    */
@@ -1665,15 +2318,8 @@ public class PageAnalysis {
    * @return Function if the current index is inside a function.
    */
   public PageElementFunction isInFunction(int currentIndex) {
-    List<PageElementFunction> tmpFunctions = getFunctions();
-    PageElementFunction result = null;
-    for (PageElementFunction function : tmpFunctions) {
-      if ((function.getBeginIndex() <= currentIndex) &&
-          (function.getEndIndex() > currentIndex)) {
-        result = function;
-      }
-    }
-    return result;
+    level3Analysis();
+    return functionsIndex.findSmallestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -1685,6 +2331,9 @@ public class PageAnalysis {
    */
   private List<PageElementMagicWord> magicWords;
 
+  /** Index of all magic words in the page */
+  private ContentsIndex<PageElementMagicWord> magicWordsIndex = ContentsIndex.empty();
+
   /**
    * @return All magic words in the page.
    */
@@ -1698,15 +2347,8 @@ public class PageAnalysis {
    * @return Magic word if the current index is inside a magic word.
    */
   public PageElementMagicWord isInMagicWord(int currentIndex) {
-    List<PageElementMagicWord> tmpMagicWords = getMagicWords();
-    PageElementMagicWord result = null;
-    for (PageElementMagicWord magicWord : tmpMagicWords) {
-      if ((magicWord.getBeginIndex() <= currentIndex) &&
-          (magicWord.getEndIndex() > currentIndex)) {
-        result = magicWord;
-      }
-    }
-    return result;
+    level3Analysis();
+    return magicWordsIndex.findSmallestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -1718,6 +2360,9 @@ public class PageAnalysis {
    */
   private List<PageElementTag> tags;
 
+  /** Index of all tags in the page */
+  private ContentsIndex<PageElementTag> tagsIndex = ContentsIndex.empty();
+
   /**
    * Lock for updating the tags categorized by name.
    */
@@ -1750,21 +2395,27 @@ public class PageAnalysis {
     if (name == null) {
       return null;
     }
+    if (frozen) {
+      return getFrozenTags(tagsByName, name);
+    }
+    List<PageElementTag> tmpTags = getTags();
     synchronized (lockTagsByName) {
       if (tagsByName == null) {
         tagsByName = new HashMap<String, List<PageElementTag>>();
+        for (PageElementTag tag : tmpTags) {
+          List<PageElementTag> list = tagsByName.get(tag.getNormalizedName());
+          if (list == null) {
+            list = new ArrayList<PageElementTag>();
+            tagsByName.put(tag.getNormalizedName(), list);
+          }
+          list.add(tag);
+        }
       }
       name = name.toLowerCase();
       List<PageElementTag> result = tagsByName.get(name);
       if (result == null) {
-        List<PageElementTag> tmpTags = getTags();
         result = new ArrayList<PageElementTag>();
         tagsByName.put(name, result);
-        for (PageElementTag tag : tmpTags) {
-          if (name.equals(tag.getNormalizedName())) {
-            result.add(tag);
-          }
-        }
       }
       return result;
     }
@@ -1778,6 +2429,9 @@ public class PageAnalysis {
     if (name == null) {
       return null;
     }
+    if (frozen) {
+      return getFrozenTags(completeTagsByName, name);
+    }
     synchronized (lockTagsByName) {
       if (completeTagsByName == null) {
         completeTagsByName = new HashMap<String, List<PageElementTag>>();
@@ -1800,6 +2454,20 @@ public class PageAnalysis {
     }
   }
 
+  /**
+   * @param tagsMap Tags categorized by name.
+   * @param name Tag name.
+   * @return Tags with this name in a frozen analysis.
+   */
+  private static List<PageElementTag> getFrozenTags(
+      Map<String, List<PageElementTag>> tagsMap, String name) {
+    List<PageElementTag> result = tagsMap.get(name.toLowerCase());
+    if (result == null) {
+      return Collections.emptyList();
+    }
+    return result;
+  }
+
   /**
    * @param name Tag name.
    * @param currentIndex Current index.
@@ -1829,13 +2497,8 @@ public class PageAnalysis {
    * @return Next tag.
    */
   public PageElementTag getNextTag(int currentIndex) {
-    List<PageElementTag> tmpTags = getTags();
-    for (PageElementTag tag : tmpTags) {
-      if (tag.getBeginIndex() >= currentIndex) {
-        return tag;
-      }
-    }
-    return null;
+    level2Analysis();
+    return tagsIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -1843,14 +2506,8 @@ public class PageAnalysis {
    * @return Tag if the current index is inside a tag.
    */
   public PageElementTag isInTag(int currentIndex) {
-    List<PageElementTag> tmpTags = getTags();
-    for (PageElementTag tag : tmpTags) {
-      if ((tag.getBeginIndex() <= currentIndex) &&
-          (tag.getEndIndex() > currentIndex)) {
-        return tag;
-      }
-    }
-    return null;
+    level2Analysis();
+    return tagsIndex.findLargestAt(currentIndex);
   }
 
   /**
@@ -1914,6 +2571,9 @@ public class PageAnalysis {
    */
   private List<PageElementCategory> categories;
 
+  /** Index of all categories in the page */
+  private ContentsIndex<PageElementCategory> categoriesIndex = ContentsIndex.empty();
+
   /**
    * @return All categories in the page.
    */
@@ -1927,13 +2587,8 @@ public class PageAnalysis {
    * @return Next category.
    */
   public PageElementCategory getNextCategory(int currentIndex) {
-    List<PageElementCategory> tmpCategories = getCategories();
-    for (PageElementCategory category : tmpCategories) {
-      if (category.getBeginIndex() >= currentIndex) {
-        return category;
-      }
-    }
-    return null;
+    level3Analysis();
+    return categoriesIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -1941,14 +2596,8 @@ public class PageAnalysis {
    * @return Category if the current index is inside a category.
    */
   public PageElementCategory isInCategory(int currentIndex) {
-    List<PageElementCategory> tmpCategories = getCategories();
-    for (PageElementCategory category : tmpCategories) {
-      if ((category.getBeginIndex() <= currentIndex) &&
-          (category.getEndIndex() > currentIndex)) {
-        return category;
-      }
-    }
-    return null;
+    level3Analysis();
+    return categoriesIndex.findLargestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -1960,6 +2609,9 @@ public class PageAnalysis {
    */
   private List<PageElementInterwikiLink> interwikiLinks;
 
+  /** Index of all interwiki links in the page */
+  private ContentsIndex<PageElementInterwikiLink> interwikiLinksIndex = ContentsIndex.empty();
+
   /**
    * @return All interwiki links in the page.
    */
@@ -1973,13 +2625,8 @@ public class PageAnalysis {
    * @return Next interwiki link.
    */
   public PageElementInterwikiLink getNextInterwikiLink(int currentIndex) {
-    List<PageElementInterwikiLink> tmpLinks = getInterwikiLinks();
-    for (PageElementInterwikiLink link : tmpLinks) {
-      if (link.getBeginIndex() >= currentIndex) {
-        return link;
-      }
-    }
-    return null;
+    level3Analysis();
+    return interwikiLinksIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -1987,14 +2634,8 @@ public class PageAnalysis {
    * @return Interwiki link if the current index is inside an interwiki link.
    */
   public PageElementInterwikiLink isInInterwikiLink(int currentIndex) {
-    List<PageElementInterwikiLink> tmpLinks = getInterwikiLinks();
-    for (PageElementInterwikiLink link : tmpLinks) {
-      if ((link.getBeginIndex() <= currentIndex) &&
-          (link.getEndIndex() > currentIndex)) {
-        return link;
-      }
-    }
-    return null;
+    level3Analysis();
+    return interwikiLinksIndex.findLargestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -2006,6 +2647,9 @@ public class PageAnalysis {
    */
   private List<PageElementLanguageLink> languageLinks;
 
+  /** Index of all language links in the page */
+  private ContentsIndex<PageElementLanguageLink> languageLinksIndex = ContentsIndex.empty();
+
   /**
    * @return All language links in the page.
    */
@@ -2019,13 +2663,8 @@ public class PageAnalysis {
    * @return Next language link.
    */
   public PageElementLanguageLink getNextLanguageLink(int currentIndex) {
-    List<PageElementLanguageLink> tmpLinks = getLanguageLinks();
-    for (PageElementLanguageLink link : tmpLinks) {
-      if (link.getBeginIndex() >= currentIndex) {
-        return link;
-      }
-    }
-    return null;
+    level3Analysis();
+    return languageLinksIndex.findFirstAfter(currentIndex);
   }
 
   /**
@@ -2033,14 +2672,8 @@ public class PageAnalysis {
    * @return Language link if the current index is inside a language link.
    */
   public PageElementLanguageLink isInLanguageLink(int currentIndex) {
-    List<PageElementLanguageLink> tmpLinks = getLanguageLinks();
-    for (PageElementLanguageLink link : tmpLinks) {
-      if ((link.getBeginIndex() <= currentIndex) &&
-          (link.getEndIndex() > currentIndex)) {
-        return link;
-      }
-    }
-    return null;
+    level3Analysis();
+    return languageLinksIndex.findLargestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -2052,11 +2685,14 @@ public class PageAnalysis {
    */
   private List<PageElementISBN> isbns;
 
+  /** Index of all ISBNs in the page */
+  private ContentsIndex<PageElementISBN> isbnsIndex = ContentsIndex.empty();
+
   /**
    * @return All ISBNs in the page.
    */
   public List<PageElementISBN> getISBNs() {
-    level5Analysis();
+    level5AnalysisISBN();
     return isbns;
   }
 
@@ -2065,14 +2701,8 @@ public class PageAnalysis {
    * @return ISBN if the current index is inside an ISBN.
    */
   public PageElementISBN isInISBN(int currentIndex) {
-    List<PageElementISBN> tmpIsbns = getISBNs();
-    for (PageElementISBN isbn : tmpIsbns) {
-      if ((isbn.getBeginIndex() <= currentIndex) &&
-          (isbn.getEndIndex() > currentIndex)) {
-        return isbn;
-      }
-    }
-    return null;
+    getISBNs();
+    return isbnsIndex.findLargestAt(currentIndex);
   }
 
 
@@ -2081,11 +2711,14 @@ public class PageAnalysis {
    */
   private List<PageElementISSN> issns;
 
+  /** Index of all ISSNs in the page */
+  private ContentsIndex<PageElementISSN> issnsIndex = ContentsIndex.empty();
+
   /**
    * @return All ISSNs in the page.
    */
   public List<PageElementISSN> getISSNs() {
-    level5Analysis();
+    level5AnalysisISSN();
     return issns;
   }
 
@@ -2094,14 +2727,8 @@ public class PageAnalysis {
    * @return ISSN if the current index is inside an ISSN.
    */
   public PageElementISSN isInISSN(int currentIndex) {
-    List<PageElementISSN> tmpIsbns = getISSNs();
-    for (PageElementISSN issn : tmpIsbns) {
-      if ((issn.getBeginIndex() <= currentIndex) &&
-          (issn.getEndIndex() > currentIndex)) {
-        return issn;
-      }
-    }
-    return null;
+    getISSNs();
+    return issnsIndex.findLargestAt(currentIndex);
   }
 
   
@@ -2110,11 +2737,14 @@ public class PageAnalysis {
    */
   private List<PageElementPMID> pmids;
 
+  /** Index of all PMIDs in the page */
+  private ContentsIndex<PageElementPMID> pmidsIndex = ContentsIndex.empty();
+
   /**
    * @return All PMIDs in the page.
    */
   public List<PageElementPMID> getPMIDs() {
-    level5Analysis();
+    level5AnalysisPMID();
     return pmids;
   }
 
@@ -2123,14 +2753,8 @@ public class PageAnalysis {
    * @return PMID if the current index is inside a PMID.
    */
   public PageElementPMID isInPMID(int currentIndex) {
-    List<PageElementPMID> tmpPmids = getPMIDs();
-    for (PageElementPMID pmid : tmpPmids) {
-      if ((pmid.getBeginIndex() <= currentIndex) &&
-          (pmid.getEndIndex() > currentIndex)) {
-        return pmid;
-      }
-    }
-    return null;
+    getPMIDs();
+    return pmidsIndex.findLargestAt(currentIndex);
   }
 
   
@@ -2139,11 +2763,14 @@ public class PageAnalysis {
    */
   private List<PageElementRFC> rfcs;
 
+  /** Index of all RFCs in the page */
+  private ContentsIndex<PageElementRFC> rfcsIndex = ContentsIndex.empty();
+
   /**
    * @return All RFCs in the page.
    */
   public List<PageElementRFC> getRFCs() {
-    level5Analysis();
+    level5AnalysisRFC();
     return rfcs;
   }
 
@@ -2152,14 +2779,8 @@ public class PageAnalysis {
    * @return RFC if the current index is inside a RFC.
    */
   public PageElementRFC isInRFC(int currentIndex) {
-    List<PageElementRFC> tmpRfcs = getRFCs();
-    for (PageElementRFC rfc : tmpRfcs) {
-      if ((rfc.getBeginIndex() <= currentIndex) &&
-          (rfc.getEndIndex() > currentIndex)) {
-        return rfc;
-      }
-    }
-    return null;
+    getRFCs();
+    return rfcsIndex.findLargestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -2169,11 +2790,14 @@ public class PageAnalysis {
   /** All paragraphs in the page */
   private List<PageElementParagraph> paragraphs;
 
+  /** Index of all paragraphs in the page */
+  private ContentsIndex<PageElementParagraph> paragraphsIndex = ContentsIndex.empty();
+
   /**
    * @return All paragraphs in the page.
    */
   public List<PageElementParagraph> getParagraphs() {
-    level6Analysis();
+    level6AnalysisParagraphs();
     return paragraphs;
   }
 
@@ -2182,7 +2806,8 @@ public class PageAnalysis {
    * @return Paragraph if the current index is inside a paragraph.
    */
   public PageElementParagraph isInParagraph(int currentIndex) {
-    return PageElementParagraph.isInParagraph(currentIndex, getParagraphs());
+    level6AnalysisParagraphs();
+    return paragraphsIndex.findLargestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -2192,11 +2817,14 @@ public class PageAnalysis {
   /** All list items in the page */
   private List<PageElementListItem> listItems;
 
+  /** Index of all list items in the page */
+  private ContentsIndex<PageElementListItem> listItemsIndex = ContentsIndex.empty();
+
   /**
    * @return All list items in the page.
    */
   public List<PageElementListItem> getListItems() {
-    level6Analysis();
+    level6AnalysisListItems();
     return listItems;
   }
 
@@ -2205,7 +2833,8 @@ public class PageAnalysis {
    * @return List item if the current index is inside a list item.
    */
   public PageElementListItem isInListItem(int currentIndex) {
-    return PageElementListItem.isInListItem(currentIndex, getListItems());
+    level6AnalysisListItems();
+    return listItemsIndex.findLargestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -2215,11 +2844,14 @@ public class PageAnalysis {
   /** All tables in the page */
   private List<PageElementTable> tables;
 
+  /** Index of all tables in the page */
+  private ContentsIndex<PageElementTable> tablesIndex = ContentsIndex.empty();
+
   /**
    * @return All table in the page.
    */
   public List<PageElementTable> getTables() {
-    level6Analysis();
+    level6AnalysisTables();
     return tables;
   }
 
@@ -2228,7 +2860,8 @@ public class PageAnalysis {
    * @return Table if the current index is inside a table.
    */
   public PageElementTable isInTable(int currentIndex) {
-    return PageElementTable.isInTable(currentIndex, getTables());
+    level6AnalysisTables();
+    return tablesIndex.findSmallestAt(currentIndex);
   }
 
   // ==========================================================================
@@ -2246,7 +2879,7 @@ public class PageAnalysis {
     private final boolean found;
 
     /**
-     * List of errors found.
+     * List of errors found (null if only the detection has been done).
      */
     private final List<CheckErrorResult> errors;
 
@@ -2265,24 +2898,28 @@ public class PageAnalysis {
       }
       return found;
     }
+
+    /**
+     * @return True if the list of errors is available, false if only the detection has been done.
+     */
+    public boolean isComplete() {
+      return (errors != null) || !found;
+    }
   }
 
   /**
    * Memorizing Check Wiki errors.
    */
-  private Map<Integer, Result> checkWikiErrors;
+  private final Map<Integer, Result> checkWikiErrors = new ConcurrentHashMap<>();
 
   /**
    * Memorize Check Wiki errors.
    * 
    * @param errorNumber Error number.
    * @param found True if errors of this kind have been found.
-   * @param errors List of errors found.
+   * @param errors List of errors found (null if only the detection has been done).
    */
   public void setCheckWikiErrors(int errorNumber, boolean found, List<CheckErrorResult> errors) {
-    if (checkWikiErrors == null) {
-      checkWikiErrors = new HashMap<Integer, PageAnalysis.Result>();
-    }
     checkWikiErrors.put(Integer.valueOf(errorNumber), new Result(found, errors));
   }
 
@@ -2291,9 +2928,6 @@ public class PageAnalysis {
    * @return Errors for this error number.
    */
   public Result getCheckWikiErrors(int errorNumber) {
-    if (checkWikiErrors == null) {
-      return null;
-    }
     return checkWikiErrors.get(Integer.valueOf(errorNumber));
   }
 }
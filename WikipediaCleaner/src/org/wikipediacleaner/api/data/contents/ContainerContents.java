@@ -20,11 +20,11 @@ public abstract class ContainerContents<T extends ContentsElement> {
   /** List of elements */
   private final List<T> elements;
 
-  /** Finder for smallest elements */
-  private final ContentsFinder<T> smallestFinder;
+  /** Index of the elements */
+  private final ContentsIndex<T> index;
 
-  /** Finder for largest elements */
-  private final ContentsFinder<T> largestFinder;
+  /** Behavior of the container */
+  private final ContainerBehavior behavior;
 
   /**
    * @param elements List of elements.
@@ -32,22 +32,8 @@ public abstract class ContainerContents<T extends ContentsElement> {
    */
   protected ContainerContents(List<T> elements, ContainerBehavior behavior) {
     this.elements = (elements != null) ? elements : new ArrayList<T>();
-    ContentsFinderBuilder<T> finderBuilder = new ContentsFinderBuilder<>();
-    finderBuilder.addAll(elements);
-    switch (behavior) {
-    case SMALLEST_ONLY:
-      this.smallestFinder = new ContentsFinder<>(finderBuilder, true);
-      this.largestFinder = this.smallestFinder;
-      break;
-    case LARGEST_ONLY:
-      this.largestFinder = new ContentsFinder<>(finderBuilder, false);
-      this.smallestFinder = this.largestFinder;
-      break;
-    default:
-      this.smallestFinder = new ContentsFinder<>(finderBuilder, true);
-      this.largestFinder = new ContentsFinder<>(finderBuilder, false);
-      break;
-    }
+    this.index = new ContentsIndex<>(elements);
+    this.behavior = behavior;
   }
 
   /**
@@ -62,7 +48,7 @@ public abstract class ContainerContents<T extends ContentsElement> {
    * @return True if there's an element containing the provided index.
    */
   public boolean isAt(int index) {
-    return (largestFinder.findAt(index) != null);
+    return (getLargestAt(index) != null);
   }
 
   /**
@@ -70,7 +56,7 @@ public abstract class ContainerContents<T extends ContentsElement> {
    * @return Smallest element containing the provided index.
    */
   public T getAt(int index) {
-    return smallestFinder.findAt(index);
+    return getSmallestAt(index);
   }
 
   /**
@@ -78,7 +64,10 @@ public abstract class ContainerContents<T extends ContentsElement> {
    * @return Smallest element containing the provided index.
    */
   public T getSmallestAt(int index) {
-    return smallestFinder.findAt(index);
+    if (behavior == ContainerBehavior.LARGEST_ONLY) {
+      return this.index.findLargestAt(index);
+    }
+    return this.index.findSmallestAt(index);
   }
 
   /**
@@ -86,7 +75,10 @@ public abstract class ContainerContents<T extends ContentsElement> {
    * @return Largest element containing the provided index.
    */
   public T getLargestAt(int index) {
-    return largestFinder.findAt(index);
+    if (behavior == ContainerBehavior.SMALLEST_ONLY) {
+      return this.index.findSmallestAt(index);
+    }
+    return this.index.findLargestAt(index);
   }
 
   /**
@@ -94,7 +86,7 @@ public abstract class ContainerContents<T extends ContentsElement> {
    * @return Element beginning at the provided index.
    */
   public T getBeginsAt(int index) {
-    T element = smallestFinder.findAt(index);
+    T element = getSmallestAt(index);
     if ((element != null) && (element.getBeginIndex() == index)) {
       return element;
     }
@@ -106,7 +98,7 @@ public abstract class ContainerContents<T extends ContentsElement> {
    * @return Element ending at the provided index.
    */
   public T getEndsAt(int index) {
-    T element = smallestFinder.findAt(index - 1);
+    T element = getSmallestAt(index - 1);
     if ((element != null) && (element.getEndIndex() == index)) {
       return element;
     }
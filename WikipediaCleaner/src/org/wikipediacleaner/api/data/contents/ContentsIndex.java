@@ -0,0 +1,245 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.data.contents;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Index for finding elements of a given type by their position in the contents.
+ *
+ * <p>Elements are sorted by begin index (enclosing elements first), and a tree
+ * keeps the maximum end index of each range of elements.
+ * Finding the smallest or largest element containing an index, or the next element
+ * after an index, is done in O(log n), even when elements are nested or overlapping.
+ * Finding all elements containing an index is done in O(k log n) for k elements.</p>
+ *
+ * @param <T> Type of element.
+ */
+public class ContentsIndex<T extends Interval> {
+
+  /** Comparator to sort elements: by begin index, then enclosing elements first */
+  private static final Comparator<Interval> comparator = new Comparator<Interval>() {
+
+    /**
+     * @param o1 First element.
+     * @param o2 Second element.
+     * @return Comparison of the elements.
+     * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+     */
+    @Override
+    public int compare(Interval o1, Interval o2) {
+      if (o1.getBeginIndex() != o2.getBeginIndex()) {
+        return (o1.getBeginIndex() < o2.getBeginIndex()) ? -1 : 1;
+      }
+      if (o1.getEndIndex() != o2.getEndIndex()) {
+        return (o1.getEndIndex() > o2.getEndIndex()) ? -1 : 1;
+      }
+      return 0;
+    }
+  };
+
+  /** Empty index */
+  private static final ContentsIndex<Interval> EMPTY = new ContentsIndex<>(null);
+
+  /** Sorted elements */
+  private final List<T> elements;
+
+  /** Begin index of each element */
+  private final int[] beginIndexes;
+
+  /** Maximum end index of the elements below each node of the tree */
+  private final int[] maxEndIndexes;
+
+  /** Number of leaves in the tree */
+  private final int leaves;
+
+  /**
+   * @param <T> Type of element.
+   * @return An empty index.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends Interval> ContentsIndex<T> empty() {
+    return (ContentsIndex<T>) EMPTY;
+  }
+
+  /**
+   * @param elements Elements to be indexed.
+   */
+  public ContentsIndex(Collection<? extends T> elements) {
+    List<T> sorted = new ArrayList<>();
+    if (elements != null) {
+      sorted.addAll(elements);
+    }
+    Collections.sort(sorted, comparator);
+    this.elements = Collections.unmodifiableList(sorted);
+
+    int size = sorted.size();
+    int tmpLeaves = 1;
+    while (tmpLeaves < size) {
+      tmpLeaves <<= 1;
+    }
+    this.leaves = tmpLeaves;
+    this.beginIndexes = new int[size];
+    this.maxEndIndexes = new int[2 * leaves];
+    Arrays.fill(maxEndIndexes, Integer.MIN_VALUE);
+    for (int position = 0; position < size; position++) {
+      T element = sorted.get(position);
+      beginIndexes[position] = element.getBeginIndex();
+      maxEndIndexes[leaves + position] = element.getEndIndex();
+    }
+    for (int node = leaves - 1; node > 0; node--) {
+      maxEndIndexes[node] = Math.max(maxEndIndexes[2 * node], maxEndIndexes[2 * node + 1]);
+    }
+  }
+
+  /**
+   * @return Elements sorted by begin index, enclosing elements first.
+   */
+  public List<T> getElements() {
+    return elements;
+  }
+
+  /**
+   * @return Number of elements.
+   */
+  public int size() {
+    return elements.size();
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return Smallest element containing the provided index.
+   */
+  public T findSmallestAt(int index) {
+    int last = findLastBeginningBefore(index);
+    if (last < 0) {
+      return null;
+    }
+    int position = findLastEndingAfter(1, 0, leaves - 1, last, index);
+    return (position >= 0) ? elements.get(position) : null;
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return Largest element containing the provided index.
+   */
+  public T findLargestAt(int index) {
+    int last = findLastBeginningBefore(index);
+    if ((last < 0) || (maxEndIndexes[1] <= index)) {
+      return null;
+    }
+
+    // Find the first element ending after the index
+    int node = 1;
+    while (node < leaves) {
+      node = (maxEndIndexes[2 * node] > index) ? 2 * node : 2 * node + 1;
+    }
+    int position = node - leaves;
+    return (position <= last) ? elements.get(position) : null;
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return All elements containing the provided index, largest elements first.
+   */
+  public List<T> findAllAt(int index) {
+    int last = findLastBeginningBefore(index);
+    if (last < 0) {
+      return Collections.emptyList();
+    }
+    List<T> result = new ArrayList<>();
+    fillEndingAfter(1, 0, leaves - 1, last, index, result);
+    return result;
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return First element beginning at or after the provided index.
+   */
+  public T findFirstAfter(int index) {
+    int position = findLastBeginningBefore(index - 1) + 1;
+    return (position < elements.size()) ? elements.get(position) : null;
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return Position of the last element beginning at or before the index (-1 if none).
+   */
+  private int findLastBeginningBefore(int index) {
+    int low = 0;
+    int high = beginIndexes.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (beginIndexes[middle] <= index) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low - 1;
+  }
+
+  /**
+   * Fill a list with the elements ending after an index among the first elements.
+   *
+   * @param node Current node of the tree.
+   * @param nodeBegin First position covered by the node.
+   * @param nodeEnd Last position covered by the node.
+   * @param last Last position to consider.
+   * @param index Index in the contents.
+   * @param result List to be filled with the elements in their sorted order.
+   */
+  private void fillEndingAfter(
+      int node, int nodeBegin, int nodeEnd,
+      int last, int index, List<T> result) {
+    if ((nodeBegin > last) || (maxEndIndexes[node] <= index)) {
+      return;
+    }
+    if (nodeBegin == nodeEnd) {
+      result.add(elements.get(nodeBegin));
+      return;
+    }
+    int middle = (nodeBegin + nodeEnd) >>> 1;
+    fillEndingAfter(2 * node, nodeBegin, middle, last, index, result);
+    fillEndingAfter(2 * node + 1, middle + 1, nodeEnd, last, index, result);
+  }
+
+  /**
+   * Find the last element ending after an index among the first elements.
+   *
+   * @param node Current node of the tree.
+   * @param nodeBegin First position covered by the node.
+   * @param nodeEnd Last position covered by the node.
+   * @param last Last position to consider.
+   * @param index Index in the contents.
+   * @return Position of the last element ending after the index (-1 if none).
+   */
+  private int findLastEndingAfter(
+      int node, int nodeBegin, int nodeEnd,
+      int last, int index) {
+    if ((nodeBegin > last) || (maxEndIndexes[node] <= index)) {
+      return -1;
+    }
+    if (nodeBegin == nodeEnd) {
+      return nodeBegin;
+    }
+    int middle = (nodeBegin + nodeEnd) >>> 1;
+    int result = findLastEndingAfter(2 * node + 1, middle + 1, nodeEnd, last, index);
+    if (result >= 0) {
+      return result;
+    }
+    return findLastEndingAfter(2 * node, nodeBegin, middle, last, index);
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+
+/**
+ * Interface to be notified of checkpoints while processing dumps.
+ */
+public interface DumpCheckpointListener {
+
+  /**
+   * Notification of a checkpoint.
+   * 
+   * All the pages before the checkpoint have been given to the page processor,
+   * and no other page is given to the page processor during the notification.
+   * 
+   * @param offset Offset in the compressed dump from which processing can be resumed
+   *        (offset of a stream for multistream dumps, 0 otherwise).
+   * @param pageId Identifier of the last page before the checkpoint.
+   */
+  public void checkpoint(long offset, Integer pageId);
+}
@@ -0,0 +1,72 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+
+/**
+ * Management of periodic checkpoints while processing dumps.
+ */
+class DumpCheckpoints {
+
+  /** Listener notified of checkpoints */
+  private final DumpCheckpointListener listener;
+
+  /** Minimum time between two checkpoints in milliseconds */
+  private final long interval;
+
+  /** Time of the last checkpoint */
+  private long lastCheckpoint;
+
+  /** Identifier of the last page reached */
+  private Integer lastPageId;
+
+  /** Task waiting for pages already given to be fully processed */
+  private Runnable drain;
+
+  /**
+   * @param listener Listener notified of checkpoints.
+   * @param interval Minimum time between two checkpoints in milliseconds.
+   * @param pageId Identifier of the last page already processed when resuming.
+   */
+  DumpCheckpoints(DumpCheckpointListener listener, long interval, Integer pageId) {
+    this.listener = listener;
+    this.interval = interval;
+    this.lastCheckpoint = System.currentTimeMillis();
+    this.lastPageId = pageId;
+  }
+
+  /**
+   * @param drain Task waiting for pages already given to be fully processed.
+   */
+  void setDrain(Runnable drain) {
+    this.drain = drain;
+  }
+
+  /**
+   * Notification that a position has been reached in the dump.
+   * 
+   * @param offset Offset in the compressed dump from which processing can be resumed.
+   * @param pageId Identifier of the last page before the position.
+   */
+  void reached(long offset, Integer pageId) {
+    if ((pageId != null) &&
+        ((lastPageId == null) || (pageId.intValue() > lastPageId.intValue()))) {
+      lastPageId = pageId;
+    }
+    long now = System.currentTimeMillis();
+    if (now < lastCheckpoint + interval) {
+      return;
+    }
+    if (drain != null) {
+      drain.run();
+    }
+    listener.checkpoint(offset, lastPageId);
+    lastCheckpoint = System.currentTimeMillis();
+  }
+}
@@ -38,6 +38,15 @@ public class DumpHandler extends DefaultHandler {
     }
   }
 
+  /**
+   * @param statistics Statistics.
+   */
+  public void setStatistics(DumpStatistics statistics) {
+    if (pageHandler != null) {
+      pageHandler.setStatistics(statistics);
+    }
+  }
+
   /**
    * Receive notification of the start of an element.
    *
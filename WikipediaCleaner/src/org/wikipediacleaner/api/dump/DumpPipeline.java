@@ -0,0 +1,715 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
+import org.xml.sax.InputSource;
+
+
+/**
+ * Pipeline for processing wiki dumps on several threads.
+ *
+ * <p>Decompression, XML parsing and page analysis are executed as separate stages
+ * linked by bounded queues, and page analysis is shared between several threads.
+ * Each stage blocks when the next one is falling behind.</p>
+ */
+class DumpPipeline {
+
+  /** Logger */
+  private final Logger log = LoggerFactory.getLogger(DumpPipeline.class);
+
+  /** Size of the blocks of decompressed data */
+  private final static int BLOCK_SIZE = 64 * 1024;
+
+  /** Maximum number of decompressed blocks waiting to be parsed */
+  private final static int BLOCK_QUEUE_SIZE = 64;
+
+  /** Maximum number of pages waiting to be analyzed for each analysis thread */
+  private final static int PAGE_QUEUE_SIZE = 100;
+
+  /** Marker for the end of the decompressed data */
+  private final static byte[] END_OF_DATA = new byte[0];
+
+  /** Page processor */
+  private final PageProcessor pageProcessor;
+
+  /** Number of threads for analyzing pages */
+  private final int analysisThreads;
+
+  /** Decompressed blocks waiting to be parsed */
+  private final BlockingQueue<byte[]> blocks;
+
+  /** Pages waiting to be analyzed */
+  private final BlockingQueue<Page> pages;
+
+  /** True when parsing is finished and no more pages will be added */
+  private volatile boolean parsingFinished;
+
+  /** Error of the decompression stage, null if decompression has not failed */
+  private volatile IOException decompressionError;
+
+  /** Results of the analysis threads */
+  private volatile Future<?>[] analysisResults;
+
+  /** Lock for the number of pages waiting to be analyzed */
+  private final Object pendingLock = new Object();
+
+  /** Number of pages given by the parsing stage and not analyzed yet */
+  private long pendingPages;
+
+  /** Statistics about the pages of the dump */
+  private final DumpStatistics statistics;
+
+  /** Statistics for the decompression stage */
+  private final Stage decompression;
+
+  /** Statistics for the parsing stage */
+  private final Stage parsing;
+
+  /** Statistics for the analysis stage */
+  private final Stage analysis;
+
+  /** Checkpoints management */
+  private DumpCheckpoints checkpoints;
+
+  /** True if checkpoints are reached by the parsing stage after each page */
+  private boolean checkpointEachPage;
+
+  /** True to use the byte scanner instead of the SAX parser */
+  private boolean byteScanner;
+
+  /**
+   * @param pageProcessor Page processor.
+   * @param analysisThreads Number of threads for analyzing pages.
+   * @param statistics Statistics about the pages of the dump.
+   */
+  DumpPipeline(PageProcessor pageProcessor, int analysisThreads, DumpStatistics statistics) {
+    this.pageProcessor = pageProcessor;
+    this.statistics = statistics;
+    this.analysisThreads = Math.max(1, analysisThreads);
+    this.blocks = new ArrayBlockingQueue<>(BLOCK_QUEUE_SIZE);
+    this.pages = new ArrayBlockingQueue<>(PAGE_QUEUE_SIZE * this.analysisThreads);
+    this.parsingFinished = false;
+    this.decompression = new Stage("Decompression", 1);
+    this.parsing = new Stage("Parsing", 1);
+    this.analysis = new Stage("Analysis", this.analysisThreads);
+  }
+
+  /**
+   * @param byteScanner True to use the byte scanner instead of the SAX parser.
+   */
+  void setByteScanner(boolean byteScanner) {
+    this.byteScanner = byteScanner;
+  }
+
+  /**
+   * Configure checkpoints.
+   *
+   * <p>Before a checkpoint is notified, the pipeline waits until all queued pages are analyzed.</p>
+   *
+   * @param checkpoints Checkpoints management.
+   * @param eachPage True if checkpoints should be reached after each parsed page,
+   *        false if they are reached by the multistream reader.
+   */
+  void setCheckpoints(DumpCheckpoints checkpoints, boolean eachPage) {
+    this.checkpoints = checkpoints;
+    this.checkpointEachPage = eachPage;
+    if (checkpoints != null) {
+      checkpoints.setDrain(new Runnable() {
+
+        /**
+         * Wait until all queued pages are analyzed.
+         *
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+          waitForAnalysis();
+        }
+      });
+    }
+  }
+
+  /**
+   * Wait until all the pages given by the parsing stage are analyzed.
+   * 
+   * @throws IllegalStateException if an analysis thread has terminated.
+   */
+  void waitForAnalysis() {
+    long beginTime = System.nanoTime();
+    try {
+      synchronized (pendingLock) {
+        while (pendingPages > 0) {
+          checkAnalyzers();
+          pendingLock.wait(100);
+        }
+      }
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Interrupted while waiting for analysis", e);
+    } finally {
+      parsing.addWait(System.nanoTime() - beginTime);
+    }
+  }
+
+  /**
+   * Check that all the analysis threads are still running while parsing.
+   * 
+   * @throws IllegalStateException if an analysis thread has terminated.
+   */
+  private void checkAnalyzers() {
+    Future<?>[] results = analysisResults;
+    if (results == null) {
+      return;
+    }
+    for (Future<?> result : results) {
+      if ((result != null) && result.isDone()) {
+        Throwable cause = null;
+        try {
+          result.get();
+        } catch (ExecutionException e) {
+          cause = e.getCause();
+        } catch (CancellationException | InterruptedException e) {
+          cause = e;
+        }
+        throw new IllegalStateException("Analysis thread terminated before the end of parsing", cause);
+      }
+    }
+  }
+
+  /**
+   * Process a wiki dump through the pipeline.
+   *
+   * @param input Decompressed stream of the wiki dump.
+   * @throws Exception Error processing the dump.
+   */
+  void process(InputStream input) throws Exception {
+    process(input, null);
+  }
+
+  /**
+   * Process a multistream wiki dump through the pipeline.
+   *
+   * <p>Decompression and parsing of the streams are done by the reader,
+   * only the analysis stage is executed by the pipeline.</p>
+   *
+   * @param reader Reader for the multistream wiki dump.
+   * @throws Exception Error processing the dump.
+   */
+  void process(MultistreamDumpReader reader) throws Exception {
+    process(null, reader);
+  }
+
+  /**
+   * Process a wiki dump through the pipeline.
+   *
+   * @param input Decompressed stream of the wiki dump.
+   * @param reader Reader for a multistream wiki dump.
+   * @throws Exception Error processing the dump.
+   */
+  private void process(InputStream input, MultistreamDumpReader reader) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(
+        analysisThreads + 1,
+        new BasicThreadFactory.Builder().namingPattern("Dump-%d").build());
+    long beginTime = System.nanoTime();
+    Future<?> decompressionResult = null;
+    Future<?>[] results = new Future<?>[analysisThreads];
+    try {
+
+      // Start decompression and analysis stages
+      if (input != null) {
+        decompressionResult = executor.submit(new Decompressor(input));
+      }
+      for (int thread = 0; thread < analysisThreads; thread++) {
+        results[thread] = executor.submit(new Analyzer());
+      }
+      analysisResults = results;
+
+      // Parse the dump in the current thread
+      parsing.begin();
+      try {
+        if (reader != null) {
+          reader.process(new QueueProcessor());
+        } else if (byteScanner) {
+          DumpScanner scanner = new DumpScanner(new QueueProcessor(), statistics);
+          scanner.scan(new BlockInputStream());
+        } else {
+          SAXParserFactory factory = SAXParserFactory.newInstance();
+          SAXParser parser = factory.newSAXParser();
+          Reader streamReader = new InputStreamReader(new BlockInputStream(), "UTF-8");
+          DumpHandler dh = new DumpHandler();
+          dh.setPageProcessor(new QueueProcessor());
+          dh.setStatistics(statistics);
+          parser.parse(new InputSource(streamReader), dh);
+        }
+      } finally {
+        parsingFinished = true;
+        parsing.end();
+      }
+
+      // Wait for the other stages to finish
+      for (Future<?> result : results) {
+        result.get();
+      }
+      if (decompressionResult != null) {
+        decompressionResult.get();
+      }
+    } finally {
+      if ((decompressionResult != null) && !decompressionResult.isDone()) {
+        decompressionResult.cancel(true);
+      }
+      executor.shutdownNow();
+      long endTime = System.nanoTime();
+      log.info("Dump pipeline: " + analysis.getCount() + " pages analyzed in " + ((endTime - beginTime) / 1000000000) + " s");
+      if (decompressionResult != null) {
+        decompression.addCount(parsing.getCount());
+        log.info(decompression.toString());
+      }
+      log.info(parsing.toString());
+      log.info(analysis.toString());
+    }
+  }
+
+  /**
+   * Decompression stage: read the dump in blocks.
+   */
+  private class Decompressor implements Callable<Void> {
+
+    /** Decompressed stream of the wiki dump */
+    private final InputStream input;
+
+    /**
+     * @param input Decompressed stream of the wiki dump.
+     */
+    public Decompressor(InputStream input) {
+      this.input = input;
+    }
+
+    /**
+     * Read the dump and put blocks in the queue.
+     *
+     * @return Nothing.
+     * @throws IOException Error decompressing the dump.
+     * @see java.util.concurrent.Callable#call()
+     */
+    @Override
+    public Void call() throws IOException {
+      decompression.begin();
+      try {
+        boolean finished = false;
+        while (!finished) {
+          long beginTime = System.nanoTime();
+          byte[] block = new byte[BLOCK_SIZE];
+          int length = 0;
+          while ((length < BLOCK_SIZE) && !finished) {
+            int count = input.read(block, length, BLOCK_SIZE - length);
+            if (count < 0) {
+              finished = true;
+            } else {
+              length += count;
+            }
+          }
+          decompression.addBusy(System.nanoTime() - beginTime);
+          decompression.addBytes(length);
+          if (length > 0) {
+            if (length < BLOCK_SIZE) {
+              byte[] tmp = new byte[length];
+              System.arraycopy(block, 0, tmp, 0, length);
+              block = tmp;
+            }
+            blocks.put(block);
+          }
+        }
+      } catch (IOException e) {
+        log.error("Error decompressing dump file", e);
+        decompressionError = e;
+      } catch (InterruptedException e) {
+        log.warn("Decompression of dump file interrupted");
+        return null;
+      } finally {
+        decompression.end();
+      }
+
+      // Wake up the parsing stage, which fails if decompression has failed
+      try {
+        blocks.put(END_OF_DATA);
+      } catch (InterruptedException e) {
+        // Nothing to do, parsing has been stopped
+      }
+      if (decompressionError != null) {
+        throw decompressionError;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Input stream reading the blocks produced by the decompression stage.
+   */
+  private class BlockInputStream extends InputStream {
+
+    /** Current block */
+    private byte[] block;
+
+    /** Position in the current block */
+    private int position;
+
+    /** True when all blocks have been read */
+    private boolean finished;
+
+    /**
+     * Constructor.
+     */
+    public BlockInputStream() {
+      block = END_OF_DATA;
+      position = 0;
+      finished = false;
+    }
+
+    /**
+     * @return True if some data is available.
+     * @throws IOException Error waiting for data.
+     */
+    private boolean fillBlock() throws IOException {
+      while (!finished && (position >= block.length)) {
+        long beginTime = System.nanoTime();
+        try {
+          block = blocks.take();
+        } catch (InterruptedException e) {
+          throw new IOException("Interrupted while waiting for decompressed data", e);
+        } finally {
+          parsing.addWait(System.nanoTime() - beginTime);
+        }
+        position = 0;
+        if (block == END_OF_DATA) {
+          IOException error = decompressionError;
+          if (error != null) {
+            throw new IOException("Error decompressing dump file", error);
+          }
+          finished = true;
+        }
+      }
+      return !finished;
+    }
+
+    /**
+     * @see java.io.InputStream#read()
+     */
+    @Override
+    public int read() throws IOException {
+      if (!fillBlock()) {
+        return -1;
+      }
+      int result = block[position] & 0xFF;
+      position++;
+      return result;
+    }
+
+    /**
+     * @see java.io.InputStream#read(byte[], int, int)
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!fillBlock()) {
+        return -1;
+      }
+      int count = Math.min(len, block.length - position);
+      System.arraycopy(block, position, b, off, count);
+      position += count;
+      return count;
+    }
+  }
+
+  /**
+   * Page processor used by the parsing stage to queue pages for analysis.
+   */
+  private class QueueProcessor implements PageProcessor {
+
+    /**
+     * @return Wiki.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#getWiki()
+     */
+    @Override
+    public EnumWikipedia getWiki() {
+      return pageProcessor.getWiki();
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @return True if the processor should work on the namespace.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForNamespace(java.lang.Integer)
+     */
+    @Override
+    public boolean isForNamespace(Integer namespace) {
+      return pageProcessor.isForNamespace(namespace);
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @param title Page title.
+     * @param redirect True if the page is a redirect.
+     * @return True if the processor should work on the page.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForPage(java.lang.Integer, java.lang.String, boolean)
+     */
+    @Override
+    public boolean isForPage(Integer namespace, String title, boolean redirect) {
+      return pageProcessor.isForPage(namespace, title, redirect);
+    }
+
+    /**
+     * @param page Page to be queued for analysis.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
+     */
+    @Override
+    public void processPage(Page page) {
+      if (page == null) {
+        return;
+      }
+      parsing.addCount();
+      synchronized (pendingLock) {
+        pendingPages++;
+      }
+      long beginTime = System.nanoTime();
+      try {
+        while (!pages.offer(page, 100, TimeUnit.MILLISECONDS)) {
+          checkAnalyzers();
+        }
+      } catch (InterruptedException e) {
+        throw new IllegalStateException("Interrupted while queuing page " + page.getTitle(), e);
+      } finally {
+        parsing.addWait(System.nanoTime() - beginTime);
+      }
+      if ((checkpoints != null) && checkpointEachPage) {
+        checkpoints.reached(0, page.getPageId());
+      }
+    }
+  }
+
+  /**
+   * Analysis stage: analyze pages from the queue.
+   */
+  private class Analyzer implements Runnable {
+
+    /**
+     * Analyze pages until parsing is finished.
+     *
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+      analysis.begin();
+      try {
+        while (true) {
+          boolean finished = parsingFinished;
+          Page page = pages.poll(100, TimeUnit.MILLISECONDS);
+          if (page != null) {
+            long beginTime = System.nanoTime();
+            try {
+              pageProcessor.processPage(page);
+            } catch (Exception e) {
+              log.error("Error analyzing page " + page.getTitle(), e);
+            }
+            analysis.addBusy(System.nanoTime() - beginTime);
+            analysis.addCount();
+
+            // Not done in a finally block: a page interrupted by an error is not analyzed
+            synchronized (pendingLock) {
+              pendingPages--;
+              if (pendingPages == 0) {
+                pendingLock.notifyAll();
+              }
+            }
+          } else if (finished) {
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        log.warn("Analysis of dump file interrupted");
+      } finally {
+        analysis.end();
+      }
+    }
+  }
+
+  /**
+   * Statistics about a stage of the pipeline.
+   */
+  private static class Stage {
+
+    /** Name of the stage */
+    private final String name;
+
+    /** Number of threads for the stage */
+    private final int threads;
+
+    /** Number of pages processed by the stage */
+    private final AtomicLong count;
+
+    /** Number of bytes processed by the stage */
+    private final AtomicLong bytes;
+
+    /** Time spent working */
+    private final AtomicLong busy;
+
+    /** Time spent waiting for other stages */
+    private final AtomicLong wait;
+
+    /** Time when the stage started */
+    private final AtomicLong beginTime;
+
+    /** Time when the stage finished */
+    private final AtomicLong endTime;
+
+    /**
+     * @param name Name of the stage.
+     * @param threads Number of threads for the stage.
+     */
+    public Stage(String name, int threads) {
+      this.name = name;
+      this.threads = threads;
+      this.count = new AtomicLong();
+      this.bytes = new AtomicLong();
+      this.busy = new AtomicLong();
+      this.wait = new AtomicLong();
+      this.beginTime = new AtomicLong();
+      this.endTime = new AtomicLong();
+    }
+
+    /**
+     * Memorize the beginning of the stage.
+     */
+    public void begin() {
+      beginTime.compareAndSet(0, System.nanoTime());
+    }
+
+    /**
+     * Memorize the end of the stage.
+     */
+    public void end() {
+      long now = System.nanoTime();
+      long previous = endTime.get();
+      while ((previous < now) && !endTime.compareAndSet(previous, now)) {
+        previous = endTime.get();
+      }
+    }
+
+    /**
+     * Count a page.
+     */
+    public void addCount() {
+      count.incrementAndGet();
+    }
+
+    /**
+     * @param pageCount Number of pages.
+     */
+    public void addCount(long pageCount) {
+      count.addAndGet(pageCount);
+    }
+
+    /**
+     * @return Number of pages processed by the stage.
+     */
+    public long getCount() {
+      return count.get();
+    }
+
+    /**
+     * @param length Number of bytes.
+     */
+    public void addBytes(long length) {
+      bytes.addAndGet(length);
+    }
+
+    /**
+     * @param time Time spent working.
+     */
+    public void addBusy(long time) {
+      busy.addAndGet(time);
+    }
+
+    /**
+     * @param time Time spent waiting for other stages.
+     */
+    public void addWait(long time) {
+      wait.addAndGet(time);
+    }
+
+    /**
+     * @return Textual description of the statistics.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+      long elapsed = Math.max(0, endTime.get() - beginTime.get());
+      long busyTime = busy.get();
+      if (busyTime == 0) {
+        busyTime = Math.max(0, elapsed - wait.get());
+      }
+      busyTime /= threads;
+      StringBuilder result = new StringBuilder();
+      result.append(name);
+      result.append(": ");
+      result.append(threads);
+      result.append(threads > 1 ? " threads" : " thread");
+      result.append(", busy ");
+      result.append(busyTime / 1000000000);
+      result.append(" s / ");
+      result.append(elapsed / 1000000000);
+      result.append(" s");
+      if (bytes.get() > 0) {
+        result.append(", ");
+        result.append(bytes.get() / 1000000);
+        result.append(" MB");
+      }
+      if (count.get() > 0) {
+        result.append(", ");
+        result.append(count.get());
+        result.append(" pages");
+      }
+      if (busyTime > 0) {
+        if (bytes.get() > 0) {
+          result.append(", ");
+          result.append(bytes.get() * 1000 / busyTime);
+          result.append(" MB/s");
+        }
+        if (count.get() > 0) {
+          result.append(", ");
+          result.append(count.get() * 1000000000 / busyTime);
+          result.append(" pages/s");
+        }
+      }
+      return result.toString();
+    }
+  }
+}
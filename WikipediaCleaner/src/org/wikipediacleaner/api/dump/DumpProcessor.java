@@ -20,6 +20,8 @@ import javax.xml.parsers.SAXParserFactory;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
 import org.xml.sax.InputSource;
 
 
@@ -34,6 +36,30 @@ public class DumpProcessor {
   /** Page processor */
   private PageProcessor pageProcessor;
 
+  /** Number of threads for analyzing pages in pipeline mode, 0 if pipeline mode is not used */
+  private int pipelineThreads;
+
+  /** Number of threads for decompressing multistream dumps */
+  private int decompressionThreads;
+
+  /** True if pages of multistream dumps should be processed in the order of the dump */
+  private boolean ordered;
+
+  /** True to use the byte scanner instead of the SAX parser */
+  private boolean byteScanner;
+
+  /** Listener notified of checkpoints */
+  private DumpCheckpointListener checkpointListener;
+
+  /** Minimum time between two checkpoints in milliseconds */
+  private long checkpointInterval;
+
+  /** Offset in the compressed dump from which processing is resumed */
+  private long resumeOffset;
+
+  /** Identifier of the last page already processed, null if processing is not resumed */
+  private Integer resumePageId;
+
   /**
    * Create a wiki dumps processor.
    * 
@@ -41,33 +67,148 @@ public class DumpProcessor {
    */
   public DumpProcessor(PageProcessor pageProcessor) {
     this.pageProcessor = pageProcessor;
+    this.pipelineThreads = 0;
+    this.decompressionThreads = Runtime.getRuntime().availableProcessors();
+    this.ordered = true;
+    this.byteScanner = false;
+    this.checkpointListener = null;
+    this.checkpointInterval = 0;
+    this.resumeOffset = 0;
+    this.resumePageId = null;
+  }
+
+  /**
+   * Configure pipeline mode.
+   * 
+   * In pipeline mode, decompression, XML parsing and page analysis are executed
+   * on separate threads, and pages are analyzed on several threads:
+   * the page processor must then be able to process pages concurrently.
+   * 
+   * @param threads Number of threads for analyzing pages (0 to disable pipeline mode).
+   */
+  public void setPipelineThreads(int threads) {
+    this.pipelineThreads = Math.max(0, threads);
+  }
+
+  /**
+   * @return True if pipeline mode is used.
+   */
+  public boolean isPipeline() {
+    return pipelineThreads > 0;
+  }
+
+  /**
+   * Configure the number of threads for decompressing multistream dumps.
+   * 
+   * @param threads Number of threads (0 to use the number of processors).
+   */
+  public void setDecompressionThreads(int threads) {
+    if (threads > 0) {
+      this.decompressionThreads = threads;
+    } else {
+      this.decompressionThreads = Runtime.getRuntime().availableProcessors();
+    }
+  }
+
+  /**
+   * Configure the order in which pages of multistream dumps are processed.
+   * 
+   * @param ordered True to process pages in the order of the dump,
+   *        false to process them as soon as they are available.
+   */
+  public void setOrdered(boolean ordered) {
+    this.ordered = ordered;
+  }
+
+  /**
+   * Configure the parser used for reading dumps.
+   * 
+   * The byte scanner works directly on the UTF-8 bytes of the dump and reuses its buffers,
+   * it's faster than the SAX parser but handles only the MediaWiki export format.
+   * 
+   * @param byteScanner True to use the byte scanner instead of the SAX parser.
+   */
+  public void setByteScanner(boolean byteScanner) {
+    this.byteScanner = byteScanner;
+  }
+
+  /**
+   * Configure periodic checkpoints.
+   * 
+   * @param listener Listener notified of checkpoints (null to disable checkpoints).
+   * @param interval Minimum time between two checkpoints in milliseconds.
+   */
+  public void setCheckpointListener(DumpCheckpointListener listener, long interval) {
+    this.checkpointListener = listener;
+    this.checkpointInterval = Math.max(0, interval);
+  }
+
+  /**
+   * Resume processing from a checkpoint.
+   * 
+   * @param offset Offset in the compressed dump given by the checkpoint.
+   * @param pageId Identifier of the last page given by the checkpoint.
+   */
+  public void setResume(long offset, Integer pageId) {
+    this.resumeOffset = Math.max(0, offset);
+    this.resumePageId = pageId;
   }
 
   /**
    * Process a wiki dump.
    * 
    * @param file File containing the wiki dump.
+   * @return True if the whole dump has been processed,
+   *         false if processing has stopped because of an error.
    */
-  public void processDump(File file) {
+  public boolean processDump(File file) {
     if (file == null) {
-      return;
+      return false;
     }
+    DumpStatistics statistics = new DumpStatistics();
+    DumpCheckpoints checkpoints = null;
+    if (checkpointListener != null) {
+      checkpoints = new DumpCheckpoints(checkpointListener, checkpointInterval, resumePageId);
+    }
+    File indexFile = MultistreamDumpReader.getIndexFile(file);
+    if (indexFile != null) {
+      boolean result = processMultistreamDump(file, indexFile, statistics, checkpoints);
+      log.info(statistics.toString());
+      return result;
+    }
+    boolean result = false;
     FileInputStream fis = null;
     BufferedInputStream bis = null;
     BZip2CompressorInputStream bzis = null;
     try {
       log.info("Starting dump processing for " + file.getName());
-      SAXParserFactory factory = SAXParserFactory.newInstance();
-      SAXParser parser = factory.newSAXParser();
       fis = new FileInputStream(file);
       bis = new BufferedInputStream(fis);
       bzis = new BZip2CompressorInputStream(bis);
-      Reader reader = new InputStreamReader(bzis, "UTF-8");
-      InputSource is = new InputSource(reader); 
-      DumpHandler dh = new DumpHandler();
-      dh.setPageProcessor(pageProcessor);
-      parser.parse(is, dh);
+      if (resumePageId != null) {
+        log.info("Resuming dump processing after page " + resumePageId);
+      }
+      if (pipelineThreads > 0) {
+        DumpPipeline pipeline = new DumpPipeline(
+            getProcessor(null), pipelineThreads, statistics);
+        pipeline.setCheckpoints(checkpoints, true);
+        pipeline.setByteScanner(byteScanner);
+        pipeline.process(bzis);
+      } else if (byteScanner) {
+        DumpScanner scanner = new DumpScanner(getProcessor(checkpoints), statistics);
+        scanner.scan(bzis);
+      } else {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        SAXParser parser = factory.newSAXParser();
+        Reader reader = new InputStreamReader(bzis, "UTF-8");
+        InputSource is = new InputSource(reader); 
+        DumpHandler dh = new DumpHandler();
+        dh.setPageProcessor(getProcessor(checkpoints));
+        dh.setStatistics(statistics);
+        parser.parse(is, dh);
+      }
       log.info("Finishing dump processing for " + file.getName());
+      result = true;
     } catch (Exception e) {
       log.error("Error processing dump file", e);
     } finally {
@@ -86,6 +227,134 @@ public class DumpProcessor {
         log.error("Error closing dump file", e);
       }
       log.info("Finished closing dump file " + file.getName());
+      log.info(statistics.toString());
+    }
+    return result;
+  }
+
+  /**
+   * Process a multistream wiki dump.
+   * 
+   * @param file File containing the wiki dump.
+   * @param indexFile File containing the index of the wiki dump.
+   * @param statistics Statistics about the pages of the wiki dump.
+   * @param checkpoints Checkpoints management.
+   * @return True if the whole dump has been processed,
+   *         false if processing has stopped because of an error.
+   */
+  private boolean processMultistreamDump(
+      File file, File indexFile,
+      DumpStatistics statistics, DumpCheckpoints checkpoints) {
+    try {
+      log.info("Starting multistream dump processing for " + file.getName());
+      MultistreamDumpReader reader = new MultistreamDumpReader(
+          file, indexFile, decompressionThreads, ordered, statistics);
+      reader.setStartOffset(resumeOffset);
+      reader.setCheckpoints(checkpoints);
+      reader.setByteScanner(byteScanner);
+      if (pipelineThreads > 0) {
+        DumpPipeline pipeline = new DumpPipeline(
+            getProcessor(null), pipelineThreads, statistics);
+        pipeline.setCheckpoints(checkpoints, false);
+        pipeline.process(reader);
+      } else {
+        reader.process(getProcessor(null));
+      }
+      log.info("Finishing multistream dump processing for " + file.getName());
+      return true;
+    } catch (Exception e) {
+      log.error("Error processing multistream dump file", e);
+      return false;
+    }
+  }
+
+  /**
+   * @param checkpoints Checkpoints management if checkpoints are reached after each page.
+   * @return Page processor taking into account checkpoints and resuming.
+   */
+  private PageProcessor getProcessor(DumpCheckpoints checkpoints) {
+    if ((checkpoints == null) && (resumePageId == null)) {
+      return pageProcessor;
+    }
+    return new ResumeProcessor(pageProcessor, resumePageId, checkpoints);
+  }
+
+  /**
+   * Page processor skipping pages already processed and reaching checkpoints.
+   */
+  private static class ResumeProcessor implements PageProcessor {
+
+    /** Page processor */
+    private final PageProcessor processor;
+
+    /** Identifier of the last page already processed */
+    private final Integer resumePageId;
+
+    /** Checkpoints management */
+    private final DumpCheckpoints checkpoints;
+
+    /**
+     * @param processor Page processor.
+     * @param resumePageId Identifier of the last page already processed.
+     * @param checkpoints Checkpoints management.
+     */
+    public ResumeProcessor(
+        PageProcessor processor, Integer resumePageId,
+        DumpCheckpoints checkpoints) {
+      this.processor = processor;
+      this.resumePageId = resumePageId;
+      this.checkpoints = checkpoints;
+    }
+
+    /**
+     * @return Wiki.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#getWiki()
+     */
+    @Override
+    public EnumWikipedia getWiki() {
+      return processor.getWiki();
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @return True if the namespace should be processed.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForNamespace(java.lang.Integer)
+     */
+    @Override
+    public boolean isForNamespace(Integer namespace) {
+      return processor.isForNamespace(namespace);
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @param title Page title.
+     * @param redirect True if the page is a redirect.
+     * @return True if the page should be processed.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForPage(java.lang.Integer, java.lang.String, boolean)
+     */
+    @Override
+    public boolean isForPage(Integer namespace, String title, boolean redirect) {
+      return processor.isForPage(namespace, title, redirect);
+    }
+
+    /**
+     * @param page Page.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
+     */
+    @Override
+    public void processPage(Page page) {
+      if ((page == null) || (page.getPageId() == null)) {
+        processor.processPage(page);
+        return;
+      }
+      if ((resumePageId != null) &&
+          (page.getPageId().intValue() <= resumePageId.intValue())) {
+        return;
+      }
+      processor.processPage(page);
+      if (checkpoints != null) {
+        checkpoints.reached(0, page.getPageId());
+      }
     }
   }
 }
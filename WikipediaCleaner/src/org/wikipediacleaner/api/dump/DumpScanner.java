@@ -0,0 +1,760 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRedirect;
+
+
+/**
+ * Scanner for wiki dumps working directly on UTF-8 bytes.
+ *
+ * <p>Alternative to the SAX parser ({@link DumpHandler} and {@link PageHandler})
+ * dedicated to the MediaWiki export format:
+ * buffers are reused between pages, only the values needed to build pages are decoded,
+ * and XML entities are decoded only when the value contains one.</p>
+ */
+class DumpScanner {
+
+  /** Logger */
+  private final Logger log = LoggerFactory.getLogger(DumpScanner.class);
+
+  /** Size of the buffer for reading the dump */
+  private final static int BUFFER_SIZE = 256 * 1024;
+
+  /** Name of the page element */
+  private final static byte[] TAG_PAGE = bytes("page");
+
+  /** Name of the title element */
+  private final static byte[] TAG_TITLE = bytes("title");
+
+  /** Name of the namespace element */
+  private final static byte[] TAG_NS = bytes("ns");
+
+  /** Name of the id element */
+  private final static byte[] TAG_ID = bytes("id");
+
+  /** Name of the redirect element */
+  private final static byte[] TAG_REDIRECT = bytes("redirect");
+
+  /** Name of the revision element */
+  private final static byte[] TAG_REVISION = bytes("revision");
+
+  /** Name of the contributor element */
+  private final static byte[] TAG_CONTRIBUTOR = bytes("contributor");
+
+  /** Name of the text element */
+  private final static byte[] TAG_TEXT = bytes("text");
+
+  /** Name of the title attribute */
+  private final static byte[] ATTRIBUTE_TITLE = bytes("title");
+
+  /** Page processor */
+  private final PageProcessor processor;
+
+  /** Statistics */
+  private final DumpStatistics statistics;
+
+  /** Input stream, null when scanning an array of bytes */
+  private InputStream input;
+
+  /** Buffer for reading the dump from an input stream */
+  private byte[] streamBuffer;
+
+  /** Buffer with the bytes being scanned */
+  private byte[] buffer;
+
+  /** Current position in the buffer */
+  private int position;
+
+  /** End of the data in the buffer */
+  private int limit;
+
+  /** Name of the current tag */
+  private final Value tagName;
+
+  /** Attributes of the current tag */
+  private final Value attributes;
+
+  /** True if the current tag is a closing tag */
+  private boolean closingTag;
+
+  /** True if the current tag is an empty element tag */
+  private boolean emptyTag;
+
+  /** True when scanning a page */
+  private boolean isInPage;
+
+  /** True when scanning a revision */
+  private boolean isInRevision;
+
+  /** True when scanning a contributor */
+  private boolean isInContributor;
+
+  /** True when the revision id has been found */
+  private boolean hasRevisionId;
+
+  /** True when the current page is skipped */
+  private boolean isSkipped;
+
+  /** True when the text of a skipped page is being scanned */
+  private boolean isInSkippedText;
+
+  /** Value receiving the contents, null if contents are ignored */
+  private Value current;
+
+  /** Page title */
+  private final Value title;
+
+  /** Name space */
+  private final Value namespace;
+
+  /** Page id */
+  private final Value pageId;
+
+  /** Redirect */
+  private final Value redirect;
+
+  /** Revision id */
+  private final Value revisionId;
+
+  /** Revision text */
+  private final Value text;
+
+  /**
+   * @param processor Page processor.
+   * @param statistics Statistics.
+   */
+  DumpScanner(PageProcessor processor, DumpStatistics statistics) {
+    this.processor = processor;
+    this.statistics = (statistics != null) ? statistics : new DumpStatistics();
+    this.tagName = new Value(32);
+    this.attributes = new Value(256);
+    this.title = new Value(256);
+    this.namespace = new Value(16);
+    this.pageId = new Value(16);
+    this.redirect = new Value(256);
+    this.revisionId = new Value(16);
+    this.text = new Value(64 * 1024);
+  }
+
+  /**
+   * Scan a dump.
+   *
+   * @param stream Decompressed stream of the dump.
+   * @throws IOException Error reading the dump.
+   */
+  void scan(InputStream stream) throws IOException {
+    if (streamBuffer == null) {
+      streamBuffer = new byte[BUFFER_SIZE];
+    }
+    buffer = streamBuffer;
+    input = stream;
+    position = 0;
+    limit = 0;
+    scan();
+  }
+
+  /**
+   * Scan a dump already in memory.
+   *
+   * @param data Decompressed dump.
+   * @param offset Offset of the dump in the array.
+   * @param length Length of the dump.
+   * @throws IOException Error reading the dump.
+   */
+  void scan(byte[] data, int offset, int length) throws IOException {
+    input = null;
+    buffer = data;
+    position = offset;
+    limit = offset + length;
+    scan();
+  }
+
+  /**
+   * Scan the dump.
+   *
+   * @throws IOException Error reading the dump.
+   */
+  private void scan() throws IOException {
+    isInPage = false;
+    cleanPageInformation();
+    while (readContents() && readTag()) {
+      if (closingTag) {
+        endElement();
+      } else if (tagName.length > 0) {
+        startElement();
+        if (emptyTag) {
+          endElement();
+        }
+      }
+    }
+  }
+
+  /**
+   * Start of an element.
+   */
+  private void startElement() {
+    if (!isInPage) {
+      if (tagName.is(TAG_PAGE)) {
+        isInPage = true;
+        cleanPageInformation();
+      }
+      return;
+    }
+    if (isInRevision) {
+      if (isInContributor) {
+        return;
+      }
+      if (tagName.is(TAG_CONTRIBUTOR)) {
+        isInContributor = true;
+      } else if (tagName.is(TAG_ID) && !hasRevisionId) {
+        hasRevisionId = true;
+        revisionId.clear();
+        current = revisionId;
+      } else if (tagName.is(TAG_TEXT)) {
+        text.clear();
+        if (!isSkipped && (processor != null)) {
+          Integer namespaceNum = namespace.toInteger();
+          if (namespaceNum == null) {
+            log.error("Incorrect namespace {} for page {}", namespace.toString(), title.toString());
+            isSkipped = true;
+          } else if (!processor.isForPage(namespaceNum, title.toString(), redirect.length > 0)) {
+            isSkipped = true;
+          }
+        }
+        if (isSkipped) {
+          isInSkippedText = true;
+        } else {
+          current = text;
+        }
+      }
+    } else if (tagName.is(TAG_TITLE)) {
+      title.clear();
+      current = title;
+    } else if (tagName.is(TAG_NS)) {
+      namespace.clear();
+      current = namespace;
+    } else if (tagName.is(TAG_ID)) {
+      pageId.clear();
+      current = pageId;
+    } else if (tagName.is(TAG_REDIRECT)) {
+      redirect.clear();
+      attributes.getAttribute(ATTRIBUTE_TITLE, redirect);
+    } else if (tagName.is(TAG_REVISION)) {
+      isInRevision = true;
+      isInContributor = false;
+      hasRevisionId = false;
+      revisionId.clear();
+      text.clear();
+    }
+  }
+
+  /**
+   * End of an element.
+   */
+  private void endElement() {
+    if (!isInPage) {
+      return;
+    }
+    current = null;
+    isInSkippedText = false;
+
+    if (isInRevision) {
+      if (tagName.is(TAG_CONTRIBUTOR)) {
+        isInContributor = false;
+      } else if (tagName.is(TAG_REVISION)) {
+        isInRevision = false;
+        isInContributor = false;
+      }
+    } else if (tagName.is(TAG_PAGE)) {
+      statistics.increasePageCount();
+      if (isSkipped) {
+        statistics.increaseSkippedPages();
+      } else if (processor != null) {
+        processPage();
+      }
+      isInPage = false;
+      cleanPageInformation();
+    } else if (tagName.is(TAG_NS)) {
+      if (processor != null) {
+        Integer namespaceNum = namespace.toInteger();
+        if (namespaceNum == null) {
+          log.error("Incorrect namespace {} for page {}", namespace.toString(), title.toString());
+        } else if (!processor.isForNamespace(namespaceNum)) {
+          isSkipped = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Give the current page to the page processor.
+   */
+  private void processPage() {
+    Integer namespaceNum = namespace.toInteger();
+    Integer pageIdNum = pageId.toInteger();
+    if ((namespaceNum == null) || (pageIdNum == null)) {
+      log.error("Problem with page {}: namespace={}, id={}", title.toString(), namespace.toString(), pageId.toString());
+      return;
+    }
+    if (!processor.isForNamespace(namespaceNum)) {
+      return;
+    }
+    Page page = DataManager.getPage(
+        processor.getWiki(), title.toString(),
+        pageIdNum, revisionId.toString(),
+        null);
+    page.setNamespace(namespaceNum);
+    page.setContents(text.toString());
+    if (redirect.length > 0) {
+      PageRedirect redirects = page.getRedirects();
+      redirects.isRedirect(true);
+      redirects.add(DataManager.getPage(processor.getWiki(), redirect.toString(), null, null, null), null);
+    }
+    processor.processPage(page);
+  }
+
+  /**
+   * Clean current page information.
+   */
+  private void cleanPageInformation() {
+    isSkipped = false;
+    isInSkippedText = false;
+    isInRevision = false;
+    isInContributor = false;
+    hasRevisionId = false;
+    current = null;
+    title.clear();
+    namespace.clear();
+    pageId.clear();
+    redirect.clear();
+    revisionId.clear();
+    text.clear();
+  }
+
+  /**
+   * Read contents until the beginning of the next tag.
+   *
+   * @return True if a tag has been found.
+   * @throws IOException Error reading the dump.
+   */
+  private boolean readContents() throws IOException {
+    while (true) {
+      if ((position >= limit) && !fill()) {
+        return false;
+      }
+      int start = position;
+      int end = start;
+      while ((end < limit) && (buffer[end] != '<')) {
+        end++;
+      }
+      if (current != null) {
+        current.append(buffer, start, end - start);
+      } else if (isInSkippedText) {
+        statistics.addSkippedBytes(end - start);
+      }
+      position = end;
+      if (end < limit) {
+        position++;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Read a tag, the opening bracket being already read.
+   *
+   * @return True if a tag has been read.
+   * @throws IOException Error reading the dump.
+   */
+  private boolean readTag() throws IOException {
+    closingTag = false;
+    emptyTag = false;
+    tagName.clear();
+    attributes.clear();
+    int currentByte = nextByte();
+    if ((currentByte == '?') || (currentByte == '!')) {
+      // Processing instruction, comment or declaration: ignored
+      while ((currentByte >= 0) && (currentByte != '>')) {
+        currentByte = nextByte();
+      }
+      return currentByte >= 0;
+    }
+    if (currentByte == '/') {
+      closingTag = true;
+      currentByte = nextByte();
+    }
+    while ((currentByte >= 0) &&
+           (currentByte != '>') && (currentByte != '/') &&
+           (currentByte != ' ') && (currentByte != '\t') &&
+           (currentByte != '\n') && (currentByte != '\r')) {
+      tagName.append((byte) currentByte);
+      currentByte = nextByte();
+    }
+    while ((currentByte >= 0) && (currentByte != '>')) {
+      attributes.append((byte) currentByte);
+      currentByte = nextByte();
+    }
+    if (currentByte < 0) {
+      return false;
+    }
+    emptyTag =
+        (attributes.length > 0) &&
+        (attributes.bytes[attributes.length - 1] == '/');
+    return true;
+  }
+
+  /**
+   * @return Next byte in the dump, -1 at the end of the dump.
+   * @throws IOException Error reading the dump.
+   */
+  private int nextByte() throws IOException {
+    if ((position >= limit) && !fill()) {
+      return -1;
+    }
+    return buffer[position++] & 0xFF;
+  }
+
+  /**
+   * Fill the buffer with the next bytes of the dump.
+   *
+   * @return True if some bytes are available.
+   * @throws IOException Error reading the dump.
+   */
+  private boolean fill() throws IOException {
+    if (input == null) {
+      return false;
+    }
+    int count = input.read(buffer, 0, buffer.length);
+    while (count == 0) {
+      count = input.read(buffer, 0, buffer.length);
+    }
+    if (count < 0) {
+      return false;
+    }
+    position = 0;
+    limit = count;
+    return true;
+  }
+
+  /**
+   * @param value ASCII string.
+   * @return Bytes of the string.
+   */
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Reusable buffer for a value encoded in UTF-8.
+   */
+  static class Value {
+
+    /** Bytes of the value */
+    byte[] bytes;
+
+    /** Length of the value */
+    int length;
+
+    /** Value decoded as a String */
+    private String string;
+
+    /**
+     * @param capacity Initial capacity.
+     */
+    Value(int capacity) {
+      bytes = new byte[capacity];
+      length = 0;
+    }
+
+    /**
+     * Clear the value.
+     */
+    void clear() {
+      length = 0;
+      string = null;
+    }
+
+    /**
+     * @param value Byte to append.
+     */
+    void append(byte value) {
+      if (length >= bytes.length) {
+        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+      }
+      bytes[length++] = value;
+      string = null;
+    }
+
+    /**
+     * @param src Bytes to append.
+     * @param offset Offset of the bytes to append.
+     * @param count Number of bytes to append.
+     */
+    void append(byte[] src, int offset, int count) {
+      if (count <= 0) {
+        return;
+      }
+      if (length + count > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+      }
+      System.arraycopy(src, offset, bytes, length, count);
+      length += count;
+      string = null;
+    }
+
+    /**
+     * @param name Name in ASCII.
+     * @return True if the value is equal to the name.
+     */
+    boolean is(byte[] name) {
+      return isName(0, length, name);
+    }
+
+    /**
+     * @return Value as an integer, null if it's not an integer.
+     */
+    Integer toInteger() {
+      int index = 0;
+      while ((index < length) && (bytes[index] <= ' ')) {
+        index++;
+      }
+      boolean negative = false;
+      if ((index < length) && (bytes[index] == '-')) {
+        negative = true;
+        index++;
+      }
+      int end = length;
+      while ((end > index) && (bytes[end - 1] <= ' ')) {
+        end--;
+      }
+      if ((index >= end) || (end - index > 9)) {
+        return null;
+      }
+      int result = 0;
+      for (; index < end; index++) {
+        int digit = bytes[index] - '0';
+        if ((digit < 0) || (digit > 9)) {
+          return null;
+        }
+        result = result * 10 + digit;
+      }
+      return Integer.valueOf(negative ? -result : result);
+    }
+
+    /**
+     * Extract the value of an attribute when the value contains attributes.
+     *
+     * @param name Attribute name in ASCII.
+     * @param result Value receiving the attribute value.
+     */
+    void getAttribute(byte[] name, Value result) {
+      int index = 0;
+      while (index < length) {
+        while ((index < length) && (bytes[index] <= ' ')) {
+          index++;
+        }
+        int nameBegin = index;
+        while ((index < length) && (bytes[index] != '=') && (bytes[index] > ' ')) {
+          index++;
+        }
+        int nameEnd = index;
+        while ((index < length) && (bytes[index] != '=')) {
+          index++;
+        }
+        index++;
+        while ((index < length) && (bytes[index] <= ' ')) {
+          index++;
+        }
+        if (index >= length) {
+          return;
+        }
+        byte quote = bytes[index];
+        if ((quote != '"') && (quote != '\'')) {
+          return;
+        }
+        int valueBegin = index + 1;
+        index = valueBegin;
+        while ((index < length) && (bytes[index] != quote)) {
+          index++;
+        }
+        if (isName(nameBegin, nameEnd, name)) {
+          result.clear();
+          result.append(bytes, valueBegin, index - valueBegin);
+          return;
+        }
+        index++;
+      }
+    }
+
+    /**
+     * @param begin Beginning of the name.
+     * @param end End of the name.
+     * @param name Name in ASCII.
+     * @return True if the bytes between begin and end are equal to the name.
+     */
+    private boolean isName(int begin, int end, byte[] name) {
+      if (end - begin != name.length) {
+        return false;
+      }
+      for (int index = 0; index < name.length; index++) {
+        if (bytes[begin + index] != name[index]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return Value decoded as a String, XML entities being replaced.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+      if (string == null) {
+        decode();
+        string = new String(bytes, 0, length, StandardCharsets.UTF_8);
+      }
+      return string;
+    }
+
+    /**
+     * Replace XML entities and normalize line breaks in place:
+     * an entity is never shorter than its UTF-8 encoding.
+     */
+    private void decode() {
+      int read = 0;
+      while ((read < length) && (bytes[read] != '&') && (bytes[read] != '\r')) {
+        read++;
+      }
+      if (read >= length) {
+        return;
+      }
+      int write = read;
+      while (read < length) {
+        byte currentByte = bytes[read];
+        if (currentByte == '\r') {
+          bytes[write++] = '\n';
+          read++;
+          if ((read < length) && (bytes[read] == '\n')) {
+            read++;
+          }
+          continue;
+        }
+        if (currentByte == '&') {
+          int end = read + 1;
+          while ((end < length) && (end - read <= 10) && (bytes[end] != ';')) {
+            end++;
+          }
+          int codePoint = ((end < length) && (bytes[end] == ';')) ? decodeEntity(read + 1, end) : -1;
+          if (codePoint >= 0) {
+            write = encode(codePoint, write);
+            read = end + 1;
+            continue;
+          }
+        }
+        bytes[write++] = currentByte;
+        read++;
+      }
+      length = write;
+    }
+
+    /**
+     * @param begin Beginning of the entity name (after &amp;).
+     * @param end End of the entity name (before ;).
+     * @return Code point of the entity, -1 if it's not a known entity.
+     */
+    private int decodeEntity(int begin, int end) {
+      int count = end - begin;
+      if (count < 2) {
+        return -1;
+      }
+      if (bytes[begin] == '#') {
+        int radix = 10;
+        int index = begin + 1;
+        if ((bytes[index] == 'x') || (bytes[index] == 'X')) {
+          radix = 16;
+          index++;
+        }
+        if (index >= end) {
+          return -1;
+        }
+        int codePoint = 0;
+        for (; index < end; index++) {
+          int digit = Character.digit(bytes[index], radix);
+          if (digit < 0) {
+            return -1;
+          }
+          codePoint = codePoint * radix + digit;
+          if (codePoint > Character.MAX_CODE_POINT) {
+            return -1;
+          }
+        }
+        return codePoint;
+      }
+      if (count == 2) {
+        if ((bytes[begin] == 'l') && (bytes[begin + 1] == 't')) {
+          return '<';
+        }
+        if ((bytes[begin] == 'g') && (bytes[begin + 1] == 't')) {
+          return '>';
+        }
+      } else if (count == 3) {
+        if ((bytes[begin] == 'a') && (bytes[begin + 1] == 'm') && (bytes[begin + 2] == 'p')) {
+          return '&';
+        }
+      } else if (count == 4) {
+        if ((bytes[begin] == 'q') && (bytes[begin + 1] == 'u') &&
+            (bytes[begin + 2] == 'o') && (bytes[begin + 3] == 't')) {
+          return '"';
+        }
+        if ((bytes[begin] == 'a') && (bytes[begin + 1] == 'p') &&
+            (bytes[begin + 2] == 'o') && (bytes[begin + 3] == 's')) {
+          return '\'';
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Encode a code point in UTF-8.
+     *
+     * @param codePoint Code point.
+     * @param index Index where the code point is written.
+     * @return Index after the encoded code point.
+     */
+    private int encode(int codePoint, int index) {
+      if (codePoint < 0x80) {
+        bytes[index++] = (byte) codePoint;
+      } else if (codePoint < 0x800) {
+        bytes[index++] = (byte) (0xC0 | (codePoint >> 6));
+        bytes[index++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else if (codePoint < 0x10000) {
+        bytes[index++] = (byte) (0xE0 | (codePoint >> 12));
+        bytes[index++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        bytes[index++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else {
+        bytes[index++] = (byte) (0xF0 | (codePoint >> 18));
+        bytes[index++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        bytes[index++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        bytes[index++] = (byte) (0x80 | (codePoint & 0x3F));
+      }
+      return index;
+    }
+  }
+}
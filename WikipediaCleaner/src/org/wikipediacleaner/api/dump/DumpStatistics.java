@@ -0,0 +1,101 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Statistics about the pages of a wiki dump.
+ *
+ * <p>Statistics may be shared by several handlers working on different threads.</p>
+ */
+public class DumpStatistics {
+
+  /** Logger */
+  private final Logger log = LoggerFactory.getLogger(DumpStatistics.class);
+
+  /** Number of pages parsed */
+  private final AtomicLong pageCount;
+
+  /** Number of pages skipped before their text was read */
+  private final AtomicLong skippedPages;
+
+  /** Number of bytes of text skipped */
+  private final AtomicLong skippedBytes;
+
+  /**
+   * Constructor.
+   */
+  public DumpStatistics() {
+    pageCount = new AtomicLong();
+    skippedPages = new AtomicLong();
+    skippedBytes = new AtomicLong();
+  }
+
+  /**
+   * Increase page count.
+   */
+  void increasePageCount() {
+    long count = pageCount.incrementAndGet();
+    if (count % 100000 == 0) {
+      log.info("Dump parser has gone through {} pages", count);
+    }
+  }
+
+  /**
+   * Increase count of skipped pages.
+   */
+  void increaseSkippedPages() {
+    skippedPages.incrementAndGet();
+  }
+
+  /**
+   * @param bytes Number of bytes of text skipped.
+   */
+  void addSkippedBytes(long bytes) {
+    skippedBytes.addAndGet(bytes);
+  }
+
+  /**
+   * @return Number of pages parsed.
+   */
+  public long getPageCount() {
+    return pageCount.get();
+  }
+
+  /**
+   * @return Number of pages skipped before their text was read.
+   */
+  public long getSkippedPages() {
+    return skippedPages.get();
+  }
+
+  /**
+   * @return Number of bytes of text skipped.
+   */
+  public long getSkippedBytes() {
+    return skippedBytes.get();
+  }
+
+  /**
+   * @return Textual description of the statistics.
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return
+        "Pages parsed: " + pageCount.get() +
+        ", skipped: " + skippedPages.get() +
+        " (" + (skippedBytes.get() / 1000000) + " MB of text)";
+  }
+}
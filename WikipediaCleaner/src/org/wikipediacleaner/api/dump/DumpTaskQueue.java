@@ -0,0 +1,205 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wikipediacleaner.api.data.Page;
+
+
+/**
+ * Bounded queue of tasks analyzing pages read from a dump.
+ *
+ * <p>The number of pages and the size of their text waiting or being analyzed are limited:
+ * adding a task blocks until enough pages have been analyzed by the worker threads,
+ * so memory stays bounded whatever the size of the dump.</p>
+ */
+public class DumpTaskQueue {
+
+  /** Logger */
+  private final Logger log = LoggerFactory.getLogger(DumpTaskQueue.class);
+
+  /** Executor for analyzing pages */
+  private final ExecutorService executor;
+
+  /** Maximum number of pages waiting or being analyzed */
+  private final int maxPages;
+
+  /** Maximum size of the text of the pages waiting or being analyzed (in characters) */
+  private final long maxSize;
+
+  /** Lock protecting the counters */
+  private final ReentrantLock lock;
+
+  /** Condition signaled when a task is finished */
+  private final Condition taskFinished;
+
+  /** Number of pages waiting or being analyzed */
+  private int pendingPages;
+
+  /** Size of the text of the pages waiting or being analyzed (in characters) */
+  private long pendingSize;
+
+  /** Time spent waiting for room in the queue */
+  private long waitTime;
+
+  /**
+   * @param threads Number of threads for analyzing pages.
+   * @param maxPages Maximum number of pages waiting or being analyzed (0 for no limit).
+   * @param maxSize Maximum size of the text of the pages waiting or being analyzed
+   *        in characters (0 for no limit).
+   */
+  public DumpTaskQueue(int threads, int maxPages, long maxSize) {
+    int nThreads = Math.max(1, threads);
+    this.executor = new ThreadPoolExecutor(
+        nThreads, nThreads,
+        0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(),
+        new BasicThreadFactory.Builder().namingPattern("DumpTask-%d").build());
+    this.maxPages = (maxPages > 0) ? maxPages : Integer.MAX_VALUE;
+    this.maxSize = (maxSize > 0) ? maxSize : Long.MAX_VALUE;
+    this.lock = new ReentrantLock();
+    this.taskFinished = lock.newCondition();
+    this.pendingPages = 0;
+    this.pendingSize = 0;
+    this.waitTime = 0;
+  }
+
+  /**
+   * Add a task analyzing a page, waiting until there's enough room in the queue.
+   *
+   * <p>A page larger than the maximum size is accepted when the queue is empty.</p>
+   *
+   * @param page Page analyzed by the task.
+   * @param task Task analyzing the page.
+   * @throws InterruptedException Interrupted while waiting for room in the queue.
+   */
+  public void put(Page page, Callable<?> task) throws InterruptedException {
+    long size = getSize(page);
+    lock.lock();
+    try {
+      long beginTime = System.nanoTime();
+      while ((pendingPages > 0) &&
+             ((pendingPages >= maxPages) || (pendingSize + size > maxSize))) {
+        taskFinished.await();
+      }
+      waitTime += System.nanoTime() - beginTime;
+      pendingPages++;
+      pendingSize += size;
+    } finally {
+      lock.unlock();
+    }
+    executor.execute(new Task(page, task, size));
+  }
+
+  /**
+   * @return True if all tasks are completed.
+   */
+  public boolean hasFinished() {
+    lock.lock();
+    try {
+      return pendingPages == 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Wait until all tasks are completed.
+   *
+   * @throws InterruptedException Interrupted while waiting for tasks.
+   */
+  public void waitForCompletion() throws InterruptedException {
+    lock.lock();
+    try {
+      while (pendingPages > 0) {
+        taskFinished.await();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stop the worker threads once all tasks are completed.
+   */
+  public void shutdown() {
+    executor.shutdown();
+    log.info("Dump task queue: " + (waitTime / 1000000000) + " s waiting for analysis");
+  }
+
+  /**
+   * @param page Page.
+   * @return Size of the text of the page.
+   */
+  private static long getSize(Page page) {
+    if ((page == null) || (page.getContents() == null)) {
+      return 0;
+    }
+    return page.getContents().length();
+  }
+
+  /**
+   * Wrapper releasing room in the queue when the task is finished.
+   */
+  private class Task implements Runnable {
+
+    /** Page analyzed by the task */
+    private final Page page;
+
+    /** Task analyzing the page */
+    private final Callable<?> task;
+
+    /** Size of the text of the page */
+    private final long size;
+
+    /**
+     * @param page Page analyzed by the task.
+     * @param task Task analyzing the page.
+     * @param size Size of the text of the page.
+     */
+    public Task(Page page, Callable<?> task, long size) {
+      this.page = page;
+      this.task = task;
+      this.size = size;
+    }
+
+    /**
+     * Run the task and release room in the queue.
+     *
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+      try {
+        task.call();
+      } catch (Exception e) {
+        log.error("Error analyzing page " + ((page != null) ? page.getTitle() : null), e);
+      } finally {
+        lock.lock();
+        try {
+          pendingPages--;
+          pendingSize -= size;
+          taskFinished.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,591 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
+import org.xml.sax.InputSource;
+
+
+/**
+ * Reader for multistream wiki dumps.
+ *
+ * <p>A multistream dump is made of independent bzip2 streams, each containing
+ * a group of pages, and is published with an index file giving the offset of each stream.
+ * The streams are decompressed and parsed in parallel, and the pages are given
+ * to the page processor in the calling thread, either in the order of the dump
+ * or in the order in which the streams have been processed.</p>
+ */
+public class MultistreamDumpReader {
+
+  /** Logger */
+  private final Logger log = LoggerFactory.getLogger(MultistreamDumpReader.class);
+
+  /** Suffix of multistream dump files */
+  private final static String SUFFIX_DUMP = "multistream.xml.bz2";
+
+  /** Suffix of index files for multistream dumps */
+  private final static String SUFFIX_INDEX = "multistream-index.txt.bz2";
+
+  /** Beginning of a page in the dump */
+  private final static byte[] PAGE_OPEN = "<page>".getBytes(StandardCharsets.UTF_8);
+
+  /** End of a page in the dump */
+  private final static byte[] PAGE_CLOSE = "</page>".getBytes(StandardCharsets.UTF_8);
+
+  /** Root element added around the pages of a stream */
+  private final static byte[] ROOT_OPEN = "<mediawiki>".getBytes(StandardCharsets.UTF_8);
+
+  /** Root element added around the pages of a stream */
+  private final static byte[] ROOT_CLOSE = "</mediawiki>".getBytes(StandardCharsets.UTF_8);
+
+  /** Dump file */
+  private final File dumpFile;
+
+  /** Index file */
+  private final File indexFile;
+
+  /** Number of threads for decompressing streams */
+  private final int threads;
+
+  /** True if pages should be processed in the order of the dump */
+  private final boolean ordered;
+
+  /** Statistics about the pages of the dump */
+  private final DumpStatistics statistics;
+
+  /** Offset of the first stream to process */
+  private long startOffset;
+
+  /** Checkpoints management */
+  private DumpCheckpoints checkpoints;
+
+  /** True to use the byte scanner instead of the SAX parser */
+  private boolean byteScanner;
+
+  /** Factory for SAX parsers */
+  private final SAXParserFactory factory;
+
+  /** Number of bytes decompressed */
+  private final AtomicLong bytes;
+
+  /** Time spent decompressing and parsing streams */
+  private final AtomicLong busy;
+
+  /**
+   * @param dumpFile Dump file.
+   * @param indexFile Index file.
+   * @param threads Number of threads for decompressing streams.
+   * @param ordered True if pages should be processed in the order of the dump.
+   * @param statistics Statistics about the pages of the dump.
+   */
+  public MultistreamDumpReader(
+      File dumpFile, File indexFile,
+      int threads, boolean ordered,
+      DumpStatistics statistics) {
+    this.dumpFile = dumpFile;
+    this.indexFile = indexFile;
+    this.threads = Math.max(1, threads);
+    this.ordered = ordered;
+    this.statistics = statistics;
+    this.startOffset = 0;
+    this.factory = SAXParserFactory.newInstance();
+    this.bytes = new AtomicLong();
+    this.busy = new AtomicLong();
+  }
+
+  /**
+   * @param dumpFile Dump file.
+   * @return Index file for the dump if it's a multistream dump with an available index.
+   */
+  public static File getIndexFile(File dumpFile) {
+    if ((dumpFile == null) || !dumpFile.getName().endsWith(SUFFIX_DUMP)) {
+      return null;
+    }
+    String name = dumpFile.getName();
+    name = name.substring(0, name.length() - SUFFIX_DUMP.length()) + SUFFIX_INDEX;
+    File indexFile = new File(dumpFile.getParentFile(), name);
+    if (!indexFile.isFile() || !indexFile.canRead()) {
+      return null;
+    }
+    return indexFile;
+  }
+
+  /**
+   * @param fileName Name of a dump file.
+   * @return Name of the index file if the dump is a multistream dump.
+   */
+  public static String getIndexFileName(String fileName) {
+    if ((fileName == null) || !fileName.endsWith(SUFFIX_DUMP)) {
+      return null;
+    }
+    return fileName.substring(0, fileName.length() - SUFFIX_DUMP.length()) + SUFFIX_INDEX;
+  }
+
+  /**
+   * @param offset Offset of the first stream to process, to resume processing.
+   */
+  public void setStartOffset(long offset) {
+    this.startOffset = offset;
+  }
+
+  /**
+   * @param byteScanner True to use the byte scanner instead of the SAX parser.
+   */
+  void setByteScanner(boolean byteScanner) {
+    this.byteScanner = byteScanner;
+  }
+
+  /**
+   * @param checkpoints Checkpoints management.
+   */
+  void setCheckpoints(DumpCheckpoints checkpoints) {
+    this.checkpoints = checkpoints;
+  }
+
+  /**
+   * Process the dump.
+   *
+   * @param processor Page processor receiving the pages.
+   * @throws Exception Error processing the dump.
+   */
+  public void process(PageProcessor processor) throws Exception {
+    long beginTime = System.nanoTime();
+    long[] offsets = readOffsets();
+    int firstBlock = 0;
+    while ((firstBlock < offsets.length) && (offsets[firstBlock] < startOffset)) {
+      firstBlock++;
+    }
+    if (firstBlock > 0) {
+      log.info("Skipping " + firstBlock + " streams already processed");
+    }
+    log.info("Processing " + (offsets.length - firstBlock) + " streams from " + dumpFile.getName());
+    long pageCount = 0;
+    ExecutorService executor = Executors.newFixedThreadPool(
+        threads,
+        new BasicThreadFactory.Builder().namingPattern("DumpStream-%d").build());
+    try (RandomAccessFile file = new RandomAccessFile(dumpFile, "r")) {
+      FileChannel channel = file.getChannel();
+      long fileLength = channel.size();
+      int maxPending = threads * 4;
+      Progress progress = new Progress(offsets, firstBlock, fileLength);
+      if (ordered) {
+        LinkedList<Future<StreamTask>> pending = new LinkedList<>();
+        for (int block = firstBlock; block < offsets.length; block++) {
+          long end = (block + 1 < offsets.length) ? offsets[block + 1] : fileLength;
+          pending.add(executor.submit(new StreamTask(processor, channel, block, offsets[block], end)));
+          if (pending.size() >= maxPending) {
+            pageCount += processPages(processor, pending.removeFirst().get(), progress);
+          }
+        }
+        while (!pending.isEmpty()) {
+          pageCount += processPages(processor, pending.removeFirst().get(), progress);
+        }
+      } else {
+        CompletionService<StreamTask> service = new ExecutorCompletionService<>(executor);
+        int pendingCount = 0;
+        for (int block = firstBlock; block < offsets.length; block++) {
+          long end = (block + 1 < offsets.length) ? offsets[block + 1] : fileLength;
+          service.submit(new StreamTask(processor, channel, block, offsets[block], end));
+          pendingCount++;
+          if (pendingCount >= maxPending) {
+            pageCount += processPages(processor, service.take().get(), progress);
+            pendingCount--;
+          }
+        }
+        while (pendingCount > 0) {
+          pageCount += processPages(processor, service.take().get(), progress);
+          pendingCount--;
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    long elapsed = System.nanoTime() - beginTime;
+    long busyTime = busy.get() / threads;
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("Multistream: ");
+    buffer.append(threads);
+    buffer.append(threads > 1 ? " threads" : " thread");
+    buffer.append(", busy ");
+    buffer.append(busyTime / 1000000000);
+    buffer.append(" s / ");
+    buffer.append(elapsed / 1000000000);
+    buffer.append(" s, ");
+    buffer.append(bytes.get() / 1000000);
+    buffer.append(" MB, ");
+    buffer.append(pageCount);
+    buffer.append(" pages");
+    if (busyTime > 0) {
+      buffer.append(", ");
+      buffer.append(bytes.get() * 1000 / busyTime);
+      buffer.append(" MB/s, ");
+      buffer.append(pageCount * 1000000000 / busyTime);
+      buffer.append(" pages/s");
+    }
+    log.info(buffer.toString());
+  }
+
+  /**
+   * @param processor Page processor.
+   * @param stream Stream with the pages to process.
+   * @param progress Progress in the dump.
+   * @return Number of pages processed.
+   */
+  private int processPages(PageProcessor processor, StreamTask stream, Progress progress) {
+    for (Page page : stream.pages) {
+      processor.processPage(page);
+    }
+    if (progress.streamProcessed(stream) && (checkpoints != null)) {
+      checkpoints.reached(progress.offset, progress.pageId);
+    }
+    return stream.pages.size();
+  }
+
+  /**
+   * Read the offsets of the streams from the index file.
+   *
+   * @return Offsets of the streams, in increasing order.
+   * @throws IOException Error reading the index file.
+   */
+  private long[] readOffsets() throws IOException {
+    long[] offsets = new long[1024];
+    int count = 0;
+    try (InputStream is = new BZip2CompressorInputStream(new FileInputStream(indexFile), true);
+         BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+      String line = null;
+      long lastOffset = -1;
+      while ((line = reader.readLine()) != null) {
+        int colonIndex = line.indexOf(':');
+        if (colonIndex > 0) {
+          try {
+            long offset = Long.parseLong(line.substring(0, colonIndex));
+            if (offset != lastOffset) {
+              if (count >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+              }
+              offsets[count] = offset;
+              count++;
+              lastOffset = offset;
+            }
+          } catch (NumberFormatException e) {
+            log.warn("Incorrect line in index file: " + line);
+          }
+        }
+      }
+    }
+    offsets = Arrays.copyOf(offsets, count);
+    Arrays.sort(offsets);
+    return offsets;
+  }
+
+  /**
+   * Find a sequence of bytes.
+   *
+   * @param data Data.
+   * @param length Length of the data.
+   * @param sequence Sequence of bytes to find.
+   * @param first True to find the first occurrence, false to find the last one.
+   * @return Index of the sequence in the data, -1 if not found.
+   */
+  private static int indexOf(byte[] data, int length, byte[] sequence, boolean first) {
+    int last = length - sequence.length;
+    int index = first ? 0 : last;
+    while ((index >= 0) && (index <= last)) {
+      int pos = 0;
+      while ((pos < sequence.length) && (data[index + pos] == sequence[pos])) {
+        pos++;
+      }
+      if (pos == sequence.length) {
+        return index;
+      }
+      index += first ? 1 : -1;
+    }
+    return -1;
+  }
+
+  /**
+   * Task for decompressing and parsing a stream.
+   */
+  private class StreamTask implements Callable<StreamTask> {
+
+    /** Page processor */
+    private final PageProcessor processor;
+
+    /** Channel to read the dump file */
+    private final FileChannel channel;
+
+    /** Index of the stream */
+    final int block;
+
+    /** Offset of the beginning of the stream */
+    private final long begin;
+
+    /** Offset of the end of the stream */
+    private final long end;
+
+    /** Pages of the stream */
+    final List<Page> pages;
+
+    /**
+     * @param processor Page processor.
+     * @param channel Channel to read the dump file.
+     * @param block Index of the stream.
+     * @param begin Offset of the beginning of the stream.
+     * @param end Offset of the end of the stream.
+     */
+    public StreamTask(
+        PageProcessor processor, FileChannel channel,
+        int block, long begin, long end) {
+      this.processor = processor;
+      this.channel = channel;
+      this.block = block;
+      this.begin = begin;
+      this.end = end;
+      this.pages = new ArrayList<>();
+    }
+
+    /**
+     * @return Stream with its pages.
+     * @throws Exception Error processing the stream.
+     * @see java.util.concurrent.Callable#call()
+     */
+    @Override
+    public StreamTask call() throws Exception {
+      long beginTime = System.nanoTime();
+
+      // Read compressed stream
+      ByteBuffer compressed = ByteBuffer.allocate((int) (end - begin));
+      while (compressed.hasRemaining()) {
+        if (channel.read(compressed, begin + compressed.position()) < 0) {
+          break;
+        }
+      }
+
+      // Decompress stream
+      ByteArrayOutputStream decompressed = new ByteArrayOutputStream(compressed.capacity() * 5);
+      decompressed.write(ROOT_OPEN);
+      try (InputStream is = new BZip2CompressorInputStream(
+          new ByteArrayInputStream(compressed.array(), 0, compressed.position()), false)) {
+        byte[] buffer = new byte[64 * 1024];
+        int count = 0;
+        while ((count = is.read(buffer)) >= 0) {
+          decompressed.write(buffer, 0, count);
+        }
+      }
+      byte[] data = decompressed.toByteArray();
+      bytes.addAndGet(data.length - ROOT_OPEN.length);
+
+      // Keep only full pages, streams at the beginning or at the end may contain other elements
+      int pageBegin = indexOf(data, data.length, PAGE_OPEN, true);
+      int pageEnd = indexOf(data, data.length, PAGE_CLOSE, false);
+      if ((pageBegin >= 0) && (pageEnd > pageBegin)) {
+        pageEnd += PAGE_CLOSE.length;
+        int length = ROOT_OPEN.length + pageEnd - pageBegin;
+        System.arraycopy(data, pageBegin, data, ROOT_OPEN.length, pageEnd - pageBegin);
+        if (data.length < length + ROOT_CLOSE.length) {
+          data = Arrays.copyOf(data, length + ROOT_CLOSE.length);
+        }
+        System.arraycopy(ROOT_CLOSE, 0, data, length, ROOT_CLOSE.length);
+        length += ROOT_CLOSE.length;
+
+        // Parse stream
+        if (byteScanner) {
+          DumpScanner scanner = new DumpScanner(new ListProcessor(processor, pages), statistics);
+          scanner.scan(data, 0, length);
+        } else {
+          SAXParser parser = null;
+          synchronized (factory) {
+            parser = factory.newSAXParser();
+          }
+          DumpHandler dh = new DumpHandler();
+          dh.setPageProcessor(new ListProcessor(processor, pages));
+          dh.setStatistics(statistics);
+          parser.parse(new InputSource(new ByteArrayInputStream(data, 0, length)), dh);
+        }
+      }
+      busy.addAndGet(System.nanoTime() - beginTime);
+      return this;
+    }
+  }
+
+  /**
+   * Progress in the dump: streams processed without gap since the first one.
+   */
+  private static class Progress {
+
+    /** Offsets of the streams */
+    private final long[] offsets;
+
+    /** Length of the dump file */
+    private final long fileLength;
+
+    /** Streams already processed */
+    private final boolean[] processed;
+
+    /** Identifier of the last page in each stream */
+    private final Integer[] lastPageIds;
+
+    /** Index of the first stream to process */
+    private final int firstBlock;
+
+    /** Number of streams processed */
+    private int processedCount;
+
+    /** Index of the first stream not processed */
+    private int nextBlock;
+
+    /** Offset from which processing can be resumed */
+    long offset;
+
+    /** Identifier of the last page before the offset */
+    Integer pageId;
+
+    /**
+     * @param offsets Offsets of the streams.
+     * @param firstBlock Index of the first stream to process.
+     * @param fileLength Length of the dump file.
+     */
+    public Progress(long[] offsets, int firstBlock, long fileLength) {
+      this.offsets = offsets;
+      this.fileLength = fileLength;
+      this.processed = new boolean[offsets.length];
+      this.lastPageIds = new Integer[offsets.length];
+      this.firstBlock = firstBlock;
+      this.processedCount = 0;
+      this.nextBlock = firstBlock;
+      this.offset = (firstBlock < offsets.length) ? offsets[firstBlock] : fileLength;
+      this.pageId = null;
+    }
+
+    /**
+     * @param stream Stream processed.
+     * @return True if the position from which processing can be resumed has changed
+     *         and no stream after this position has been processed.
+     */
+    public boolean streamProcessed(StreamTask stream) {
+      processed[stream.block] = true;
+      for (Page page : stream.pages) {
+        Integer id = page.getPageId();
+        if ((id != null) &&
+            ((lastPageIds[stream.block] == null) || (id.intValue() > lastPageIds[stream.block].intValue()))) {
+          lastPageIds[stream.block] = id;
+        }
+      }
+      processedCount++;
+      boolean changed = false;
+      while ((nextBlock < processed.length) && processed[nextBlock]) {
+        if ((lastPageIds[nextBlock] != null) &&
+            ((pageId == null) || (lastPageIds[nextBlock].intValue() > pageId.intValue()))) {
+          pageId = lastPageIds[nextBlock];
+        }
+        nextBlock++;
+        offset = (nextBlock < offsets.length) ? offsets[nextBlock] : fileLength;
+        changed = true;
+      }
+
+      // Streams processed after a gap would be processed again when resuming
+      return changed && (processedCount == nextBlock - firstBlock);
+    }
+  }
+
+  /**
+   * Page processor memorizing pages in a list.
+   */
+  private static class ListProcessor implements PageProcessor {
+
+    /** Page processor */
+    private final PageProcessor processor;
+
+    /** List of pages */
+    private final List<Page> pages;
+
+    /**
+     * @param processor Page processor.
+     * @param pages List of pages.
+     */
+    public ListProcessor(PageProcessor processor, List<Page> pages) {
+      this.processor = processor;
+      this.pages = pages;
+    }
+
+    /**
+     * @return Wiki.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#getWiki()
+     */
+    @Override
+    public EnumWikipedia getWiki() {
+      return processor.getWiki();
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @return True if the processor should work on the namespace.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForNamespace(java.lang.Integer)
+     */
+    @Override
+    public boolean isForNamespace(Integer namespace) {
+      return processor.isForNamespace(namespace);
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @param title Page title.
+     * @param redirect True if the page is a redirect.
+     * @return True if the processor should work on the page.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForPage(java.lang.Integer, java.lang.String, boolean)
+     */
+    @Override
+    public boolean isForPage(Integer namespace, String title, boolean redirect) {
+      return processor.isForPage(namespace, title, redirect);
+    }
+
+    /**
+     * @param page Page to be memorized.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
+     */
+    @Override
+    public void processPage(Page page) {
+      if (page != null) {
+        pages.add(page);
+      }
+    }
+  }
+}
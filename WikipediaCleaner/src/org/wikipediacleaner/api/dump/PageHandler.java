@@ -26,12 +26,15 @@ public class PageHandler extends DefaultHandler {
   /** Logger */
   private final Logger log = LoggerFactory.getLogger(PageHandler.class);
 
-  /** Number of pages processed */
-  private long pageCount;
+  /** Statistics */
+  private DumpStatistics statistics;
 
   /** True when parsing a page */
   private boolean isInPage;
 
+  /** True when the current page is skipped */
+  private boolean isSkipped;
+
   /** True when parsing a title */
   private boolean isInTitle;
 
@@ -56,6 +59,9 @@ public class PageHandler extends DefaultHandler {
   /** True when parsing a revision */
   private boolean isInRevision;
 
+  /** True when parsing a contributor */
+  private boolean isInContributor;
+
   /** True when parsing a revision id */
   private boolean isInRevisionId;
 
@@ -75,7 +81,7 @@ public class PageHandler extends DefaultHandler {
    * Constructor.
    */
   public PageHandler() {
-    pageCount = 0;
+    statistics = new DumpStatistics();
     isInPage = false;
     title = new StringBuilder();
     namespace = new StringBuilder();
@@ -93,6 +99,15 @@ public class PageHandler extends DefaultHandler {
     this.processor = processor;
   }
 
+  /**
+   * @param statistics Statistics.
+   */
+  public void setStatistics(DumpStatistics statistics) {
+    if (statistics != null) {
+      this.statistics = statistics;
+    }
+  }
+
   /**
    * Receive notification of the start of an element.
    *
@@ -115,12 +130,29 @@ public class PageHandler extends DefaultHandler {
   public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
     if (isInPage) {
       if (isInRevision) {
-        if (qName.equals("id")) {
+        if (isInContributor) {
+          // Contributor id is not the revision id
+        } else if (qName.equals("contributor")) {
+          isInContributor = true;
+        } else if (qName.equals("id")) {
           isInRevisionId = true;
           revisionId.setLength(0);
         } else if (qName.equals("text")) {
           isInRevisionText = true;
           revisionText.setLength(0);
+          if (!isSkipped && (processor != null)) {
+            try {
+              if (!processor.isForPage(
+                  Integer.valueOf(namespace.toString()),
+                  title.toString(),
+                  redirect.length() > 0)) {
+                isSkipped = true;
+              }
+            } catch (NumberFormatException e) {
+              log.error("Incorrect namespace {} for page {}", namespace, title);
+              isSkipped = true;
+            }
+          }
         }
       } else if (qName.equalsIgnoreCase("title")) {
         isInTitle = true;
@@ -139,6 +171,7 @@ public class PageHandler extends DefaultHandler {
         }
       } else if (qName.equalsIgnoreCase("revision")) {
         isInRevision = true;
+        isInContributor = false;
         isInRevisionId = false;
         revisionId.setLength(0);
         isInRevisionText = false;
@@ -174,15 +207,20 @@ public class PageHandler extends DefaultHandler {
     if (isInRevision) {
       if (qName.equalsIgnoreCase("revision")) {
         isInRevision = false;
+        isInContributor = false;
         isInRevisionId = false;
+      } else if (qName.equalsIgnoreCase("contributor")) {
+        isInContributor = false;
       } else if (qName.equalsIgnoreCase("id")) {
         isInRevisionId = false;
       } else if (qName.equalsIgnoreCase("text")) {
         isInRevisionText = false;
       }
     } else if (qName.equalsIgnoreCase("page")) {
-      if (processor != null) {
-        increasePageCount();
+      statistics.increasePageCount();
+      if (isSkipped) {
+        statistics.increaseSkippedPages();
+      } else if (processor != null) {
         try {
           Integer namespaceNum = Integer.valueOf(namespace.toString());
           if (processor.isForNamespace(namespaceNum)) {
@@ -213,9 +251,7 @@ public class PageHandler extends DefaultHandler {
         try {
           Integer namespaceNum = Integer.valueOf(namespace.toString());
           if (!processor.isForNamespace(namespaceNum)) {
-            increasePageCount();
-            isInPage = false;
-            cleanPageInformation();
+            isSkipped = true;
           }
         } catch (NumberFormatException e) {
           log.error("Incorrect namespace {} for page {}", namespace, title);
@@ -226,16 +262,6 @@ public class PageHandler extends DefaultHandler {
     }
   }
 
-  /**
-   * Increase page count.
-   */
-  private void increasePageCount() {
-    pageCount++;
-    if (pageCount % 100000 == 0) {
-      log.info("Dump parser has gone through {} pages", pageCount);
-    }
-  }
-
   /**
    * Receive notification of character data inside an element.
    *
@@ -250,7 +276,11 @@ public class PageHandler extends DefaultHandler {
   @Override
   public void characters(char ch[], int start, int length) throws SAXException {
     if (isInPage) {
-      if (isInRevision) {
+      if (isSkipped) {
+        if (isInRevisionText) {
+          statistics.addSkippedBytes(countBytes(ch, start, length));
+        }
+      } else if (isInRevision) {
         if (isInRevisionId) {
           revisionId.append(ch, start, length);
         } else if (isInRevisionText) {
@@ -266,10 +296,32 @@ public class PageHandler extends DefaultHandler {
     }
   }
 
+  /**
+   * Count the number of bytes needed to encode characters in UTF-8.
+   *
+   * @param ch The characters.
+   * @param start The start position in the character array.
+   * @param length The number of characters to use from the
+   *               character array.
+   * @return Number of bytes.
+   */
+  private static long countBytes(char ch[], int start, int length) {
+    long count = length;
+    int end = start + length;
+    for (int index = start; index < end; index++) {
+      char c = ch[index];
+      if (c >= 0x80) {
+        count += ((c >= 0x800) && !Character.isSurrogate(c)) ? 2 : 1;
+      }
+    }
+    return count;
+  }
+
   /**
    * Clean current page information.
    */
   private void cleanPageInformation() {
+    isSkipped = false;
     isInTitle = false;
     title.setLength(0);
     isInNamespace = false;
@@ -278,6 +330,7 @@ public class PageHandler extends DefaultHandler {
     pageId.setLength(0);
     redirect.setLength(0);
     isInRevision = false;
+    isInContributor = false;
     isInRevisionId = false;
     revisionId.setLength(0);
     isInRevisionText = false;
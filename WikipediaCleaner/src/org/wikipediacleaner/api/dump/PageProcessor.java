@@ -30,6 +30,19 @@ public interface PageProcessor {
    */
   public boolean isForNamespace(Integer namespace);
 
+  /**
+   * Tells if the processor should work on a page.
+   * 
+   * This is called before the text of the page is read,
+   * so the text of pages rejected here is simply skipped.
+   * 
+   * @param namespace Namespace.
+   * @param title Page title.
+   * @param redirect True if the page is a redirect.
+   * @return True if the processor should work on the page.
+   */
+  public boolean isForPage(Integer namespace, String title, boolean redirect);
+
   /**
    * Process a page.
    * 
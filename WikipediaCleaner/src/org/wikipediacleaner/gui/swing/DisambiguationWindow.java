@@ -514,7 +514,7 @@ public class DisambiguationWindow extends OnePageWindow {
         PageRedirect redirects = backLink.getRedirects();
         if ((redirects != null) &&
             (redirects.isRedirect()) &&
-            (Page.areSameTitle(getPage().getTitle(), redirects.getTitle()))) {
+            (Page.areSameTitle(getWikipedia(), getPage().getTitle(), redirects.getTitle()))) {
           knownPages.add(backLink);
         }
       }
@@ -1417,8 +1417,12 @@ public class OnePageAnalysisWindow
 
     // Check for new errors
     analysis.shouldCheckSpelling(shouldCheckSpelling());
+    if (analysis.getContents().length() >= PageAnalysis.PARALLEL_ANALYSIS_MIN_LENGTH) {
+      analysis.performFullPageAnalysis(null, true);
+    }
     List<CheckErrorPage> errorsFound = AlgorithmError.analyzeErrors(
-        allAlgorithms, analysis, false);
+        allAlgorithms, analysis, false,
+        analysis.getContents().length() >= AlgorithmError.PARALLEL_ALGORITHMS_MIN_LENGTH);
     if (errorsFound != null) {
       for (CheckErrorPage tmpError : errorsFound) {
         boolean errorFound = false;
@@ -1158,8 +1158,12 @@ public abstract class OnePageWindow
     if (page != null) {
       PageAnalysis pageAnalysis = page.getAnalysis(page.getContents(), false);
       pageAnalysis.shouldCheckSpelling(shouldCheckSpelling());
+      if (pageAnalysis.getContents().length() >= PageAnalysis.PARALLEL_ANALYSIS_MIN_LENGTH) {
+        pageAnalysis.performFullPageAnalysis(null, true);
+      }
       List<CheckErrorPage> errorsFound = AlgorithmError.analyzeErrors(
-          algorithms, pageAnalysis, false);
+          algorithms, pageAnalysis, false,
+          pageAnalysis.getContents().length() >= AlgorithmError.PARALLEL_ALGORITHMS_MIN_LENGTH);
       initialErrors = new ArrayList<CheckErrorPage>();
       if (errorsFound != null) {
         for (CheckErrorPage tmpError : errorsFound) {
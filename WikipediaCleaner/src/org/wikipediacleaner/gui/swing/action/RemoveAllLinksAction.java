@@ -41,7 +41,7 @@ public class RemoveAllLinksAction implements ActionListener {
     int lastPosition = 0;
     Collection<PageElementInternalLink> links = analysis.getInternalLinks();
     for (PageElementInternalLink link : links) {
-      if (Page.areSameTitle(from.getTitle(), link.getLink())) {
+      if (Page.areSameTitle(from.getWikipedia(), from.getTitle(), link.getLink())) {
         buffer.append(originalText.substring(lastPosition, link.getBeginIndex()));
         lastPosition = link.getBeginIndex();
         buffer.append(link.getDisplayedText());
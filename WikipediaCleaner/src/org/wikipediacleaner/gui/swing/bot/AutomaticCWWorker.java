@@ -10,7 +10,10 @@ package org.wikipediacleaner.gui.swing.bot;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.APIFactory;
 import org.wikipediacleaner.api.algorithm.AlgorithmError;
@@ -18,6 +21,8 @@ import org.wikipediacleaner.api.check.CheckWiki;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.Suggestion;
+import org.wikipediacleaner.api.data.SuggestionProfile;
 import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.i18n.GT;
 
@@ -27,6 +32,9 @@ import org.wikipediacleaner.i18n.GT;
  */
 public class AutomaticCWWorker extends AutomaticFixWorker {
 
+  /** Logger */
+  private final static Logger log = LoggerFactory.getLogger(AutomaticCWWorker.class);
+
   /** Maximum number of pages. */
   private final int max;
 
@@ -67,6 +75,10 @@ public class AutomaticCWWorker extends AutomaticFixWorker {
    */
   @Override
   public Object construct() {
+    Map<String, Suggestion> suggestions = getWikipedia().getConfiguration().getSuggestions();
+    if (suggestions != null) {
+      SuggestionProfile.resetProfiles(suggestions.values());
+    }
     try {
       for (CheckErrorAlgorithm algorithm : selectedAlgorithms) {
         if (!shouldContinue()) {
@@ -76,6 +88,14 @@ public class AutomaticCWWorker extends AutomaticFixWorker {
       }
     } catch (APIException e) {
       return e;
+    } finally {
+      if (suggestions != null) {
+        String report = SuggestionProfile.getReport(
+            suggestions.values(), SuggestionProfile.Order.getConfiguredOrder(), SuggestionProfile.REPORT_LINES);
+        if (report != null) {
+          log.info(report);
+        }
+      }
     }
     return null;
   }
@@ -21,6 +21,7 @@ import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.APIFactory;
 import org.wikipediacleaner.api.algorithm.AlgorithmError;
+import org.wikipediacleaner.api.algorithm.AlgorithmScheduler;
 import org.wikipediacleaner.api.check.CheckErrorPage;
 import org.wikipediacleaner.api.check.CheckWiki;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
@@ -68,11 +69,8 @@ public abstract class AutomaticFixWorker extends BasicWorker {
   /** True if pages that couldn't be fixed should be analyzed. */
   private final boolean analyzeNonFixed;
 
-  /** Only work on pages with titles after the beginning of the range */
-  private String rangeBegin;
-
-  /** Only work on pages with titles before the end of the range */
-  private String rangeEnd;
+  /** Only work on pages with titles in this range */
+  private PageRange range;
 
   /**
    * @param wiki Wiki.
@@ -117,6 +115,7 @@ public abstract class AutomaticFixWorker extends BasicWorker {
     this.countModified = 0;
     this.countMarked = 0;
     this.countMarkedOther = 0;
+    this.range = new PageRange(null, null);
   }
 
   /**
@@ -126,8 +125,24 @@ public abstract class AutomaticFixWorker extends BasicWorker {
    * @param end End of the range.
    */
   public void setRange(String begin, String end) {
-    this.rangeBegin = begin;
-    this.rangeEnd = end;
+    this.range = new PageRange(begin, end);
+  }
+
+  /**
+   * @param title Page title.
+   * @return True if the page title is in the range of pages to work on.
+   */
+  protected boolean isInRange(String title) {
+    return range.contains(title);
+  }
+
+  /**
+   * @param namespace Namespace.
+   * @param title Page title, as found in a dump.
+   * @return True if the page is in the range of pages to work on.
+   */
+  protected boolean isInRange(Integer namespace, String title) {
+    return range.contains(namespace, title);
   }
 
   /**
@@ -171,15 +186,8 @@ public abstract class AutomaticFixWorker extends BasicWorker {
       }
   
       // Analyze page to check if an error has been found
-      List<CheckErrorPage> errorPages = AlgorithmError.analyzeErrors(algorithms, analysis, true);
-      boolean found = false;
-      if (errorPages != null) {
-        for (CheckErrorPage errorPage : errorPages) {
-          if (errorPage.getErrorFound()) {
-            found = true;
-          }
-        }
-      }
+      AlgorithmScheduler scheduler = AlgorithmScheduler.getScheduler(getWikipedia());
+      boolean found = (scheduler.findFirstDetected(algorithms, analysis, true) != null);
   
       // Handle depending on whether errors were found
       if (found) {
@@ -204,12 +212,7 @@ public abstract class AutomaticFixWorker extends BasicWorker {
     if (!selectedNamespaces.contains(page.getNamespace())) {
       return null;
     }
-    if ((rangeBegin != null) &&
-        (rangeBegin.compareTo(page.getArticlePageName()) > 0)) {
-      return null;
-    }
-    if ((rangeEnd != null) &&
-        (rangeEnd.compareTo(page.getArticlePageName()) < 0)) {
+    if (!isInRange(page.getArticlePageName())) {
       return null;
     }
     if (page.getEditProhibition()) {
@@ -383,6 +386,7 @@ public abstract class AutomaticFixWorker extends BasicWorker {
   @Override
   public void finished() {
     super.finished();
+    AlgorithmScheduler.save(getWikipedia());
     if (getWindow() != null) {
       StringBuilder message = new StringBuilder();
       message.append(GT.__(
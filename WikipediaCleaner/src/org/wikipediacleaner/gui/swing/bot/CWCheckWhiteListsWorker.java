@@ -148,7 +148,7 @@ class CWCheckWhiteListsWorker extends BasicWorker {
                   List<PageElementInternalLink> links = analysis.getInternalLinks();
                   for (int linkNumber = links.size(); linkNumber > 0; linkNumber--) {
                     PageElementInternalLink link = links.get(linkNumber - 1);
-                    if (Page.areSameTitle(page.getTitle(), link.getLink())) {
+                    if (Page.areSameTitle(page.getWikipedia(), page.getTitle(), link.getLink())) {
                       int lineBegin = link.getBeginIndex();
                       while ((lineBegin > 0) && (contents.charAt(lineBegin) != '\n')) {
                         lineBegin--;
@@ -0,0 +1,502 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
+import org.wikipediacleaner.gui.swing.bot.ListCWWorker.Detection;
+
+
+/**
+ * Store of the detections found by an algorithm during a dump analysis.
+ *
+ * <p>Each thread keeps its detections in memory until their number reaches the size of a run:
+ * they are then sorted by page and written to a temporary run file.
+ * Detections are read back by merging the runs with the detections still in memory,
+ * so the memory used doesn't depend on the number of detections.</p>
+ *
+ * <p>As runs are sorted by page, the detections of a page coming from different threads
+ * or runs are merged, keeping only the one with the worst error level.
+ * Detections are returned in their natural order by doing one merge for each error level.</p>
+ */
+class DetectionStore {
+
+  /** Logger */
+  private final static Logger log = LoggerFactory.getLogger(DetectionStore.class);
+
+  /** Prefix for the names of the run files */
+  private final String prefix;
+
+  /** Maximum number of detections kept in memory by each thread */
+  private int runSize;
+
+  /** Detections kept in memory by each thread */
+  private final List<Map<String, Detection>> threadDetections;
+
+  /** Detections kept in memory by the current thread */
+  private final ThreadLocal<Map<String, Detection>> detections;
+
+  /** Run files, each containing detections sorted by page */
+  private final List<File> runs;
+
+  /**
+   * @param prefix Prefix for the names of the run files.
+   */
+  DetectionStore(String prefix) {
+    this.prefix = prefix;
+    this.runSize = Integer.MAX_VALUE;
+    this.threadDetections = new CopyOnWriteArrayList<>();
+    this.detections = new ThreadLocal<Map<String, Detection>>() {
+
+      /**
+       * @return Detections kept in memory by a new thread.
+       * @see java.lang.ThreadLocal#initialValue()
+       */
+      @Override
+      protected Map<String, Detection> initialValue() {
+        Map<String, Detection> result = new HashMap<>();
+        threadDetections.add(result);
+        return result;
+      }
+    };
+    this.runs = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * @param size Maximum number of detections kept in memory by each thread.
+   */
+  void setRunSize(int size) {
+    this.runSize = Math.max(1, size);
+  }
+
+  /**
+   * Add a detection, the detections of the current thread being written to a run if needed.
+   *
+   * <p>If the page already has a detection, the one with the worst error level is kept.</p>
+   *
+   * @param detection Detection.
+   */
+  void add(Detection detection) {
+    Map<String, Detection> current = detections.get();
+    Detection previous = current.put(detection.pageName, detection);
+    if ((previous != null) && (previous.maxLevel.ordinal() < detection.maxLevel.ordinal())) {
+      current.put(previous.pageName, previous);
+    }
+    if (current.size() >= runSize) {
+      writeRun(current);
+    }
+  }
+
+  /**
+   * Count the pages with detections.
+   *
+   * <p>Must be called only when no detection is being added.</p>
+   *
+   * @return Number of pages with detections.
+   */
+  long size() {
+    long result = 0;
+    try (Merger merger = new Merger(getMemory(), runs)) {
+      while (merger.next() != null) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Iterate over the detections in their natural order.
+   *
+   * <p>Must be called only when no detection is being added,
+   * and the iterator must be closed to release the run files.</p>
+   *
+   * @return Iterator over the detections.
+   */
+  DetectionIterator iterator() {
+    return new DetectionIterator(getMemory(), runs);
+  }
+
+  /**
+   * @return Detections kept in memory by all threads, sorted by page.
+   */
+  private List<Detection> getMemory() {
+    List<Detection> memory = new ArrayList<>();
+    for (Map<String, Detection> threadResult : threadDetections) {
+      memory.addAll(threadResult.values());
+    }
+    Collections.sort(memory, KEY_ORDER);
+    return memory;
+  }
+
+  /**
+   * Remove all detections and delete the run files.
+   */
+  void clear() {
+    for (Map<String, Detection> threadResult : threadDetections) {
+      threadResult.clear();
+    }
+    for (File run : runs) {
+      if (!run.delete()) {
+        log.warn("Unable to delete run file {}", run.getName());
+      }
+    }
+    runs.clear();
+  }
+
+  /**
+   * Sort detections by page and write them to a new run file.
+   *
+   * @param current Detections to be written, cleared once written.
+   */
+  private void writeRun(Map<String, Detection> current) {
+    List<Detection> sorted = new ArrayList<>(current.values());
+    Collections.sort(sorted, KEY_ORDER);
+    File run = null;
+    try {
+      run = File.createTempFile(prefix, ".run");
+      run.deleteOnExit();
+      try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+          new FileOutputStream(run, false), StandardCharsets.UTF_8))) {
+        for (Detection detection : sorted) {
+          DumpCheckpointFile.writeLine(writer, toRecord(detection, null));
+        }
+      }
+    } catch (IOException e) {
+      // Keep detections in memory
+      log.error("Error writing run file for detections: " + e.getMessage());
+      if ((run != null) && !run.delete()) {
+        log.warn("Unable to delete run file {}", run.getName());
+      }
+      return;
+    }
+    runs.add(run);
+    current.clear();
+  }
+
+  /**
+   * Convert a detection to a record.
+   *
+   * @param detection Detection.
+   * @param key Optional key put as the first field of the record.
+   * @return Record for the detection: key, namespace, level, page name and notices.
+   */
+  static String[] toRecord(Detection detection, String key) {
+    int offset = (key != null) ? 1 : 0;
+    int noticesCount = (detection.notices != null) ? detection.notices.size() : 0;
+    String[] record = new String[offset + 3 + noticesCount];
+    if (key != null) {
+      record[0] = key;
+    }
+    record[offset] = (detection.namespace != null) ? detection.namespace.toString() : "";
+    record[offset + 1] = detection.maxLevel.name();
+    record[offset + 2] = detection.pageName;
+    for (int index = 0; index < noticesCount; index++) {
+      record[offset + 3 + index] = detection.notices.get(index);
+    }
+    return record;
+  }
+
+  /**
+   * Convert a record to a detection.
+   *
+   * @param record Record for the detection.
+   * @param offset Offset of the namespace in the record.
+   * @return Detection.
+   * @throws IllegalArgumentException Incorrect record.
+   */
+  static Detection fromRecord(String[] record, int offset) {
+    if (record.length < offset + 3) {
+      throw new IllegalArgumentException("Incomplete record");
+    }
+    Integer namespace = record[offset].isEmpty() ? null : Integer.valueOf(record[offset]);
+    ErrorLevel maxLevel = ErrorLevel.valueOf(record[offset + 1]);
+    List<String> notices = new ArrayList<>();
+    for (int index = offset + 3; index < record.length; index++) {
+      notices.add(record[index]);
+    }
+    return new Detection(namespace, record[offset + 2], notices, maxLevel);
+  }
+
+  /**
+   * Order of detections by page, without taking the error level into account.
+   */
+  private final static Comparator<Detection> KEY_ORDER = new Comparator<Detection>() {
+
+    /**
+     * @param o1 First detection.
+     * @param o2 Second detection.
+     * @return Comparison of the pages of the detections.
+     * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+     */
+    @Override
+    public int compare(Detection o1, Detection o2) {
+      return o1.compareKey(o2);
+    }
+  };
+
+  /**
+   * Iterator returning the detections in their natural order.
+   *
+   * <p>The detections are sorted by error level first, and the runs are sorted by page:
+   * the runs are merged once for each error level, keeping only the detections of this level.</p>
+   */
+  static class DetectionIterator implements Iterator<Detection>, Closeable {
+
+    /** Sorted detections kept in memory */
+    private final List<Detection> memory;
+
+    /** Run files */
+    private final List<File> runs;
+
+    /** Error levels in their natural order */
+    private final ErrorLevel[] levels;
+
+    /** Index of the current error level */
+    private int levelIndex;
+
+    /** Merger for the current error level */
+    private Merger merger;
+
+    /** Next detection to return */
+    private Detection next;
+
+    /**
+     * @param memory Detections kept in memory, sorted by page.
+     * @param runs Run files.
+     */
+    DetectionIterator(List<Detection> memory, List<File> runs) {
+      this.memory = memory;
+      this.runs = runs;
+      this.levels = ErrorLevel.values();
+      this.levelIndex = 0;
+      this.next = computeNext();
+    }
+
+    /**
+     * @return Next detection of the current error level, moving to the next error level if needed.
+     */
+    private Detection computeNext() {
+      while (levelIndex < levels.length) {
+        if (merger == null) {
+          merger = new Merger(memory, runs);
+        }
+        Detection detection = merger.next();
+        while (detection != null) {
+          if (detection.maxLevel == levels[levelIndex]) {
+            return detection;
+          }
+          detection = merger.next();
+        }
+        merger.close();
+        merger = null;
+        levelIndex++;
+      }
+      return null;
+    }
+
+    /**
+     * @return True if there's an other detection.
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    /**
+     * @return Next detection.
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public Detection next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Detection result = next;
+      next = computeNext();
+      return result;
+    }
+
+    /**
+     * Close the run files.
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() {
+      if (merger != null) {
+        merger.close();
+        merger = null;
+      }
+      levelIndex = levels.length;
+      next = null;
+    }
+  }
+
+  /**
+   * Merger of the detections of the runs and of the memory, by page.
+   */
+  private static class Merger implements Closeable {
+
+    /** Next detection of each source */
+    private final PriorityQueue<Source> sources;
+
+    /** Readers of the run files */
+    private final List<BufferedReader> readers;
+
+    /**
+     * @param memory Detections kept in memory, sorted by page.
+     * @param runs Run files.
+     */
+    Merger(List<Detection> memory, List<File> runs) {
+      this.sources = new PriorityQueue<>();
+      this.readers = new ArrayList<>();
+      addSource(new Source(memory.iterator(), null));
+      for (File run : runs) {
+        try {
+          BufferedReader reader = new BufferedReader(new InputStreamReader(
+              new FileInputStream(run), StandardCharsets.UTF_8));
+          readers.add(reader);
+          addSource(new Source(null, reader));
+        } catch (IOException e) {
+          log.error("Error reading run file {}: {}", run.getName(), e.getMessage());
+        }
+      }
+    }
+
+    /**
+     * @param source Source to be added if it has a detection.
+     */
+    private void addSource(Source source) {
+      if (source.advance()) {
+        sources.add(source);
+      }
+    }
+
+    /**
+     * @return Detection with the worst error level for the next page, or null at the end.
+     */
+    Detection next() {
+      if (sources.isEmpty()) {
+        return null;
+      }
+      Source source = sources.poll();
+      Detection result = source.current;
+      addSource(source);
+      while (!sources.isEmpty() && (sources.peek().current.compareKey(result) == 0)) {
+        source = sources.poll();
+        if (source.current.maxLevel.ordinal() < result.maxLevel.ordinal()) {
+          result = source.current;
+        }
+        addSource(source);
+      }
+      return result;
+    }
+
+    /**
+     * Close the run files.
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() {
+      for (BufferedReader reader : readers) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          // Nothing to do
+        }
+      }
+      readers.clear();
+      sources.clear();
+    }
+  }
+
+  /**
+   * Source of detections sorted by page: memory or run file.
+   */
+  private static class Source implements Comparable<Source> {
+
+    /** Detections in memory */
+    private final Iterator<Detection> iterator;
+
+    /** Reader of a run file */
+    private final BufferedReader reader;
+
+    /** Current detection */
+    Detection current;
+
+    /**
+     * @param iterator Detections in memory.
+     * @param reader Reader of a run file.
+     */
+    Source(Iterator<Detection> iterator, BufferedReader reader) {
+      this.iterator = iterator;
+      this.reader = reader;
+    }
+
+    /**
+     * @return True if a detection is available.
+     */
+    boolean advance() {
+      current = null;
+      if (iterator != null) {
+        if (iterator.hasNext()) {
+          current = iterator.next();
+        }
+        return current != null;
+      }
+      try {
+        String line = reader.readLine();
+        while ((line != null) && (current == null)) {
+          try {
+            current = fromRecord(DumpCheckpointFile.split(line), 0);
+          } catch (IllegalArgumentException e) {
+            log.warn("Ignoring incorrect detection in run file");
+            line = reader.readLine();
+          }
+        }
+      } catch (IOException e) {
+        log.error("Error reading run file: " + e.getMessage());
+      }
+      return current != null;
+    }
+
+    /**
+     * @param o Other source.
+     * @return Comparison of the pages of the current detections.
+     * @see java.lang.Comparable#compareTo(java.lang.Object)
+     */
+    @Override
+    public int compareTo(Source o) {
+      return current.compareKey(o.current);
+    }
+  }
+}
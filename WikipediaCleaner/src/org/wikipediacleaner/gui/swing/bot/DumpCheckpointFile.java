@@ -0,0 +1,277 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * File holding the state of a dump analysis at a checkpoint.
+ * 
+ * <p>The file contains the position in the dump from which the analysis can be resumed,
+ * followed by records (list of fields) for the results already found by the analysis.</p>
+ */
+class DumpCheckpointFile {
+
+  /** Logger */
+  private final static Logger log = LoggerFactory.getLogger(DumpCheckpointFile.class);
+
+  /** First line of the file */
+  private final static String HEADER = "# WPCleaner dump checkpoint";
+
+  /** Key for the dump name */
+  private final static String KEY_DUMP = "dump";
+
+  /** Key for the offset in the dump */
+  private final static String KEY_OFFSET = "offset";
+
+  /** Key for the last page identifier */
+  private final static String KEY_PAGE = "page";
+
+  /** Key for the beginning of the records */
+  private final static String KEY_RECORDS = "records";
+
+  /** File holding the state */
+  private final File file;
+
+  /** Offset in the compressed dump from which processing can be resumed */
+  private long offset;
+
+  /** Identifier of the last page processed */
+  private Integer pageId;
+
+  /** Records read from the file */
+  private final List<String[]> records;
+
+  /**
+   * @param file File holding the state.
+   */
+  DumpCheckpointFile(File file) {
+    this.file = file;
+    this.offset = 0;
+    this.pageId = null;
+    this.records = new ArrayList<>();
+  }
+
+  /**
+   * @return Offset in the compressed dump from which processing can be resumed.
+   */
+  long getOffset() {
+    return offset;
+  }
+
+  /**
+   * @return Identifier of the last page processed.
+   */
+  Integer getPageId() {
+    return pageId;
+  }
+
+  /**
+   * @return Records read from the file.
+   */
+  List<String[]> getRecords() {
+    return records;
+  }
+
+  /**
+   * Read the state from the file.
+   * 
+   * @param dumpFile Dump being processed.
+   * @return True if a state for the same dump has been read.
+   */
+  boolean read(File dumpFile) {
+    offset = 0;
+    pageId = null;
+    records.clear();
+    if ((file == null) || !file.isFile()) {
+      return false;
+    }
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new FileInputStream(file), StandardCharsets.UTF_8))) {
+      String line = reader.readLine();
+      if (!HEADER.equals(line)) {
+        log.warn("Ignoring checkpoint file {}: unknown format", file.getName());
+        return false;
+      }
+      boolean inRecords = false;
+      boolean sameDump = false;
+      while ((line = reader.readLine()) != null) {
+        String[] fields = split(line);
+        if (inRecords) {
+          records.add(fields);
+        } else if (fields.length > 0) {
+          String value = (fields.length > 1) ? fields[1] : null;
+          if (KEY_DUMP.equals(fields[0])) {
+            sameDump = dumpFile.getName().equals(value);
+          } else if (KEY_OFFSET.equals(fields[0]) && (value != null)) {
+            offset = Long.parseLong(value);
+          } else if (KEY_PAGE.equals(fields[0]) && (value != null)) {
+            pageId = Integer.valueOf(value);
+          } else if (KEY_RECORDS.equals(fields[0])) {
+            inRecords = true;
+          }
+        }
+      }
+      if (!sameDump) {
+        log.warn("Ignoring checkpoint file {}: created for an other dump", file.getName());
+        offset = 0;
+        pageId = null;
+        records.clear();
+        return false;
+      }
+      return true;
+    } catch (IOException | NumberFormatException e) {
+      log.error("Error reading checkpoint file {}", file.getName(), e);
+      offset = 0;
+      pageId = null;
+      records.clear();
+      return false;
+    }
+  }
+
+  /**
+   * Write the state to the file.
+   * 
+   * <p>The state is first written to a temporary file which then replaces the file,
+   * so that an interruption never leaves a partial state.</p>
+   * 
+   * @param dumpFile Dump being processed.
+   * @param newOffset Offset in the compressed dump from which processing can be resumed.
+   * @param newPageId Identifier of the last page processed.
+   * @param newRecords Records for the results already found.
+   * @throws IOException Error writing the file.
+   */
+  void write(
+      File dumpFile, long newOffset, Integer newPageId,
+      Iterable<String[]> newRecords) throws IOException {
+    File tmpFile = new File(file.getAbsolutePath() + ".tmp");
+    try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+        new FileOutputStream(tmpFile, false), StandardCharsets.UTF_8))) {
+      writer.write(HEADER);
+      writer.newLine();
+      writeLine(writer, KEY_DUMP, dumpFile.getName());
+      writeLine(writer, KEY_OFFSET, Long.toString(newOffset));
+      if (newPageId != null) {
+        writeLine(writer, KEY_PAGE, newPageId.toString());
+      }
+      writeLine(writer, KEY_RECORDS);
+      if (newRecords != null) {
+        for (String[] fields : newRecords) {
+          writeLine(writer, fields);
+        }
+      }
+    }
+    try {
+      Files.move(
+          tmpFile.toPath(), file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    offset = newOffset;
+    pageId = newPageId;
+  }
+
+  /**
+   * Delete the file once the processing is finished.
+   */
+  void delete() {
+    if ((file != null) && file.isFile() && !file.delete()) {
+      log.warn("Unable to delete checkpoint file {}", file.getName());
+    }
+  }
+
+  /**
+   * @param writer Writer.
+   * @param fields List of fields.
+   * @throws IOException Error writing the line.
+   */
+  static void writeLine(BufferedWriter writer, String... fields) throws IOException {
+    for (int index = 0; index < fields.length; index++) {
+      if (index > 0) {
+        writer.write('\t');
+      }
+      String field = fields[index];
+      if (field == null) {
+        field = "";
+      }
+      for (int pos = 0; pos < field.length(); pos++) {
+        char currentChar = field.charAt(pos);
+        switch (currentChar) {
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\t':
+          writer.write("\\t");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '\r':
+          writer.write("\\r");
+          break;
+        default:
+          writer.write(currentChar);
+        }
+      }
+    }
+    writer.newLine();
+  }
+
+  /**
+   * @param line Line.
+   * @return List of fields in the line.
+   */
+  static String[] split(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    for (int pos = 0; pos < line.length(); pos++) {
+      char currentChar = line.charAt(pos);
+      if (currentChar == '\t') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if ((currentChar == '\\') && (pos + 1 < line.length())) {
+        pos++;
+        switch (line.charAt(pos)) {
+        case 't':
+          field.append('\t');
+          break;
+        case 'n':
+          field.append('\n');
+          break;
+        case 'r':
+          field.append('\r');
+          break;
+        default:
+          field.append(line.charAt(pos));
+        }
+      } else {
+        field.append(currentChar);
+      }
+    }
+    fields.add(field.toString());
+    return fields.toArray(new String[fields.size()]);
+  }
+}
@@ -8,22 +8,21 @@
 package org.wikipediacleaner.gui.swing.bot;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.APIFactory;
-import org.wikipediacleaner.api.MediaWikiController;
 import org.wikipediacleaner.api.MediaWikiListener;
+import org.wikipediacleaner.api.algorithm.AlgorithmError;
+import org.wikipediacleaner.api.algorithm.AlgorithmScheduler;
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
@@ -32,12 +31,17 @@ import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.analysis.AnalysisPerformance;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
+import org.wikipediacleaner.api.dump.DumpCheckpointListener;
 import org.wikipediacleaner.api.dump.DumpProcessor;
+import org.wikipediacleaner.api.dump.DumpTaskQueue;
 import org.wikipediacleaner.api.dump.PageProcessor;
 import org.wikipediacleaner.api.execution.MediaWikiCallable;
 import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.i18n.GT;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueBoolean;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
 
 
 /**
@@ -54,9 +58,15 @@ public class FixDumpWorker extends AutomaticFixWorker {
   /** File containing the dump */
   private final File dumpFile;
 
+  /** File in which the position in the dump is saved periodically */
+  private File checkpointFile;
+
   /** Time spent in analysis. */
   AnalysisPerformance analysisTime;
 
+  /** Scheduler for running the algorithms */
+  final AlgorithmScheduler scheduler;
+
   /** Count of pages analyzed */
   int countAnalyzed;
 
@@ -81,9 +91,19 @@ public class FixDumpWorker extends AutomaticFixWorker {
         null, true, false, false);
     this.dumpFile = dumpFile;
     this.analysisTime = new AnalysisPerformance();
+    this.scheduler = AlgorithmScheduler.getScheduler(wiki);
     this.countAnalyzed = 0;
   }
 
+  /**
+   * Save periodically the position in the dump, and resume from it if possible.
+   * 
+   * @param file File in which the position in the dump is saved.
+   */
+  public void setCheckpointFile(File file) {
+    this.checkpointFile = file;
+  }
+
   /** 
    * Compute the value to be returned by the <code>get</code> method. 
    * 
@@ -100,7 +120,24 @@ public class FixDumpWorker extends AutomaticFixWorker {
     }
     CWPageProcessor pageProcessor = new CWPageProcessor(getWikipedia(), this, selectedNamespaces);
     DumpProcessor dumpProcessor = new DumpProcessor(pageProcessor);
-    dumpProcessor.processDump(dumpFile);
+    Configuration config = Configuration.getConfiguration();
+    dumpProcessor.setPipelineThreads(config.getInt(null, ConfigurationValueInteger.DUMP_PIPELINE_THREADS));
+    dumpProcessor.setDecompressionThreads(config.getInt(null, ConfigurationValueInteger.DUMP_DECOMPRESSION_THREADS));
+    dumpProcessor.setByteScanner(config.getBoolean(null, ConfigurationValueBoolean.DUMP_BYTE_SCANNER));
+    dumpProcessor.setOrdered(false);
+    pageProcessor.setSynchronous(dumpProcessor.isPipeline());
+    DumpCheckpointFile checkpoint = null;
+    if (checkpointFile != null) {
+      checkpoint = new DumpCheckpointFile(checkpointFile);
+      if (checkpoint.read(dumpFile)) {
+        dumpProcessor.setResume(checkpoint.getOffset(), checkpoint.getPageId());
+        logCW.info("Resuming fixing from checkpoint " + checkpointFile.getName());
+      }
+      dumpProcessor.setCheckpointListener(
+          new FixCheckpointListener(checkpoint, pageProcessor),
+          1000L * config.getInt(null, ConfigurationValueInteger.DUMP_CHECKPOINT_INTERVAL));
+    }
+    boolean completed = dumpProcessor.processDump(dumpFile);
     while (!pageProcessor.hasFinished()) {
       try {
         Thread.sleep(100);
@@ -108,6 +145,12 @@ public class FixDumpWorker extends AutomaticFixWorker {
         // Nothing to do
       }
     }
+    pageProcessor.shutdown();
+    if (!completed) {
+      logCW.error("Processing of the dump has failed, checkpoint kept for resuming");
+    } else if (checkpoint != null) {
+      checkpoint.delete();
+    }
 
     return null;
   }
@@ -154,57 +197,50 @@ public class FixDumpWorker extends AutomaticFixWorker {
   }
 
   /**
-   * Controller for background tasks.
+   * Listener saving the position in the dump at checkpoints.
    */
-  private class CWController extends MediaWikiController {
+  private class FixCheckpointListener implements DumpCheckpointListener {
+
+    /** File holding the position in the dump */
+    private final DumpCheckpointFile checkpoint;
+
+    /** Page processor */
+    private final CWPageProcessor pageProcessor;
 
     /**
-     * @param listener Listener to MediaWiki events.
+     * @param checkpoint File holding the position in the dump.
+     * @param pageProcessor Page processor.
      */
-    public CWController(MediaWikiListener listener) {
-      super(listener);
+    public FixCheckpointListener(
+        DumpCheckpointFile checkpoint, CWPageProcessor pageProcessor) {
+      this.checkpoint = checkpoint;
+      this.pageProcessor = pageProcessor;
     }
 
     /**
-     * @param task Task to be performed in background.
-     * @see org.wikipediacleaner.api.MediaWikiController#addTask(java.util.concurrent.Callable)
+     * @param offset Offset in the compressed dump from which processing can be resumed.
+     * @param pageId Identifier of the last page before the checkpoint.
+     * @see org.wikipediacleaner.api.dump.DumpCheckpointListener#checkpoint(long, java.lang.Integer)
      */
     @Override
-    public void addTask(Callable<?> task) {
-      // hasFinished(); // To clean up done tasks
-      while (getRemainingTasksCount() > 10000) {
+    public void checkpoint(long offset, Integer pageId) {
+
+      // Wait for pages being fixed
+      while (!pageProcessor.hasFinished()) {
         try {
-          // logCW.info("Too many tasks remaining, waiting a bit");
-          TimeUnit.MILLISECONDS.sleep(1000);
+          Thread.sleep(100);
         } catch (InterruptedException e) {
-          // Do nothing
+          // Nothing to do
         }
-        cleanUpDone();
       }
-      super.addTask(task);
-      cleanUpDone();
-    }
-
-    /**
-     * Clean up tasks that are done and finished.
-     */
-    private void cleanUpDone() {
-      while (getFirstResultIfDone() != null) {
-        // Do nothing, done result is simply removed from the list of tasks to clean up done tasks
-      }
-    }
 
-    /**
-     * @return True if all tasks are completed.
-     */
-    public boolean hasFinished() {
-      while (hasRemainingTask()) {
-        Future<?> result = getFirstResultIfDone();
-        if (result == null) {
-          return false;
-        }
+      // Save position
+      try {
+        checkpoint.write(dumpFile, offset, pageId, null);
+        logCW.info("Checkpoint saved after page " + pageId);
+      } catch (IOException e) {
+        logCW.error("Error saving checkpoint: " + e.getMessage());
       }
-      return !hasRemainingTask();
     }
   }
 
@@ -237,14 +273,16 @@ public class FixDumpWorker extends AutomaticFixWorker {
     public Page call() throws APIException {
       EnumWikipedia wiki = getWikipedia();
       PageAnalysis analysis = page.getAnalysis(page.getContents(), false);
-      analysis.performFullPageAnalysis(analysisTime);
+      analysis.performPageAnalysis(
+          AlgorithmError.getRequiredElements(selectedAlgorithms, page.getContents()),
+          analysisTime);
 
       // Check if an automatic fix can be applied
       boolean automaticFix = false;
       String initialContents = page.getContents();
-      for (CheckErrorAlgorithm algorithm : selectedAlgorithms) {
+      for (CheckErrorAlgorithm algorithm : scheduler.order(selectedAlgorithms)) {
         if (!automaticFix && !algorithm.isInWhiteList(page.getTitle())) {
-          if (algorithm.analyze(analysis, null, true)) {
+          if (scheduler.isDetected(algorithm, analysis, true)) {
             String newContents = algorithm.automaticFix(analysis);
             automaticFix = !newContents.equals(initialContents);
           }
@@ -282,12 +320,15 @@ public class FixDumpWorker extends AutomaticFixWorker {
     /** Namespaces to be analyzed */
     private final Set<Integer> namespaces;
 
-    /** Controller for background tasks */
-    private final CWController controller;
+    /** Queue of tasks analyzing pages */
+    private final DumpTaskQueue queue;
 
     /** API */
     private final API api;
 
+    /** True if pages should be analyzed directly in the calling thread */
+    private boolean synchronous;
+
     /**
      * @param wiki Wiki.
      * @param listener Listener.
@@ -303,8 +344,20 @@ public class FixDumpWorker extends AutomaticFixWorker {
       if (namespaces != null) {
         this.namespaces.addAll(namespaces);
       }
-      this.controller = new CWController(null);
+      Configuration config = Configuration.getConfiguration();
+      this.queue = new DumpTaskQueue(
+          config.getInt(null, ConfigurationValueInteger.INTERROG_THREAD),
+          config.getInt(null, ConfigurationValueInteger.DUMP_QUEUE_PAGES),
+          1000000L * config.getInt(null, ConfigurationValueInteger.DUMP_QUEUE_SIZE));
       this.api = APIFactory.getAPI();
+      this.synchronous = false;
+    }
+
+    /**
+     * @param synchronous True if pages should be analyzed directly in the calling thread.
+     */
+    public void setSynchronous(boolean synchronous) {
+      this.synchronous = synchronous;
     }
 
     /**
@@ -328,6 +381,26 @@ public class FixDumpWorker extends AutomaticFixWorker {
       return namespaces.contains(namespace);
     }
 
+    /**
+     * Tells if the processor should work on a page.
+     * 
+     * @param namespace Namespace.
+     * @param title Page title.
+     * @param redirect True if the page is a redirect.
+     * @return True if the processor should work on the page.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForPage(Integer, String, boolean)
+     */
+    @Override
+    public boolean isForPage(Integer namespace, String title, boolean redirect) {
+      if (!namespaces.contains(namespace)) {
+        return false;
+      }
+      if (!isInRange(namespace, title)) {
+        return false;
+      }
+      return true;
+    }
+
     /**
      * @param page Page.
      * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
@@ -337,14 +410,34 @@ public class FixDumpWorker extends AutomaticFixWorker {
       if (page == null) {
         return;
       }
-      controller.addTask(new CWPageCallable(wiki, listener, api, page));
+      CWPageCallable task = new CWPageCallable(wiki, listener, api, page);
+      if (synchronous) {
+        try {
+          task.call();
+        } catch (APIException e) {
+          logCW.error("Error analyzing page {}: {}", page.getTitle(), e.getMessage());
+        }
+      } else {
+        try {
+          queue.put(page, task);
+        } catch (InterruptedException e) {
+          throw new IllegalStateException("Interrupted while queuing page " + page.getTitle(), e);
+        }
+      }
     }
 
     /**
      * @return True if all tasks are completed.
      */
     public boolean hasFinished() {
-      return controller.hasFinished();
+      return queue.hasFinished();
+    }
+
+    /**
+     * Stop the threads analyzing pages.
+     */
+    public void shutdown() {
+      queue.shutdown();
     }
   }
 
@@ -12,48 +12,59 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.net.SocketTimeoutException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wikipediacleaner.Version;
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.APIFactory;
-import org.wikipediacleaner.api.MediaWikiController;
 import org.wikipediacleaner.api.MediaWikiListener;
+import org.wikipediacleaner.api.algorithm.AlgorithmError;
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
-import org.wikipediacleaner.api.constants.EnumQueryResult;
+import org.wikipediacleaner.api.configuration.CWConfiguration;
+import org.wikipediacleaner.api.configuration.CWConfigurationError;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.Suggestion;
+import org.wikipediacleaner.api.data.SuggestionProfile;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
 import org.wikipediacleaner.api.data.analysis.AnalysisPerformance;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
 import org.wikipediacleaner.api.data.contents.comment.ContentsComment;
 import org.wikipediacleaner.api.data.contents.comment.CommentBuilder;
 import org.wikipediacleaner.api.data.contents.ilink.InternalLinkBuilder;
 import org.wikipediacleaner.api.data.contents.tag.TagBuilder;
+import org.wikipediacleaner.api.dump.DumpCheckpointListener;
 import org.wikipediacleaner.api.dump.DumpProcessor;
+import org.wikipediacleaner.api.dump.DumpTaskQueue;
 import org.wikipediacleaner.api.dump.PageProcessor;
 import org.wikipediacleaner.api.execution.MediaWikiCallable;
 import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.BasicWorker;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.i18n.GT;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueBoolean;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
 
 
 /**
@@ -67,6 +78,18 @@ public class ListCWWorker extends BasicWorker {
   /** Logger CW */
   final static Logger logCW = LoggerFactory.getLogger("DumpAnalysis");
 
+  /** Number of pages between two displays of progress */
+  private final static long PROGRESS_INTERVAL = 1000;
+
+  /** Number of pages between two reports of progress in the logs */
+  private final static long REPORT_INTERVAL = 100000;
+
+  /** Minimum number of detections kept in memory by each thread for each algorithm */
+  private final static int MIN_RUN_SIZE = 100;
+
+  /** Maximum number of pages (page and subpages) for the result of an algorithm */
+  private final static int MAX_RESULT_PAGES = 20;
+
   /** File containing the dump */
   private final File dumpFile;
 
@@ -88,14 +111,35 @@ public class ListCWWorker extends BasicWorker {
   /** True to just check the pages that have been previously reported */
   final boolean onlyRecheck;
 
+  /** Only work on pages with titles in this range */
+  private PageRange range;
+
+  /** File in which the state of the analysis is saved periodically */
+  private File checkpointFile;
+
+  /** File in which the detections for each page revision are kept between analysis */
+  private File revisionsFile;
+
+  /** Detections for each page revision */
+  RevisionDetectionStore revisionStore;
+
   /** Time spent in analysis. */
   AnalysisPerformance analysisTime;
 
   /** Count of pages analyzed */
-  int countAnalyzed;
+  final LongAdder countAnalyzed;
 
   /** Count of pages found with errors */
-  int countDetections;
+  final LongAdder countDetections;
+
+  /** Count of pages not analyzed because their revision has already been analyzed */
+  final LongAdder countUnchanged;
+
+  /** Count of pages not analyzed because no algorithm can detect an error in their text */
+  final LongAdder countSkipped;
+
+  /** Count of pages analyzed at which progress will be displayed next */
+  final AtomicLong nextProgress;
 
   /**
    * @param wiki Wiki.
@@ -124,8 +168,11 @@ public class ListCWWorker extends BasicWorker {
       this.selectedNamespaces.add(Namespace.MAIN);
     }
     this.analysisTime = new AnalysisPerformance();
-    this.countAnalyzed = 0;
-    this.countDetections = 0;
+    this.countAnalyzed = new LongAdder();
+    this.countDetections = new LongAdder();
+    this.countUnchanged = new LongAdder();
+    this.countSkipped = new LongAdder();
+    this.nextProgress = new AtomicLong(PROGRESS_INTERVAL);
     this.checkWiki = checkWiki;
     this.onlyRecheck = false;
   }
@@ -158,10 +205,43 @@ public class ListCWWorker extends BasicWorker {
       this.selectedNamespaces.add(Namespace.MAIN);
     }
     this.analysisTime = new AnalysisPerformance();
-    this.countAnalyzed = 0;
-    this.countDetections = 0;
+    this.countAnalyzed = new LongAdder();
+    this.countDetections = new LongAdder();
+    this.countUnchanged = new LongAdder();
+    this.countSkipped = new LongAdder();
+    this.nextProgress = new AtomicLong(PROGRESS_INTERVAL);
     this.checkWiki = checkWiki;
     this.onlyRecheck = onlyRecheck;
+    this.range = new PageRange(null, null);
+  }
+
+  /**
+   * Restrict the range of pages to work on.
+   * 
+   * @param begin Beginning of the range.
+   * @param end End of the range.
+   */
+  public void setRange(String begin, String end) {
+    this.range = new PageRange(begin, end);
+  }
+
+  /**
+   * Save periodically the state of the analysis, and resume from it if possible.
+   * 
+   * @param file File in which the state of the analysis is saved.
+   */
+  public void setCheckpointFile(File file) {
+    this.checkpointFile = file;
+  }
+
+  /**
+   * Keep the detections for each page revision between analysis,
+   * so that pages with the same revision than in the previous analysis are not analyzed again.
+   * 
+   * @param file File in which the detections for each page revision are kept.
+   */
+  public void setRevisionsFile(File file) {
+    this.revisionsFile = file;
   }
 
   /** 
@@ -212,8 +292,44 @@ public class ListCWWorker extends BasicWorker {
         // Nothing to do
       }
     }
+    if (revisionsFile != null) {
+      revisionStore = new RevisionDetectionStore(computeSignature(), selectedAlgorithms.size());
+      revisionStore.load(revisionsFile);
+    }
     DumpProcessor dumpProcessor = new DumpProcessor(pageProcessor);
-    dumpProcessor.processDump(dumpFile);
+    Configuration config = Configuration.getConfiguration();
+    dumpProcessor.setPipelineThreads(config.getInt(null, ConfigurationValueInteger.DUMP_PIPELINE_THREADS));
+    dumpProcessor.setDecompressionThreads(config.getInt(null, ConfigurationValueInteger.DUMP_DECOMPRESSION_THREADS));
+    dumpProcessor.setByteScanner(config.getBoolean(null, ConfigurationValueBoolean.DUMP_BYTE_SCANNER));
+    pageProcessor.setSynchronous(dumpProcessor.isPipeline());
+    int threads = dumpProcessor.isPipeline() ?
+        config.getInt(null, ConfigurationValueInteger.DUMP_PIPELINE_THREADS) :
+        config.getInt(null, ConfigurationValueInteger.INTERROG_THREAD);
+    int runSize = config.getInt(null, ConfigurationValueInteger.DUMP_DETECTIONS_MEMORY) /
+        Math.max(1, threads * selectedAlgorithms.size());
+    for (AlgorithmInformation algorithm : selectedAlgorithms) {
+      algorithm.getDetections().setRunSize(Math.max(MIN_RUN_SIZE, runSize));
+    }
+    DumpCheckpointFile checkpoint = null;
+    if (checkpointFile != null) {
+      checkpoint = new DumpCheckpointFile(checkpointFile);
+      if (checkpoint.read(dumpFile)) {
+        restoreDetections(checkpoint.getRecords());
+        if (revisionStore != null) {
+          revisionStore.restore(getCheckpointRevisionsFile());
+        }
+        dumpProcessor.setResume(checkpoint.getOffset(), checkpoint.getPageId());
+        logCW.info("Resuming analysis from checkpoint " + checkpointFile.getName());
+      }
+      dumpProcessor.setCheckpointListener(
+          new CWCheckpointListener(checkpoint, pageProcessor),
+          1000L * config.getInt(null, ConfigurationValueInteger.DUMP_CHECKPOINT_INTERVAL));
+    }
+    Map<String, Suggestion> suggestions = getWikipedia().getConfiguration().getSuggestions();
+    if (suggestions != null) {
+      SuggestionProfile.resetProfiles(suggestions.values());
+    }
+    boolean completed = dumpProcessor.processDump(dumpFile);
     while (!pageProcessor.hasFinished()) {
       try {
         Thread.sleep(100);
@@ -221,28 +337,122 @@ public class ListCWWorker extends BasicWorker {
         // Nothing to do
       }
     }
-    logCW.info("Beginning of result output");
-    for (AlgorithmInformation algorithm : selectedAlgorithms) {
-      Map<String, Detection> pages = algorithm.getDetections();
-      if (pages == null) {
-        pages = new HashMap<>();
+    pageProcessor.shutdown();
+    if (completed) {
+      logCW.info("Beginning of result output");
+      for (AlgorithmInformation algorithm : selectedAlgorithms) {
+        outputResult(algorithm.algorithm, algorithm.getDetections());
       }
-      outputResult(algorithm.algorithm, pages.values());
+      logCW.info("End of result output");
+    } else {
+      logCW.error("Processing of the dump has failed, partial results are not published");
     }
-    logCW.info("End of result output");
     reportProgress();
+    if (suggestions != null) {
+      String report = SuggestionProfile.getReport(
+          suggestions.values(), SuggestionProfile.Order.getConfiguredOrder(), SuggestionProfile.REPORT_LINES);
+      if (report != null) {
+        logCW.info(report);
+      }
+    }
+    if (!completed) {
+      if (checkpoint != null) {
+        logCW.info("Checkpoint kept for resuming: " + checkpointFile.getName());
+      }
+    } else {
+      if (revisionStore != null) {
+        try {
+          revisionStore.save(revisionsFile);
+        } catch (IOException e) {
+          logCW.error("Error saving revisions file: " + e.getMessage());
+        }
+      }
+      if (checkpoint != null) {
+        checkpoint.delete();
+        File checkpointRevisions = getCheckpointRevisionsFile();
+        if (checkpointRevisions.isFile() && !checkpointRevisions.delete()) {
+          logCW.warn("Unable to delete " + checkpointRevisions.getName());
+        }
+      }
+    }
+    for (AlgorithmInformation algorithm : selectedAlgorithms) {
+      algorithm.clearDetections();
+    }
 
     return null;
   }
 
+  /**
+   * @return File in which the detections for each page revision are saved at checkpoints.
+   */
+  File getCheckpointRevisionsFile() {
+    return new File(checkpointFile.getAbsolutePath() + ".revisions");
+  }
+
+  /**
+   * Compute a signature of the analysis: detections from a previous analysis
+   * can be reused only if the version, the algorithms and their configuration are the same.
+   * 
+   * @return Signature of the analysis.
+   */
+  private String computeSignature() {
+    StringBuilder signature = new StringBuilder();
+    signature.append(Version.VERSION);
+    CWConfiguration cwConfiguration = getWikipedia().getCWConfiguration();
+    for (AlgorithmInformation algorithm : selectedAlgorithms) {
+      signature.append(' ');
+      signature.append(algorithm.algorithm.getErrorNumberString());
+      CWConfigurationError errorConfiguration = cwConfiguration.getErrorConfiguration(
+          algorithm.algorithm.getErrorNumber());
+      if (errorConfiguration != null) {
+        signature.append(':');
+        signature.append(Integer.toHexString(errorConfiguration.getConfigurationHash()));
+      }
+    }
+    signature.append(' ');
+    signature.append(Integer.toHexString(getWikipedia().getConfiguration().getConfigurationHash()));
+    return signature.toString();
+  }
+
+  /**
+   * Restore detections saved at a checkpoint.
+   * 
+   * @param records Records saved at the checkpoint.
+   */
+  private void restoreDetections(List<String[]> records) {
+    Map<String, AlgorithmInformation> algorithms = new HashMap<>();
+    for (AlgorithmInformation algorithm : selectedAlgorithms) {
+      algorithms.put(algorithm.algorithm.getErrorNumberString(), algorithm);
+    }
+    for (String[] record : records) {
+      if (record.length < 4) {
+        continue;
+      }
+      AlgorithmInformation algorithm = algorithms.get(record[0]);
+      if (algorithm == null) {
+        continue;
+      }
+      try {
+        algorithm.addDetection(DetectionStore.fromRecord(record, 1));
+        countDetections.increment();
+      } catch (IllegalArgumentException e) {
+        logCW.warn("Ignoring incorrect detection in checkpoint for " + record[3]);
+      }
+    }
+  }
+
   /**
    * Report progress.
    */
   void reportProgress() {
     StringBuilder buffer = new StringBuilder();
     buffer.append("\n");
-    buffer.append("Pages processed: " + countAnalyzed);
-    buffer.append(" / errors detected: " + countDetections);
+    buffer.append("Pages processed: " + countAnalyzed.sum());
+    buffer.append(" / errors detected: " + countDetections.sum());
+    if (revisionStore != null) {
+      buffer.append(" / unchanged: " + countUnchanged.sum());
+    }
+    buffer.append(" / skipped: " + countSkipped.sum());
     buffer.append(" Analysis: " + analysisTime.toString());
     for (AlgorithmInformation algorithm : selectedAlgorithms) {
       buffer.append(
@@ -253,162 +463,138 @@ public class ListCWWorker extends BasicWorker {
   }
 
   /**
-   * @param pages List of detections.
-   * @param maxSize Maximum size.
-   * @param result Formatted result.
-   * @return True if result was saved completely.
+   * Append the line for a detection.
+   * 
+   * @param detection Detection.
+   * @param lastLevel Error level of the previous detection.
+   * @param line Line for the detection.
    */
-  private boolean appendResult(
-      List<Detection> pages, Long maxSize,
-      StringBuilder result) {
-    boolean full = true;
-    StringBuilder buffer = new StringBuilder();
-    buffer.append(CommentBuilder.from("Generated using " + dumpFile.getName()).toString());
-    buffer.append("\n");
-    ErrorLevel lastLevel = null;
-    StringBuilder line = new StringBuilder();
-    List<Detection> pagesToRemove = new ArrayList<>();
-    for (Detection detection : pages) {
-      line.setLength(0);
-      if ((detection.maxLevel != null) &&
-          !detection.maxLevel.equals(lastLevel)) {
-        lastLevel = detection.maxLevel;
-        line.append(CommentBuilder.from(lastLevel.toString()).toString());
-        line.append("\n");
-      }
-      line.append("* ");
-      line.append(InternalLinkBuilder
-          .from(detection.pageName)
-          .withColon(Namespace.isColonNeeded(detection.namespace))
-          .toString());
-      if (detection.notices != null) {
-        boolean first = true;
-        for (String notice : detection.notices) {
-          line.append(first ? ": " : ", ");
-          first = false;
-          line.append(TagBuilder.NOWIKI_OPEN);
-          int index = 0;
-          while (index < notice.length()) {
-            int codePoint = notice.codePointAt(index);
-            switch (codePoint) {
-            case '&': // Replace "&" by its HTML element
-              line.append("&amp;");
-              break;
-            case '\n': // Replace \n by a visual character
-              line.append('\u21b5');
-              break;
-            case '<': // Replace "<" by its HTML element
-              line.append("&lt;");
-              break;
-            case '\u007F': // Replace control characters by visible text
-              line.append("[DEL]");
-              break;
-            case '\u00A0': // Replace control characters by visible text
-              line.append("[NBSP]");
-              break;
-            case '\u00AD': // Replace control characters by visible text
-              line.append("[SHY]");
-              break;
-            case '\u2004': // Replace control characters by visible text
-              line.append("[3EM]");
-              break;
-            case '\u2005': // Replace control characters by visible text
-              line.append("[4EM]");
-              break;
-            case '\u2006': // Replace control characters by visible text
-              line.append("[6EM]");
-              break;
-            case '\u2007': // Replace control characters by visible text
-              line.append("[FS]");
-              break;
-            case '\u2008': // Replace control characters by visible text
-              line.append("[PS]");
-              break;
-            case '\u200B': // Replace control characters by visible text
-              line.append("[0WS]");
-              break;
-            case '\u200E': // Replace control characters by visible text
-              line.append("[LRM]");
-              break;
-            case '\u200F': // Replace control characters by visible text
-              line.append("[RLM]");
-              break;
-            case '\u2028': // Replace control characters by visible text
-              line.append("[LS]");
-              break;
-            case '\u202A': // Replace control characters by visible text
-              line.append("[LRE]");
-              break;
-            case '\u202B': // Replace control characters by visible text
-              line.append("[RLE]");
-              break;
-            case '\u202C': // Replace control characters by visible text
-              line.append("[POPD]");
-              break;
-            case '\u202D': // Replace control characters by visible text
-              line.append("[LRO]");
-              break;
-            case '\u202E': // Replace control characters by visible text
-              line.append("[RLO]");
-              break;
-            case '\uFEFF': // Replace control characters by visible text
-              line.append("[BOM]");
-              break;
-            case '\uFFFC': // Replace control characters by visible text
-              line.append("[ORC]");
-              break;
-            default:
-              if ((codePoint >= 0xE000) && (codePoint <= 0xF8FF)) {
-                line.append("[PUA]");
-              } else if ((codePoint >= 0XF0000) && (codePoint <= 0xFFFFD)) {
-                line.append("[PUA_A]");
-              } else if ((codePoint >= 0x100000) && (codePoint <= 0x10FFFD)) {
-                line.append("[PUA_B]");
-              } else {
-                line.appendCodePoint(codePoint);
-              }
-            } 
-            index = notice.offsetByCodePoints(index, 1);
-          }
-          line.append(TagBuilder.NOWIKI_CLOSE);
-        }
-      }
+  private void appendDetection(
+      Detection detection, ErrorLevel lastLevel,
+      StringBuilder line) {
+    if ((detection.maxLevel != null) &&
+        !detection.maxLevel.equals(lastLevel)) {
+      line.append(CommentBuilder.from(detection.maxLevel.toString()).toString());
       line.append("\n");
-      if ((maxSize == null) ||
-          (buffer.length() + line.length() < maxSize)) {
-        buffer.append(line);
-      } else {
-        pagesToRemove.add(detection);
-        full = false;
+    }
+    line.append("* ");
+    line.append(InternalLinkBuilder
+        .from(detection.pageName)
+        .withColon(Namespace.isColonNeeded(detection.namespace))
+        .toString());
+    if (detection.notices != null) {
+      boolean first = true;
+      for (String notice : detection.notices) {
+        line.append(first ? ": " : ", ");
+        first = false;
+        line.append(TagBuilder.NOWIKI_OPEN);
+        int index = 0;
+        while (index < notice.length()) {
+          int codePoint = notice.codePointAt(index);
+          switch (codePoint) {
+          case '&': // Replace "&" by its HTML element
+            line.append("&amp;");
+            break;
+          case '\n': // Replace \n by a visual character
+            line.append('\u21b5');
+            break;
+          case '<': // Replace "<" by its HTML element
+            line.append("&lt;");
+            break;
+          case '\u007F': // Replace control characters by visible text
+            line.append("[DEL]");
+            break;
+          case '\u00A0': // Replace control characters by visible text
+            line.append("[NBSP]");
+            break;
+          case '\u00AD': // Replace control characters by visible text
+            line.append("[SHY]");
+            break;
+          case '\u2004': // Replace control characters by visible text
+            line.append("[3EM]");
+            break;
+          case '\u2005': // Replace control characters by visible text
+            line.append("[4EM]");
+            break;
+          case '\u2006': // Replace control characters by visible text
+            line.append("[6EM]");
+            break;
+          case '\u2007': // Replace control characters by visible text
+            line.append("[FS]");
+            break;
+          case '\u2008': // Replace control characters by visible text
+            line.append("[PS]");
+            break;
+          case '\u200B': // Replace control characters by visible text
+            line.append("[0WS]");
+            break;
+          case '\u200E': // Replace control characters by visible text
+            line.append("[LRM]");
+            break;
+          case '\u200F': // Replace control characters by visible text
+            line.append("[RLM]");
+            break;
+          case '\u2028': // Replace control characters by visible text
+            line.append("[LS]");
+            break;
+          case '\u202A': // Replace control characters by visible text
+            line.append("[LRE]");
+            break;
+          case '\u202B': // Replace control characters by visible text
+            line.append("[RLE]");
+            break;
+          case '\u202C': // Replace control characters by visible text
+            line.append("[POPD]");
+            break;
+          case '\u202D': // Replace control characters by visible text
+            line.append("[LRO]");
+            break;
+          case '\u202E': // Replace control characters by visible text
+            line.append("[RLO]");
+            break;
+          case '\uFEFF': // Replace control characters by visible text
+            line.append("[BOM]");
+            break;
+          case '\uFFFC': // Replace control characters by visible text
+            line.append("[ORC]");
+            break;
+          default:
+            if ((codePoint >= 0xE000) && (codePoint <= 0xF8FF)) {
+              line.append("[PUA]");
+            } else if ((codePoint >= 0XF0000) && (codePoint <= 0xFFFFD)) {
+              line.append("[PUA_A]");
+            } else if ((codePoint >= 0x100000) && (codePoint <= 0x10FFFD)) {
+              line.append("[PUA_B]");
+            } else {
+              line.appendCodePoint(codePoint);
+            }
+          } 
+          index = notice.offsetByCodePoints(index, 1);
+        }
+        line.append(TagBuilder.NOWIKI_CLOSE);
       }
     }
-    pages.removeAll(pagesToRemove);
-    result.append(buffer);
-    return full;
+    line.append("\n");
   }
 
   /**
    * Output result of the analysis.
    * 
    * @param algorithm Algorithm.
-   * @param pages List of pages with detections.
+   * @param pages Pages with detections.
    */
-  private void outputResult(CheckErrorAlgorithm algorithm, Collection<Detection> pages) {
+  private void outputResult(CheckErrorAlgorithm algorithm, DetectionStore pages) {
     if ((algorithm == null) || (pages == null)) {
       return;
     }
 
-    // Prepare list of pages
-    List<Detection> tmpPages = new ArrayList<>(pages);
-    Collections.sort(tmpPages);
-
     // Output to file
-    outputResultToFile(algorithm, tmpPages, output);
+    outputResultToFile(algorithm, pages, output);
 
     // Output to a page
     boolean fullySaved = false;
     try {
-      fullySaved = outputResultToPage(algorithm, tmpPages, pageName);
+      fullySaved = outputResultToPage(algorithm, pages, pageName);
     } catch (APIException e) {
       // Don't throw, it will ba saved to file instead
     }
@@ -416,21 +602,25 @@ public class ListCWWorker extends BasicWorker {
     // Try to save the result in a file if it wasn't saved in a page
     if (!fullySaved) {
       File outputDir = new File(System.getProperty("user.home"));
-      outputResultToFile(algorithm, tmpPages, outputDir);
+      outputResultToFile(algorithm, pages, outputDir);
     }
   }
 
   /**
    * Output result of the analysis to a page on the wiki.
    * 
+   * The result is generated in a single pass in chunks fitting in a page:
+   * the first chunk is written in the page between the place holders,
+   * the next ones in numbered subpages.
+   * 
    * @param algorithm Algorithm.
-   * @param pages List of detections to put in the result.
+   * @param pages Detections to put in the result.
    * @param outputPage Page name.
    * @return True if the analysis was completely saved on the wiki.
    * @throws APIException Error with MediaWiki API.
    */
   private boolean outputResultToPage(
-      CheckErrorAlgorithm algorithm, List<Detection> pages,
+      CheckErrorAlgorithm algorithm, DetectionStore pages,
       String outputPage) throws APIException {
 
     // Determine page to which the error should be written
@@ -440,125 +630,144 @@ public class ListCWWorker extends BasicWorker {
     String truePageName = MessageFormat.format(pageName, algorithm.getErrorNumberString());
     logCW.info("Writing dump analysis results for error " + algorithm.getErrorNumberString() + " to page " + truePageName);
 
-    // Retrieve page information
-    Page page = DataManager.getPage(getWikipedia(), truePageName, null, null, null);
+    // Retrieve page information, with the possible subpages
+    EnumWikipedia wiki = getWikipedia();
+    Page page = DataManager.getPage(wiki, truePageName, null, null, null);
+    List<Page> subpages = new ArrayList<>();
+    for (int index = 2; index <= MAX_RESULT_PAGES; index++) {
+      subpages.add(DataManager.getPage(wiki, truePageName + "/" + index, null, null, null));
+    }
+    List<Page> allPages = new ArrayList<>();
+    allPages.add(page);
+    allPages.addAll(subpages);
     API api = APIFactory.getAPI();
-    api.retrieveContents(getWikipedia(), Collections.singletonList(page), false, false);
-    String initialContents = page.getContents();
-    Integer initialRevisionId = page.getRevisionId();
-    if ((initialContents == null) ||
-        (initialRevisionId == null)) {
+    api.retrieveContents(wiki, allPages, false, false);
+    String contents = page.getContents();
+    if ((contents == null) ||
+        (page.getRevisionId() == null)) {
       throw new APIException("Unable to read page " + truePageName);
     }
 
-    // Generate result
-    logCW.info("Preparing results of dump analysis for error " + algorithm.getErrorNumberString());
-    int nbPages = pages.size();
-    Long maxSize = getWikipedia().getWikiConfiguration().getMaxArticleSize();
-    List<Detection> tmpPages = new ArrayList<>(pages);
-
-    // Loop
-    boolean fullySaved = true;
-    int attemptCount = 0;
-    while (attemptCount < 10) {
-      attemptCount++;
-
-      // Check that page hasn't been modified
-      api.retrieveContents(getWikipedia(), Collections.singletonList(page), false, false);
-      String contents = page.getContents();
-      if (!initialRevisionId.equals(page.getRevisionId()) ||
-          !initialContents.equals(contents)) {
-        logCW.info("Page " + truePageName + " has been modified");
-        throw new APIException("Page " + truePageName + " has been modified");
-      }
-
-      // Find place holders in the page
-      int begin = -1;
-      int end = -1;
-      for (ContentsComment comment : page.getAnalysis(contents, true).comments().getAll()) {
-        String value = comment.getComment().trim();
-        if ("BOT BEGIN".equals(value)) {
-          if (begin < 0) {
-            begin = comment.getEndIndex();
-          }
-        } else if ("BOT END".equals(value)) {
-          end = comment.getBeginIndex();
+    // Find place holders in the page
+    int begin = -1;
+    int end = -1;
+    for (ContentsComment comment : page.getAnalysis(contents, true).comments().getAll()) {
+      String value = comment.getComment().trim();
+      if ("BOT BEGIN".equals(value)) {
+        if (begin < 0) {
+          begin = comment.getEndIndex();
         }
+      } else if ("BOT END".equals(value)) {
+        end = comment.getBeginIndex();
       }
-      if ((begin < 0) || (end < 0) || (end < begin)) {
-        throw new APIException("Page " + truePageName + " doesn't have place holders for the result");
-      }
+    }
+    if ((begin < 0) || (end < 0) || (end < begin)) {
+      throw new APIException("Page " + truePageName + " doesn't have place holders for the result");
+    }
 
-      // Build new text for the page
-      String text = "";
-      boolean finished = false;
-      do {
-        StringBuilder newText = new StringBuilder();
-        newText.append(contents.substring(0, begin));
-        newText.append("\n");
-        fullySaved &= appendResult(tmpPages, maxSize - begin - contents.length() + end, newText);
-        newText.append(contents.substring(end));
-        text = newText.toString();
-        if (getWikipedia().getWikiConfiguration().isArticleTooLong(text)) {
-          if (!tmpPages.isEmpty()) {
-            tmpPages.remove(tmpPages.size() - 1);
+    // Generate result in chunks
+    logCW.info("Preparing results of dump analysis for error " + algorithm.getErrorNumberString());
+    long nbPages = pages.size();
+    String comment = "Dump analysis for error n°" + algorithm.getErrorNumberString() + " (" + nbPages + " pages)";
+    Long maxSize = wiki.getWikiConfiguration().getMaxArticleSize();
+    String header = CommentBuilder.from("Generated using " + dumpFile.getName()).toString() + "\n";
+    String prefix = contents.substring(0, begin) + "\n";
+    String suffix = contents.substring(end);
+    long linksSize = MAX_RESULT_PAGES * (ResultChunk.getSize(truePageName) + 10);
+    ResultChunk firstChunk = new ResultChunk(
+        header,
+        (maxSize != null) ?
+            maxSize - ResultChunk.getSize(prefix) - ResultChunk.getSize(suffix) - linksSize :
+            null);
+    ResultChunk chunk = firstChunk;
+    int chunkCount = 1;
+    boolean fullySaved = true;
+    try (DetectionStore.DetectionIterator itDetection = pages.iterator()) {
+      ErrorLevel lastLevel = null;
+      StringBuilder line = new StringBuilder();
+      while (itDetection.hasNext()) {
+        Detection detection = itDetection.next();
+        line.setLength(0);
+        appendDetection(detection, lastLevel, line);
+        if (!chunk.append(line)) {
+
+          // Write the current chunk in its subpage and start a new one
+          if (chunkCount >= MAX_RESULT_PAGES) {
             fullySaved = false;
+            break;
           }
-        } else {
-          finished = true;
-        }
-      } while (!finished && !tmpPages.isEmpty());
-
-      // Update page
-      try {
-        if (!text.equals(contents)) {
-          api.updatePage(
-              getWikipedia(), page, text,
-              "Dump analysis for error n°" + algorithm.getErrorNumberString() + " (" + nbPages + " pages)",
-              false, true, true, false);
-        }
-        return fullySaved;
-      } catch (APIException e) {
-        // Check if it can be due to a page too big
-        boolean tooBig = false;
-        if (EnumQueryResult.CONTENT_TOO_BIG.equals(e.getQueryResult())) {
-          tooBig = true;
-        }
-        if ((e.getCause() != null) &&
-            (e.getCause() instanceof SocketTimeoutException)) {
-          tooBig = true;
-          try {
-            TimeUnit.MINUTES.sleep(15);
-          } catch (InterruptedException ie) {
-            // Nothing to do
+          if (chunkCount > 1) {
+            updateResultPage(api, subpages.get(chunkCount - 2), chunk.toString(), comment);
           }
-        }
-
-        // Try reducing the result if it's too big
-        if (!tooBig) {
-          throw e;
-        }
-        for (int i = 0; i < 100; i++) {
-          if (!tmpPages.isEmpty()) {
-            tmpPages.remove(tmpPages.size() - 1);
+          chunkCount++;
+          chunk = new ResultChunk(header, maxSize);
+          line.setLength(0);
+          appendDetection(detection, null, line);
+          if (!chunk.append(line)) {
+            fullySaved = false;
           }
         }
-        logCW.info("Trying with smaller list (" + tmpPages.size() + ")");
+        if (detection.maxLevel != null) {
+          lastLevel = detection.maxLevel;
+        }
+      }
+    }
+    if (chunkCount > 1) {
+      updateResultPage(api, subpages.get(chunkCount - 2), chunk.toString(), comment);
+    }
+
+    // Empty subpages remaining from a previous analysis
+    for (int index = chunkCount - 1; index < subpages.size(); index++) {
+      Page subpage = subpages.get(index);
+      if (Boolean.TRUE.equals(subpage.isExisting())) {
+        updateResultPage(api, subpage, header, comment);
+      }
+    }
+
+    // Update page
+    StringBuilder newText = new StringBuilder();
+    newText.append(prefix);
+    newText.append(firstChunk.toString());
+    if (chunkCount > 1) {
+      newText.append("\n");
+      for (int index = 2; index <= chunkCount; index++) {
+        newText.append((index > 2) ? ", " : "* ");
+        newText.append(InternalLinkBuilder.from(truePageName + "/" + index).toString());
       }
+      newText.append("\n");
     }
+    newText.append(suffix);
+    updateResultPage(api, page, newText.toString(), comment);
 
     return fullySaved;
   }
 
+  /**
+   * Update a page with the result of the analysis if it has changed.
+   * 
+   * @param api API.
+   * @param page Page.
+   * @param text New text for the page.
+   * @param comment Comment.
+   * @throws APIException Error with MediaWiki API.
+   */
+  private void updateResultPage(
+      API api, Page page, String text, String comment) throws APIException {
+    if (text.equals(page.getContents())) {
+      return;
+    }
+    api.updatePage(getWikipedia(), page, text, comment, false, true, true, false);
+  }
+
   /**
    * Output result of the analysis to a file.
    * 
    * @param algorithm Algorithm.
-   * @param pages List of detections to put in the result.
+   * @param pages Detections to put in the result.
    * @param outputPath Output directory (or file if it contains a {0}).
    */
   private void outputResultToFile(
-      CheckErrorAlgorithm algorithm, List<Detection> pages,
+      CheckErrorAlgorithm algorithm, DetectionStore pages,
       File outputPath) {
 
     // Determine file to which the error list should be written
@@ -574,17 +783,25 @@ public class ListCWWorker extends BasicWorker {
       outputFile = new File(MessageFormat.format(output.getAbsolutePath(), algorithm.getErrorNumberString()));
     }
 
-    // Generate result
-    logCW.info("Preparing results of dump analysis for error " + algorithm.getErrorNumberString());
-    StringBuilder result = new StringBuilder();
-    appendResult(pages, null, result);
-
-    // Write the file
+    // Write the file while generating the result
     logCW.info("Writing dump analysis results for error " + algorithm.getErrorNumberString() + " to file " + outputFile.getName());
     try (FileOutputStream fo = new FileOutputStream(outputFile, false);
          OutputStreamWriter osw = new OutputStreamWriter(fo, "UTF8");
-         BufferedWriter writer = new BufferedWriter(osw)) {
-      writer.write(result.toString());
+         BufferedWriter writer = new BufferedWriter(osw);
+         DetectionStore.DetectionIterator itDetection = pages.iterator()) {
+      writer.write(CommentBuilder.from("Generated using " + dumpFile.getName()).toString());
+      writer.write("\n");
+      ErrorLevel lastLevel = null;
+      StringBuilder line = new StringBuilder();
+      while (itDetection.hasNext()) {
+        Detection detection = itDetection.next();
+        line.setLength(0);
+        appendDetection(detection, lastLevel, line);
+        if (detection.maxLevel != null) {
+          lastLevel = detection.maxLevel;
+        }
+        writer.append(line);
+      }
     } catch (IOException e) {
       // Nothing to do
     }
@@ -609,16 +826,16 @@ public class ListCWWorker extends BasicWorker {
     message.append(GT.__(
         "{0} page has been analyzed",
         "{0} pages have been analyzed",
-        countAnalyzed, Integer.toString(countAnalyzed)));
+        countAnalyzed.sum(), Long.toString(countAnalyzed.sum())));
     for (AlgorithmInformation algorithmInfo : selectedAlgorithms) {
       CheckErrorAlgorithm algorithm = algorithmInfo.algorithm;
-      Map<String, Detection> pages = algorithmInfo.getDetections();
+      long detectionsCount = algorithmInfo.getDetectionsCount();
       message.append("\n");
       message.append(GT.__(
           "{0} page has been detected for algorithm {1}",
           "{0} pages have been detected for algorithm {1}",
-          pages.size(), new Object[] {
-            pages.size(),
+          detectionsCount, new Object[] {
+            detectionsCount,
             algorithm.getErrorNumberString() + " - " + algorithm.getShortDescription()}));
     }
 
@@ -633,57 +850,137 @@ public class ListCWWorker extends BasicWorker {
   }
 
   /**
-   * Controller for background tasks.
+   * Listener saving the state of the analysis at checkpoints.
    */
-  private class CWController extends MediaWikiController {
+  private class CWCheckpointListener implements DumpCheckpointListener {
+
+    /** File holding the state of the analysis */
+    private final DumpCheckpointFile checkpoint;
+
+    /** Page processor */
+    private final CWPageProcessor pageProcessor;
 
     /**
-     * @param listener Listener to MediaWiki events.
+     * @param checkpoint File holding the state of the analysis.
+     * @param pageProcessor Page processor.
      */
-    public CWController(MediaWikiListener listener) {
-      super(listener);
+    public CWCheckpointListener(
+        DumpCheckpointFile checkpoint, CWPageProcessor pageProcessor) {
+      this.checkpoint = checkpoint;
+      this.pageProcessor = pageProcessor;
     }
 
     /**
-     * @param task Task to be performed in background.
-     * @see org.wikipediacleaner.api.MediaWikiController#addTask(java.util.concurrent.Callable)
+     * @param offset Offset in the compressed dump from which processing can be resumed.
+     * @param pageId Identifier of the last page before the checkpoint.
+     * @see org.wikipediacleaner.api.dump.DumpCheckpointListener#checkpoint(long, java.lang.Integer)
      */
     @Override
-    public void addTask(Callable<?> task) {
-      // hasFinished(); // To clean up done tasks
-      while (getRemainingTasksCount() > 10000) {
+    public void checkpoint(long offset, Integer pageId) {
+
+      // Wait for pages being analyzed
+      while (!pageProcessor.hasFinished()) {
         try {
-          // logCW.info("Too many tasks remaining, waiting a bit");
-          TimeUnit.MILLISECONDS.sleep(1000);
+          Thread.sleep(100);
         } catch (InterruptedException e) {
-          // Do nothing
+          // Nothing to do
+        }
+      }
+
+      // Save detections
+      CheckpointRecords records = new CheckpointRecords();
+      try {
+        if (revisionStore != null) {
+          revisionStore.save(getCheckpointRevisionsFile());
         }
-        cleanUpDone();
+        checkpoint.write(dumpFile, offset, pageId, records);
+        logCW.info("Checkpoint saved after page " + pageId + " (" + records.getCount() + " detections)");
+      } catch (IOException e) {
+        logCW.error("Error saving checkpoint: " + e.getMessage());
+      } finally {
+        records.close();
       }
-      super.addTask(task);
-      cleanUpDone();
     }
+  }
+
+  /**
+   * Records for the detections of all algorithms, read from the detection stores while written.
+   */
+  private class CheckpointRecords implements Iterable<String[]>, Iterator<String[]> {
+
+    /** Index of the current algorithm */
+    private int algorithmIndex;
+
+    /** Detections of the current algorithm */
+    private DetectionStore.DetectionIterator detections;
+
+    /** Number of records */
+    private int count;
 
     /**
-     * Clean up tasks that are done and finished.
+     * Constructor.
      */
-    private void cleanUpDone() {
-      while (getFirstResultIfDone() != null) {
-        // Do nothing, done result is simply removed from the list of tasks to clean up done tasks
-      }
+    public CheckpointRecords() {
+      this.algorithmIndex = -1;
+      this.count = 0;
     }
 
     /**
-     * @return True if all tasks are completed.
+     * @return Number of records.
      */
-    public boolean hasFinished() {
-      while (hasRemainingTask()) {
-        Future<?> result = getFirstResultIfDone();
-        if (result == null) {
+    public int getCount() {
+      return count;
+    }
+
+    /**
+     * @return Iterator over the records.
+     * @see java.lang.Iterable#iterator()
+     */
+    @Override
+    public Iterator<String[]> iterator() {
+      return this;
+    }
+
+    /**
+     * @return True if there's an other record.
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+      while ((detections == null) || !detections.hasNext()) {
+        close();
+        algorithmIndex++;
+        if (algorithmIndex >= selectedAlgorithms.size()) {
           return false;
         }
+        detections = selectedAlgorithms.get(algorithmIndex).getDetections().iterator();
+      }
+      return true;
+    }
+
+    /**
+     * @return Next record.
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public String[] next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      count++;
+      return DetectionStore.toRecord(
+          detections.next(),
+          selectedAlgorithms.get(algorithmIndex).algorithm.getErrorNumberString());
+    }
+
+    /**
+     * Close the detections of the current algorithm.
+     */
+    public void close() {
+      if (detections != null) {
+        detections.close();
+        detections = null;
       }
-      return !hasRemainingTask();
     }
   }
 
@@ -710,16 +1007,17 @@ public class ListCWWorker extends BasicWorker {
     }
 
     /**
-     * Perform a full analysis of a given page.
+     * Perform the analysis of a given page.
      * 
      * @param analyzedPage Given page.
+     * @param elements Families of elements needed by the algorithms.
      * @return Analysis.
      */
-    private PageAnalysis performFullPageAnalysis(Page analyzedPage) {
+    private PageAnalysis performPageAnalysis(Page analyzedPage, Set<AnalysisElement> elements) {
       PageAnalysis analysis = null;
       try {
         analysis = analyzedPage.getAnalysis(analyzedPage.getContents(), false);
-        analysis.performFullPageAnalysis(analysisTime);
+        analysis.performPageAnalysis(elements, analysisTime);
       } catch (Exception e) {
         logCW.error("Error analyzing page {}: {}", analyzedPage.getTitle(), e.getMessage(), e);
         throw e;
@@ -733,19 +1031,74 @@ public class ListCWWorker extends BasicWorker {
     @Override
     public Page call() throws APIException {
       EnumWikipedia wiki = getWikipedia();
-      PageAnalysis analysis = performFullPageAnalysis(page);
+
+      // Reuse detections for the same revision
+      long[] previousDetections = null;
+      long[] pageDetections = null;
+      if (revisionStore != null) {
+        previousDetections = revisionStore.getPreviousDetections(page.getPageId(), page.getRevisionId());
+        if ((previousDetections != null) && RevisionDetectionStore.isEmpty(previousDetections)) {
+          revisionStore.record(page.getPageId(), page.getRevisionId(), previousDetections);
+          countUnchanged.increment();
+          pageAnalyzed();
+          return page;
+        }
+        pageDetections = new long[revisionStore.getWords()];
+      }
+
+      // Select algorithms that may detect an error in the raw text
+      String contents = page.getContents();
+      boolean[] possibleErrors = new boolean[selectedAlgorithms.size()];
+      Set<AnalysisElement> elements = EnumSet.noneOf(AnalysisElement.class);
+      boolean possibleError = false;
+      for (int algorithmIndex = 0; algorithmIndex < selectedAlgorithms.size(); algorithmIndex++) {
+        AlgorithmInformation algorithm = selectedAlgorithms.get(algorithmIndex);
+        if (((previousDetections == null) ||
+             RevisionDetectionStore.isSet(previousDetections, algorithmIndex)) &&
+            !algorithm.algorithm.isInWhiteList(page.getTitle())) {
+          long beginTime = System.nanoTime();
+          if (algorithm.algorithm.isPossibleError(contents)) {
+            possibleErrors[algorithmIndex] = true;
+            possibleError = true;
+            elements.addAll(algorithm.algorithm.getRequiredElements());
+          }
+          long endTime = System.nanoTime();
+          algorithm.addTimeSpent(endTime - beginTime);
+        }
+      }
+
+      // Analyze only what the algorithms need
+      PageAnalysis analysis = null;
+      if (possibleError) {
+        analysis = performPageAnalysis(page, elements);
+      } else {
+        countSkipped.increment();
+      }
       Page currentPage = null;
       PageAnalysis currentAnalysis = null; 
-      for (AlgorithmInformation algorithm : selectedAlgorithms) {
+      for (int algorithmIndex = 0; algorithmIndex < selectedAlgorithms.size(); algorithmIndex++) {
+        AlgorithmInformation algorithm = selectedAlgorithms.get(algorithmIndex);
+        if ((previousDetections != null) &&
+            !RevisionDetectionStore.isSet(previousDetections, algorithmIndex)) {
+          continue;
+        }
         List<CheckErrorResult> errors = new ArrayList<>();
         boolean detected = false;
         if (!algorithm.algorithm.isInWhiteList(page.getTitle())) {
-          long beginTime = System.nanoTime();
-          if (algorithm.algorithm.analyze(analysis, errors, false)) {
-            detected = true;
+          if (possibleErrors[algorithmIndex]) {
+            long beginTime = System.nanoTime();
+            if (algorithm.algorithm.analyze(analysis, errors, false)) {
+              detected = true;
+            }
+            long endTime = System.nanoTime();
+            algorithm.addTimeSpent(endTime - beginTime);
           }
-          long endTime = System.nanoTime();
-          algorithm.addTimeSpent(endTime - beginTime);
+        } else if (pageDetections != null) {
+          // Not analyzed: keep it for the next analysis in case the white list changes
+          RevisionDetectionStore.set(pageDetections, algorithmIndex);
+        }
+        if (detected && (pageDetections != null)) {
+          RevisionDetectionStore.set(pageDetections, algorithmIndex);
         }
         if (detected) {
           boolean detectionConfirmed = false;
@@ -761,7 +1114,8 @@ public class ListCWWorker extends BasicWorker {
                 if (currentPage.getContents().equals(page.getContents())) {
                   currentAnalysis = analysis; 
                 } else {
-                  currentAnalysis = performFullPageAnalysis(currentPage);
+                  currentAnalysis = performPageAnalysis(
+                      currentPage, algorithm.algorithm.getRequiredElements());
                 }
               }
               if (Boolean.FALSE.equals(currentPage.isExisting())) {
@@ -771,7 +1125,7 @@ public class ListCWWorker extends BasicWorker {
               } else {
                 errors.clear();
                 long beginTime = System.nanoTime();
-                if (algorithm.algorithm.analyze(currentAnalysis, errors, false)) {
+                if (AlgorithmError.analyzeIfPossible(algorithm.algorithm, currentAnalysis, errors, false)) {
                   detectionConfirmed = true;
                 }
                 long endTime = System.nanoTime();
@@ -792,19 +1146,34 @@ public class ListCWWorker extends BasicWorker {
                 ": " + algorithm.algorithm.getErrorNumberString() +
                 " - " + algorithm.algorithm.getShortDescription());
             algorithm.addDetection(currentPage, errors);
-            countDetections++;
+            countDetections.increment();
           }
         }
       }
-      countAnalyzed++;
-      if (countAnalyzed % 100000 == 0) {
-        reportProgress();
-      }
-      if (countAnalyzed % 1000 == 0) {
-        setText(GT._T("{0} pages processed", Integer.toString(countAnalyzed)));
+      if (pageDetections != null) {
+        revisionStore.record(page.getPageId(), page.getRevisionId(), pageDetections);
       }
+      pageAnalyzed();
       return page;
     }
+
+    /**
+     * Count an analyzed page and report progress.
+     * 
+     * Only the thread reaching the next step of progress reports it.
+     */
+    private void pageAnalyzed() {
+      countAnalyzed.increment();
+      long next = nextProgress.get();
+      long count = countAnalyzed.sum();
+      if ((count < next) || !nextProgress.compareAndSet(next, next + PROGRESS_INTERVAL)) {
+        return;
+      }
+      if (next % REPORT_INTERVAL == 0) {
+        reportProgress();
+      }
+      setText(GT._T("{0} pages processed", Long.toString(count)));
+    }
   }
 
   /**
@@ -821,14 +1190,17 @@ public class ListCWWorker extends BasicWorker {
     /** Namespaces to be analyzed */
     private final Set<Integer> namespaces;
 
-    /** Controller for background tasks */
-    private final CWController controller;
+    /** Queue of tasks analyzing pages */
+    private final DumpTaskQueue queue;
 
     /** API */
     private final API api;
 
+    /** True if pages should be analyzed directly in the calling thread */
+    private boolean synchronous;
+
     /** Restrict the processing to this list of pages */
-    private List<String> pagesList;
+    private Set<String> pagesList;
 
     /**
      * @param wiki Wiki.
@@ -845,8 +1217,20 @@ public class ListCWWorker extends BasicWorker {
       if (namespaces != null) {
         this.namespaces.addAll(namespaces);
       }
-      this.controller = new CWController(null);
+      Configuration config = Configuration.getConfiguration();
+      this.queue = new DumpTaskQueue(
+          config.getInt(null, ConfigurationValueInteger.INTERROG_THREAD),
+          config.getInt(null, ConfigurationValueInteger.DUMP_QUEUE_PAGES),
+          1000000L * config.getInt(null, ConfigurationValueInteger.DUMP_QUEUE_SIZE));
       this.api = APIFactory.getAPI();
+      this.synchronous = false;
+    }
+
+    /**
+     * @param synchronous True if pages should be analyzed directly in the calling thread.
+     */
+    public void setSynchronous(boolean synchronous) {
+      this.synchronous = synchronous;
     }
 
     /**
@@ -869,11 +1253,9 @@ public class ListCWWorker extends BasicWorker {
       }
       String title = page.getTitle();
       if (pagesList == null) {
-        pagesList = new ArrayList<>();
-      }
-      if (!pagesList.contains(title)) {
-        pagesList.add(title);
+        pagesList = new HashSet<>();
       }
+      pagesList.add(title);
     }
 
     /**
@@ -888,6 +1270,29 @@ public class ListCWWorker extends BasicWorker {
       return namespaces.contains(namespace);
     }
 
+    /**
+     * Tells if the processor should work on a page.
+     * 
+     * @param namespace Namespace.
+     * @param title Page title.
+     * @param redirect True if the page is a redirect.
+     * @return True if the processor should work on the page.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForPage(Integer, String, boolean)
+     */
+    @Override
+    public boolean isForPage(Integer namespace, String title, boolean redirect) {
+      if (!namespaces.contains(namespace)) {
+        return false;
+      }
+      if (!range.contains(namespace, title)) {
+        return false;
+      }
+      if ((pagesList != null) && !pagesList.contains(title)) {
+        return false;
+      }
+      return true;
+    }
+
     /**
      * @param page Page.
      * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
@@ -898,7 +1303,20 @@ public class ListCWWorker extends BasicWorker {
         return;
       }
       if ((pagesList == null) || pagesList.contains(page.getTitle())) {
-        controller.addTask(new CWPageCallable(wiki, listener, api, page));
+        CWPageCallable task = new CWPageCallable(wiki, listener, api, page);
+        if (synchronous) {
+          try {
+            task.call();
+          } catch (APIException e) {
+            logCW.error("Error analyzing page {}: {}", page.getTitle(), e.getMessage());
+          }
+        } else {
+          try {
+            queue.put(page, task);
+          } catch (InterruptedException e) {
+            throw new IllegalStateException("Interrupted while queuing page " + page.getTitle(), e);
+          }
+        }
       }
     }
 
@@ -906,7 +1324,14 @@ public class ListCWWorker extends BasicWorker {
      * @return True if all tasks are completed.
      */
     public boolean hasFinished() {
-      return controller.hasFinished();
+      return queue.hasFinished();
+    }
+
+    /**
+     * Stop the threads analyzing pages.
+     */
+    public void shutdown() {
+      queue.shutdown();
     }
   }
 
@@ -952,6 +1377,21 @@ public class ListCWWorker extends BasicWorker {
       this.maxLevel = tmpLevel;
     }
 
+    /**
+     * @param namespace Namespace.
+     * @param pageName Page name.
+     * @param notices List of notices.
+     * @param maxLevel Maximum level for the errors.
+     */
+    public Detection(
+        Integer namespace, String pageName,
+        List<String> notices, ErrorLevel maxLevel) {
+      this.namespace = namespace;
+      this.pageName = pageName;
+      this.notices = notices;
+      this.maxLevel = maxLevel;
+    }
+
     /**
      * @param o
      * @return
@@ -971,6 +1411,17 @@ public class ListCWWorker extends BasicWorker {
         return 1;
       }
 
+      return compareKey(o);
+    }
+
+    /**
+     * Compare the pages of two detections, without taking the error level into account.
+     *
+     * @param o Other detection.
+     * @return Comparison of the namespaces and then of the page names.
+     */
+    public int compareKey(Detection o) {
+
       // Compare namespaces
       if (namespace == null) {
         if (o.namespace != null) {
@@ -998,6 +1449,76 @@ public class ListCWWorker extends BasicWorker {
     }
   }
 
+  /**
+   * Chunk of the result of an analysis, limited in size to fit in a page.
+   */
+  private static class ResultChunk {
+
+    /** Text of the chunk */
+    private final StringBuilder text;
+
+    /** Maximum size of the chunk in bytes */
+    private final Long maxSize;
+
+    /** Size of the chunk in bytes */
+    private long size;
+
+    /**
+     * @param header Header of the chunk.
+     * @param maxSize Maximum size of the chunk in bytes.
+     */
+    public ResultChunk(String header, Long maxSize) {
+      this.text = new StringBuilder(header);
+      this.maxSize = maxSize;
+      this.size = getSize(header);
+    }
+
+    /**
+     * @param line Line to be added.
+     * @return True if the line has been added, false if it doesn't fit in the chunk.
+     */
+    public boolean append(CharSequence line) {
+      long lineSize = getSize(line);
+      if ((maxSize != null) && (size + lineSize >= maxSize.longValue())) {
+        return false;
+      }
+      text.append(line);
+      size += lineSize;
+      return true;
+    }
+
+    /**
+     * @return Text of the chunk.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+      return text.toString();
+    }
+
+    /**
+     * @param value Text.
+     * @return Size of the text encoded in UTF-8.
+     */
+    static long getSize(CharSequence value) {
+      long result = 0;
+      for (int index = 0; index < value.length(); index++) {
+        char currentChar = value.charAt(index);
+        if (currentChar < 0x80) {
+          result++;
+        } else if (currentChar < 0x800) {
+          result += 2;
+        } else if (Character.isHighSurrogate(currentChar)) {
+          result += 4;
+          index++;
+        } else {
+          result += 3;
+        }
+      }
+      return result;
+    }
+  }
+
   /**
    * Bean for holding information about processing for an algorithm.
    */
@@ -1007,18 +1528,22 @@ public class ListCWWorker extends BasicWorker {
     final CheckErrorAlgorithm algorithm;
 
     /** Errors found. */
-    private final Map<String, Detection> detections;
+    private final DetectionStore detections;
+
+    /** Number of errors found, kept once the errors are cleared. */
+    private long detectionsCount;
 
     /** Time spent in analysis. */
-    private long timeSpent;
+    private final LongAdder timeSpent;
 
     /**
      * @param algorithm Algorithm.
      */
     private AlgorithmInformation(CheckErrorAlgorithm algorithm) {
       this.algorithm = algorithm;
-      this.detections = new HashMap<>();
-      this.timeSpent = 0;
+      this.detections = new DetectionStore("WPCleaner_CW_" + algorithm.getErrorNumberString() + "_");
+      this.detectionsCount = 0;
+      this.timeSpent = new LongAdder();
     }
 
     /**
@@ -1038,30 +1563,52 @@ public class ListCWWorker extends BasicWorker {
     /**
      * @return Errors found.
      */
-    public Map<String, Detection> getDetections() {
+    public DetectionStore getDetections() {
       return detections;
     }
 
+    /**
+     * @return Number of errors found.
+     */
+    public long getDetectionsCount() {
+      return Math.max(detectionsCount, detections.size());
+    }
+
+    /**
+     * Clear errors found once they have been output.
+     */
+    public void clearDetections() {
+      detectionsCount = getDetectionsCount();
+      detections.clear();
+    }
+
     /**
      * @param page Page.
      * @param errors List of errors.
      */
     public void addDetection(Page page, List<CheckErrorResult> errors) {
-      detections.put(page.getTitle(), new Detection(page, errors));
+      detections.add(new Detection(page, errors));
+    }
+
+    /**
+     * @param detection Detection.
+     */
+    public void addDetection(Detection detection) {
+      detections.add(detection);
     }
 
     /**
      * @param time Time spent.
      */
     public void addTimeSpent(long time) {
-      timeSpent += time;
+      timeSpent.add(time);
     }
 
     /**
      * @return Time spent.
      */
     public long getTimeSpent() {
-      return timeSpent;
+      return timeSpent.sum();
     }
   }
 }
@@ -0,0 +1,61 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import org.wikipediacleaner.api.data.Namespace;
+
+
+/**
+ * Range of page titles to work on, shared by the bot workers.
+ *
+ * <p>When the namespace of a page is known, the range only restricts pages
+ * of the main namespace, as the titles of other pages start with their namespace.</p>
+ */
+class PageRange {
+
+  /** Only work on pages with titles after the beginning of the range */
+  private final String begin;
+
+  /** Only work on pages with titles before the end of the range */
+  private final String end;
+
+  /**
+   * @param begin Beginning of the range (null for no restriction).
+   * @param end End of the range (null for no restriction).
+   */
+  PageRange(String begin, String end) {
+    this.begin = begin;
+    this.end = end;
+  }
+
+  /**
+   * @param title Page title, without namespace.
+   * @return True if the page title is in the range.
+   */
+  boolean contains(String title) {
+    if ((begin != null) && (begin.compareTo(title) > 0)) {
+      return false;
+    }
+    if ((end != null) && (end.compareTo(title) < 0)) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * @param namespace Namespace.
+   * @param title Page title, as found in a dump.
+   * @return True if the page is in the range: pages outside the main namespace are always in it.
+   */
+  boolean contains(Integer namespace, String title) {
+    if ((namespace == null) || (namespace.intValue() != Namespace.MAIN)) {
+      return true;
+    }
+    return contains(title);
+  }
+}
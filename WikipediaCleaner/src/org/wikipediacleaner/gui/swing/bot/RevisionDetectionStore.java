@@ -0,0 +1,283 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Store of the detections found for each page revision during a dump analysis.
+ * 
+ * <p>For each page, the store keeps the revision analyzed and a bit set of the
+ * algorithms which detected an error, so that the next analysis can skip pages
+ * whose revision has not changed.
+ * The store is valid only for the same signature (version, algorithms and configuration).</p>
+ */
+class RevisionDetectionStore {
+
+  /** Logger */
+  private final static Logger log = LoggerFactory.getLogger(RevisionDetectionStore.class);
+
+  /** Identifier of the file format */
+  private final static int MAGIC = 0x57504352;
+
+  /** Signature of the analysis */
+  private final String signature;
+
+  /** Number of words in the bit set of each page */
+  private final int words;
+
+  /** Page identifiers from the previous analysis, sorted */
+  private int[] previousPageIds;
+
+  /** Revision identifiers from the previous analysis */
+  private int[] previousRevisionIds;
+
+  /** Detections from the previous analysis */
+  private long[] previousDetections;
+
+  /** Page identifiers for the current analysis */
+  private int[] pageIds;
+
+  /** Revision identifiers for the current analysis */
+  private int[] revisionIds;
+
+  /** Detections for the current analysis */
+  private long[] detections;
+
+  /** Number of pages recorded for the current analysis */
+  private int count;
+
+  /**
+   * @param signature Signature of the analysis.
+   * @param algorithmCount Number of algorithms.
+   */
+  RevisionDetectionStore(String signature, int algorithmCount) {
+    this.signature = signature;
+    this.words = Math.max(1, (algorithmCount + 63) / 64);
+    this.previousPageIds = new int[0];
+    this.previousRevisionIds = new int[0];
+    this.previousDetections = new long[0];
+    this.pageIds = new int[1024];
+    this.revisionIds = new int[1024];
+    this.detections = new long[1024 * words];
+    this.count = 0;
+  }
+
+  /**
+   * @return Number of words in the bit set of each page.
+   */
+  int getWords() {
+    return words;
+  }
+
+  /**
+   * Load the detections of the previous analysis.
+   * 
+   * @param file File containing the detections of the previous analysis.
+   * @return True if the detections have been loaded.
+   */
+  boolean load(File file) {
+    return read(file, false);
+  }
+
+  /**
+   * Restore the detections of the current analysis saved at a checkpoint.
+   * 
+   * @param file File containing the detections saved at the checkpoint.
+   * @return True if the detections have been restored.
+   */
+  boolean restore(File file) {
+    return read(file, true);
+  }
+
+  /**
+   * Read detections from a file.
+   * 
+   * @param file File containing the detections.
+   * @param current True to read the detections of the current analysis,
+   *        false to read the detections of the previous analysis.
+   * @return True if the detections have been read.
+   */
+  private synchronized boolean read(File file, boolean current) {
+    if ((file == null) || !file.isFile()) {
+      return false;
+    }
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+        new GZIPInputStream(new FileInputStream(file))))) {
+      if (input.readInt() != MAGIC) {
+        log.warn("Ignoring revisions file {}: unknown format", file.getName());
+        return false;
+      }
+      String fileSignature = input.readUTF();
+      int fileWords = input.readInt();
+      if (!signature.equals(fileSignature) || (fileWords != words)) {
+        log.info("Ignoring revisions file {}: algorithms or configuration have changed", file.getName());
+        return false;
+      }
+      int fileCount = input.readInt();
+      int[] tmpPageIds = new int[fileCount];
+      int[] tmpRevisionIds = new int[fileCount];
+      long[] tmpDetections = new long[fileCount * words];
+      for (int index = 0; index < fileCount; index++) {
+        tmpPageIds[index] = input.readInt();
+        tmpRevisionIds[index] = input.readInt();
+        for (int word = 0; word < words; word++) {
+          tmpDetections[index * words + word] = input.readLong();
+        }
+      }
+      if (current) {
+        pageIds = Arrays.copyOf(tmpPageIds, Math.max(fileCount, 1024));
+        revisionIds = Arrays.copyOf(tmpRevisionIds, pageIds.length);
+        detections = Arrays.copyOf(tmpDetections, pageIds.length * words);
+        count = fileCount;
+      } else {
+        previousPageIds = tmpPageIds;
+        previousRevisionIds = tmpRevisionIds;
+        previousDetections = tmpDetections;
+      }
+      log.info("Revisions file {} loaded with {} pages", file.getName(), Integer.valueOf(fileCount));
+      return true;
+    } catch (IOException e) {
+      log.error("Error reading revisions file {}", file.getName(), e);
+      return false;
+    }
+  }
+
+  /**
+   * Retrieve the detections of the previous analysis for a page.
+   * 
+   * @param pageId Page identifier.
+   * @param revisionId Revision identifier.
+   * @return Bit set of algorithms which detected an error in the same revision,
+   *         null if the revision has not been analyzed previously.
+   */
+  long[] getPreviousDetections(Integer pageId, Integer revisionId) {
+    if ((pageId == null) || (revisionId == null)) {
+      return null;
+    }
+    int index = Arrays.binarySearch(previousPageIds, pageId.intValue());
+    if ((index < 0) || (previousRevisionIds[index] != revisionId.intValue())) {
+      return null;
+    }
+    return Arrays.copyOfRange(previousDetections, index * words, (index + 1) * words);
+  }
+
+  /**
+   * Record the detections of the current analysis for a page.
+   * 
+   * @param pageId Page identifier.
+   * @param revisionId Revision identifier.
+   * @param pageDetections Bit set of algorithms which detected an error.
+   */
+  synchronized void record(Integer pageId, Integer revisionId, long[] pageDetections) {
+    if ((pageId == null) || (revisionId == null) || (pageDetections == null)) {
+      return;
+    }
+    if (count >= pageIds.length) {
+      int newLength = pageIds.length * 2;
+      pageIds = Arrays.copyOf(pageIds, newLength);
+      revisionIds = Arrays.copyOf(revisionIds, newLength);
+      detections = Arrays.copyOf(detections, newLength * words);
+    }
+    pageIds[count] = pageId.intValue();
+    revisionIds[count] = revisionId.intValue();
+    System.arraycopy(pageDetections, 0, detections, count * words, words);
+    count++;
+  }
+
+  /**
+   * Save the detections of the current analysis.
+   * 
+   * @param file File in which the detections are saved.
+   * @throws IOException Error writing the file.
+   */
+  synchronized void save(File file) throws IOException {
+
+    // Sort pages by identifier (page identifier in high bits, position in low bits)
+    long[] order = new long[count];
+    for (int index = 0; index < count; index++) {
+      order[index] = ((long) pageIds[index] << 32) | index;
+    }
+    Arrays.sort(order);
+
+    // Write to a temporary file
+    File tmpFile = new File(file.getAbsolutePath() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+        new GZIPOutputStream(new FileOutputStream(tmpFile, false))))) {
+      output.writeInt(MAGIC);
+      output.writeUTF(signature);
+      output.writeInt(words);
+      output.writeInt(count);
+      for (long position : order) {
+        int index = (int) position;
+        output.writeInt(pageIds[index]);
+        output.writeInt(revisionIds[index]);
+        for (int word = 0; word < words; word++) {
+          output.writeLong(detections[index * words + word]);
+        }
+      }
+    }
+
+    // Replace the file
+    try {
+      Files.move(
+          tmpFile.toPath(), file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    log.info("Revisions file {} saved with {} pages", file.getName(), Integer.valueOf(count));
+  }
+
+  /**
+   * @param pageDetections Bit set of algorithms.
+   * @param algorithm Index of the algorithm.
+   * @return True if the bit is set for the algorithm.
+   */
+  static boolean isSet(long[] pageDetections, int algorithm) {
+    return (pageDetections[algorithm >> 6] & (1L << (algorithm & 63))) != 0;
+  }
+
+  /**
+   * @param pageDetections Bit set of algorithms.
+   * @param algorithm Index of the algorithm.
+   */
+  static void set(long[] pageDetections, int algorithm) {
+    pageDetections[algorithm >> 6] |= 1L << (algorithm & 63);
+  }
+
+  /**
+   * @param pageDetections Bit set of algorithms.
+   * @return True if no bit is set.
+   */
+  static boolean isEmpty(long[] pageDetections) {
+    for (long word : pageDetections) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
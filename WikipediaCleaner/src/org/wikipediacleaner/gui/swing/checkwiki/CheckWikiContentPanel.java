@@ -340,7 +340,8 @@ public class CheckWikiContentPanel
     textPage.setModified(false);
     PageAnalysis pageAnalysis = page.getAnalysis(textPage.getText(), true);
     List<CheckErrorPage> errorsFound = AlgorithmError.analyzeErrors(
-        window.allAlgorithms, pageAnalysis, false);
+        window.allAlgorithms, pageAnalysis, false,
+        pageAnalysis.getContents().length() >= AlgorithmError.PARALLEL_ALGORITHMS_MIN_LENGTH);
     modelErrors.clear();
     initialErrors = new ArrayList<CheckErrorPage>();
     boolean errorFound = false;
@@ -802,7 +803,8 @@ public class CheckWikiContentPanel
     // Check for new errors
     PageAnalysis pageAnalysis = page.getAnalysis(textPage.getText(), true);
     List<CheckErrorPage> errorsFound = AlgorithmError.analyzeErrors(
-        window.allAlgorithms, pageAnalysis, false);
+        window.allAlgorithms, pageAnalysis, false,
+        pageAnalysis.getContents().length() >= AlgorithmError.PARALLEL_ALGORITHMS_MIN_LENGTH);
     if (errorsFound != null) {
       for (CheckErrorPage tmpError : errorsFound) {
         boolean errorFound = false;
@@ -893,4 +895,4 @@ public class CheckWikiContentPanel
   public void pageDeleted(String pageName) {
     pane.remove(this);
   }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -456,7 +456,7 @@ public class MWPaneDisambiguationFormatter extends
   private Page findPage(String pagename) {
     if (links != null) {
       for (Page page : links) {
-        if (Page.areSameTitle(page.getTitle(), pagename)) {
+        if (Page.areSameTitle(page.getWikipedia(), page.getTitle(), pagename)) {
           return page;
         }
       }
@@ -32,8 +32,8 @@ import org.wikipediacleaner.api.data.PageElementTable;
 import org.wikipediacleaner.api.data.PageElementTag;
 import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.PageElementTitle;
+import org.wikipediacleaner.api.data.analysis.Areas;
 import org.wikipediacleaner.api.data.analysis.PageAnalysis;
-import org.wikipediacleaner.api.data.analysis.Areas.Area;
 import org.wikipediacleaner.api.data.contents.ContentsElement;
 import org.wikipediacleaner.api.data.contents.comment.ContentsComment;
 import org.wikipediacleaner.utils.Configuration;
@@ -207,11 +207,11 @@ public abstract class MWPaneFormatter {
       return;
     }
     Style style = doc.getStyle(ConfigurationValueStyle.COMMENTS.getName());
-    List<Area> areas = analysis.getAreas().getAreas();
+    Areas areas = analysis.getAreas();
     if (areas != null) {
-      for (Area area : areas) {
-        int beginIndex = area.getBeginIndex();
-        int endIndex = area.getEndIndex();
+      for (int area = 0; area < areas.getAreaCount(); area++) {
+        int beginIndex = areas.getAreaBeginIndex(area);
+        int endIndex = areas.getAreaEndIndex(area);
         doc.setCharacterAttributes(
             beginIndex, endIndex - beginIndex,
             style, true);
@@ -357,7 +357,7 @@ public abstract class MWPaneFormatter {
       // Find link target
       Page target = null;
       for (Page tmpPage : analysis.getPage().getLinks()) {
-        if (Page.areSameTitle(tmpPage.getTitle(), link.getLink())) {
+        if (Page.areSameTitle(tmpPage.getWikipedia(), tmpPage.getTitle(), link.getLink())) {
           target = tmpPage;
         }
       }
@@ -66,7 +66,7 @@ public class PageListAnalyzeListener extends MouseAdapter {
         PageRedirect redirects = backLink.getRedirects();
         if ((redirects != null) &&
             (redirects.isRedirect()) &&
-            (Page.areSameTitle(basePage.getTitle(), redirects.getTitle()))) {
+            (Page.areSameTitle(basePage.getWikipedia(), basePage.getTitle(), redirects.getTitle()))) {
           knownPages.add(backLink);
         }
       }
@@ -11,16 +11,20 @@ import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.util.Vector;
 
 import javax.swing.BorderFactory;
+import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.SwingConstants;
 
+import org.wikipediacleaner.api.data.SuggestionProfile;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.i18n.GT;
 import org.wikipediacleaner.utils.ConfigurationValueInteger;
+import org.wikipediacleaner.utils.ConfigurationValueString;
 
 
 /**
@@ -217,6 +221,43 @@ public class LimitOptionsPanel extends OptionsPanel {
     add(spin, constraints);
     constraints.gridy++;
 
+    // Add time budget for regular expressions
+    spin = createJSpinner(
+        ConfigurationValueInteger.REGEXP_BUDGET,
+        0, 1000000, 1000);
+    JLabel labelRegexpBudget = Utilities.createJLabel(GT._T("Time budget for a regular expression on a page (ms)"));
+    labelRegexpBudget.setLabelFor(spin);
+    labelRegexpBudget.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelRegexpBudget, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(spin, constraints);
+    constraints.gridy++;
+
+    // Order of the report on regular expressions
+    Vector<String> orders = new Vector<String>();
+    for (SuggestionProfile.Order order : SuggestionProfile.Order.values()) {
+      orders.add(order.name());
+    }
+    JComboBox<String> cmbReportOrder = createJComboBox(
+        ConfigurationValueString.REGEXP_REPORT_ORDER, orders);
+    JLabel labelReportOrder = Utilities.createJLabel(GT._T("Order of the report on regular expressions"));
+    labelReportOrder.setLabelFor(cmbReportOrder);
+    labelReportOrder.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelReportOrder, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(cmbReportOrder, constraints);
+    constraints.gridy++;
+
     // Maximum number of category members
     spin = createJSpinner(
         ConfigurationValueInteger.MAX_CATEGORY_MEMBERS,
@@ -41,6 +41,7 @@ public enum ConfigurationValueBoolean {
   DEBUG_FILE("DebugFile", false),
   DEBUG_TIME("DebugTime", false),
   DEBUG_URL("DebugURL", true),
+  DUMP_BYTE_SCANNER("DumpByteScanner", false),
   DUMP_CHECK_WIKI("DumpCheckWiki", false),
   DUMP_ON_WIKI("DumpOnWiki", false),
   FORCE_HTTP_API("ForceHttpApi", false),
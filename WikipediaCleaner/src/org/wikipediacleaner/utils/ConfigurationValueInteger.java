@@ -20,6 +20,12 @@ public enum ConfigurationValueInteger {
   CHECK_BOT_NB_PAGES("CheckBotNbPages", 100),
   CHECK_NB_ERRORS("CheckNbErrors", 100),
   CONFIG_VERSION("ConfigurationVersion", 1),
+  DUMP_CHECKPOINT_INTERVAL("DumpCheckpointInterval", 600),
+  DUMP_DECOMPRESSION_THREADS("DumpDecompressionThreads", 0),
+  DUMP_DETECTIONS_MEMORY("DumpDetectionsMemory", 200000),
+  DUMP_PIPELINE_THREADS("DumpPipelineThreads", 0),
+  DUMP_QUEUE_PAGES("DumpQueuePages", 1000),
+  DUMP_QUEUE_SIZE("DumpQueueSize", 200),
   EDITOR_FONT_SIZE("EditorFontSize", 12),
   FONT_SIZE("FontSize", 0),
   INTERROG_THREAD("InterrogationThreads", 30),
@@ -35,6 +41,7 @@ public enum ConfigurationValueInteger {
   MAX_SEARCH("MaxSearch", 1000),
   MENU_SIZE("MenuSize", 30),
   PLAF_TYPE("LookAndFeelType", ConfigurationConstants.VALUE_PLAF_TYPE_WPCLEANER),
+  REGEXP_BUDGET("RegexpBudget", 0),
   SAVE_USER("SaveUser", ConfigurationConstants.VALUE_SAVE_USER_NAME),
   SLOW_REGEXP("SlowRegexp", 1000),
   SYNTAX_HIGHLIGHTING_LIMIT("SyntaxHighlightingLimit", 40000),
@@ -31,6 +31,7 @@ public enum ConfigurationValueString {
   PAGE_NAME("PageName", null),
   PASSWORD("Password", null),
   PLAF_NAME("LookAndFeelName", "Metal"),
+  REGEXP_REPORT_ORDER("RegexpReportOrder", "TOTAL_TIME"),
   SIGNATURE("Signature", "--~~~~"),
   USER_NAME("UserName", null);
 
@@ -0,0 +1,124 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.utils;
+
+
+/**
+ * Character sequence for matching regular expressions with a time budget.
+ *
+ * <p>Regular expression matching can't be interrupted, but it accesses the text
+ * through {@link #charAt(int)}: the time budget is checked regularly there,
+ * and the number of characters accessed is counted to detect excessive backtracking.</p>
+ */
+public class InterruptibleCharSequence implements CharSequence {
+
+  /** Mask for checking the time budget every 4096 character accesses */
+  private final static long CHECK_MASK = 0xFFF;
+
+  /** Text */
+  private final CharSequence text;
+
+  /** Number of character accesses */
+  private long accessCount;
+
+  /** True if there's a time budget */
+  private boolean budgeted;
+
+  /** Deadline (in ns, compared with {@link System#nanoTime()}) */
+  private long deadline;
+
+  /**
+   * @param text Text.
+   */
+  public InterruptibleCharSequence(CharSequence text) {
+    this.text = text;
+    this.accessCount = 0;
+    this.budgeted = false;
+    this.deadline = 0;
+  }
+
+  /**
+   * Start a new time budget.
+   *
+   * @param budget Time budget (in ms), 0 for no time budget.
+   */
+  public void start(long budget) {
+    accessCount = 0;
+    budgeted = (budget > 0);
+    deadline = budgeted ? System.nanoTime() + budget * 1000000L : 0;
+  }
+
+  /**
+   * @return Number of character accesses since the time budget has been started.
+   */
+  public long getAccessCount() {
+    return accessCount;
+  }
+
+  /**
+   * @param index Index of the character.
+   * @return Character at the index.
+   * @throws BudgetExceededException if the time budget is exceeded.
+   * @see java.lang.CharSequence#charAt(int)
+   */
+  @Override
+  public char charAt(int index) {
+    accessCount++;
+    if (budgeted &&
+        ((accessCount & CHECK_MASK) == 0) &&
+        (System.nanoTime() - deadline > 0)) {
+      throw new BudgetExceededException();
+    }
+    return text.charAt(index);
+  }
+
+  /**
+   * @return Length of the text.
+   * @see java.lang.CharSequence#length()
+   */
+  @Override
+  public int length() {
+    return text.length();
+  }
+
+  /**
+   * @param start Begin index.
+   * @param end End index.
+   * @return Sub-sequence of the text.
+   * @see java.lang.CharSequence#subSequence(int, int)
+   */
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return text.subSequence(start, end);
+  }
+
+  /**
+   * @return Text.
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return text.toString();
+  }
+
+  /**
+   * Exception thrown when the time budget is exceeded.
+   */
+  public static class BudgetExceededException extends RuntimeException {
+
+    /** Serialization */
+    private static final long serialVersionUID = 2836412530197584213L;
+
+    /**
+     * Constructor.
+     */
+    public BudgetExceededException() {
+      super("Time budget exceeded");
+    }
+  }
+}
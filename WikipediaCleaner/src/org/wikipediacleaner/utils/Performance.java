@@ -198,6 +198,17 @@ public class Performance {
     lastTime = time;
   }
 
+  /**
+   * Print a step message for a duration measured separately, for example in an other thread.
+   * 
+   * @param message Message to be printed.
+   * @param duration Duration of the step (in ns).
+   */
+  public void printStep(String message, long duration) {
+    printMessage("(" + (highPrecision ? duration : duration / 1000000) + unit + ") " + message);
+    lastTime = currentTime();
+  }
+
   /**
    * Start measuring time for a part of the execution.
    */
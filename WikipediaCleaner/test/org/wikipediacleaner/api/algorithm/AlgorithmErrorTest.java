@@ -0,0 +1,197 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.algorithm;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.check.CheckErrorPage;
+import org.wikipediacleaner.api.check.CheckErrorResult;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+import org.wikipediacleaner.api.data.analysis.AnalysisElement;
+import org.wikipediacleaner.api.data.analysis.PageAnalysis;
+import org.wikipediacleaner.api.data.analysis.PageAnalysisUtils;
+
+
+/**
+ * Test class for running algorithms on a page.
+ */
+public class AlgorithmErrorTest {
+
+  /** Priorities of the algorithms before the test */
+  private int[] priorities;
+
+  /**
+   * Activate all algorithms on the test wiki.
+   */
+  @Before
+  public void beforeTest() throws APIException {
+    priorities = AlgorithmUtils.activateAllAlgorithms(EnumWikipediaUtils.getEN());
+  }
+
+  /**
+   * Restore the priorities of the algorithms on the test wiki.
+   */
+  @After
+  public void afterTest() throws APIException {
+    AlgorithmUtils.restorePriorities(EnumWikipediaUtils.getEN(), priorities);
+    priorities = null;
+  }
+
+  /**
+   * Test running algorithms in parallel on big pages.
+   */
+  @Test
+  public void testParallelAnalysis() {
+    checkParallelAnalysis("PageAnalysisTest_en_2020_in_science");
+    checkParallelAnalysis("PageAnalysisTest_en_Windows_10_version_history");
+  }
+
+  /**
+   * Test running algorithms with only the elements they require on big pages.
+   */
+  @Test
+  public void testRequiredElements() {
+    checkRequiredElements("PageAnalysisTest_en_2020_in_science");
+    checkRequiredElements("PageAnalysisTest_en_Windows_10_version_history");
+  }
+
+  /**
+   * Test skipping a page that can't contain errors.
+   */
+  @Test
+  public void testPossibleErrors() {
+    EnumWikipedia wiki = EnumWikipediaUtils.getEN();
+    List<CheckErrorAlgorithm> algorithms = new ArrayList<>();
+    for (CheckErrorAlgorithm algorithm : AlgorithmUtils.getTestedAlgorithms(wiki)) {
+      if (algorithm.getRequiredElements() != AnalysisElement.ALL) {
+        algorithms.add(algorithm);
+      }
+    }
+    assertFalse(algorithms.isEmpty());
+
+    // Raw text without any markup
+    String contents = "A simple text without any markup.";
+    assertTrue(AlgorithmError.getRequiredElements(algorithms, contents).isEmpty());
+    for (CheckErrorAlgorithm algorithm : algorithms) {
+      assertFalse(algorithm.isPossibleError(contents));
+    }
+
+    // Text with a tag and an entity
+    contents = "A text with a <P>paragraph</P> and a &dagger; symbol.";
+    Set<AnalysisElement> elements = AlgorithmError.getRequiredElements(algorithms, contents);
+    assertTrue(elements.contains(AnalysisElement.TAGS));
+    assertTrue(elements.contains(AnalysisElement.EXTERNAL_LINKS));
+    assertFalse(elements.contains(AnalysisElement.AREAS));
+  }
+
+  /**
+   * Compare running algorithms after a full analysis
+   * and after an analysis restricted to the elements they require.
+   *
+   * @param fileName File name.
+   */
+  private void checkRequiredElements(String fileName) {
+    EnumWikipedia wiki = EnumWikipediaUtils.getEN();
+    PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(wiki, fileName);
+    String contents = analysis.getContents();
+    int count = 0;
+    for (CheckErrorAlgorithm algorithm : AlgorithmUtils.getTestedAlgorithms(wiki)) {
+      Set<AnalysisElement> elements = algorithm.getRequiredElements();
+      if (elements == AnalysisElement.ALL) {
+        continue;
+      }
+      count++;
+      List<CheckErrorResult> expected = new ArrayList<>();
+      boolean expectedFound = algorithm.analyze(analysis, expected, false);
+      if (!algorithm.isPossibleError(contents)) {
+        assertFalse(expectedFound);
+      }
+
+      // Analysis restricted to the required elements
+      PageAnalysis restrictedAnalysis = new PageAnalysis(analysis.getPage(), contents);
+      long beginTime = System.nanoTime();
+      restrictedAnalysis.performPageAnalysis(elements, null);
+      long restrictedTime = System.nanoTime() - beginTime;
+      List<CheckErrorResult> errors = new ArrayList<>();
+      boolean found = AlgorithmError.analyzeIfPossible(algorithm, restrictedAnalysis, errors, false);
+      System.out.println(
+          "Algorithm " + algorithm.getErrorNumberString() + " on " + fileName + ": " +
+          elements + ", " + (restrictedTime / 1000000) + " ms for the analysis");
+
+      // Compare results
+      assertEquals(expectedFound, found);
+      assertEquals(expected.size(), errors.size());
+      for (int index = 0; index < expected.size(); index++) {
+        assertEquals(expected.get(index).getStartPosition(), errors.get(index).getStartPosition());
+        assertEquals(expected.get(index).getEndPosition(), errors.get(index).getEndPosition());
+        assertEquals(expected.get(index).getErrorLevel(), errors.get(index).getErrorLevel());
+      }
+    }
+    assertTrue(count > 0);
+  }
+
+  /**
+   * Compare running algorithms sequentially and in parallel on a page.
+   *
+   * @param fileName File name.
+   */
+  private void checkParallelAnalysis(String fileName) {
+    EnumWikipedia wiki = EnumWikipediaUtils.getEN();
+    PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(wiki, fileName);
+    List<CheckErrorAlgorithm> algorithms = AlgorithmUtils.getTestedAlgorithms(wiki);
+
+    // Sequential analysis
+    long beginTime = System.nanoTime();
+    List<CheckErrorPage> expected = AlgorithmError.analyzeErrors(algorithms, analysis, false, false);
+    long sequentialTime = System.nanoTime() - beginTime;
+
+    // Parallel analysis
+    PageAnalysis parallelAnalysis = PageAnalysisUtils.analyzeAndTestPage(wiki, fileName);
+    beginTime = System.nanoTime();
+    List<CheckErrorPage> errors = AlgorithmError.analyzeErrors(algorithms, parallelAnalysis, false, true);
+    long parallelTime = System.nanoTime() - beginTime;
+    assertTrue(parallelAnalysis.isFrozen());
+
+    // Display performance
+    System.out.println(
+        "Algorithms on " + fileName + ": " + algorithms.size() + " algorithms, " +
+        expected.size() + " errors, " +
+        (sequentialTime / 1000000) + " ms sequential, " +
+        (parallelTime / 1000000) + " ms parallel");
+
+    // Compare results
+    assertEquals(expected.size(), errors.size());
+    for (int index = 0; index < expected.size(); index++) {
+      CheckErrorPage expectedPage = expected.get(index);
+      CheckErrorPage errorPage = errors.get(index);
+      assertSame(expectedPage.getAlgorithm(), errorPage.getAlgorithm());
+      assertEquals(expectedPage.getResultsCount(), errorPage.getResultsCount());
+      for (int result = 0; result < expectedPage.getResultsCount(); result++) {
+        CheckErrorResult expectedResult = expectedPage.getResults().get(result);
+        CheckErrorResult errorResult = errorPage.getResults().get(result);
+        assertEquals(expectedResult.getStartPosition(), errorResult.getStartPosition());
+        assertEquals(expectedResult.getEndPosition(), errorResult.getEndPosition());
+        assertEquals(expectedResult.getErrorLevel(), errorResult.getErrorLevel());
+      }
+    }
+
+    // Results must be memorized in the analysis
+    List<CheckErrorPage> cached = AlgorithmError.analyzeErrors(algorithms, parallelAnalysis, false, true);
+    assertEquals(errors.size(), cached.size());
+  }
+}
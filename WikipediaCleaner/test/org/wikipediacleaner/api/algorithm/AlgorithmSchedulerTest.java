@@ -0,0 +1,149 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.algorithm;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.check.CheckErrorPage;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
+import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+import org.wikipediacleaner.api.data.analysis.PageAnalysis;
+import org.wikipediacleaner.api.data.analysis.PageAnalysisUtils;
+
+
+/**
+ * Test class for the scheduler of algorithms.
+ */
+public class AlgorithmSchedulerTest {
+
+  /** Priorities of the algorithms before the test */
+  private int[] priorities;
+
+  /**
+   * Activate all algorithms on the test wiki.
+   */
+  @Before
+  public void beforeTest() throws APIException {
+    priorities = AlgorithmUtils.activateAllAlgorithms(EnumWikipediaUtils.getEN());
+  }
+
+  /**
+   * Restore the priorities of the algorithms on the test wiki.
+   */
+  @After
+  public void afterTest() throws APIException {
+    AlgorithmUtils.restorePriorities(EnumWikipediaUtils.getEN(), priorities);
+    priorities = null;
+  }
+
+  /**
+   * Test ordering algorithms with their statistics.
+   */
+  @Test
+  public void testOrder() {
+    List<CheckErrorAlgorithm> algorithms = AlgorithmUtils.getTestedAlgorithms(EnumWikipediaUtils.getEN());
+    assertTrue(algorithms.size() >= 4);
+    CheckErrorAlgorithm expensive = algorithms.get(0);
+    CheckErrorAlgorithm unselective = algorithms.get(1);
+    CheckErrorAlgorithm cheap = algorithms.get(2);
+    CheckErrorAlgorithm unknown = algorithms.get(3);
+
+    AlgorithmScheduler scheduler = new AlgorithmScheduler();
+    for (int count = 0; count < 100; count++) {
+      scheduler.record(expensive.getErrorNumber(), 1000000L, (count % 2) == 0);
+      scheduler.record(unselective.getErrorNumber(), 1000L, false);
+      scheduler.record(cheap.getErrorNumber(), 1000L, (count % 2) == 0);
+    }
+    List<CheckErrorAlgorithm> ordered = scheduler.order(algorithms.subList(0, 4));
+    assertSame(unknown, ordered.get(0));
+    assertSame(cheap, ordered.get(1));
+    assertSame(unselective, ordered.get(2));
+    assertSame(expensive, ordered.get(3));
+
+    // Statistics are halved to follow changes
+    for (long count = 0; count < AlgorithmScheduler.MAX_COUNT; count++) {
+      scheduler.record(unknown.getErrorNumber(), 1000L, false);
+    }
+    String[] values = scheduler.getProperties().getProperty(Integer.toString(unknown.getErrorNumber())).split(",");
+    assertTrue(Long.parseLong(values[0]) <= AlgorithmScheduler.MAX_COUNT);
+  }
+
+  /**
+   * Test persisting the statistics.
+   */
+  @Test
+  public void testProperties() {
+    AlgorithmScheduler scheduler = new AlgorithmScheduler();
+    scheduler.record(1, 2000L, true);
+    scheduler.record(1, 4000L, false);
+    scheduler.record(2, 5000L, false);
+    Properties properties = scheduler.getProperties();
+    assertEquals("2,6000,1", properties.getProperty("1"));
+    assertEquals("1,5000,0", properties.getProperty("2"));
+
+    properties.setProperty("3", "incorrect");
+    properties.setProperty("4", "1,100,2");
+    properties.setProperty("five", "1,100,0");
+    AlgorithmScheduler restored = new AlgorithmScheduler();
+    restored.setProperties(properties);
+    assertEquals(scheduler.getExpectedCost(1), restored.getExpectedCost(1), 0.001);
+    assertEquals(scheduler.getExpectedCost(2), restored.getExpectedCost(2), 0.001);
+    assertEquals(0, restored.getExpectedCost(3), 0.001);
+    assertEquals(0, restored.getExpectedCost(4), 0.001);
+  }
+
+  /**
+   * Test that the detection gives the same answer as a full analysis.
+   */
+  @Test
+  public void testFindFirstDetected() {
+    List<CheckErrorAlgorithm> algorithms = AlgorithmUtils.getTestedAlgorithms(EnumWikipediaUtils.getEN());
+    AlgorithmScheduler scheduler = new AlgorithmScheduler();
+    String[] fileNames = {
+        "PageAnalysisTest_en_2020_in_science",
+        "PageAnalysisTest_en_Windows_10_version_history" };
+    for (int run = 0; run < 2; run++) {
+      for (String fileName : fileNames) {
+        PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(EnumWikipediaUtils.getEN(), fileName);
+        long beginTime = System.nanoTime();
+        CheckErrorAlgorithm detected = scheduler.findFirstDetected(algorithms, analysis, true);
+        long detectionTime = System.nanoTime() - beginTime;
+        PageAnalysis fullAnalysis = PageAnalysisUtils.analyzeAndTestPage(EnumWikipediaUtils.getEN(), fileName);
+        beginTime = System.nanoTime();
+        List<CheckErrorPage> errors = AlgorithmError.analyzeErrors(algorithms, fullAnalysis, true);
+        long fullTime = System.nanoTime() - beginTime;
+        System.out.println(
+            "Detection on " + fileName + " (run " + (run + 1) + "): " +
+            (detectionTime / 1000000) + " ms with scheduler, " +
+            (fullTime / 1000000) + " ms with all algorithms");
+        assertEquals(!errors.isEmpty(), detected != null);
+        if (detected != null) {
+          boolean found = false;
+          for (CheckErrorPage error : errors) {
+            found |= (error.getAlgorithm() == detected);
+          }
+          assertTrue(found);
+
+          // Detection is memorized, but doesn't hide the list of errors
+          assertNotNull(analysis.getCheckWikiErrors(detected.getErrorNumber()));
+          assertTrue(scheduler.isDetected(detected, analysis, true));
+          CheckErrorPage errorPage = AlgorithmError.analyzeError(detected, analysis);
+          assertTrue(errorPage.getErrorFound());
+          assertTrue(errorPage.getResultsCount() > 0);
+        }
+      }
+    }
+  }
+}
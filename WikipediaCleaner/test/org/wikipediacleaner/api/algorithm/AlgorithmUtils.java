@@ -0,0 +1,96 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.algorithm;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithms;
+import org.wikipediacleaner.api.configuration.CWConfiguration;
+import org.wikipediacleaner.api.configuration.CWConfigurationError;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+
+/**
+ * Utility class.
+ */
+public class AlgorithmUtils {
+
+  /**
+   * Algorithms requiring magic words missing from the configuration of the test wiki.
+   */
+  private final static Set<Integer> UNSUPPORTED_ALGORITHMS = new HashSet<>(Arrays.asList(
+      Integer.valueOf(10), Integer.valueOf(505), Integer.valueOf(523)));
+
+  private AlgorithmUtils() {
+  }
+
+  /**
+   * Activate all algorithms on a wiki.
+   *
+   * @param wiki Wiki.
+   * @return Priorities of the algorithms before activating them, by error number.
+   * @throws APIException Error with the configuration.
+   */
+  public static int[] activateAllAlgorithms(EnumWikipedia wiki) throws APIException {
+    CWConfiguration configuration = wiki.getCWConfiguration();
+    int[] priorities = new int[CWConfiguration.MAX_ERROR_NUMBER + 1];
+    StringBuilder cwConfiguration = new StringBuilder();
+    for (int errorNumber = 1; errorNumber <= CWConfiguration.MAX_ERROR_NUMBER; errorNumber++) {
+      CWConfigurationError error = configuration.getErrorConfiguration(errorNumber);
+      priorities[errorNumber] = (error != null) ? error.getPriority() : CWConfigurationError.PRIORITY_UNKOWN;
+      cwConfiguration.append(String.format(" error_%03d_prio_enwiki=3 END\r\n", errorNumber));
+    }
+    configuration.setWikiConfiguration(new StringReader(cwConfiguration.toString()));
+    CheckErrorAlgorithms.initializeAlgorithms(wiki);
+    return priorities;
+  }
+
+  /**
+   * Restore the priorities of the algorithms on a wiki.
+   *
+   * @param wiki Wiki.
+   * @param priorities Priorities of the algorithms, by error number.
+   * @throws APIException Error with the configuration.
+   */
+  public static void restorePriorities(EnumWikipedia wiki, int[] priorities) throws APIException {
+    if (priorities == null) {
+      return;
+    }
+    StringBuilder cwConfiguration = new StringBuilder();
+    for (int errorNumber = 1; errorNumber < priorities.length; errorNumber++) {
+      int priority = priorities[errorNumber];
+      cwConfiguration.append(String.format(
+          " error_%03d_prio_enwiki=%s END\r\n", errorNumber,
+          (priority != CWConfigurationError.PRIORITY_UNKOWN) ? Integer.toString(priority) : ""));
+    }
+    wiki.getCWConfiguration().setWikiConfiguration(new StringReader(cwConfiguration.toString()));
+    CheckErrorAlgorithms.initializeAlgorithms(wiki);
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @return Algorithms working with the configuration of the test wiki.
+   */
+  public static List<CheckErrorAlgorithm> getTestedAlgorithms(EnumWikipedia wiki) {
+    List<CheckErrorAlgorithm> algorithms = new ArrayList<>();
+    for (CheckErrorAlgorithm algorithm : CheckErrorAlgorithms.getAlgorithms(wiki)) {
+      if ((algorithm != null) &&
+          !UNSUPPORTED_ALGORITHMS.contains(Integer.valueOf(algorithm.getErrorNumber()))) {
+        algorithms.add(algorithm);
+      }
+    }
+    return algorithms;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.configuration;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.data.MagicWord;
+
+
+/**
+ * Test class for wiki configuration.
+ */
+public class WikiConfigurationTest {
+
+  /**
+   * Test finding magic words by alias.
+   */
+  @Test
+  public void testMagicWords() {
+    Map<String, MagicWord> magicWords = new HashMap<>();
+    addMagicWord(magicWords, MagicWord.DEFAULT_SORT, false, "DEFAULTSORT:", "DEFAULTSORTKEY:");
+    addMagicWord(magicWords, MagicWord.IF, false, "if");
+    addMagicWord(magicWords, MagicWord.PAGE_NAME, true, "PAGENAME");
+    addMagicWord(magicWords, MagicWord.IMG_ALT, true, "alt=$1");
+    addMagicWord(magicWords, MagicWord.IMG_THUMBNAIL, true, "thumb", "thumbnail");
+    addMagicWord(magicWords, MagicWord.IMG_WIDTH, true, "$1px");
+    addMagicWord(magicWords, MagicWord.IMG_UPRIGHT, true, "upright", "upright=$1", "upright $1");
+    addMagicWord(magicWords, MagicWord.IMG_PAGE, true, "page=$1", "page (.)$1");
+    WikiConfiguration config = new WikiConfiguration();
+    config.setMagicWords(magicWords);
+
+    // Aliases without parameter
+    assertSame(magicWords.get(MagicWord.DEFAULT_SORT), config.getMagicWordByAlias("defaultSort:"));
+    assertSame(magicWords.get(MagicWord.PAGE_NAME), config.getMagicWordByAlias("PAGENAME"));
+    assertNull(config.getMagicWordByAlias("PageName"));
+    assertSame(magicWords.get(MagicWord.IF), config.getFunctionMagicWord("#IF", true));
+    assertSame(magicWords.get(MagicWord.DEFAULT_SORT), config.getFunctionMagicWord("DEFAULTSORT", true));
+    assertNull(config.getFunctionMagicWord("DEFAULTSORT", false));
+    assertSame(magicWords.get(MagicWord.IMG_THUMBNAIL), config.getImgMagicWord("thumbnail"));
+    assertNull(config.getImgMagicWord("Thumbnail"));
+
+    // Aliases with a parameter
+    assertSame(magicWords.get(MagicWord.IMG_ALT), config.getImgMagicWord("alt="));
+    assertSame(magicWords.get(MagicWord.IMG_ALT), config.getImgMagicWord("alt=Text"));
+    assertNull(config.getImgMagicWord("alt=Multi\nline"));
+    assertSame(magicWords.get(MagicWord.IMG_WIDTH), config.getImgMagicWord("200px"));
+    assertSame(magicWords.get(MagicWord.IMG_WIDTH), config.getMagicWordByAlias("px"));
+    assertSame(magicWords.get(MagicWord.IMG_UPRIGHT), config.getImgMagicWord("upright=1.2"));
+    assertSame(magicWords.get(MagicWord.IMG_PAGE), config.getImgMagicWord("page x2"));
+    assertNull(config.getImgMagicWord("Upright=1.2"));
+    assertNull(config.getFunctionMagicWord("200px", true));
+
+    // Patterns for the parameter
+    MagicWord alt = magicWords.get(MagicWord.IMG_ALT);
+    assertTrue(alt.isPossibleAlias("alt=", ".*"));
+    assertFalse(alt.isPossibleAlias("alt=", ".+"));
+    assertTrue(alt.isPossibleAlias("alt=a", ".+"));
+    assertTrue(alt.isPossibleAlias("alt=12", "\\d+"));
+    assertFalse(alt.isPossibleAlias("alt=a", "\\d+"));
+  }
+
+  /**
+   * @param magicWords Magic words.
+   * @param name Magic word name.
+   * @param caseSensitive True if case sensitiveness is needed.
+   * @param aliases Magic word aliases.
+   */
+  private static void addMagicWord(
+      Map<String, MagicWord> magicWords, String name,
+      boolean caseSensitive, String... aliases) {
+    magicWords.put(name, new MagicWord(name, Arrays.asList(aliases), caseSensitive));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.configuration.WikiConfiguration;
+import org.wikipediacleaner.api.constants.EnumCaseSensitiveness;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+
+
+/**
+ * Test class for page.
+ */
+public class PageTest {
+
+  /**
+   * Test normalization of titles.
+   */
+  @Test
+  public void testNormalizeTitle() {
+    assertNull(Page.normalizeTitle(null));
+    assertEquals("", Page.normalizeTitle(""));
+    assertEquals("", Page.normalizeTitle(" _\u00A0\u200E "));
+    assertEquals("Test", Page.normalizeTitle("test"));
+    assertEquals("Test page", Page.normalizeTitle("  test__ \u00A0page_\u200E "));
+    assertEquals("Test\u200E", Page.normalizeTitle("test\u200E_"));
+    assertEquals("Test page", Page.normalizeTitle("test page"));
+    assertEquals("test page", Page.normalizeTitle("test_page", EnumCaseSensitiveness.CASE_SENSITIVE));
+
+    // Nothing to normalize
+    String title = "Test page";
+    assertSame(title, Page.normalizeTitle(title));
+
+    // Shared normalized titles
+    String interned = Page.normalizeAndInternTitle("Interned_title");
+    assertEquals("Interned title", interned);
+    assertSame(interned, Page.normalizeAndInternTitle("interned title"));
+    assertSame(interned, Page.normalizeAndInternTitle("Interned title"));
+  }
+
+  /**
+   * Test normalization of titles with the case sensitiveness of the wiki.
+   */
+  @Test
+  public void testNormalizeTitleWiki() {
+    EnumWikipedia wiki = EnumWikipediaUtils.getEN();
+    WikiConfiguration config = wiki.getWikiConfiguration();
+    List<Namespace> namespaces = new ArrayList<>(config.getNamespaces());
+    try {
+      assertTrue(Page.areSameTitle(wiki, "test page", "Test_page"));
+
+      // Case sensitive main namespace
+      List<Namespace> caseSensitive = new ArrayList<>(namespaces);
+      caseSensitive.add(new Namespace(
+          Integer.toString(Namespace.MAIN), "", "",
+          EnumCaseSensitiveness.CASE_SENSITIVE, false));
+      config.setNamespaces(caseSensitive);
+      assertEquals("test page", Page.normalizeTitle(wiki, "test_page"));
+      assertFalse(Page.areSameTitle(wiki, "test page", "Test page"));
+      assertTrue(Page.areSameTitle(wiki, "category:Test", "Category:Test"));
+    } finally {
+      config.setNamespaces(namespaces);
+    }
+  }
+
+  /**
+   * Test normalization of random titles against a normalization with regular expressions.
+   */
+  @Test
+  public void testNormalizeTitleRandom() {
+    Random random = new Random(42);
+    char[] characters = { 'a', 'b', '\u00E9', ' ', '_', '\u00A0', '\u200E', '\t', '\n' };
+    for (int count = 0; count < 10000; count++) {
+      StringBuilder title = new StringBuilder();
+      int length = random.nextInt(10);
+      for (int index = 0; index < length; index++) {
+        title.append(characters[random.nextInt(characters.length)]);
+      }
+      String expected = title.toString().trim();
+      expected = expected.replaceAll("[\u00A0_ ]+", " ");
+      while ((expected.length() > 0) && (expected.charAt(expected.length() - 1) == 0x200E)) {
+        expected = expected.substring(0, expected.length() - 1);
+      }
+      expected = CharacterUtils.ucFirst(expected.trim());
+      assertEquals("Title \"" + title + "\"", expected, Page.normalizeTitle(title.toString()));
+    }
+  }
+}
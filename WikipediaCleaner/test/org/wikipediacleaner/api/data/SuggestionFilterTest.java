@@ -0,0 +1,138 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+import org.wikipediacleaner.api.data.analysis.PageAnalysis;
+import org.wikipediacleaner.api.data.analysis.PageAnalysisUtils;
+
+
+/**
+ * Test class for the prefilter of suggestions.
+ */
+public class SuggestionFilterTest {
+
+  /**
+   * Patterns used for testing the filter.
+   */
+  private final static String[] PATTERNS = {
+    "\\b[Aa]ccomodation\\b",
+    "\\b[Aa]cheived?\\b",
+    "\\b(?:[Tt]eh|[Hh]te)\\b",
+    "\\bthe the\\b",
+    "\\b[Ss]cientists? (?:have|has) discover(?:ed)?\\b",
+    "\\b[Ss]cience\\b",
+    "\\b[Ww]indows 10\\b",
+    "\\b[Rr]esearcher(s)? at\\b",
+    "(?i)climate",
+    "\\{\\{[Cc]ite journal",
+    "\\{\\{[Cc]ite web\\s*\\|",
+    "\\[\\[[Ww]ikipedia:",
+    "\\b(?:[0-9]+) km\\b",
+    "\\bspacecraft|\\bastronaut",
+    "\\bspacecraft|\\bxyzzyqq",
+    "\\bplanets?\\b",
+    "[0-9]{4}-[0-9]{2}-[0-9]{2}",
+    "\\bexo-?planet",
+    "ab+c",
+    "\\bjournal\\b",
+    "\\bxyzzy\\b",
+    "<ref name=",
+    "\\bCOVID-19\\b",
+    "\\u00e9tude",
+  };
+
+  /**
+   * Test extraction of literal texts.
+   */
+  @Test
+  public void testRequiredLiterals() {
+    checkLiterals("\\b[Aa]ccomodation\\b", "ccomodation");
+    checkLiterals("\\b[Aa]cheived?\\b", "cheive");
+    checkLiterals("\\b(?:[Tt]eh|[Hh]te)\\b", (String[]) null);
+    checkLiterals("\\bspacecraft|\\bastronaut", "spacecraft", "astronaut");
+    checkLiterals("\\bspacecraft|x", (String[]) null);
+    checkLiterals("(?i)climate", (String[]) null);
+    checkLiterals("\\{\\{[Cc]ite journal", "ite journal");
+    checkLiterals("\\[\\[[Ww]ikipedia:", "ikipedia:");
+    checkLiterals("\\b(?:[0-9]+) km\\b", " km");
+    checkLiterals("ab+c", "bc");
+    checkLiterals("abc{2,3}d", "ab");
+    checkLiterals("abc{,3}d", (String[]) null);
+    checkLiterals("\\u00e9tude", "tude");
+    checkLiterals("\\x41bc", "bc");
+    checkLiterals("\\p{Lu}abc", "abc");
+    checkLiterals("a\\.b", "a.b");
+    checkLiterals("\\QA+B\\E", (String[]) null);
+  }
+
+  /**
+   * Test filtering suggestions for a big page.
+   */
+  @Test
+  public void testFilter() {
+    PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), "PageAnalysisTest_en_2020_in_science");
+    String text = analysis.getContents();
+    List<Suggestion> suggestions = new ArrayList<>();
+    for (String pattern : PATTERNS) {
+      Suggestion suggestion = Suggestion.createSuggestion(pattern, false, null);
+      assertNotNull(suggestion);
+      suggestions.add(suggestion);
+    }
+    SuggestionFilter filter = new SuggestionFilter(suggestions);
+    List<Suggestion> filtered = filter.filter(suggestions, text);
+
+    // Every suggestion matching the text must be kept
+    int matchCount = 0;
+    for (Suggestion suggestion : suggestions) {
+      if (Pattern.compile(suggestion.getPatternText()).matcher(text).find()) {
+        matchCount++;
+        assertTrue(
+            "Suggestion " + suggestion.getPatternText() + " should not be skipped",
+            filtered.contains(suggestion));
+      }
+    }
+    assertTrue(matchCount > 0);
+    assertTrue(filtered.size() < suggestions.size());
+    System.out.println(
+        "Suggestions skipped: " + (suggestions.size() - filtered.size()) +
+        " / " + suggestions.size() + " (" + matchCount + " matching)");
+
+    // Order must be preserved
+    int lastIndex = -1;
+    for (Suggestion suggestion : filtered) {
+      int index = suggestions.indexOf(suggestion);
+      assertTrue(index > lastIndex);
+      lastIndex = index;
+    }
+  }
+
+  /**
+   * Check literal texts extracted from a pattern.
+   *
+   * @param pattern Pattern.
+   * @param expected Expected literal texts.
+   */
+  private void checkLiterals(String pattern, String... expected) {
+    List<String> literals = SuggestionFilter.getRequiredLiterals(pattern);
+    if (expected == null) {
+      assertNull("Literals for " + pattern, literals);
+    } else {
+      assertEquals("Literals for " + pattern, Arrays.asList(expected), literals);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+
+import org.junit.Test;
+import org.wikipediacleaner.utils.InterruptibleCharSequence;
+import org.wikipediacleaner.utils.InterruptibleCharSequence.BudgetExceededException;
+
+
+/**
+ * Test class for the profile of suggestions.
+ */
+public class SuggestionProfileTest {
+
+  /**
+   * Test a catastrophic regular expression with a time budget.
+   */
+  @Test
+  public void testBudget() {
+    Suggestion suggestion = Suggestion.createSuggestion("(.*a){12}b", false, null);
+    assertNotNull(suggestion);
+    StringBuilder buffer = new StringBuilder();
+    for (int count = 0; count < 30; count++) {
+      buffer.append('a');
+    }
+    String contents = buffer.toString();
+    InterruptibleCharSequence text = new InterruptibleCharSequence(contents);
+    text.start(100);
+    long beginTime = System.nanoTime();
+    boolean interrupted = false;
+    Matcher matcher = suggestion.initMatcher(text);
+    try {
+      matcher.find();
+    } catch (BudgetExceededException e) {
+      interrupted = true;
+    }
+    long time = System.nanoTime() - beginTime;
+    assertTrue(interrupted);
+    assertTrue("Interrupted after " + (time / 1000000) + " ms", time < 5000000000L);
+    suggestion.getProfile().addInvocation(time, text.getAccessCount(), contents.length(), interrupted);
+    assertEquals(1, suggestion.getProfile().getCount());
+    assertEquals(1, suggestion.getProfile().getBacktrackingCount());
+    assertEquals(1, suggestion.getProfile().getInterruptedCount());
+  }
+
+  /**
+   * Test a normal regular expression.
+   */
+  @Test
+  public void testNormal() {
+    Suggestion suggestion = Suggestion.createSuggestion("\\b[Tt]eh\\b", false, null);
+    assertNotNull(suggestion);
+    String contents = "This is teh text, with teh typo.";
+    InterruptibleCharSequence text = new InterruptibleCharSequence(contents);
+    text.start(100);
+    Matcher matcher = suggestion.initMatcher(text);
+    int found = 0;
+    while (matcher.find()) {
+      assertEquals("teh", contents.substring(matcher.start(), matcher.end()));
+      found++;
+    }
+    assertEquals(2, found);
+    suggestion.getProfile().addInvocation(1000, text.getAccessCount(), contents.length(), false);
+    assertEquals(0, suggestion.getProfile().getBacktrackingCount());
+  }
+
+  /**
+   * Test the report.
+   */
+  @Test
+  public void testReport() {
+    Suggestion slow = Suggestion.createSuggestion("slow", false, null);
+    Suggestion frequent = Suggestion.createSuggestion("frequent", false, null);
+    Suggestion unused = Suggestion.createSuggestion("unused", false, null);
+    slow.getProfile().addInvocation(50000000L, 10, 10, false);
+    for (int count = 0; count < 10; count++) {
+      frequent.getProfile().addInvocation(1000000L, 10, 10, false);
+    }
+    List<Suggestion> suggestions = Arrays.asList(unused, frequent, slow);
+
+    String report = SuggestionProfile.getReport(suggestions, SuggestionProfile.Order.TOTAL_TIME, 0);
+    assertNotNull(report);
+    assertFalse(report.contains("unused"));
+    assertTrue(report.indexOf("slow") < report.indexOf("frequent"));
+
+    report = SuggestionProfile.getReport(suggestions, SuggestionProfile.Order.COUNT, 1);
+    assertTrue(report.contains("frequent"));
+    assertFalse(report.contains("slow"));
+
+    SuggestionProfile.resetProfiles(suggestions);
+    assertNull(SuggestionProfile.getReport(suggestions, SuggestionProfile.Order.TOTAL_TIME, 0));
+  }
+}
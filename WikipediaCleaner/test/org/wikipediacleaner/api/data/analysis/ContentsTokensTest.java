@@ -0,0 +1,100 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data.analysis;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+
+
+/**
+ * Test class for the delimiters of wiki syntax.
+ */
+public class ContentsTokensTest {
+
+  /**
+   * Test on a simple text.
+   */
+  @Test
+  public void testSimpleText() {
+    ContentsTokens tokens = ContentsTokens.tokenize("=a=\n[[b]] {{{c}}} <d> __e__ [f] x=y\n<!-- -->=g");
+    int[] expectedPositions = { 0, 4, 10, 11, 18, 22, 25, 36, 44 };
+    byte[] expectedTypes = {
+        ContentsTokens.EQUAL, ContentsTokens.DOUBLE_SQUARE_BRACKETS,
+        ContentsTokens.DOUBLE_CURLY_BRACKETS, ContentsTokens.DOUBLE_CURLY_BRACKETS,
+        ContentsTokens.TAG, ContentsTokens.DOUBLE_UNDERSCORE, ContentsTokens.DOUBLE_UNDERSCORE,
+        ContentsTokens.TAG, ContentsTokens.EQUAL };
+    assertEquals(expectedPositions.length, tokens.size());
+    for (int token = 0; token < tokens.size(); token++) {
+      assertEquals(expectedPositions[token], tokens.getPosition(token));
+      assertEquals(expectedTypes[token], tokens.getType(token));
+    }
+  }
+
+  /**
+   * Test on big pages, and compare with probing each index.
+   */
+  @Test
+  public void testBigPages() {
+    checkPage("PageAnalysisTest_en_2020_in_science");
+    checkPage("PageAnalysisTest_en_Windows_10_version_history");
+  }
+
+  /**
+   * Check delimiters of a page.
+   *
+   * @param fileName File name.
+   */
+  private void checkPage(String fileName) {
+    PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), fileName);
+    String text = analysis.getContents();
+
+    // Probing each index
+    List<Integer> expected = null;
+    long beginTime = System.nanoTime();
+    for (int count = 0; count < 10; count++) {
+      expected = new ArrayList<>();
+      for (int index = 0; index < text.length(); index++) {
+        if (text.startsWith("<", index) ||
+            text.startsWith("[[", index) ||
+            text.startsWith("{{{", index) ||
+            text.startsWith("{{", index) ||
+            (text.startsWith("=", index) &&
+             ((index == 0) || (text.charAt(index - 1) == '\n') || (text.charAt(index - 1) == '>'))) ||
+            text.startsWith("__", index)) {
+          expected.add(Integer.valueOf(index));
+        }
+      }
+    }
+    long probeTime = System.nanoTime() - beginTime;
+
+    // Tokenizing
+    ContentsTokens tokens = null;
+    beginTime = System.nanoTime();
+    for (int count = 0; count < 10; count++) {
+      tokens = ContentsTokens.tokenize(text);
+    }
+    long tokenTime = System.nanoTime() - beginTime;
+
+    // Display performance
+    System.out.println(
+        "Delimiters in " + fileName + ": " +
+        (probeTime / 1000000) + " ms by probing each index, " +
+        (tokenTime / 1000000) + " ms by tokenizing");
+
+    assertEquals(expected.size(), tokens.size());
+    for (int token = 0; token < tokens.size(); token++) {
+      assertEquals(expected.get(token).intValue(), tokens.getPosition(token));
+    }
+  }
+}
@@ -9,11 +9,19 @@ package org.wikipediacleaner.api.data.analysis;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageElementTag;
+import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.contents.ContentsElement;
 import org.wikipediacleaner.api.data.contents.comment.ContainerComment;
 
@@ -126,6 +134,367 @@ public class PageAnalysisTest {
     checkParagraphs(analysis, 205);
   }
 
+  /**
+   * Test parallel analysis on a big page, and compare with a serial analysis.
+   */
+  @Test
+  public void testParallelAnalysis() {
+
+    // Create contents and analysis
+    PageAnalysis serial = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), "PageAnalysisTest_en_2020_in_science", false);
+    PageAnalysis parallel = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), "PageAnalysisTest_en_2020_in_science", true);
+
+    // Compare elements
+    checkSameElements("ISBN", serial.getISBNs(), parallel.getISBNs());
+    checkSameElements("ISSN", serial.getISSNs(), parallel.getISSNs());
+    checkSameElements("PMID", serial.getPMIDs(), parallel.getPMIDs());
+    checkSameElements("RFC", serial.getRFCs(), parallel.getRFCs());
+    checkSameElements("Tables", serial.getTables(), parallel.getTables());
+    checkSameElements("List items", serial.getListItems(), parallel.getListItems());
+    checkSameElements("Paragraphs", serial.getParagraphs(), parallel.getParagraphs());
+    Areas serialAreas = serial.getAreas();
+    Areas parallelAreas = parallel.getAreas();
+    assertEquals("Areas", serialAreas.getAreaCount(), parallelAreas.getAreaCount());
+    for (int area = 0; area < serialAreas.getAreaCount(); area++) {
+      assertEquals(serialAreas.getAreaBeginIndex(area), parallelAreas.getAreaBeginIndex(area));
+      assertEquals(serialAreas.getAreaEndIndex(area), parallelAreas.getAreaEndIndex(area));
+    }
+  }
+
+  /**
+   * Test frozen analysis on a big page, with concurrent lookups.
+   * 
+   * @throws Exception Error in a concurrent lookup.
+   */
+  @Test
+  public void testFrozenAnalysis() throws Exception {
+
+    // Create contents and analysis
+    PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), "PageAnalysisTest_en_2020_in_science");
+    final PageAnalysis frozen = new PageAnalysis(analysis.getPage(), analysis.getContents());
+    assertFalse(frozen.isFrozen());
+    frozen.freeze();
+    assertTrue(frozen.isFrozen());
+
+    // Compare elements
+    checkSameElements("Tags", analysis.getTags(), frozen.getTags());
+    checkSameElements("Small tags", analysis.getTags(PageElementTag.TAG_HTML_SMALL), frozen.getTags(PageElementTag.TAG_HTML_SMALL));
+    checkSameElements("Complete ref tags", analysis.getCompleteTags(PageElementTag.TAG_WIKI_REF), frozen.getCompleteTags(PageElementTag.TAG_WIKI_REF));
+    checkSameElements("Internal links", analysis.getInternalLinks(), frozen.getInternalLinks());
+    checkSameElements("Templates", analysis.getTemplates(), frozen.getTemplates());
+    checkSameElements("Cite templates", analysis.getTemplates("Cite journal"), frozen.getTemplates("Cite journal"));
+    checkSameElements("External links", analysis.getExternalLinks(), frozen.getExternalLinks());
+    checkSameElements("Paragraphs", analysis.getParagraphs(), frozen.getParagraphs());
+    assertTrue(frozen.getTags("unknown").isEmpty());
+    try {
+      frozen.getTemplates().remove(0);
+      fail("Elements of a frozen analysis can be modified");
+    } catch (UnsupportedOperationException e) {
+      // Expected
+    }
+
+    // Concurrent lookups
+    final int length = frozen.getContents().length();
+    Callable<Object[]> lookups = new Callable<Object[]>() {
+      @Override
+      public Object[] call() {
+        Object[] result = new Object[4 * length];
+        for (int index = 0; index < length; index++) {
+          result[4 * index] = frozen.isInTemplate(index);
+          result[4 * index + 1] = frozen.isInInternalLink(index);
+          result[4 * index + 2] = frozen.isInExternalLink(index);
+          result[4 * index + 3] = frozen.isInTag(index);
+        }
+        return result;
+      }
+    };
+    Object[] expected = lookups.call();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Object[]>> results = new ArrayList<>();
+      for (int count = 0; count < 4; count++) {
+        results.add(executor.submit(lookups));
+      }
+      for (Future<Object[]> result : results) {
+        Object[] actual = result.get();
+        for (int index = 0; index < expected.length; index++) {
+          assertSame(
+              "Incorrect element found at " + (index / 4),
+              expected[index], actual[index]);
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Test incremental analysis after random edits on a big page, and compare with a full analysis.
+   */
+  @Test
+  public void testIncrementalAnalysis() {
+
+    // Create contents and analysis
+    PageAnalysis initial = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), "PageAnalysisTest_en_2020_in_science");
+    String text = initial.getContents();
+
+    // Random edits
+    Random random = new Random(42);
+    int localCount = 0;
+    long incrementalTime = 0;
+    long fullTime = 0;
+    for (int count = 0; count < 40; count++) {
+      int offset = random.nextInt(text.length());
+      int removedLength = random.nextInt(3);
+      if (offset + removedLength > text.length()) {
+        removedLength = 0;
+      }
+      String insertedText = (random.nextInt(4) == 0) ? " " : "x";
+      String newText =
+          text.substring(0, offset) + insertedText +
+          text.substring(offset + removedLength);
+      if (ContentsEdit.compute(text, newText).isLocal()) {
+        localCount++;
+      }
+
+      // Analysis
+      long beginTime = System.nanoTime();
+      PageAnalysis incremental = new PageAnalysis(initial, offset, removedLength, insertedText);
+      incremental.getExternalLinks();
+      incrementalTime += System.nanoTime() - beginTime;
+      beginTime = System.nanoTime();
+      PageAnalysis full = new PageAnalysis(initial.getPage(), newText);
+      full.getExternalLinks();
+      fullTime += System.nanoTime() - beginTime;
+      assertEquals(newText, incremental.getContents());
+
+      // Compare elements
+      checkSameElements("Tags", full.getTags(), incremental.getTags());
+      checkSameElements("Internal links", full.getInternalLinks(), incremental.getInternalLinks());
+      checkSameElements("Images", full.getImages(), incremental.getImages());
+      checkSameElements("Categories", full.getCategories(), incremental.getCategories());
+      checkSameElements("Interwiki links", full.getInterwikiLinks(), incremental.getInterwikiLinks());
+      checkSameElements("Language links", full.getLanguageLinks(), incremental.getLanguageLinks());
+      checkSameElements("Functions", full.getFunctions(), incremental.getFunctions());
+      checkSameElements("Magic words", full.getMagicWords(), incremental.getMagicWords());
+      checkSameElements("Templates", full.getTemplates(), incremental.getTemplates());
+      checkSameElements("Parameters", full.getParameters(), incremental.getParameters());
+      checkSameElements("Titles", full.getTitles(), incremental.getTitles());
+      checkSameElements("External links", full.getExternalLinks(), incremental.getExternalLinks());
+      checkSameElements("Paragraphs", full.getParagraphs(), incremental.getParagraphs());
+      Areas fullAreas = full.getAreas();
+      Areas incrementalAreas = incremental.getAreas();
+      assertEquals("Areas", fullAreas.getAreaCount(), incrementalAreas.getAreaCount());
+      for (int area = 0; area < fullAreas.getAreaCount(); area++) {
+        assertEquals(fullAreas.getAreaBeginIndex(area), incrementalAreas.getAreaBeginIndex(area));
+        assertEquals(fullAreas.getAreaEndIndex(area), incrementalAreas.getAreaEndIndex(area));
+      }
+    }
+    assertTrue("No local edit", localCount > 0);
+
+    // Display performance
+    System.out.println(
+        "Incremental analysis for " + localCount + " local edits out of 40: " +
+        (incrementalTime / 1000000) + " ms, full analysis: " +
+        (fullTime / 1000000) + " ms");
+  }
+
+  /**
+   * Test detection of local edits.
+   */
+  @Test
+  public void testContentsEdit() {
+    assertTrue(ContentsEdit.compute("a bc d", "a bxc d").isLocal());
+    assertTrue(ContentsEdit.compute("a bc d", "a b c d").isLocal());
+    assertTrue(ContentsEdit.compute("a\nbc\nd", "a\nb\nd").isLocal());
+    assertFalse(ContentsEdit.compute("a bc d", "a b|c d").isLocal());
+    assertFalse(ContentsEdit.compute("[[bc]]", "[[bxc]]").isLocal());
+    assertFalse(ContentsEdit.compute("[[ bc ]]", "[[  ]]").isLocal());
+    assertFalse(ContentsEdit.compute("[[  ]]", "[[ b ]]").isLocal());
+    assertFalse(ContentsEdit.compute("a bc d", "a b\nc d").isLocal());
+  }
+
+  /**
+   * @param type Type of elements.
+   * @param expected Expected elements.
+   * @param actual Actual elements.
+   */
+  private void checkSameElements(
+      String type,
+      List<? extends ContentsElement> expected,
+      List<? extends ContentsElement> actual) {
+    assertEquals(type, expected.size(), actual.size());
+    for (int index = 0; index < expected.size(); index++) {
+      assertEquals(type, expected.get(index).getClass(), actual.get(index).getClass());
+      assertEquals(type, expected.get(index).getBeginIndex(), actual.get(index).getBeginIndex());
+      assertEquals(type, expected.get(index).getEndIndex(), actual.get(index).getEndIndex());
+    }
+  }
+
+  /**
+   * Test templates by name on a big page, and compare with a linear search.
+   */
+  @Test
+  public void testTemplatesByName() {
+
+    // Create contents and analysis
+    PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), "PageAnalysisTest_en_2020_in_science");
+
+    // Check each template name, with variations
+    for (PageElementTemplate template : analysis.getTemplates()) {
+      String name = template.getTemplateNameNotTrimmed();
+      List<PageElementTemplate> expected = new ArrayList<>();
+      for (PageElementTemplate tmpTemplate : analysis.getTemplates()) {
+        if (Page.areSameTitle(name, tmpTemplate.getTemplateName())) {
+          expected.add(tmpTemplate);
+        }
+      }
+      for (String variant : new String[] { name, " " + name.replace(' ', '_') + " " }) {
+        assertEquals(
+            "Incorrect templates for " + variant,
+            expected, analysis.getTemplates(variant));
+        assertSame(
+            "Incorrect first template for " + variant,
+            expected.get(0), analysis.hasTemplate(variant));
+      }
+    }
+    assertTrue(analysis.getTemplates("Unknown template name").isEmpty());
+    assertNull(analysis.hasTemplate("Unknown template name"));
+  }
+
+  /**
+   * Test non wiki text areas on a big page.
+   */
+  @Test
+  public void testAreas() {
+
+    // Create contents and analysis
+    PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), "PageAnalysisTest_en_Windows_10_version_history");
+    Areas areas = analysis.getAreas();
+
+    // Check that areas are sorted and separated
+    int previousEnd = -1;
+    for (int area = 0; area < areas.getAreaCount(); area++) {
+      assertTrue(
+          "Area " + area + " is empty",
+          areas.getAreaBeginIndex(area) < areas.getAreaEndIndex(area));
+      assertTrue(
+          "Area " + area + " is not after the previous area",
+          areas.getAreaBeginIndex(area) > previousEnd);
+      previousEnd = areas.getAreaEndIndex(area);
+    }
+
+    // Check end of areas while going through the areas
+    int length = analysis.getContents().length();
+    int area = 0;
+    for (int index = 0; index < length; index++) {
+      while ((area < areas.getAreaCount()) && (areas.getAreaEndIndex(area) <= index)) {
+        area++;
+      }
+      int expected = index;
+      if ((area < areas.getAreaCount()) && (areas.getAreaBeginIndex(area) <= index)) {
+        expected = areas.getAreaEndIndex(area);
+      }
+      assertEquals(
+          "Incorrect end of area for " + index,
+          expected, areas.getEndArea(index));
+    }
+  }
+
+  /**
+   * Test lookups by position on big pages, and compare with a linear search.
+   */
+  @Test
+  public void testLookups() {
+    checkLookups("PageAnalysisTest_en_2020_in_science");
+    checkLookups("PageAnalysisTest_en_Windows_10_version_history");
+  }
+
+  /**
+   * Check lookups by position on a page.
+   * 
+   * @param fileName File name.
+   */
+  private void checkLookups(String fileName) {
+
+    // Create contents and analysis
+    PageAnalysis analysis = PageAnalysisUtils.analyzeAndTestPage(
+        EnumWikipediaUtils.getEN(), fileName);
+    int length = analysis.getContents().length();
+
+    // Lookups with a linear search
+    long beginTime = System.nanoTime();
+    Object[] expected = new Object[4 * length];
+    for (int index = 0; index < length; index++) {
+      expected[4 * index] = findLast(analysis.getTemplates(), index);
+      expected[4 * index + 1] = findFirst(analysis.getInternalLinks(), index);
+      expected[4 * index + 2] = findFirst(analysis.getExternalLinks(), index);
+      expected[4 * index + 3] = findFirst(analysis.getTags(), index);
+    }
+    long linearTime = System.nanoTime() - beginTime;
+
+    // Lookups with the page analysis
+    beginTime = System.nanoTime();
+    Object[] result = new Object[4 * length];
+    for (int index = 0; index < length; index++) {
+      result[4 * index] = analysis.isInTemplate(index);
+      result[4 * index + 1] = analysis.isInInternalLink(index);
+      result[4 * index + 2] = analysis.isInExternalLink(index);
+      result[4 * index + 3] = analysis.isInTag(index);
+    }
+    long indexTime = System.nanoTime() - beginTime;
+
+    // Display performance
+    System.out.println(
+        "Lookups in " + fileName + ": " +
+        (linearTime / 1000000) + " ms with a linear search, " +
+        (indexTime / 1000000) + " ms with the page analysis");
+
+    for (int index = 0; index < expected.length; index++) {
+      assertSame(
+          "Incorrect element found at " + (index / 4),
+          expected[index], result[index]);
+    }
+    PageElementTemplate lastTemplate = analysis.getTemplates().get(analysis.getTemplates().size() - 1);
+    assertSame(lastTemplate, analysis.getNextTemplate(lastTemplate.getBeginIndex()));
+    assertNull(analysis.getNextTemplate(lastTemplate.getBeginIndex() + 1));
+  }
+
+  /**
+   * @param list List of elements.
+   * @param index Index.
+   * @return First element containing the index.
+   */
+  private <T extends ContentsElement> T findFirst(List<T> list, int index) {
+    for (T element : list) {
+      if (element.containsIndex(index)) {
+        return element;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param list List of elements.
+   * @param index Index.
+   * @return Last element containing the index.
+   */
+  private <T extends ContentsElement> T findLast(List<T> list, int index) {
+    T result = null;
+    for (T element : list) {
+      if (element.containsIndex(index)) {
+        result = element;
+      }
+    }
+    return result;
+  }
+
   /**
    * Check comments.
    * 
@@ -36,13 +36,26 @@ public class PageAnalysisUtils {
    * @return Page analysis.
    */
   public static PageAnalysis analyzeAndTestPage(EnumWikipedia wiki, String fileName) {
+    return analyzeAndTestPage(wiki, fileName, false);
+  }
+
+  /**
+   * Perform an analysis and some global tests.
+   * 
+   * @param wiki Wiki.
+   * @param fileName File name.
+   * @param parallel True to perform the analysis in parallel.
+   * @return Page analysis.
+   */
+  public static PageAnalysis analyzeAndTestPage(
+      EnumWikipedia wiki, String fileName, boolean parallel) {
 
     // Create contents and analysis
     String text = readFile(fileName + ".txt");
     Page testPage = DataManager.getPage(wiki, fileName, null, null, null);
     PageAnalysis analysis = new PageAnalysis(testPage, text);
     AnalysisPerformance perf = new AnalysisPerformance();
-    analysis.performFullPageAnalysis(perf);
+    analysis.performFullPageAnalysis(perf, parallel);
 
     // Display performance
     System.out.println("Page analysis of " + fileName + ": " + perf.toMilliSeconds());
@@ -0,0 +1,107 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data.contents;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Test class for the index of elements.
+ */
+public class ContentsIndexTest {
+
+  /**
+   * Test on nested elements.
+   */
+  @Test
+  public void testNested() {
+    ContentsInterval outer = new ContentsInterval(0, 20);
+    ContentsInterval middle = new ContentsInterval(2, 15);
+    ContentsInterval inner = new ContentsInterval(5, 10);
+    ContentsInterval other = new ContentsInterval(25, 30);
+    ContentsIndex<ContentsInterval> index = new ContentsIndex<>(
+        Arrays.asList(other, inner, outer, middle));
+
+    assertEquals(4, index.size());
+    assertSame(outer, index.getElements().get(0));
+    assertSame(outer, index.findSmallestAt(1));
+    assertSame(middle, index.findSmallestAt(2));
+    assertSame(inner, index.findSmallestAt(5));
+    assertSame(inner, index.findSmallestAt(9));
+    assertSame(middle, index.findSmallestAt(10));
+    assertSame(outer, index.findSmallestAt(15));
+    assertNull(index.findSmallestAt(20));
+    assertSame(other, index.findSmallestAt(25));
+    assertSame(outer, index.findLargestAt(9));
+    assertEquals(Arrays.asList(outer, middle, inner), index.findAllAt(7));
+    assertNull(index.findLargestAt(22));
+    assertSame(middle, index.findFirstAfter(1));
+    assertSame(other, index.findFirstAfter(6));
+    assertNull(index.findFirstAfter(26));
+  }
+
+  /**
+   * Test on random elements, possibly overlapping, against a linear search.
+   */
+  @Test
+  public void testRandom() {
+    Random random = new Random(42);
+    for (int count = 0; count < 50; count++) {
+      List<ContentsInterval> elements = new ArrayList<>();
+      int size = random.nextInt(200);
+      for (int element = 0; element < size; element++) {
+        int begin = random.nextInt(1000);
+        elements.add(new ContentsInterval(begin, begin + 1 + random.nextInt(100)));
+      }
+      ContentsIndex<ContentsInterval> index = new ContentsIndex<>(elements);
+      List<ContentsInterval> sorted = index.getElements();
+      for (int position = 0; position < 1100; position++) {
+        ContentsInterval smallest = null;
+        ContentsInterval largest = null;
+        ContentsInterval next = null;
+        List<ContentsInterval> all = new ArrayList<>();
+        for (ContentsInterval element : sorted) {
+          if (element.containsIndex(position)) {
+            all.add(element);
+            smallest = element;
+            if (largest == null) {
+              largest = element;
+            }
+          }
+          if ((next == null) && (element.getBeginIndex() >= position)) {
+            next = element;
+          }
+        }
+        assertSame("Smallest at " + position, smallest, index.findSmallestAt(position));
+        assertSame("Largest at " + position, largest, index.findLargestAt(position));
+        assertSame("Next after " + position, next, index.findFirstAfter(position));
+        assertEquals("All at " + position, all, index.findAllAt(position));
+      }
+    }
+  }
+
+  /**
+   * Test on an empty index.
+   */
+  @Test
+  public void testEmpty() {
+    ContentsIndex<ContentsInterval> index = ContentsIndex.empty();
+    assertEquals(0, index.size());
+    assertNull(index.findSmallestAt(0));
+    assertNull(index.findLargestAt(0));
+    assertNull(index.findFirstAfter(0));
+    assertTrue(index.findAllAt(0).isEmpty());
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+import org.wikipediacleaner.api.data.Page;
+
+
+/**
+ * Test class for the dump pipeline.
+ */
+public class DumpPipelineTest {
+
+  /** Test dump */
+  private final static String TEST_FILE = "test/org/wikipediacleaner/api/dump/DumpScannerTest_slice.xml";
+
+  /**
+   * Test processing a complete dump.
+   *
+   * @throws Exception Error processing the dump.
+   */
+  @Test
+  public void testComplete() throws Exception {
+    byte[] dump = FileUtils.readFileToByteArray(new File(TEST_FILE));
+    for (boolean byteScanner : new boolean[] { false, true }) {
+      CountProcessor processor = new CountProcessor(EnumWikipediaUtils.getEN());
+      DumpPipeline pipeline = new DumpPipeline(processor, 2, new DumpStatistics());
+      pipeline.setByteScanner(byteScanner);
+      pipeline.process(new ByteArrayInputStream(dump));
+      assertEquals(4, processor.count.get());
+    }
+  }
+
+  /**
+   * Test that an error during decompression makes the processing fail.
+   *
+   * @throws Exception Error reading the test dump.
+   */
+  @Test
+  public void testDecompressionError() throws Exception {
+    byte[] dump = FileUtils.readFileToByteArray(new File(TEST_FILE));
+    for (boolean byteScanner : new boolean[] { false, true }) {
+      CountProcessor processor = new CountProcessor(EnumWikipediaUtils.getEN());
+      DumpPipeline pipeline = new DumpPipeline(processor, 2, new DumpStatistics());
+      pipeline.setByteScanner(byteScanner);
+      try {
+        pipeline.process(new FailingInputStream(dump, dump.length / 2));
+        fail("Processing of a truncated dump should fail (byte scanner: " + byteScanner + ")");
+      } catch (Exception e) {
+        // Expected
+      }
+    }
+  }
+
+  /**
+   * Test that an analysis thread dying makes the processing fail instead of waiting forever.
+   *
+   * @throws Exception Error reading the test dump.
+   */
+  @Test
+  public void testAnalysisError() throws Exception {
+    byte[] dump = FileUtils.readFileToByteArray(new File(TEST_FILE));
+    final AtomicInteger checkpointCount = new AtomicInteger();
+    DumpCheckpointListener listener = new DumpCheckpointListener() {
+
+      @Override
+      public void checkpoint(long offset, Integer pageId) {
+        checkpointCount.incrementAndGet();
+      }
+    };
+    for (boolean byteScanner : new boolean[] { false, true }) {
+      checkpointCount.set(0);
+      CountProcessor processor = new CountProcessor(EnumWikipediaUtils.getEN());
+      processor.fail = true;
+      DumpPipeline pipeline = new DumpPipeline(processor, 1, new DumpStatistics());
+      pipeline.setByteScanner(byteScanner);
+      pipeline.setCheckpoints(new DumpCheckpoints(listener, 0, null), true);
+      try {
+        pipeline.process(new ByteArrayInputStream(dump));
+        fail("Processing should fail when an analysis thread dies (byte scanner: " + byteScanner + ")");
+      } catch (Exception e) {
+        // Expected
+      }
+      assertEquals(0, checkpointCount.get());
+    }
+  }
+
+  /**
+   * Input stream failing after some data.
+   */
+  private static class FailingInputStream extends InputStream {
+
+    /** Data */
+    private final byte[] data;
+
+    /** Length of data given before failing */
+    private final int length;
+
+    /** Current position */
+    private int position;
+
+    /**
+     * @param data Data.
+     * @param length Length of data given before failing.
+     */
+    public FailingInputStream(byte[] data, int length) {
+      this.data = data;
+      this.length = length;
+      this.position = 0;
+    }
+
+    /**
+     * @see java.io.InputStream#read()
+     */
+    @Override
+    public int read() throws IOException {
+      if (position >= length) {
+        throw new IOException("Corrupted data");
+      }
+      int result = data[position] & 0xFF;
+      position++;
+      return result;
+    }
+  }
+
+  /**
+   * Page processor counting pages.
+   */
+  private static class CountProcessor implements PageProcessor {
+
+    /** Wiki */
+    private final EnumWikipedia wiki;
+
+    /** Number of pages processed */
+    final AtomicInteger count;
+
+    /** True to kill the analysis thread with an error */
+    volatile boolean fail;
+
+    /**
+     * @param wiki Wiki.
+     */
+    public CountProcessor(EnumWikipedia wiki) {
+      this.wiki = wiki;
+      this.count = new AtomicInteger();
+    }
+
+    /**
+     * @return Wiki.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#getWiki()
+     */
+    @Override
+    public EnumWikipedia getWiki() {
+      return wiki;
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @return True for all name spaces.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForNamespace(java.lang.Integer)
+     */
+    @Override
+    public boolean isForNamespace(Integer namespace) {
+      return true;
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @param title Page title.
+     * @param redirect True if the page is a redirect.
+     * @return True for all pages.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForPage(java.lang.Integer, java.lang.String, boolean)
+     */
+    @Override
+    public boolean isForPage(Integer namespace, String title, boolean redirect) {
+      return true;
+    }
+
+    /**
+     * @param page Page.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
+     */
+    @Override
+    public void processPage(Page page) {
+      if (fail) {
+        throw new Error("Simulated error for " + page.getTitle());
+      }
+      count.incrementAndGet();
+    }
+  }
+}
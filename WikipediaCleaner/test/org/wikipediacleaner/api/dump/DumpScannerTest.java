@@ -0,0 +1,252 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+import org.wikipediacleaner.api.data.Namespace;
+import org.wikipediacleaner.api.data.Page;
+import org.xml.sax.InputSource;
+
+
+/**
+ * Test class for the dump scanner.
+ */
+public class DumpScannerTest {
+
+  /** Directory containing the test files */
+  private final static String TEST_DIRECTORY = "test/org/wikipediacleaner/api/";
+
+  /**
+   * Test that the scanner gives the same pages than the SAX parser.
+   * 
+   * @throws Exception Error parsing the dump.
+   */
+  @Test
+  public void testSameAsSax() throws Exception {
+    byte[] dump = FileUtils.readFileToByteArray(new File(TEST_DIRECTORY + "dump/DumpScannerTest_slice.xml"));
+    EnumWikipedia wiki = EnumWikipediaUtils.getEN();
+
+    List<Page> saxPages = parseSax(wiki, dump);
+    List<Page> scannerPages = parseScanner(wiki, dump);
+    assertEquals("Number of pages", 3, saxPages.size());
+    assertEquals("Number of pages", saxPages.size(), scannerPages.size());
+    for (int index = 0; index < saxPages.size(); index++) {
+      Page saxPage = saxPages.get(index);
+      Page scannerPage = scannerPages.get(index);
+      assertEquals("Title", saxPage.getTitle(), scannerPage.getTitle());
+      assertEquals("Namespace", saxPage.getNamespace(), scannerPage.getNamespace());
+      assertEquals("Page id", saxPage.getPageId(), scannerPage.getPageId());
+      assertEquals("Revision id", saxPage.getRevisionId(), scannerPage.getRevisionId());
+      assertEquals("Contents", saxPage.getContents(), scannerPage.getContents());
+      assertEquals("Redirect", saxPage.getRedirects().isRedirect(), scannerPage.getRedirects().isRedirect());
+    }
+
+    // Check some values
+    assertEquals("Computer accessibility", scannerPages.get(0).getRedirects().getTitle());
+    assertEquals(Integer.valueOf(854851586), scannerPages.get(0).getRevisionId());
+    assertEquals("AT&T \"Corp\"", scannerPages.get(1).getTitle());
+    assertTrue(scannerPages.get(1).getContents().contains("<ref>{{cite web|title=A & B}}</ref>"));
+    assertTrue(scannerPages.get(1).getContents().contains("\u00E9 \u00E9 \u00E9 \uD83D\uDE00 'quoted' &nbsp;"));
+    assertEquals("", scannerPages.get(2).getContents());
+  }
+
+  /**
+   * Compare performance of the scanner and of the SAX parser on a dump slice.
+   * 
+   * @throws Exception Error parsing the dump.
+   */
+  @Test
+  public void testPerformance() throws Exception {
+    EnumWikipedia wiki = EnumWikipediaUtils.getEN();
+    byte[] dump = createSlice(new String[] {
+        "data/analysis/PageAnalysisTest_en_2020_in_science.txt",
+        "data/analysis/PageAnalysisTest_en_Windows_10_version_history.txt",
+        "data/analysis/PageAnalysisTest_1.txt" },
+        20);
+
+    // Warm up
+    for (int count = 0; count < 3; count++) {
+      parseSax(wiki, dump);
+      parseScanner(wiki, dump);
+    }
+
+    // Measure
+    int iterations = 5;
+    long saxTime = 0;
+    long scannerTime = 0;
+    int pageCount = 0;
+    for (int count = 0; count < iterations; count++) {
+      long beginTime = System.nanoTime();
+      pageCount = parseSax(wiki, dump).size();
+      saxTime += System.nanoTime() - beginTime;
+      beginTime = System.nanoTime();
+      assertEquals(pageCount, parseScanner(wiki, dump).size());
+      scannerTime += System.nanoTime() - beginTime;
+    }
+
+    // Display performance
+    long size = (long) dump.length * iterations;
+    System.out.println(
+        "Dump slice of " + (dump.length / 1000000) + " MB with " + pageCount + " pages: " +
+        "SAX parser " + (saxTime / 1000000 / iterations) + " ms (" + (size * 1000 / saxTime) + " MB/s), " +
+        "byte scanner " + (scannerTime / 1000000 / iterations) + " ms (" + (size * 1000 / scannerTime) + " MB/s)");
+  }
+
+  /**
+   * Create a dump slice.
+   * 
+   * @param fileNames Names of the files used for the contents of the pages.
+   * @param repeat Number of times each file is used.
+   * @return Dump slice.
+   * @throws IOException Error reading files.
+   */
+  private byte[] createSlice(String[] fileNames, int repeat) throws IOException {
+    List<String> contents = new ArrayList<>();
+    for (String fileName : fileNames) {
+      String text = FileUtils.readFileToString(new File(TEST_DIRECTORY + fileName), StandardCharsets.UTF_8);
+      contents.add(text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;"));
+    }
+    StringBuilder slice = new StringBuilder();
+    slice.append("<mediawiki xmlns=\"http://www.mediawiki.org/xml/export-0.10/\" version=\"0.10\">\n");
+    int pageId = 1;
+    for (int count = 0; count < repeat; count++) {
+      for (String text : contents) {
+        slice.append("  <page>\n");
+        slice.append("    <title>Page &amp; " + pageId + "</title>\n");
+        slice.append("    <ns>0</ns>\n");
+        slice.append("    <id>" + pageId + "</id>\n");
+        slice.append("    <revision>\n");
+        slice.append("      <id>" + (1000000 + pageId) + "</id>\n");
+        slice.append("      <contributor>\n");
+        slice.append("        <username>User</username>\n");
+        slice.append("        <id>" + pageId + "</id>\n");
+        slice.append("      </contributor>\n");
+        slice.append("      <model>wikitext</model>\n");
+        slice.append("      <format>text/x-wiki</format>\n");
+        slice.append("      <text bytes=\"" + text.length() + "\" xml:space=\"preserve\">");
+        slice.append(text);
+        slice.append("</text>\n");
+        slice.append("    </revision>\n");
+        slice.append("  </page>\n");
+        pageId++;
+      }
+    }
+    slice.append("</mediawiki>\n");
+    return slice.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Parse a dump with the SAX parser.
+   * 
+   * @param wiki Wiki.
+   * @param dump Dump.
+   * @return List of pages in the main name space.
+   * @throws Exception Error parsing the dump.
+   */
+  private List<Page> parseSax(EnumWikipedia wiki, byte[] dump) throws Exception {
+    List<Page> pages = new ArrayList<>();
+    SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
+    DumpHandler dh = new DumpHandler();
+    dh.setPageProcessor(new ListProcessor(wiki, pages));
+    parser.parse(new InputSource(new InputStreamReader(new ByteArrayInputStream(dump), "UTF-8")), dh);
+    return pages;
+  }
+
+  /**
+   * Parse a dump with the byte scanner.
+   * 
+   * @param wiki Wiki.
+   * @param dump Dump.
+   * @return List of pages in the main name space.
+   * @throws Exception Error parsing the dump.
+   */
+  private List<Page> parseScanner(EnumWikipedia wiki, byte[] dump) throws Exception {
+    List<Page> pages = new ArrayList<>();
+    DumpScanner scanner = new DumpScanner(new ListProcessor(wiki, pages), null);
+    scanner.scan(new ByteArrayInputStream(dump));
+    return pages;
+  }
+
+  /**
+   * Page processor keeping pages of the main name space in a list.
+   */
+  private static class ListProcessor implements PageProcessor {
+
+    /** Wiki */
+    private final EnumWikipedia wiki;
+
+    /** List of pages */
+    private final List<Page> pages;
+
+    /**
+     * @param wiki Wiki.
+     * @param pages List of pages.
+     */
+    public ListProcessor(EnumWikipedia wiki, List<Page> pages) {
+      this.wiki = wiki;
+      this.pages = pages;
+    }
+
+    /**
+     * @return Wiki.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#getWiki()
+     */
+    @Override
+    public EnumWikipedia getWiki() {
+      return wiki;
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @return True for the main name space.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForNamespace(java.lang.Integer)
+     */
+    @Override
+    public boolean isForNamespace(Integer namespace) {
+      return Integer.valueOf(Namespace.MAIN).equals(namespace);
+    }
+
+    /**
+     * @param namespace Namespace.
+     * @param title Page title.
+     * @param redirect True if the page is a redirect.
+     * @return True for the main name space.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#isForPage(java.lang.Integer, java.lang.String, boolean)
+     */
+    @Override
+    public boolean isForPage(Integer namespace, String title, boolean redirect) {
+      return isForNamespace(namespace);
+    }
+
+    /**
+     * @param page Page.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
+     */
+    @Override
+    public void processPage(Page page) {
+      pages.add(page);
+    }
+  }
+}
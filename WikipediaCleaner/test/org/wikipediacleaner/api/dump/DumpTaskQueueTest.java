@@ -0,0 +1,74 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.dump;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.constants.EnumWikipediaUtils;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.Page;
+
+
+/**
+ * Test class for the queue of tasks analyzing pages from a dump.
+ */
+public class DumpTaskQueueTest {
+
+  /**
+   * Test that the number of pages and the size of their text stay within the limits.
+   *
+   * @throws Exception Error running tasks.
+   */
+  @Test
+  public void testLimits() throws Exception {
+    EnumWikipedia wiki = EnumWikipediaUtils.getEN();
+    final int maxPages = 5;
+    final int maxSize = 1000;
+    final int textSize = 300;
+    StringBuilder text = new StringBuilder();
+    for (int count = 0; count < textSize; count++) {
+      text.append('a');
+    }
+
+    DumpTaskQueue queue = new DumpTaskQueue(4, maxPages, maxSize);
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final AtomicInteger done = new AtomicInteger();
+    int pageCount = 50;
+    for (int pageId = 0; pageId < pageCount; pageId++) {
+      Page page = DataManager.getPage(wiki, "Page " + pageId, pageId, null, null);
+      page.setContents(text.toString());
+      queue.put(page, new Callable<Void>() {
+
+        @Override
+        public Void call() throws Exception {
+          int current = running.incrementAndGet();
+          maxRunning.accumulateAndGet(current, Math::max);
+          Thread.sleep(2);
+          running.decrementAndGet();
+          done.incrementAndGet();
+          return null;
+        }
+      });
+    }
+    queue.waitForCompletion();
+    queue.shutdown();
+
+    assertTrue(queue.hasFinished());
+    assertEquals("Number of tasks run", pageCount, done.get());
+    assertTrue(
+        "Too many pages at the same time (" + maxRunning.get() + ")",
+        maxRunning.get() <= maxSize / textSize);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2020  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
+import org.wikipediacleaner.gui.swing.bot.ListCWWorker.Detection;
+
+
+/**
+ * Test class for the store of detections.
+ */
+public class DetectionStoreTest {
+
+  /**
+   * Test that detections written to runs are read back in order.
+   */
+  @Test
+  public void testRuns() {
+    DetectionStore store = new DetectionStore("WPCleaner_Test_");
+    store.setRunSize(3);
+    List<Detection> expected = new ArrayList<>();
+    ErrorLevel[] levels = { ErrorLevel.ERROR, ErrorLevel.WARNING };
+    for (int index = 0; index < 20; index++) {
+      List<String> notices = new ArrayList<>();
+      notices.add("Notice\t" + index + "\n<ref>");
+      Detection detection = new Detection(
+          Integer.valueOf(index % 3), "Page " + (index * 7) % 20,
+          notices, levels[index % levels.length]);
+      store.add(detection);
+      expected.add(detection);
+    }
+    Collections.sort(expected);
+
+    // Read detections twice
+    for (int count = 0; count < 2; count++) {
+      List<Detection> result = new ArrayList<>();
+      try (DetectionStore.DetectionIterator itDetection = store.iterator()) {
+        while (itDetection.hasNext()) {
+          result.add(itDetection.next());
+        }
+      }
+      assertEquals("Number of detections", expected.size(), result.size());
+      for (int index = 0; index < expected.size(); index++) {
+        assertEquals(expected.get(index).pageName, result.get(index).pageName);
+        assertEquals(expected.get(index).namespace, result.get(index).namespace);
+        assertEquals(expected.get(index).maxLevel, result.get(index).maxLevel);
+        assertEquals(expected.get(index).notices, result.get(index).notices);
+      }
+    }
+
+    // Clear detections
+    store.clear();
+    assertEquals(0, store.size());
+    try (DetectionStore.DetectionIterator itDetection = store.iterator()) {
+      assertFalse(itDetection.hasNext());
+    }
+  }
+
+  /**
+   * Test that a page added several times is returned once with its worst error level.
+   *
+   * @throws InterruptedException Interrupted while waiting for the other thread.
+   */
+  @Test
+  public void testDuplicates() throws InterruptedException {
+    final DetectionStore store = new DetectionStore("WPCleaner_Test_");
+    store.setRunSize(1);
+    store.add(new Detection(Integer.valueOf(0), "Page A", new ArrayList<String>(), ErrorLevel.WARNING));
+    store.add(new Detection(Integer.valueOf(0), "Page B", new ArrayList<String>(), ErrorLevel.WARNING));
+    store.add(new Detection(Integer.valueOf(0), "Page A", new ArrayList<String>(), ErrorLevel.ERROR));
+    Thread thread = new Thread() {
+
+      @Override
+      public void run() {
+        store.add(new Detection(Integer.valueOf(0), "Page B", new ArrayList<String>(), ErrorLevel.ERROR));
+        store.add(new Detection(Integer.valueOf(0), "Page A", new ArrayList<String>(), ErrorLevel.CORRECT));
+      }
+    };
+    thread.start();
+    thread.join();
+
+    assertEquals(2, store.size());
+    List<Detection> result = new ArrayList<>();
+    try (DetectionStore.DetectionIterator itDetection = store.iterator()) {
+      while (itDetection.hasNext()) {
+        result.add(itDetection.next());
+      }
+    }
+    assertEquals("Number of detections", 2, result.size());
+    assertEquals("Page A", result.get(0).pageName);
+    assertEquals(ErrorLevel.ERROR, result.get(0).maxLevel);
+    assertEquals("Page B", result.get(1).pageName);
+    assertEquals(ErrorLevel.ERROR, result.get(1).maxLevel);
+    store.clear();
+  }
+}